@@ -2,20 +2,23 @@ package org.ekstep.dac.impl.entity.dao;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
-import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.Platform;
 import org.ekstep.dac.enums.AuditHistoryConstants;
 import org.ekstep.searchindex.dto.SearchDTO;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
 import org.ekstep.searchindex.processor.SearchProcessor;
 import org.ekstep.telemetry.logger.TelemetryManager;
+import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.springframework.stereotype.Component;
 
@@ -77,16 +80,26 @@ public class AuditHistoryEsDao {
 				AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE, settings, mappings);
 	}
 
+	@SuppressWarnings("unchecked")
 	public void addDocument(Map<String, Object> request) throws IOException {
-		String document = null;
 		TelemetryManager.log("Checking if document is empty : " + request);
 		if(!request.isEmpty()){
-			document = mapper.writeValueAsString(request);
-			TelemetryManager.log("converting request map tp string : " + document);
-		}
-		if(StringUtils.isNotBlank(document)){
-			ElasticSearchUtil.addDocument(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
-					AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE, document);
+			Map<String, Object> document = mapper.convertValue(request, Map.class);
+			Map<String, String> failures;
+			try {
+				failures = ElasticSearchUtil.getBulkWriter(AuditHistoryConstants.AUDIT_HISTORY_INDEX)
+						.writeAndWait(Collections.singletonList(new IndexRequest(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
+								AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE).source(document)));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while adding document to Audit History Index", e);
+			} catch (ExecutionException e) {
+				throw new IOException("Error while adding document to Audit History Index", e.getCause());
+			} catch (TimeoutException e) {
+				throw new IOException("Timed out while adding document to Audit History Index", e);
+			}
+			if (!failures.isEmpty())
+				throw new IOException("Error while adding document to Audit History Index: " + failures.values());
 			TelemetryManager.log("Adding document to Audit History Index : " + document);
 		}
 	}
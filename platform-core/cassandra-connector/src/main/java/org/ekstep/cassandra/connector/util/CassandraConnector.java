@@ -1,10 +1,14 @@
 package org.ekstep.cassandra.connector.util;
 
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.Host;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.QueryOptions;
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.ConnectionRegistry;
 import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ServerException;
+import org.ekstep.graph.cache.util.InMemoryCache;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
 import com.datastax.driver.core.Cluster;
@@ -12,15 +16,19 @@ import com.datastax.driver.core.Session;
 
 import java.net.InetSocketAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CassandraConnector {
 
-	/** Cassandra Session Map. */
-	private static Map<String,Session> sessionMap=new HashMap<>();
+	/** Cassandra Session Registry. */
+	private static ConnectionRegistry<Session> sessionRegistry = ConnectionRegistry.<Session>builder("cassandra")
+			.factory(CassandraConnector::prepareSession).closer(CassandraConnector::closeSession)
+			.healthCheck(CassandraConnector::isHealthy, 60).metrics(CassandraConnector::getMetrics).build();
 
-	static {
-		prepareSession("lp", getConsistencyLevel("lp"));
-	}
+	/** Prepared Statements cached per Session, keyed by query. */
+	private static Map<Session, InMemoryCache<PreparedStatement>> statementCache = new ConcurrentHashMap<>();
+	private static final long STATEMENT_CACHE_SIZE = Platform.config.hasPath("cassandra.prepared_statement.cache.size")
+			? Platform.config.getLong("cassandra.prepared_statement.cache.size") : 1000;
 
 	/**
 	 * Provide lp Session.
@@ -36,40 +44,82 @@ public class CassandraConnector {
 	 * @return
 	 */
 	public static Session getSession(String sessionKey) {
-		Session session = sessionMap.containsKey(sessionKey) ? sessionMap.get(sessionKey) : null;
-
-		if (null == session || session.isClosed()) {
-			ConsistencyLevel level = getConsistencyLevel(sessionKey);
-			prepareSession(sessionKey, level);
-			session = sessionMap.get(sessionKey);
+		Session session = null;
+		try {
+			session = sessionRegistry.get(sessionKey.toLowerCase());
+		} catch (Exception e) {
+			TelemetryManager.error("Error! While Loading Cassandra Properties." + e.getMessage(), e);
 		}
 		if (null == session)
 			throw new ServerException("ERR_INITIALISE_CASSANDRA_SESSION", "Error while initialising cassandra");
 		return session;
 	}
 
+	/**
+	 * Returns the prepared statement for the query, preparing it on the session
+	 * only the first time the query is seen.
+	 *
+	 * @param session
+	 * @param query
+	 * @return
+	 */
+	public static PreparedStatement prepare(Session session, String query) {
+		InMemoryCache<PreparedStatement> cache = statementCache.computeIfAbsent(session,
+				s -> InMemoryCache.<PreparedStatement>builder("prepared_statement").maxSize(STATEMENT_CACHE_SIZE).build());
+		return cache.get(query, session::prepare);
+	}
+
 	/**
 	 *
 	 * @param sessionKey
-	 * @param level
+	 * @return
 	 */
-	private static void prepareSession(String sessionKey, ConsistencyLevel level) {
-		List<String> connectionInfo = getConnectionInfo(sessionKey.toLowerCase());
+	private static Session prepareSession(String sessionKey) {
+		ConsistencyLevel level = getConsistencyLevel(sessionKey);
+		List<String> connectionInfo = getConnectionInfo(sessionKey);
 		List<InetSocketAddress> addressList = getSocketAddress(connectionInfo);
+		Cluster.Builder builder = Cluster.builder().addContactPointsWithPorts(addressList);
+		if (null != level)
+			builder.withQueryOptions(new QueryOptions().setConsistencyLevel(level));
+		Cluster cluster = builder.build();
 		try {
-			if (null != level) {
-				sessionMap.put(sessionKey.toLowerCase(), Cluster.builder().addContactPointsWithPorts(addressList).withQueryOptions(new QueryOptions().setConsistencyLevel(level)).build().connect());
-			} else {
-				sessionMap.put(sessionKey.toLowerCase(), Cluster.builder().addContactPointsWithPorts(addressList).build().connect());
-			}
-
-			registerShutdownHook();
+			return cluster.connect();
 		} catch (Exception e) {
-			e.printStackTrace();
-			TelemetryManager.error("Error! While Loading Cassandra Properties." + e.getMessage(), e);
+			cluster.close();
+			throw e;
 		}
 	}
 
+	/**
+	 * Closing the Cluster closes its Session and connection pools as well.
+	 *
+	 * @param session
+	 */
+	private static void closeSession(Session session) {
+		statementCache.remove(session);
+		session.getCluster().close();
+	}
+
+	private static boolean isHealthy(Session session) {
+		return !session.isClosed() && !session.getState().getConnectedHosts().isEmpty();
+	}
+
+	private static Map<String, Object> getMetrics(Session session) {
+		Session.State state = session.getState();
+		int open = 0, inFlight = 0, trashed = 0;
+		for (Host host : state.getConnectedHosts()) {
+			open += state.getOpenConnections(host);
+			inFlight += state.getInFlightQueries(host);
+			trashed += state.getTrashedConnections(host);
+		}
+		Map<String, Object> metrics = new HashMap<>();
+		metrics.put("connectedHosts", state.getConnectedHosts().size());
+		metrics.put("openConnections", open);
+		metrics.put("inFlightQueries", inFlight);
+		metrics.put("trashedConnections", trashed);
+		return metrics;
+	}
+
 	/**
 	 *
 	 * @param sessionKey
@@ -111,21 +161,14 @@ public class CassandraConnector {
 	 *
 	 */
     public static void close() {
-        sessionMap.entrySet().stream().forEach(stream -> stream.getValue().close());
+        TelemetryManager.log("Shutting down Cassandra connector session");
+        sessionRegistry.closeAll();
+        statementCache.clear();
     }
 
-	/**
-	 * Register JVM shutdown hook to close cassandra open session.
-	 */
-    private static void registerShutdownHook() {
-        Runtime.getRuntime().addShutdownHook(new Thread() {
-            @Override
-            public void run() {
-                TelemetryManager.log("Shutting down Cassandra connector session");
-                CassandraConnector.close();
-            }
-        });
-    }
+	public static Map<String, Object> getStats() {
+		return sessionRegistry.getStats();
+	}
 
 	/**
 	 * This Method Returns the value of Consistency Level for Multi Node/DC Cassandra Cluster.
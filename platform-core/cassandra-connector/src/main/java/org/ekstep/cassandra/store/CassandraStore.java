@@ -24,6 +24,9 @@ import org.ekstep.telemetry.util.LogAsyncGraphEvent;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 
@@ -42,6 +45,15 @@ public abstract class CassandraStore {
 	protected String nodeType = CassandraStoreParams.EXTERNAL.name();
 	private String DEFAULT_CHANNEL_ID = Platform.config.hasPath("channel.default")?
 			Platform.config.getString("channel.default"):"in.ekstep";
+	private static final int ASYNC_THREADS = Platform.config.hasPath("cassandra.async.threads")
+			? Platform.config.getInt("cassandra.async.threads")
+			: Runtime.getRuntime().availableProcessors();
+	// completes the async reads off the driver's I/O threads, as their stages may fetch pages or decode data.
+	private static final ExecutorService ASYNC_POOL = Executors.newFixedThreadPool(Math.max(1, ASYNC_THREADS), r -> {
+		Thread thread = new Thread(r, "cassandra-store-async");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	protected void initialise(String keyspace, String table, String objectType) {
 		initialise(keyspace, table, objectType, false);
@@ -182,7 +194,7 @@ public abstract class CassandraStore {
 						"Invalid Identifier to read");
 			}
 			String selectQuery = getSelectStatement(identifier, properties);
-			PreparedStatement statement = CassandraConnector.getSession().prepare(selectQuery);
+			PreparedStatement statement = CassandraConnector.prepare(CassandraConnector.getSession(), selectQuery);
 			BoundStatement boundStatement = new BoundStatement(statement);
 			ResultSet results = CassandraConnector.getSession().execute(boundStatement.bind(identifier));
 			return results.all();
@@ -211,7 +223,7 @@ public abstract class CassandraStore {
 			}
 			Session session = CassandraConnector.getSession();
 			String query = getPreparedStatementFrUpsert(request);
-			PreparedStatement statement = session.prepare(query);
+			PreparedStatement statement = CassandraConnector.prepare(session, query);
 			BoundStatement boundStatement = new BoundStatement(statement);
 			Object[] objects = getBindObjects(request);
 			session.execute(boundStatement.bind(objects));
@@ -222,6 +234,30 @@ public abstract class CassandraStore {
 		}
 	}
 
+	/**
+	 * Executes the statement without blocking the caller. The returned future is
+	 * completed on a thread of the store (<code>cassandra.async.threads</code>),
+	 * not on the driver's I/O thread, so dependent stages may block, e.g. to
+	 * fetch the remaining pages of the result set.
+	 *
+	 * @param session
+	 * @param statement
+	 * @return
+	 */
+	protected CompletableFuture<ResultSet> executeAsync(Session session, Statement statement) {
+		CompletableFuture<ResultSet> future = new CompletableFuture<>();
+		ResultSetFuture resultSetFuture = session.executeAsync(statement);
+		resultSetFuture.addListener(() -> {
+			try {
+				future.complete(resultSetFuture.getUninterruptibly());
+			} catch (Exception e) {
+				future.completeExceptionally(new ServerException(CassandraConnectorStoreParam.ERR_SERVER_ERROR.name(),
+						"Error while executing query: " + e.getMessage(), e));
+			}
+		}, ASYNC_POOL);
+		return future;
+	}
+
 	/**
 	 * @return the objectType
 	 */
@@ -332,7 +368,7 @@ public abstract class CassandraStore {
 	 */
 	private ResultSet executeQuery(String query, Object... objects) {
 		Session session = CassandraConnector.getSession();
-		PreparedStatement statement = session.prepare(query);
+		PreparedStatement statement = CassandraConnector.prepare(session, query);
 		BoundStatement boundStatement = new BoundStatement(statement);
 		return session.execute(boundStatement.bind(objects));
 	}
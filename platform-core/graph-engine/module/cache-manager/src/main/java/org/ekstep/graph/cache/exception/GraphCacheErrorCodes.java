@@ -68,6 +68,10 @@ public enum GraphCacheErrorCodes {
     
     ERR_CACHE_GET_PROPERTY_ERROR,
 
-    ERR_CACHE_DELETE_PROPERTY_ERROR
+    ERR_CACHE_DELETE_PROPERTY_ERROR,
+
+    ERR_CACHE_PUBLISH_ERROR,
+
+    ERR_CACHE_PIPELINE_ERROR
 
 }
\ No newline at end of file
@@ -1,12 +1,14 @@
 package org.ekstep.graph.cache.mgr.impl;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.exception.ClientException;
 import org.ekstep.graph.cache.exception.GraphCacheErrorCodes;
 import org.ekstep.graph.cache.util.CacheKeyGenerator;
+import org.ekstep.graph.cache.util.InMemoryCache;
 import org.ekstep.graph.cache.util.RedisKeysEnum;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
@@ -18,27 +20,41 @@ import org.ekstep.telemetry.logger.TelemetryManager;
 
 public class NodeCacheManager {
 
-	private static Map<String, Object> definitionNodeCache = new HashMap<>();
-	private static Map<String, Object> dataNodeCache = new HashMap<>();
+	// definitions are few and hot, so they are only bounded by count.
+	private static InMemoryCache<Object> definitionNodeCache = InMemoryCache.builder("definition_node")
+			.maxSize(1000).build();
+	// data nodes are bounded by approximate weight (number of properties) and expire.
+	private static InMemoryCache<Object> dataNodeCache = InMemoryCache.builder("data_node")
+			.maxWeight(1000000, NodeCacheManager::getWeight).ttl(3600).build();
 
 	public static void saveDefinitionNode(String graphId, String objectType, Object node) {
 		validateRequired(graphId, objectType, node, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
 		definitionNodeCache.put(key, node);
-		TelemetryManager.log("Saved definition node into cache having objectType: " + objectType + " into graph: "+ graphId);
+		TelemetryManager.log(() -> "Saved definition node into cache having objectType: " + objectType + " into graph: "+ graphId);
 	}
 
 	public static Object getDefinitionNode(String graphId, String objectType) {
 		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
-		TelemetryManager.log("Fetching definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Fetching definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
 		return definitionNodeCache.get(key);
 	}
 	
+	/**
+	 * Returns the cached definition node, loading it with the given loader on a
+	 * miss. Concurrent misses for the same definition wait for a single load.
+	 */
+	public static Object getDefinitionNode(String graphId, String objectType, Supplier<Object> loader) {
+		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
+		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
+		return definitionNodeCache.get(key, k -> loader.get());
+	}
+
 	public static Object deleteDefinitionNode(String graphId, String objectType) {
 		validateRequired(graphId, objectType, GraphCacheErrorCodes.ERR_CACHE_GET_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
-		TelemetryManager.log("Deleting definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Deleting definition node from cache having objectType: " + objectType + " in graph: "+ graphId);
 		return definitionNodeCache.remove(key);
 	}
 
@@ -46,23 +62,42 @@ public class NodeCacheManager {
 		validateRequired(graphId, id, node, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
 		dataNodeCache.put(key, node);
-		TelemetryManager.log("Saved data node into cache having identifier: " + id + " into graph: "+ graphId);
+		TelemetryManager.log(() -> "Saved data node into cache having identifier: " + id + " into graph: "+ graphId);
 	}
 
 	public static Object getDataNode(String graphId, String id) {
 		validateRequired(graphId, id, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
-		TelemetryManager.log("Fetching data node from cache having identifier: " + id + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Fetching data node from cache having identifier: " + id + " in graph: "+ graphId);
 		return dataNodeCache.get(key);
 	}
 	
 	public static Object deleteDataNode(String graphId, String id) {
 		validateRequired(graphId, id, GraphCacheErrorCodes.ERR_CACHE_SAVE_DEF_NODE_ERROR.name());
 		String key = CacheKeyGenerator.getKey(graphId, id, RedisKeysEnum.DATA_NODE.name());
-		TelemetryManager.log("Deleting data node from cache having identifier: " + id + " in graph: "+ graphId);
+		TelemetryManager.log(() -> "Deleting data node from cache having identifier: " + id + " in graph: "+ graphId);
 		return dataNodeCache.remove(key);
 	}
 
+	/**
+	 * Logs the stats of the node caches now; they are also logged every
+	 * <code>cache.stats_log_interval</code> seconds by {@link InMemoryCache}.
+	 */
+	public static void logStats() {
+		definitionNodeCache.logStats();
+		dataNodeCache.logStats();
+	}
+
+	private static int getWeight(Object node) {
+		if (node instanceof Map)
+			return ((Map<?, ?>) node).size() + 1;
+		if (node instanceof Collection)
+			return ((Collection<?>) node).size() + 1;
+		if (node instanceof CharSequence)
+			return ((CharSequence) node).length() / 64 + 1;
+		return 1;
+	}
+
 	private static void validateRequired(String graphId, String id, Object members, String errCode) {
 		validateRequired(graphId, id, errCode);
 		if (null == members)
@@ -0,0 +1,198 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.ekstep.common.Platform;
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded, thread safe in-process cache used by the graph layer in place of
+ * plain static maps. Entries are evicted by size (or weight) using a
+ * W-TinyLFU policy and expire after the configured ttl.
+ *
+ * Bounds are read from configuration using the cache name, e.g.
+ * <code>cache.data_node.max_size</code>, <code>cache.data_node.max_weight</code>
+ * and <code>cache.data_node.ttl</code> (in seconds).
+ *
+ * The stats of every cache are logged every
+ * <code>cache.stats_log_interval</code> seconds (default 300, non positive
+ * value disables the logging).
+ */
+public class InMemoryCache<V> {
+
+	private static final String CONFIG_PREFIX = "cache.";
+	private static final String STATS_LOG_INTERVAL = CONFIG_PREFIX + "stats_log_interval";
+
+	// caches whose stats are logged, held weakly so that dropped caches are not kept.
+	private static Set<InMemoryCache<?>> caches = Collections
+			.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<InMemoryCache<?>, Boolean>()));
+	private static AtomicBoolean statsLogStarted = new AtomicBoolean();
+
+	private String name;
+	private Cache<String, V> cache;
+
+	private InMemoryCache(String name, Cache<String, V> cache) {
+		this.name = name;
+		this.cache = cache;
+	}
+
+	public static <V> Builder<V> builder(String name) {
+		return new Builder<V>(name);
+	}
+
+	public V get(String key) {
+		return cache.getIfPresent(key);
+	}
+
+	public V get(String key, Function<String, V> loader) {
+		return cache.get(key, loader);
+	}
+
+	public void put(String key, V value) {
+		cache.put(key, value);
+	}
+
+	public V remove(String key) {
+		return cache.asMap().remove(key);
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Map<String, Object> getStats() {
+		CacheStats stats = cache.stats();
+		Map<String, Object> map = new HashMap<>();
+		map.put("name", name);
+		map.put("size", cache.estimatedSize());
+		map.put("hitCount", stats.hitCount());
+		map.put("missCount", stats.missCount());
+		map.put("hitRate", stats.hitRate());
+		map.put("evictionCount", stats.evictionCount());
+		map.put("evictionWeight", stats.evictionWeight());
+		return map;
+	}
+
+	public void logStats() {
+		TelemetryManager.info("In-memory cache stats for: " + name, getStats());
+	}
+
+	private static void register(InMemoryCache<?> cache) {
+		long interval = Platform.config.hasPath(STATS_LOG_INTERVAL) ? Platform.config.getLong(STATS_LOG_INTERVAL)
+				: 300;
+		if (interval <= 0)
+			return;
+		caches.add(cache);
+		if (statsLogStarted.compareAndSet(false, true)) {
+			ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "in-memory-cache-stats");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(InMemoryCache::logAllStats, interval, interval, TimeUnit.SECONDS);
+		}
+	}
+
+	private static void logAllStats() {
+		List<InMemoryCache<?>> snapshot;
+		synchronized (caches) {
+			snapshot = new ArrayList<>(caches);
+		}
+		for (InMemoryCache<?> cache : snapshot) {
+			try {
+				cache.logStats();
+			} catch (Exception e) {
+				TelemetryManager.error("Error logging stats of in-memory cache: " + cache.getName(), e);
+			}
+		}
+	}
+
+	public static class Builder<V> {
+		private String name;
+		private long maxSize = -1;
+		private long maxWeight = -1;
+		private long ttl = -1;
+		private ToIntFunction<V> weigher;
+
+		private Builder(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Default maximum number of entries, overridden by
+		 * <code>cache.&lt;name&gt;.max_size</code>. A non positive value leaves
+		 * the cache unbounded by count; it does not disable the cache.
+		 */
+		public Builder<V> maxSize(long maxSize) {
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		/**
+		 * Default maximum total weight, overridden by
+		 * <code>cache.&lt;name&gt;.max_weight</code>. Takes precedence over max
+		 * size when a weigher is given.
+		 */
+		public Builder<V> maxWeight(long maxWeight, ToIntFunction<V> weigher) {
+			this.maxWeight = maxWeight;
+			this.weigher = weigher;
+			return this;
+		}
+
+		/**
+		 * Default time to live in seconds, overridden by
+		 * <code>cache.&lt;name&gt;.ttl</code>. Non positive value disables expiry.
+		 */
+		public Builder<V> ttl(long ttl) {
+			this.ttl = ttl;
+			return this;
+		}
+
+		public InMemoryCache<V> build() {
+			String prefix = CONFIG_PREFIX + name + ".";
+			if (Platform.config.hasPath(prefix + "max_size"))
+				maxSize = Platform.config.getLong(prefix + "max_size");
+			if (Platform.config.hasPath(prefix + "max_weight"))
+				maxWeight = Platform.config.getLong(prefix + "max_weight");
+			if (Platform.config.hasPath(prefix + "ttl"))
+				ttl = Platform.config.getLong(prefix + "ttl");
+
+			Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+			if (null != weigher && maxWeight > 0) {
+				ToIntFunction<V> valueWeigher = weigher;
+				caffeine.maximumWeight(maxWeight).weigher((String k, V v) -> Math.max(1, valueWeigher.applyAsInt(v)));
+			} else if (maxSize > 0) {
+				caffeine.maximumSize(maxSize);
+			}
+			if (ttl > 0)
+				caffeine.expireAfterWrite(ttl, TimeUnit.SECONDS);
+			InMemoryCache<V> cache = new InMemoryCache<V>(name, caffeine.build());
+			register(cache);
+			return cache;
+		}
+	}
+}
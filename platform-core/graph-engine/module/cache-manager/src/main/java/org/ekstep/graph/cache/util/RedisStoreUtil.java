@@ -2,18 +2,28 @@ package org.ekstep.graph.cache.util;
 
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ServerException;
 import org.ekstep.graph.cache.exception.GraphCacheErrorCodes;
 import org.ekstep.graph.dac.enums.GraphDACParams;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.Transaction;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static org.ekstep.graph.cache.factory.JedisFactory.getRedisConncetion;
 import static org.ekstep.graph.cache.factory.JedisFactory.returnConnection;
@@ -21,6 +31,13 @@ import static org.ekstep.graph.cache.factory.JedisFactory.returnConnection;
 public class RedisStoreUtil {
 
 	private static ObjectMapper mapper = new ObjectMapper();
+	private static final int SCAN_COUNT = Platform.config.hasPath("redis.scan.count")
+			? Platform.config.getInt("redis.scan.count") : 1000;
+	private static ExecutorService evictionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "redis-eviction");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	public static void saveNodeProperty(String graphId, String objectId, String nodeProperty, String propValue) {
 
@@ -78,23 +95,41 @@ public class RedisStoreUtil {
 	}
 
 	public static void saveNodeProperties(String graphId, String objectId, Map<String, Object> metadata) {
-		Jedis jedis = getRedisConncetion();
 		try {
+			Map<String, String> data = new HashMap<>();
 			for (Entry<String, Object> entry : metadata.entrySet()) {
-				String propertyName = entry.getKey();
-				String propertyValue = entry.getValue().toString();
-
-				String redisKey = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, propertyName);
-				jedis.set(redisKey, propertyValue);
+				String redisKey = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, entry.getKey());
+				data.put(redisKey, entry.getValue().toString());
 			}
-
+			multiSet(data, 0);
+		} catch (ServerException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
-		} finally {
-			returnConnection(jedis);
 		}
 	}
 
+	/**
+	 * This method returns the given properties of the node in a single round trip.
+	 * Properties not found in cache are not part of the returned map.
+	 * @param graphId
+	 * @param objectId
+	 * @param nodeProperties
+	 * @return
+	 */
+	public static Map<String, String> getNodeProperties(String graphId, String objectId, String... nodeProperties) {
+		String[] keys = new String[nodeProperties.length];
+		for (int i = 0; i < nodeProperties.length; i++)
+			keys[i] = CacheKeyGenerator.getNodePropertyKey(graphId, objectId, nodeProperties[i]);
+		List<String> values = multiGet(keys);
+		Map<String, String> properties = new HashMap<>();
+		for (int i = 0; i < nodeProperties.length; i++) {
+			if (null != values.get(i))
+				properties.put(nodeProperties[i], values.get(i));
+		}
+		return properties;
+	}
+
 	public static void deleteNodeProperties(String graphId, String objectId) {
 		Jedis jedis = getRedisConncetion();
 		try {
@@ -136,16 +171,15 @@ public class RedisStoreUtil {
 	
 	// TODO: always considering object as string. need to change this.
 	public static void saveList(String key, List<Object> values) {
-		Jedis jedis = getRedisConncetion();
 		try {
-			jedis.del(key);
-			for (Object val : values) {
-				jedis.sadd(key, (String) val);
-			}
+			String[] members = values.stream().map(val -> (String) val).toArray(String[]::new);
+			executeTransaction(transaction -> {
+				transaction.del(key);
+				if (members.length > 0)
+					transaction.sadd(key, members);
+			});
 		} catch (Exception e) {
 			e.printStackTrace();
-		} finally {
-			returnConnection(jedis);
 		}
 	}
 	
@@ -195,14 +229,116 @@ public class RedisStoreUtil {
 	}
 
 	public static void deleteByPattern(String pattern) {
-		if(StringUtils.isNotBlank(pattern) && !StringUtils.equalsIgnoreCase(pattern, "*")){
+		deleteByPattern(pattern, SCAN_COUNT, null);
+	}
+
+	/**
+	 * This method deletes all the keys matching the pattern without blocking the
+	 * redis server. Keys are iterated with SCAN cursors, a page of
+	 * <code>pageSize</code> keys at a time, and each page is deleted with a
+	 * single DEL.
+	 * @param pattern
+	 * @param pageSize
+	 * @param progress receives the number of keys deleted so far after each page, can be null.
+	 * @return the number of keys deleted
+	 */
+	public static long deleteByPattern(String pattern, int pageSize, Consumer<Long> progress) {
+		if (StringUtils.isBlank(pattern) || StringUtils.equalsIgnoreCase(pattern, "*"))
+			return 0;
+		Jedis jedis = getRedisConncetion();
+		try {
+			ScanParams params = new ScanParams().match(pattern).count(pageSize);
+			String cursor = ScanParams.SCAN_POINTER_START;
+			long deleted = 0;
+			do {
+				ScanResult<String> result = jedis.scan(cursor, params);
+				List<String> keys = result.getResult();
+				if (null != keys && !keys.isEmpty()) {
+					deleted += jedis.del(keys.toArray(new String[keys.size()]));
+					if (null != progress)
+						progress.accept(deleted);
+				}
+				cursor = result.getStringCursor();
+			} while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+			TelemetryManager.log("Deleted " + deleted + " keys from cache matching pattern: " + pattern);
+			return deleted;
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_DELETE_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * This method runs {@link #deleteByPattern(String, int, Consumer)} in the
+	 * background and completes the returned future with the number of keys deleted.
+	 * @param pattern
+	 * @param progress
+	 * @return
+	 */
+	public static CompletableFuture<Long> deleteByPatternAsync(String pattern, Consumer<Long> progress) {
+		return CompletableFuture.supplyAsync(() -> deleteByPattern(pattern, SCAN_COUNT, progress), evictionExecutor);
+	}
+
+	/**
+	 * This method publishes the message to all the subscribers of the channel.
+	 * @param channel
+	 * @param message
+	 */
+	public static void publish(String channel, String message) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			jedis.publish(channel, message);
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_PUBLISH_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * This method returns the values of all the keys in a single MGET. The value
+	 * is null for the keys not found in cache.
+	 * @param keys
+	 * @return
+	 */
+	public static List<String> multiGet(String... keys) {
+		if (null == keys || keys.length == 0)
+			return new ArrayList<>();
+		Jedis jedis = getRedisConncetion();
+		try {
+			return jedis.mget(keys);
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_GET_PROPERTY_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * This method saves all the key-value pairs in a single round trip. Uses MSET
+	 * when there is no ttl, otherwise pipelines SETEX for each key.
+	 * @param data
+	 * @param ttl
+	 */
+	public static void multiSet(Map<String, String> data, int ttl) {
+		if (null == data || data.isEmpty())
+			return;
+		if (ttl > 0) {
+			executePipelined(pipeline -> {
+				for (Entry<String, String> entry : data.entrySet())
+					pipeline.setex(entry.getKey(), ttl, entry.getValue());
+			});
+		} else {
+			String[] keysValues = new String[data.size() * 2];
+			int index = 0;
+			for (Entry<String, String> entry : data.entrySet()) {
+				keysValues[index++] = entry.getKey();
+				keysValues[index++] = entry.getValue();
+			}
 			Jedis jedis = getRedisConncetion();
 			try {
-				Set<String> keys = jedis.keys(pattern);
-				if (keys != null && keys.size() > 0) {
-					List<String> keyList = new ArrayList<>(keys);
-					jedis.del(keyList.toArray(new String[keyList.size()]));
-				}
+				jedis.mset(keysValues);
 			} catch (Exception e) {
 				throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_SAVE_PROPERTY_ERROR.name(), e.getMessage());
 			} finally {
@@ -211,4 +347,42 @@ public class RedisStoreUtil {
 		}
 	}
 
+	/**
+	 * This method sends all the commands queued by the given block in a single
+	 * pipeline and returns their responses in order.
+	 * @param block
+	 * @return
+	 */
+	public static List<Object> executePipelined(Consumer<Pipeline> block) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			Pipeline pipeline = jedis.pipelined();
+			block.accept(pipeline);
+			return pipeline.syncAndReturnAll();
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_PIPELINE_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
+	/**
+	 * This method executes all the commands queued by the given block atomically
+	 * (MULTI/EXEC) and returns their responses in order.
+	 * @param block
+	 * @return
+	 */
+	public static List<Object> executeTransaction(Consumer<Transaction> block) {
+		Jedis jedis = getRedisConncetion();
+		try {
+			Transaction transaction = jedis.multi();
+			block.accept(transaction);
+			return transaction.exec();
+		} catch (Exception e) {
+			throw new ServerException(GraphCacheErrorCodes.ERR_CACHE_PIPELINE_ERROR.name(), e.getMessage());
+		} finally {
+			returnConnection(jedis);
+		}
+	}
+
 }
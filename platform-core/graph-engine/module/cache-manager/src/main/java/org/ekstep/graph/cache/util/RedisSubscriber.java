@@ -0,0 +1,106 @@
+package org.ekstep.graph.cache.util;
+
+import static org.ekstep.graph.cache.factory.JedisFactory.getRedisConncetion;
+import static org.ekstep.graph.cache.factory.JedisFactory.returnConnection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.ekstep.telemetry.logger.TelemetryManager;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Listens to a Redis pub/sub channel on a daemon thread and hands over every
+ * message to the registered handler. The subscription is re-established if the
+ * connection to Redis is lost.
+ */
+public class RedisSubscriber {
+
+	private static final long RETRY_INTERVAL = 5000;
+	private static Map<String, RedisSubscriber> subscribers = new ConcurrentHashMap<>();
+
+	private String channel;
+	private Consumer<String> handler;
+	private volatile JedisPubSub pubSub;
+	private volatile boolean running = true;
+
+	private RedisSubscriber(String channel, Consumer<String> handler) {
+		this.channel = channel;
+		this.handler = handler;
+	}
+
+	/**
+	 * Subscribes the handler to the channel. Only the first handler registered
+	 * for a channel is subscribed.
+	 */
+	public static RedisSubscriber subscribe(String channel, Consumer<String> handler) {
+		return subscribers.computeIfAbsent(channel, c -> {
+			RedisSubscriber subscriber = new RedisSubscriber(c, handler);
+			Thread thread = new Thread(subscriber::listen, "redis-subscriber-" + c);
+			thread.setDaemon(true);
+			thread.start();
+			return subscriber;
+		});
+	}
+
+	public static void unsubscribe(String channel) {
+		RedisSubscriber subscriber = subscribers.remove(channel);
+		if (null != subscriber)
+			subscriber.stop();
+	}
+
+	public boolean isSubscribed() {
+		JedisPubSub current = pubSub;
+		return null != current && current.isSubscribed();
+	}
+
+	private void stop() {
+		running = false;
+		JedisPubSub current = pubSub;
+		if (null != current && current.isSubscribed())
+			current.unsubscribe();
+	}
+
+	private void listen() {
+		while (running) {
+			Jedis jedis = null;
+			try {
+				jedis = getRedisConncetion();
+				pubSub = new JedisPubSub() {
+					@Override
+					public void onMessage(String channel, String message) {
+						try {
+							handler.accept(message);
+						} catch (Exception e) {
+							TelemetryManager.error("Error while handling message: " + message + " from channel: " + channel, e);
+						}
+					}
+				};
+				jedis.subscribe(pubSub, channel);
+			} catch (Exception e) {
+				TelemetryManager.error("Subscription to redis channel: " + channel + " failed, retrying.", e);
+				sleep();
+			} finally {
+				if (null != jedis) {
+					try {
+						returnConnection(jedis);
+					} catch (Exception e) {
+						TelemetryManager.error("Error while returning subscriber connection for channel: " + channel, e);
+					}
+				}
+			}
+		}
+	}
+
+	private void sleep() {
+		try {
+			Thread.sleep(RETRY_INTERVAL);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package org.ekstep.graph.cache.util;
+
+import org.ekstep.common.Platform;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Starts an embedded redis server on the configured port for the tests, unless
+ * one is already running.
+ */
+public abstract class BaseRedisTest {
+
+	private static RedisServer redisServer;
+
+	@BeforeClass
+	public static void startRedis() throws Exception {
+		redisServer = new RedisServer(Platform.config.getInt("redis.port"));
+		try {
+			redisServer.start();
+		} catch (Exception e) {
+			// a redis server is already running on the configured port.
+			redisServer = null;
+		}
+	}
+
+	@AfterClass
+	public static void stopRedis() throws Exception {
+		if (null != redisServer)
+			redisServer.stop();
+	}
+}
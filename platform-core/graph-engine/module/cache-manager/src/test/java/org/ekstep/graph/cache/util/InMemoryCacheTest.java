@@ -0,0 +1,58 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InMemoryCacheTest {
+
+	@Test
+	public void testPutGetAndRemove() {
+		InMemoryCache<String> cache = InMemoryCache.<String>builder("test_basic").maxSize(10).build();
+		cache.put("key_1", "value_1");
+		Assert.assertEquals("value_1", cache.get("key_1"));
+		Assert.assertEquals("value_1", cache.remove("key_1"));
+		Assert.assertNull(cache.get("key_1"));
+	}
+
+	@Test
+	public void testLoaderIsUsedOnMiss() {
+		InMemoryCache<String> cache = InMemoryCache.<String>builder("test_loader").maxSize(10).build();
+		Assert.assertEquals("loaded_key_1", cache.get("key_1", k -> "loaded_" + k));
+		Assert.assertEquals("loaded_key_1", cache.get("key_1"));
+	}
+
+	@Test
+	public void testStatsAreRecorded() {
+		InMemoryCache<String> cache = InMemoryCache.<String>builder("test_stats").maxSize(10).build();
+		cache.put("key_1", "value_1");
+		cache.get("key_1");
+		cache.get("key_2");
+		Map<String, Object> stats = cache.getStats();
+		Assert.assertEquals(1L, stats.get("hitCount"));
+		Assert.assertEquals(1L, stats.get("missCount"));
+	}
+
+	@Test
+	public void testSizeIsBounded() throws Exception {
+		InMemoryCache<String> cache = InMemoryCache.<String>builder("test_bounded").maxSize(10).build();
+		for (int i = 0; i < 1000; i++)
+			cache.put("key_" + i, "value_" + i);
+		// eviction is asynchronous, trigger maintenance with reads.
+		for (int i = 0; i < 1000 && cache.size() > 10; i++) {
+			cache.get("key_" + i);
+			Thread.sleep(1);
+		}
+		Assert.assertTrue(cache.size() <= 10);
+	}
+
+	@Test
+	public void testNonPositiveMaxSizeIsUnbounded() {
+		InMemoryCache<String> cache = InMemoryCache.<String>builder("test_unbounded").maxSize(0).build();
+		for (int i = 0; i < 1000; i++)
+			cache.put("key_" + i, "value_" + i);
+		Assert.assertEquals(1000, cache.size());
+		Assert.assertEquals("value_0", cache.get("key_0"));
+	}
+}
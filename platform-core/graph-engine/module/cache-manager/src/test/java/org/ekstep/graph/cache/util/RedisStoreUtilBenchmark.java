@@ -0,0 +1,71 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ekstep.common.Platform;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Compares saving node properties one key at a time with the pipelined
+ * {@link RedisStoreUtil#saveNodeProperties(String, String, Map)} against an
+ * embedded redis server. Kept out of the unit tests, as timings are not
+ * reliable enough to assert on; run it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.ekstep.graph.cache.util.RedisStoreUtilBenchmark}.
+ *
+ * Arguments (optional): number of properties per node, number of iterations.
+ */
+public class RedisStoreUtilBenchmark {
+
+	private static final int WARMUP_ITERATIONS = 20;
+
+	public static void main(String[] args) throws Exception {
+		int properties = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+		RedisServer redisServer = new RedisServer(Platform.config.getInt("redis.port"));
+		try {
+			redisServer.start();
+		} catch (Exception e) {
+			// a redis server is already running on the configured port.
+			redisServer = null;
+		}
+		try {
+			Map<String, Object> metadata = new HashMap<>();
+			for (int i = 0; i < properties; i++)
+				metadata.put("property_" + i, "value_" + i);
+
+			run(metadata, WARMUP_ITERATIONS);
+			long[] timings = run(metadata, iterations);
+			System.out.println("Saved " + properties + " properties " + iterations + " times, per key: "
+					+ timings[0] / iterations / 1000 + "us/node, batched: " + timings[1] / iterations / 1000
+					+ "us/node");
+		} finally {
+			RedisStoreUtil.deleteNodeProperties("domain", "benchmark_node_1");
+			RedisStoreUtil.deleteNodeProperties("domain", "benchmark_node_2");
+			if (null != redisServer)
+				redisServer.stop();
+		}
+		// the connection pool threads are not daemons.
+		System.exit(0);
+	}
+
+	private static long[] run(Map<String, Object> metadata, int iterations) {
+		long perKey = 0;
+		long batched = 0;
+		for (int i = 0; i < iterations; i++) {
+			long start = System.nanoTime();
+			for (Map.Entry<String, Object> entry : metadata.entrySet())
+				RedisStoreUtil.saveNodeProperty("domain", "benchmark_node_1", entry.getKey(),
+						(String) entry.getValue());
+			perKey += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			RedisStoreUtil.saveNodeProperties("domain", "benchmark_node_2", metadata);
+			batched += System.nanoTime() - start;
+		}
+		return new long[] { perKey, batched };
+	}
+}
@@ -0,0 +1,100 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RedisStoreUtilTest extends BaseRedisTest {
+
+	@Test
+	public void testMultiSetAndMultiGet() {
+		Map<String, String> data = new HashMap<>();
+		data.put("test_mkey_1", "value_1");
+		data.put("test_mkey_2", "value_2");
+		RedisStoreUtil.multiSet(data, 0);
+		List<String> values = RedisStoreUtil.multiGet("test_mkey_1", "test_mkey_2", "test_mkey_3");
+		Assert.assertEquals(Arrays.asList("value_1", "value_2", null), values);
+	}
+
+	@Test
+	public void testMultiSetWithTTL() {
+		Map<String, String> data = new HashMap<>();
+		data.put("test_ttl_key_1", "value_1");
+		RedisStoreUtil.multiSet(data, 100);
+		Assert.assertEquals("value_1", RedisStoreUtil.get("test_ttl_key_1"));
+		List<Object> ttl = RedisStoreUtil.executePipelined(pipeline -> pipeline.ttl("test_ttl_key_1"));
+		Assert.assertTrue((Long) ttl.get(0) > 0);
+	}
+
+	@Test
+	public void testSaveAndGetNodeProperties() {
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put("versionKey", "1234");
+		metadata.put("status", "Draft");
+		RedisStoreUtil.saveNodeProperties("domain", "test_node_1", metadata);
+		Map<String, String> properties = RedisStoreUtil.getNodeProperties("domain", "test_node_1", "versionKey",
+				"status", "consumerId");
+		Assert.assertEquals(2, properties.size());
+		Assert.assertEquals("1234", properties.get("versionKey"));
+		Assert.assertEquals("Draft", RedisStoreUtil.getNodeProperty("domain", "test_node_1", "status"));
+	}
+
+	@Test
+	public void testSaveListReplacesMembers() {
+		RedisStoreUtil.saveList("test_list_key", new ArrayList<>(Arrays.asList("a", "b", "c")));
+		RedisStoreUtil.saveList("test_list_key", new ArrayList<>(Arrays.asList("d", "e")));
+		Assert.assertEquals(new HashSet<>(Arrays.asList("d", "e")),
+				new HashSet<>(RedisStoreUtil.getList("test_list_key")));
+		RedisStoreUtil.saveList("test_list_key", new ArrayList<>());
+		Assert.assertTrue(RedisStoreUtil.getList("test_list_key").isEmpty());
+	}
+
+	@Test
+	public void testBatchedSaveStoresAllProperties() {
+		Map<String, Object> metadata = new HashMap<>();
+		for (int i = 0; i < 500; i++)
+			metadata.put("property_" + i, "value_" + i);
+		RedisStoreUtil.saveNodeProperties("domain", "test_node_3", metadata);
+		Map<String, String> saved = RedisStoreUtil.getNodeProperties("domain", "test_node_3",
+				metadata.keySet().toArray(new String[0]));
+		Assert.assertEquals(500, saved.size());
+		Assert.assertEquals("value_499", saved.get("property_499"));
+	}
+
+	@Test
+	public void testDeleteByPattern() {
+		Map<String, String> data = new HashMap<>();
+		for (int i = 0; i < 250; i++)
+			data.put("test_pattern:" + i, "value_" + i);
+		data.put("test_other_key", "value");
+		RedisStoreUtil.multiSet(data, 0);
+		List<Long> progress = new ArrayList<>();
+		long deleted = RedisStoreUtil.deleteByPattern("test_pattern:*", 50, progress::add);
+		Assert.assertEquals(250, deleted);
+		Assert.assertFalse(progress.isEmpty());
+		Assert.assertNull(RedisStoreUtil.get("test_pattern:10"));
+		Assert.assertEquals("value", RedisStoreUtil.get("test_other_key"));
+	}
+
+	@Test
+	public void testDeleteByPatternAsync() throws Exception {
+		Map<String, String> data = new HashMap<>();
+		for (int i = 0; i < 100; i++)
+			data.put("test_async_pattern:" + i, "value_" + i);
+		RedisStoreUtil.multiSet(data, 0);
+		long deleted = RedisStoreUtil.deleteByPatternAsync("test_async_pattern:*", null).get(10, TimeUnit.SECONDS);
+		Assert.assertEquals(100, deleted);
+	}
+
+	@Test
+	public void testDeleteByPatternIgnoresWildcard() {
+		Assert.assertEquals(0, RedisStoreUtil.deleteByPattern("*", 50, null));
+	}
+}
@@ -0,0 +1,32 @@
+package org.ekstep.graph.cache.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RedisSubscriberTest extends BaseRedisTest {
+
+	@AfterClass
+	public static void after() throws Exception {
+		RedisSubscriber.unsubscribe("test_channel");
+	}
+
+	@Test
+	public void testPublishIsDeliveredToSubscriber() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicReference<String> received = new AtomicReference<>();
+		RedisSubscriber subscriber = RedisSubscriber.subscribe("test_channel", message -> {
+			received.set(message);
+			latch.countDown();
+		});
+		for (int i = 0; i < 100 && !subscriber.isSubscribed(); i++)
+			Thread.sleep(50);
+		RedisStoreUtil.publish("test_channel", "domain:Content");
+		Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Assert.assertEquals("domain:Content", received.get());
+	}
+}
@@ -1,12 +1,13 @@
 package org.ekstep.graph.common;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
@@ -19,6 +20,7 @@ import org.ekstep.common.exception.ResponseCode;
 import org.ekstep.common.exception.ServerException;
 import org.ekstep.graph.common.enums.GraphHeaderParams;
 import org.ekstep.graph.common.exception.GraphEngineErrorCodes;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
 
 import akka.actor.ActorRef;
 import akka.actor.UntypedActor;
@@ -31,9 +33,8 @@ public abstract class BaseRequestRouter extends UntypedActor {
 
     protected long timeout = Platform.config.hasPath("akka.request_timeout") ? (Platform.config.getLong("akka.request_timeout") * 1000): 30000;
 
-    private static final Logger perfLogger = LogManager.getLogger("PerformanceTestLogger");
-
-    
+    private static final MethodType OPERATION_TYPE = MethodType.methodType(void.class, BaseGraphManager.class,
+            Request.class);
 
     protected abstract void initActorPool();
 
@@ -56,9 +57,7 @@ public abstract class BaseRequestRouter extends UntypedActor {
             Request request = (Request) message;
             long startTime = System.currentTimeMillis();
             request.getContext().put(GraphHeaderParams.start_time.name(), startTime);
-            perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-                    + request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-                    + request.getOperation() + ",STARTTIME," + startTime);
+            RequestPerfLogger.start(request, startTime);
             ActorRef parent = getSender();
             try {
                 ActorRef actorRef = getActorFromPool(request);
@@ -79,17 +78,11 @@ public abstract class BaseRequestRouter extends UntypedActor {
             @Override
             public void onSuccess(Object arg0) throws Throwable {
                 parent.tell(arg0, getSelf());
-                long endTime = System.currentTimeMillis();
-                long exeTime = endTime - (Long) request.getContext().get(GraphHeaderParams.start_time.name());
                 Response res = (Response) arg0;
                 ResponseParams params = res.getParams();
 //                PlatformLogger.log(request.getRequestId() + " | " + request.getManagerName() + "," + request.getOperation() + ", SUCCESS, " + params.toString());
-                perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-                        + request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-                        + request.getOperation() + ",ENDTIME," + endTime);
-                perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-                        + request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-                        + request.getOperation() + "," + params.getStatus() + "," + exeTime);
+                RequestPerfLogger.end(request, (Long) request.getContext().get(GraphHeaderParams.start_time.name()),
+                        System.currentTimeMillis(), params.getStatus());
             }
         }, getContext().dispatcher());
 
@@ -116,10 +109,7 @@ public abstract class BaseRequestRouter extends UntypedActor {
         response.setParams(params);
         setResponseCode(response, e);
         parent.tell(response, getSelf());
-        long exeTime = System.currentTimeMillis() - (Long) request.getContext().get(GraphHeaderParams.start_time.name());
-        perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-                + request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-                + request.getOperation() + ",ERROR," + exeTime);
+        RequestPerfLogger.error(request, (Long) request.getContext().get(GraphHeaderParams.start_time.name()));
     }
 
     public static Map<String, Method> getMethodMap(Class<?> cls) {
@@ -143,6 +133,28 @@ public abstract class BaseRequestRouter extends UntypedActor {
         return null;
     }
 
+    /**
+     * Resolves the operations of the manager class (see
+     * {@link #getMethodMap(Class)}) to method handles of type
+     * <code>(BaseGraphManager, Request)void</code>, to be invoked with
+     * <code>invokeExact</code> instead of reflection on every request.
+     */
+    public static Map<String, MethodHandle> getOperationMap(Class<? extends BaseGraphManager> cls) {
+        Map<String, Method> methods = getMethodMap(cls);
+        if (null == methods)
+            return null;
+        Map<String, MethodHandle> map = new HashMap<String, MethodHandle>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (Map.Entry<String, Method> entry : methods.entrySet()) {
+            try {
+                map.put(entry.getKey(), lookup.unreflect(entry.getValue()).asType(OPERATION_TYPE));
+            } catch (IllegalAccessException e) {
+                // non-public methods are not operations of the manager.
+            }
+        }
+        return map;
+    }
+
     private void setResponseCode(Response res, Throwable e) {
         if (e instanceof ClientException) {
             res.setResponseCode(ResponseCode.CLIENT_ERROR);
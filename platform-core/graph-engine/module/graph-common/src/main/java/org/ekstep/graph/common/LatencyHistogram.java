@@ -0,0 +1,77 @@
+package org.ekstep.graph.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size histogram of latencies in milliseconds, with power of two
+ * buckets. All the counters are allocated up front, so recording a latency
+ * does not allocate.
+ */
+public class LatencyHistogram {
+
+	private static final int BUCKETS = 20;
+
+	private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private AtomicLong count = new AtomicLong();
+	private AtomicLong errors = new AtomicLong();
+	private AtomicLong total = new AtomicLong();
+	private AtomicLong max = new AtomicLong();
+
+	public void record(long millis) {
+		if (millis < 0)
+			millis = 0;
+		buckets.incrementAndGet(getBucket(millis));
+		count.incrementAndGet();
+		total.addAndGet(millis);
+		max.accumulateAndGet(millis, Math::max);
+	}
+
+	public void recordError(long millis) {
+		errors.incrementAndGet();
+		record(millis);
+	}
+
+	/**
+	 * Count, errors, average and max latency, and the upper bound of the
+	 * bucket of the 50th, 95th and 99th percentiles.
+	 */
+	public Map<String, Object> getStats() {
+		long[] counts = new long[BUCKETS];
+		long recorded = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets.get(i);
+			recorded += counts[i];
+		}
+		Map<String, Object> stats = new HashMap<>();
+		stats.put("count", recorded);
+		stats.put("errors", errors.get());
+		stats.put("avgMillis", recorded > 0 ? total.get() / recorded : 0);
+		stats.put("maxMillis", max.get());
+		stats.put("p50Millis", getPercentile(counts, recorded, 0.50));
+		stats.put("p95Millis", getPercentile(counts, recorded, 0.95));
+		stats.put("p99Millis", getPercentile(counts, recorded, 0.99));
+		return stats;
+	}
+
+	private long getPercentile(long[] counts, long recorded, double percentile) {
+		if (recorded == 0)
+			return 0;
+		long rank = (long) Math.ceil(recorded * percentile);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank)
+				return i == BUCKETS - 1 ? max.get() : 1L << i;
+		}
+		return max.get();
+	}
+
+	private int getBucket(long millis) {
+		// 0 ms goes to bucket 0, [2^(i-1), 2^i) ms to bucket i.
+		int bucket = 64 - Long.numberOfLeadingZeros(millis);
+		return bucket < BUCKETS ? bucket : BUCKETS - 1;
+	}
+}
@@ -0,0 +1,82 @@
+package org.ekstep.graph.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+import org.ekstep.common.dto.Request;
+import org.ekstep.graph.common.enums.GraphHeaderParams;
+
+/**
+ * Records the latency of every request in a {@link LatencyHistogram} per
+ * manager and operation, and writes the start, end and error lines of the
+ * request to the 'PerformanceTestLogger' when it is enabled.
+ *
+ * The histograms are created on the first request of an operation; after that
+ * recording does not allocate. The log lines are formatted by the logger with
+ * unboxed times, so nothing is allocated for them when the logger is off.
+ */
+public class RequestPerfLogger {
+
+	private static final Logger perfLogger = LogManager.getLogger("PerformanceTestLogger");
+
+	private static final String LINE = "{},{},{},{},{},{}";
+	private static final String UNKNOWN = "UNKNOWN";
+
+	private static Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+	public static void start(Request request, long startTime) {
+		if (perfLogger.isInfoEnabled())
+			log(request, "STARTTIME", startTime);
+	}
+
+	public static void end(Request request, long startTime, long endTime, String status) {
+		getHistogram(request).record(endTime - startTime);
+		if (perfLogger.isInfoEnabled()) {
+			log(request, "ENDTIME", endTime);
+			log(request, status, endTime - startTime);
+		}
+	}
+
+	public static void error(Request request, long startTime) {
+		long time = System.currentTimeMillis() - startTime;
+		getHistogram(request).recordError(time);
+		if (perfLogger.isInfoEnabled())
+			log(request, "ERROR", time);
+	}
+
+	/**
+	 * Latency stats of each operation, keyed by manager and operation.
+	 */
+	public static Map<String, Map<String, Object>> getStats() {
+		Map<String, Map<String, Object>> stats = new HashMap<>();
+		for (Map.Entry<String, Map<String, LatencyHistogram>> manager : histograms.entrySet()) {
+			Map<String, Object> operations = new HashMap<>();
+			for (Map.Entry<String, LatencyHistogram> operation : manager.getValue().entrySet())
+				operations.put(operation.getKey(), operation.getValue().getStats());
+			stats.put(manager.getKey(), operations);
+		}
+		return stats;
+	}
+
+	private static LatencyHistogram getHistogram(Request request) {
+		String manager = null == request.getManagerName() ? UNKNOWN : request.getManagerName();
+		String operation = null == request.getOperation() ? UNKNOWN : request.getOperation();
+		Map<String, LatencyHistogram> operations = histograms.get(manager);
+		if (null == operations)
+			operations = histograms.computeIfAbsent(manager, k -> new ConcurrentHashMap<>());
+		LatencyHistogram histogram = operations.get(operation);
+		if (null == histogram)
+			histogram = operations.computeIfAbsent(operation, k -> new LatencyHistogram());
+		return histogram;
+	}
+
+	private static void log(Request request, String event, long time) {
+		perfLogger.info(LINE, request.getContext().get(GraphHeaderParams.scenario_name.name()),
+				request.getContext().get(GraphHeaderParams.request_id.name()), request.getManagerName(),
+				request.getOperation(), event, Unbox.box(time));
+	}
+}
@@ -1,21 +1,27 @@
 package org.ekstep.graph.model;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Property;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
@@ -37,7 +43,6 @@ import org.ekstep.graph.dac.enums.SystemProperties;
 import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.dac.model.SearchCriteria;
-import org.ekstep.graph.enums.ImportType;
 import org.ekstep.graph.exception.GraphEngineErrorCodes;
 import org.ekstep.graph.importer.ImportData;
 import org.ekstep.graph.importer.InputStreamValue;
@@ -47,12 +52,15 @@ import org.ekstep.graph.model.node.DataNode;
 import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.graph.model.node.DefinitionNode;
 import org.ekstep.graph.model.node.MetadataDefinition;
+import org.ekstep.graph.model.relation.RelationBatch;
 import org.ekstep.graph.model.relation.RelationHandler;
 import org.ekstep.graph.reader.CSVImportMessageHandler;
 import org.ekstep.graph.reader.GraphReader;
 import org.ekstep.graph.reader.GraphReaderFactory;
 import org.ekstep.graph.reader.JsonGraphReader;
+import org.ekstep.graph.writer.ExportSource;
 import org.ekstep.graph.writer.GraphWriterFactory;
+import org.ekstep.graph.writer.PagedExportSource;
 import org.ekstep.graph.writer.RDFGraphWriter;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
@@ -65,6 +73,8 @@ public class Graph extends AbstractDomainObject {
 
 	public static final String ERROR_MESSAGES = "ERROR_MESSAGES";
 	public static Timeout WAIT_TIMEOUT = new Timeout(Duration.create(30, TimeUnit.SECONDS));
+	private static final int READ_PAGE_SIZE = Platform.config.hasPath("graph.read.page.size")
+			? Platform.config.getInt("graph.read.page.size") : 1000;
 
 	public Graph(BaseGraphManager manager, String graphId) {
 		super(manager, graphId);
@@ -201,6 +211,11 @@ public class Graph extends AbstractDomainObject {
 		manager.OK(GraphDACParams.messages.name(), validationMap, getParent());
 	}
 
+	/**
+	 * Validates the data nodes and the relations of the graph. They are read
+	 * and validated page by page, in pages of <code>graph.read.page.size</code>
+	 * nodes or relations.
+	 */
 	private Map<String, List<String>> validateGraph(final Request req) {
 		try {
 
@@ -211,44 +226,9 @@ public class Graph extends AbstractDomainObject {
 			defNodesReq.put(GraphDACParams.metadata.name(), defNodeProperty);
 			Response defNodesResponse = searchMgr.getNodesByProperty(defNodesReq);
 
-			// get all data nodes
-			Request request = new Request(req);
-			Property property = new Property(SystemProperties.IL_SYS_NODE_TYPE.name(),
-					SystemNodeTypes.DATA_NODE.name());
-			request.put(GraphDACParams.metadata.name(), property);
-			Response dataNodesResponse = searchMgr.getNodesByProperty(request);
-
-			// get all relations
-			Request relsRequest = new Request(req);
-			Response relationsResponse = searchMgr.getAllRelations(relsRequest);
-
-			List<Map<String, List<String>>> validationMessages = new ArrayList<Map<String, List<String>>>();
-
-			// Promise to get all relation validation messages
-			Map<String, List<String>> relationMessages = getRelationValidationsFuture(relationsResponse, relsRequest);
-			validationMessages.add(relationMessages);
-
-			// get future of all node validation messages
-			Map<String, List<String>> nodeMessages = getNodesValidationsFuture(defNodesResponse, dataNodesResponse,
-					request);
-			validationMessages.add(nodeMessages);
 			Map<String, List<String>> errorMap = new HashMap<String, List<String>>();
-			if (null != validationMessages) {
-				for (Map<String, List<String>> map : validationMessages) {
-					if (null != map && !map.isEmpty()) {
-						for (Entry<String, List<String>> entry : map.entrySet()) {
-							if (null != entry.getValue() && !entry.getValue().isEmpty()) {
-								List<String> list = errorMap.get(entry.getKey());
-								if (null == list) {
-									list = new ArrayList<String>();
-									errorMap.put(entry.getKey(), list);
-								}
-								list.addAll(entry.getValue());
-							}
-						}
-					}
-				}
-			}
+			addMessages(errorMap, getRelationValidations(new Request(req)));
+			addMessages(errorMap, getNodesValidations(defNodesResponse, new Request(req)));
 			return errorMap;
 
 		} catch (Exception e) {
@@ -323,12 +303,15 @@ public class Graph extends AbstractDomainObject {
 				throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_INVALID_INPUTSTREAM.name(),
 						"Import stream is missing");
 			} else {
-				// Get byte array.
-				try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-					IOUtils.copy(inputStream.getInputStream(), baos);
-					byte[] bytes = baos.toByteArray();
-					inputStream.setInputStream(new ByteArrayInputStream(bytes));
-					final ByteArrayInputStream byteInputStream = new ByteArrayInputStream(bytes);
+				// Spool the input to a file, it is read once per pass of the
+				// import and once more for the messages.
+				File file = null;
+				try {
+					file = File.createTempFile("graph-import-", null);
+					try (InputStream input = inputStream.getInputStream();
+							OutputStream output = new FileOutputStream(file)) {
+						IOUtils.copy(input, output);
+					}
 
 					// Fetch Definition Nodes
 					final Request defNodesReq = new Request(request);
@@ -369,8 +352,8 @@ public class Graph extends AbstractDomainObject {
 							propertyDataMap.put(objectType, propMap);
 						}
 
-						final ImportData importData = GraphReaderFactory.getObject(getManager(), format, graphId,
-								inputStream.getInputStream(), propertyDataMap);
+						final ImportData importData = new ImportData(GraphReaderFactory.getSource(getManager(),
+								format, graphId, file, propertyDataMap));
 						request.put(GraphDACParams.import_input_object.name(), importData);
 						request.put(GraphDACParams.task_id.name(), taskId);
 						// Use ImportData object and import Graph.
@@ -382,8 +365,11 @@ public class Graph extends AbstractDomainObject {
 						} else {
 							final Map<String, List<String>> importMsgMap = (Map<String, List<String>>) importResponse
 									.get(GraphDACParams.messages.name());
-							CSVImportMessageHandler msgHandler = new CSVImportMessageHandler(byteInputStream);
-							OutputStream outputStream = msgHandler.getOutputStream(importMsgMap);
+							OutputStream outputStream = null;
+							try (InputStream fileInputStream = new BufferedInputStream(new FileInputStream(file))) {
+								CSVImportMessageHandler msgHandler = new CSVImportMessageHandler(fileInputStream);
+								outputStream = msgHandler.getOutputStream(importMsgMap);
+							}
 							Map<String, Object> outputMap = new HashMap<String, Object>();
 							outputMap.put(GraphEngineParams.output_stream.name(), new OutputStreamValue(outputStream));
 							outputMap.put(GraphEngineParams.task_id.name(), taskId);
@@ -393,6 +379,8 @@ public class Graph extends AbstractDomainObject {
 					}
 				} catch (Exception e) {
 					manager.ERROR(e, GraphEngineParams.task_id.name(), taskId, getParent());
+				} finally {
+					FileUtils.deleteQuietly(file);
 				}
 			}
 
@@ -413,6 +401,30 @@ public class Graph extends AbstractDomainObject {
 		}
 	}
 
+	public void getNodesPage(Request req) {
+		try {
+			Request request = new Request(req);
+			request.copyRequestValueObjects(req.getRequest());
+			Future<Object> response = Futures.successful(searchMgr.getNodesPage(request));
+			manager.returnResponse(response, getParent());
+		} catch (Exception e) {
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_SEARCH_NODES_UNKNOWN_ERROR.name(), e.getMessage(),
+					e);
+		}
+	}
+
+	public void getRelationsPage(Request req) {
+		try {
+			Request request = new Request(req);
+			request.copyRequestValueObjects(req.getRequest());
+			Future<Object> response = Futures.successful(searchMgr.getRelationsPage(request));
+			manager.returnResponse(response, getParent());
+		} catch (Exception e) {
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_SEARCH_NODES_UNKNOWN_ERROR.name(), e.getMessage(),
+					e);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public List<Map<String, Object>> executeQuery(Request req, String query, Map<String, Object> params) {
 		try {
@@ -682,6 +694,18 @@ public class Graph extends AbstractDomainObject {
 		}
 	}
 
+	public void getSubGraphNodes(Request req) {
+		try {
+			Request request = new Request(req);
+			request.copyRequestValueObjects(req.getRequest());
+			Future<Object> response = Futures.successful(searchMgr.getSubGraphNodes(request));
+			manager.returnResponse(response, getParent());
+		} catch (Exception e) {
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_TRAVERSAL_UNKNOWN_ERROR.name(), e.getMessage(),
+					e);
+		}
+	}
+
 	public void importDefinitions(final Request request) {
 		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
 		String json = (String) request.get(GraphEngineParams.input_stream.name());
@@ -748,7 +772,12 @@ public class Graph extends AbstractDomainObject {
 		}
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Exports the graph to a byte array, reading it with a
+	 * {@link PagedExportSource}. Large exports are streamed by the caller
+	 * from the search manager pages instead, see
+	 * <code>getNodesPage</code> and <code>getRelationsPage</code>.
+	 */
 	public void exportGraph(final Request request) {
 		OutputStream outputStream = null;
 		try {
@@ -756,47 +785,9 @@ public class Graph extends AbstractDomainObject {
 			SearchCriteria sc = null;
 			if (null != request.get(GraphEngineParams.search_criteria.name()))
 				sc = (SearchCriteria) request.get(GraphEngineParams.search_criteria.name());
-
-			Response nodesResponse = null;
-			if (null == sc) {
-				Request nodesReq = new Request(request);
-				nodesResponse = searchMgr.getAllNodes(nodesReq);
-			} else {
-				Request nodesReq = new Request(request);
-				nodesReq.put(GraphDACParams.search_criteria.name(), sc);
-				nodesReq.put(GraphDACParams.get_tags.name(), true);
-				nodesResponse = searchMgr.searchNodes(nodesReq);
-			}
-
-			Response relationsResponse = null;
-			if (!StringUtils.equalsIgnoreCase(ImportType.CSV.name(), format)) {
-				Request relationsReq = new Request(request);
-				relationsResponse = searchMgr.getAllRelations(relationsReq);
-			} else {
-				Response blankResponse = new Response();
-				relationsResponse = blankResponse;
-			}
-
-			if (manager.checkError(nodesResponse)) {
-				String msg = manager.getErrorMessage(nodesResponse);
-				if (StringUtils.isNotBlank(msg)) {
-					manager.ERROR(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(), msg,
-							nodesResponse.getResponseCode(), getParent());
-				}
-			}
-
-			if (manager.checkError(relationsResponse)) {
-				String msg = manager.getErrorMessage(relationsResponse);
-				if (StringUtils.isNotBlank(msg)) {
-					manager.ERROR(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(), msg,
-							relationsResponse.getResponseCode(), getParent());
-				}
-			}
-
-			List<Node> nodes = (List<Node>) nodesResponse.get(GraphDACParams.node_list.name());
-			List<Relation> relations = (List<Relation>) relationsResponse.get(GraphDACParams.relations.name());
 			outputStream = new ByteArrayOutputStream();
-			outputStream = GraphWriterFactory.getData(format, nodes, relations);
+			GraphWriterFactory.write(format, getExportSource(request, sc, format), outputStream);
+			outputStream.flush();
 			Response response = new Response();
 			ResponseParams params = new ResponseParams();
 			params.setErr("0");
@@ -808,18 +799,63 @@ public class Graph extends AbstractDomainObject {
 
 		} catch (Exception e) {
 			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(), e.getMessage(), e);
-		} finally {
-			try {
-				if (null != outputStream)
-					outputStream.close();
-			} catch (IOException e) {
-			}
 		}
 	}
 
+	private ExportSource getExportSource(final Request request, final SearchCriteria sc, final String format) {
+		final String errorCode = GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name();
+		return new PagedExportSource(sc, format) {
+
+			@Override
+			protected List<Node> getNodesPage(Long cursor, int limit) throws Exception {
+				return readNodesPage(request, cursor, limit, errorCode);
+			}
+
+			@Override
+			protected List<Relation> getRelationsPage(Long cursor, int limit) throws Exception {
+				return readRelationsPage(request, cursor, limit, errorCode);
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			protected List<Node> searchNodes(SearchCriteria searchCriteria) throws Exception {
+				Request nodesReq = new Request(request);
+				nodesReq.put(GraphDACParams.search_criteria.name(), searchCriteria);
+				nodesReq.put(GraphDACParams.get_tags.name(), true);
+				Response nodesResponse = searchMgr.searchNodes(nodesReq);
+				checkError(nodesResponse, errorCode);
+				return (List<Node>) nodesResponse.get(GraphDACParams.node_list.name());
+			}
+		};
+	}
+
 	@SuppressWarnings("unchecked")
-	private Map<String, List<String>> getNodesValidationsFuture(Response defNodesResponse, final Response nodesResponse,
-			final Request request) {
+	private List<Node> readNodesPage(Request request, Long cursor, int limit, String errorCode) {
+		Request pageReq = new Request(request);
+		pageReq.put(GraphDACParams.cursor.name(), cursor);
+		pageReq.put(GraphDACParams.limit.name(), limit);
+		Response pageResponse = searchMgr.getNodesPage(pageReq);
+		checkError(pageResponse, errorCode);
+		return (List<Node>) pageResponse.get(GraphDACParams.node_list.name());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Relation> readRelationsPage(Request request, Long cursor, int limit, String errorCode) {
+		Request pageReq = new Request(request);
+		pageReq.put(GraphDACParams.cursor.name(), cursor);
+		pageReq.put(GraphDACParams.limit.name(), limit);
+		Response pageResponse = searchMgr.getRelationsPage(pageReq);
+		checkError(pageResponse, errorCode);
+		return (List<Relation>) pageResponse.get(GraphDACParams.relations.name());
+	}
+
+	private void checkError(Response response, String errorCode) {
+		if (manager.checkError(response))
+			throw new ServerException(errorCode, manager.getErrorMessage(response));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, List<String>> getNodesValidations(Response defNodesResponse, final Request request) {
 
 		final Map<String, List<String>> messages = new HashMap<String, List<String>>();
 		messages.put(ERROR_MESSAGES, new ArrayList<String>());
@@ -835,87 +871,84 @@ public class Graph extends AbstractDomainObject {
 				}
 			}
 
-			if (manager.checkError(nodesResponse)) {
-				messages.get(ERROR_MESSAGES).add(manager.getErrorMessage(nodesResponse));
-			} else {
-				List<Node> nodes = (List<Node>) nodesResponse.get(GraphDACParams.node_list.name());
-				if (null != nodes && !nodes.isEmpty()) {
-					for (Node node : nodes) {
-						try {
-							DataNode datanode = new DataNode(getManager(), getGraphId(), node);
-							List<String> validationMsgs = datanode.validateNode(defNodeMap);
-							if (null != validationMsgs && !validationMsgs.isEmpty()) {
-								List<String> list = messages.get(node.getIdentifier());
-								if (null == list) {
-									list = new ArrayList<String>();
-									messages.put(node.getIdentifier(), list);
+			final AtomicInteger count = new AtomicInteger();
+			try {
+				String errorCode = GraphEngineErrorCodes.ERR_GRAPH_VALIDATE_GRAPH_UNKNOWN_ERROR.name();
+				PagedExportSource.forEachPage((cursor, limit) -> readNodesPage(request, cursor, limit, errorCode),
+						READ_PAGE_SIZE, Node::getId, nodes -> {
+							for (Node node : nodes) {
+								if (!StringUtils.equals(SystemNodeTypes.DATA_NODE.name(), node.getNodeType()))
+									continue;
+								try {
+									DataNode datanode = new DataNode(getManager(), getGraphId(), node);
+									List<String> validationMsgs = datanode.validateNode(defNodeMap);
+									if (null != validationMsgs && !validationMsgs.isEmpty())
+										addMessages(messages, node.getIdentifier(), validationMsgs);
+								} catch (Exception e) {
+									addMessages(messages, node.getIdentifier(), Arrays.asList(e.getMessage()));
 								}
-								list.addAll(validationMsgs);
 							}
-						} catch (Exception e) {
-							List<String> list = messages.get(node.getIdentifier());
-							if (null == list) {
-								list = new ArrayList<String>();
-								messages.put(node.getIdentifier(), list);
-							}
-							list.add(e.getMessage());
-						}
-					}
-				}
+							TelemetryManager.info("Validated " + count.addAndGet(nodes.size()) + " nodes of graph: "
+									+ getGraphId());
+						});
+			} catch (Exception e) {
+				messages.get(ERROR_MESSAGES).add(e.getMessage());
 			}
-
 		}
 
 		return messages;
 	}
 
-	@SuppressWarnings("unchecked")
-	private Map<String, List<String>> getRelationValidationsFuture(Response relationsResponse, final Request request) {
+	private Map<String, List<String>> getRelationValidations(final Request request) {
 		final Map<String, List<String>> messages = new HashMap<String, List<String>>();
 		messages.put(ERROR_MESSAGES, new ArrayList<String>());
 
-		if (manager.checkError(relationsResponse)) {
-			messages.get(ERROR_MESSAGES).add(manager.getErrorMessage(relationsResponse));
-		} else {
-			List<Relation> rels = (List<Relation>) relationsResponse.get(GraphDACParams.relations.name());
-			if (null != rels && !rels.isEmpty()) {
-				List<Map<String, List<String>>> msgFutures = new ArrayList<Map<String, List<String>>>();
-				for (final Relation rel : rels) {
-					try {
-						IRelation iRel = RelationHandler.getRelation(getManager(), rel.getGraphId(),
-								rel.getStartNodeId(), rel.getRelationType(), rel.getEndNodeId(), rel.getMetadata());
-						Map<String, List<String>> validationMsgs = iRel.validateRelation(request);
-						msgFutures.add(validationMsgs);
-					} catch (Exception e) {
-						List<String> list = messages.get(rel.getStartNodeId());
-						if (null == list) {
-							list = new ArrayList<String>();
-							messages.put(rel.getStartNodeId(), list);
-						}
-						list.add(e.getMessage());
-					}
-				}
-
-				if (null != msgFutures) {
-					for (Map<String, List<String>> map : msgFutures) {
-						if (null != map) {
-							for (Entry<String, List<String>> entry : map.entrySet()) {
-								List<String> list = messages.get(entry.getKey());
-								if (null == list) {
-									list = new ArrayList<String>();
-									messages.put(entry.getKey(), list);
-								}
-								list.addAll(entry.getValue());
+		final AtomicInteger count = new AtomicInteger();
+		try {
+			String errorCode = GraphEngineErrorCodes.ERR_GRAPH_VALIDATE_GRAPH_UNKNOWN_ERROR.name();
+			PagedExportSource.forEachPage((cursor, limit) -> readRelationsPage(request, cursor, limit, errorCode),
+					READ_PAGE_SIZE, Relation::getId, rels -> {
+						List<Relation> validRels = new ArrayList<Relation>();
+						for (Relation rel : rels) {
+							try {
+								RelationHandler.getRelation(getManager(), rel.getGraphId(), rel.getStartNodeId(),
+										rel.getRelationType(), rel.getEndNodeId(), rel.getMetadata());
+								validRels.add(rel);
+							} catch (Exception e) {
+								addMessages(messages, rel.getStartNodeId(), Arrays.asList(e.getMessage()));
 							}
 						}
-					}
-				}
-			}
+						RelationBatch batch = new RelationBatch(getManager(), getGraphId(), validRels);
+						if (!batch.isEmpty())
+							addMessages(messages, batch.getValidationMessages(request));
+						TelemetryManager.info("Validated " + count.addAndGet(rels.size()) + " relations of graph: "
+								+ getGraphId());
+					});
+		} catch (Exception e) {
+			messages.get(ERROR_MESSAGES).add(e.getMessage());
 		}
 
 		return messages;
 	}
 
+	private void addMessages(Map<String, List<String>> messages, Map<String, List<String>> map) {
+		if (null != map) {
+			for (Entry<String, List<String>> entry : map.entrySet()) {
+				if (null != entry.getValue() && !entry.getValue().isEmpty())
+					addMessages(messages, entry.getKey(), entry.getValue());
+			}
+		}
+	}
+
+	private void addMessages(Map<String, List<String>> messages, String key, List<String> list) {
+		List<String> keyMessages = messages.get(key);
+		if (null == keyMessages) {
+			keyMessages = new ArrayList<String>();
+			messages.put(key, keyMessages);
+		}
+		keyMessages.addAll(list);
+	}
+
 	public void exportNode(Request req) {
 		Request request = new Request(req);
 		request.copyRequestValueObjects(req.getRequest());
@@ -3,9 +3,16 @@ package org.ekstep.graph.model.cache;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
 import org.ekstep.graph.cache.mgr.impl.NodeCacheManager;
+import org.ekstep.graph.cache.util.CacheKeyGenerator;
+import org.ekstep.graph.cache.util.RedisKeysEnum;
+import org.ekstep.graph.cache.util.RedisStoreUtil;
+import org.ekstep.graph.cache.util.RedisSubscriber;
 import org.ekstep.graph.common.enums.GraphHeaderParams;
 import org.ekstep.graph.common.mgr.BaseGraphManager;
 import org.ekstep.graph.dac.enums.GraphDACParams;
@@ -16,12 +23,27 @@ import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.SearchCriteria;
 import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.graph.model.node.RelationDefinition;
+import org.ekstep.telemetry.logger.TelemetryManager;
 
 import akka.actor.ActorRef;
 
 public class DefinitionCache extends BaseGraphManager {
 
 	private static IGraphDACSearchMgr searchMgr = new Neo4JBoltSearchMgrImpl();
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	private static final String KEY_SEPARATOR = ":";
+	private static final boolean REDIS_ENABLED = Platform.config.hasPath("definition.cache.redis.enabled")
+			? Platform.config.getBoolean("definition.cache.redis.enabled") : true;
+	private static final int REDIS_TTL = Platform.config.hasPath("definition.cache.redis.ttl")
+			? Platform.config.getInt("definition.cache.redis.ttl") : 86400;
+	private static final String INVALIDATION_CHANNEL = Platform.config.hasPath("definition.cache.channel")
+			? Platform.config.getString("definition.cache.channel") : "definition_update";
+
+	static {
+		if (REDIS_ENABLED)
+			RedisSubscriber.subscribe(INVALIDATION_CHANNEL, DefinitionCache::invalidate);
+	}
 
 	public static DefinitionDTO getDefinitionNode(String graphId, String objectType) {
 		DefinitionDTO dto = getDefinitionFromCache(graphId, objectType);
@@ -67,14 +89,63 @@ public class DefinitionCache extends BaseGraphManager {
 	}
 	
 	private static DefinitionDTO getDefinitionFromCache(String graphId, String objectType) {
-		DefinitionDTO dto = (DefinitionDTO) NodeCacheManager.getDefinitionNode(graphId, objectType);
+		return (DefinitionDTO) NodeCacheManager.getDefinitionNode(graphId, objectType,
+				() -> loadDefinition(graphId, objectType));
+	}
+
+	/**
+	 * Loads the definition from Redis, falling back to the graph on a miss. The
+	 * definition read from the graph is written back to Redis for other
+	 * instances.
+	 */
+	private static DefinitionDTO loadDefinition(String graphId, String objectType) {
+		DefinitionDTO dto = getDefinitionFromRedis(graphId, objectType);
 		if (null == dto) {
 			dto = getDefinitionNodeFromGraph(graphId, objectType);
-			NodeCacheManager.saveDefinitionNode(graphId, objectType, dto);
+			saveDefinitionToRedis(graphId, objectType, dto);
 		}
 		return dto;
 	}
 
+	private static DefinitionDTO getDefinitionFromRedis(String graphId, String objectType) {
+		if (!REDIS_ENABLED)
+			return null;
+		try {
+			String value = RedisStoreUtil.get(getRedisKey(graphId, objectType));
+			if (StringUtils.isNotBlank(value))
+				return mapper.readValue(value, DefinitionDTO.class);
+		} catch (Exception e) {
+			TelemetryManager.error("Error while reading definition from redis for objectType: " + objectType, e);
+		}
+		return null;
+	}
+
+	private static void saveDefinitionToRedis(String graphId, String objectType, DefinitionDTO dto) {
+		if (!REDIS_ENABLED || null == dto)
+			return;
+		try {
+			RedisStoreUtil.save(getRedisKey(graphId, objectType), mapper.writeValueAsString(dto), REDIS_TTL);
+		} catch (Exception e) {
+			TelemetryManager.error("Error while saving definition to redis for objectType: " + objectType, e);
+		}
+	}
+
+	private static String getRedisKey(String graphId, String objectType) {
+		return CacheKeyGenerator.getKey(graphId, objectType, RedisKeysEnum.DEF_NODE.name());
+	}
+
+	/**
+	 * Handles the invalidation message (graphId:objectType) published on
+	 * definition update.
+	 */
+	private static void invalidate(String message) {
+		String[] tokens = StringUtils.split(message, KEY_SEPARATOR, 2);
+		if (null != tokens && tokens.length == 2) {
+			NodeCacheManager.deleteDefinitionNode(tokens[0], tokens[1]);
+			TelemetryManager.log("Definition cache invalidated for objectType: " + tokens[1] + " in graph: " + tokens[0]);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private static DefinitionDTO getDefinitionNodeFromGraph(String graphId, String objectType) {
 		try {
@@ -108,6 +179,14 @@ public class DefinitionCache extends BaseGraphManager {
 
 	public static void updateDefinitionCache(String graphId, String objectType){
 		DefinitionDTO dto = getDefinitionNodeFromGraph(graphId, objectType);
-			NodeCacheManager.saveDefinitionNode(graphId, objectType, dto);
+		NodeCacheManager.saveDefinitionNode(graphId, objectType, dto);
+		if (REDIS_ENABLED) {
+			saveDefinitionToRedis(graphId, objectType, dto);
+			try {
+				RedisStoreUtil.publish(INVALIDATION_CHANNEL, graphId + KEY_SEPARATOR + objectType);
+			} catch (Exception e) {
+				TelemetryManager.error("Error while publishing definition update for objectType: " + objectType, e);
+			}
+		}
 	}
 }
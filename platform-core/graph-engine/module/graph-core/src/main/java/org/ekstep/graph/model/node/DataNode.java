@@ -30,10 +30,9 @@ import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.exception.GraphEngineErrorCodes;
 import org.ekstep.graph.exception.GraphRelationErrorCodes;
-import org.ekstep.graph.model.IRelation;
 import org.ekstep.graph.model.cache.CategoryCache;
 import org.ekstep.graph.model.cache.DefinitionCache;
-import org.ekstep.graph.model.relation.RelationHandler;
+import org.ekstep.graph.model.relation.RelationBatch;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
 import akka.dispatch.Futures;
@@ -179,30 +178,9 @@ public class DataNode extends AbstractNode {
 			List<Relation> delRels) {
 		final Promise<List<String>> promise = Futures.promise();
 		Future<List<String>> relFuture = promise.future();
-		List<IRelation> relations = new ArrayList<IRelation>();
-		if (null != delRels && !delRels.isEmpty()) {
-			for (Relation rel : delRels) {
-				IRelation relation = RelationHandler.getRelation(manager, getGraphId(), rel.getStartNodeId(),
-						rel.getRelationType(), rel.getEndNodeId(), rel.getMetadata());
-				relations.add(relation);
-			}
-		}
-		if (null != relations && !relations.isEmpty()) {
-			List<String> futures = new ArrayList<String>();
-			for (IRelation rel : relations) {
-				String msg = rel.deleteRelation(request);
-				futures.add(msg);
-			}
-			List<String> messages = new ArrayList<String>();
-
-			if (!futures.isEmpty()) {
-				for (String msg : futures) {
-					if (StringUtils.isNotBlank(msg)) {
-						messages.add(msg);
-					}
-				}
-			}
-			promise.success(messages);
+		RelationBatch relations = new RelationBatch(manager, getGraphId(), delRels);
+		if (!relations.isEmpty()) {
+			promise.success(relations.delete(request));
 		} else {
 			promise.success(null);
 		}
@@ -213,31 +191,11 @@ public class DataNode extends AbstractNode {
 			List<Relation> addRels) {
 		final Promise<List<String>> promise = Futures.promise();
 		Future<List<String>> relFuture = promise.future();
-		final List<IRelation> relations = new ArrayList<IRelation>();
-		if (null != addRels && !addRels.isEmpty()) {
-			for (Relation rel : addRels) {
-				IRelation relation = RelationHandler.getRelation(manager, getGraphId(), rel.getStartNodeId(),
-						rel.getRelationType(), rel.getEndNodeId(), rel.getMetadata());
-				relations.add(relation);
-			}
-		}
-		if (null != relations && !relations.isEmpty()) {
-			List<List<String>> futures = new ArrayList<List<String>>();
-			for (IRelation rel : relations) {
-				Map<String, List<String>> msgFuture = rel.validateRelation(request);
-				futures.addAll(msgFuture.values());
-			}
-			List<String> messages = new ArrayList<String>();
-			if (null != futures) {
-				for (List<String> list : futures) {
-					if (null != list && !list.isEmpty()) {
-						messages.addAll(list);
-					}
-				}
-			}
-
+		RelationBatch relations = new RelationBatch(manager, getGraphId(), addRels);
+		if (!relations.isEmpty()) {
+			List<String> messages = relations.validate(request);
 			if (messages.isEmpty()) {
-				createRelations(relations, request, ec, promise);
+				promise.success(relations.create(request));
 			} else {
 				promise.success(messages);
 			}
@@ -247,29 +205,6 @@ public class DataNode extends AbstractNode {
 		return relFuture;
 	}
 
-	private void createRelations(List<IRelation> relations, final Request request, ExecutionContext ec,
-			final Promise<List<String>> promise) {
-		if (null != relations && !relations.isEmpty()) {
-			List<String> futures = new ArrayList<String>();
-			for (IRelation rel : relations) {
-				String msg = rel.createRelation(request);
-				futures.add(msg);
-			}
-
-			List<String> messages = new ArrayList<String>();
-			if (!futures.isEmpty()) {
-				for (String msg : futures) {
-					if (StringUtils.isNotBlank(msg)) {
-						messages.add(msg);
-					}
-				}
-			}
-			promise.success(messages);
-		} else {
-			promise.success(null);
-		}
-	}
-
 	@Override
 	public void removeProperty(Request req) {
 		try {
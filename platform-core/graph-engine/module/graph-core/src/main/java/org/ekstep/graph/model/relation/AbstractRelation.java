@@ -29,6 +29,7 @@ public abstract class AbstractRelation extends AbstractDomainObject implements I
 	protected String startNodeId;
 	protected String endNodeId;
 	protected Map<String, Object> metadata;
+	protected RelationBatch batch;
 
 	protected AbstractRelation(BaseGraphManager manager, String graphId, String startNodeId, String endNodeId,
 			Map<String, Object> metadata) {
@@ -145,6 +146,22 @@ public abstract class AbstractRelation extends AbstractDomainObject implements I
 		return this.metadata;
 	}
 
+	/**
+	 * Sets the batch the relation is validated with: the end nodes and the
+	 * cyclic loops are then read from the batch instead of the graph.
+	 */
+	public void setBatch(RelationBatch batch) {
+		this.batch = batch;
+	}
+
+	/**
+	 * Whether relations of this type must not form cycles. Their validation
+	 * checks for cyclic loops.
+	 */
+	public boolean isAcyclic() {
+		return false;
+	}
+
 	public boolean isType(String relationType) {
 		return StringUtils.equalsIgnoreCase(getRelationType(), relationType);
 	}
@@ -190,6 +207,8 @@ public abstract class AbstractRelation extends AbstractDomainObject implements I
 	}
 
 	protected Node getNode(Request request, String nodeId) {
+		if (null != batch && batch.hasNode(nodeId))
+			return batch.getNode(nodeId);
 		try {
 			Request newReq = new Request(request);
 			newReq.put(GraphDACParams.node_id.name(), nodeId);
@@ -208,6 +227,12 @@ public abstract class AbstractRelation extends AbstractDomainObject implements I
 	}
 
 	protected String checkCycle(Request req) {
+		if (null != batch && batch.isCycleChecked(this)) {
+			if (batch.isCyclicLoop(this))
+				return this.endNodeId + " and " + this.startNodeId + " are connected by relation: "
+						+ getRelationType();
+			return checkSelfLoop();
+		}
 		try {
 			Request request = new Request(req);
 			request.put(GraphDACParams.start_node_id.name(), this.endNodeId);
@@ -223,11 +248,7 @@ public abstract class AbstractRelation extends AbstractDomainObject implements I
 					String msg = (String) res.get(GraphDACParams.message.name());
 					return msg;
 				} else {
-					if (StringUtils.equals(startNodeId, endNodeId))
-						return "Relation '" + getRelationType() + "' cannot be created between: " + getStartNodeId()
-								+ " and " + getEndNodeId();
-					else
-						return null;
+					return checkSelfLoop();
 				}
 			}
 
@@ -237,6 +258,13 @@ public abstract class AbstractRelation extends AbstractDomainObject implements I
 		}
 	}
 
+	private String checkSelfLoop() {
+		if (StringUtils.equals(startNodeId, endNodeId))
+			return "Relation '" + getRelationType() + "' cannot be created between: " + getStartNodeId() + " and "
+					+ getEndNodeId();
+		return null;
+	}
+
 	protected String getNodeTypeFuture(String nodeId, Node node, final String[] nodeTypes) {
 		if (null == node) {
 			return "Node '" + nodeId + "' not Found";
@@ -29,6 +29,11 @@ public class ConstituentRelation extends AbstractRelation {
 		return RelationTypes.CONSTITUENCY.relationName();
 	}
 
+	@Override
+	public boolean isAcyclic() {
+		return true;
+	}
+
 	@Override
 	public Map<String, List<String>> validateRelation(Request request) {
 		try {
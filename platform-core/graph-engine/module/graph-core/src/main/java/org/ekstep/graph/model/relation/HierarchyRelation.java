@@ -25,6 +25,11 @@ public class HierarchyRelation extends AbstractRelation {
         return RelationTypes.HIERARCHY.relationName();
     }
 
+    @Override
+    public boolean isAcyclic() {
+        return true;
+    }
+
     @Override
     public Map<String, List<String>> validateRelation(final Request request) {
         try {
@@ -0,0 +1,187 @@
+package org.ekstep.graph.model.relation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ekstep.common.dto.Request;
+import org.ekstep.common.dto.Response;
+import org.ekstep.common.exception.ServerException;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
+import org.ekstep.graph.dac.enums.GraphDACParams;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.exception.GraphRelationErrorCodes;
+import org.ekstep.graph.model.AbstractDomainObject;
+import org.ekstep.graph.model.IRelation;
+
+/**
+ * Relations validated, created or deleted together.
+ *
+ * The end nodes of all the relations are fetched with one query and the
+ * cyclic loops with one query per relation type, then each relation is
+ * validated in memory by its {@link IRelation} implementation. The relations
+ * are created or deleted with one statement per relation type.
+ */
+public class RelationBatch extends AbstractDomainObject {
+
+	private List<IRelation> relations = new ArrayList<IRelation>();
+	private Map<String, Node> nodes;
+	private Set<IRelation> checkedRelations;
+	private Set<IRelation> loops;
+
+	public RelationBatch(BaseGraphManager manager, String graphId, List<Relation> relations) {
+		super(manager, graphId);
+		if (null != relations) {
+			for (Relation rel : relations) {
+				IRelation relation = RelationHandler.getRelation(manager, graphId, rel.getStartNodeId(),
+						rel.getRelationType(), rel.getEndNodeId(), rel.getMetadata());
+				if (relation instanceof AbstractRelation)
+					((AbstractRelation) relation).setBatch(this);
+				this.relations.add(relation);
+			}
+		}
+	}
+
+	public boolean isEmpty() {
+		return relations.isEmpty();
+	}
+
+	public List<String> validate(Request request) {
+		fetchNodes(request);
+		checkCyclicLoops(request);
+		List<String> messages = new ArrayList<String>();
+		for (IRelation relation : relations)
+			messages.addAll(getErrorMessages(relation.validateRelation(request)));
+		return messages;
+	}
+
+	/**
+	 * Validates the relations and returns the error messages keyed by the
+	 * identifier of the node they belong to.
+	 */
+	public Map<String, List<String>> getValidationMessages(Request request) {
+		fetchNodes(request);
+		checkCyclicLoops(request);
+		Map<String, List<String>> messages = new HashMap<String, List<String>>();
+		for (IRelation relation : relations) {
+			Map<String, List<String>> map = relation.validateRelation(request);
+			if (null == map)
+				continue;
+			for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+				if (null == entry.getValue() || entry.getValue().isEmpty())
+					continue;
+				List<String> list = messages.get(entry.getKey());
+				if (null == list) {
+					list = new ArrayList<String>();
+					messages.put(entry.getKey(), list);
+				}
+				list.addAll(entry.getValue());
+			}
+		}
+		return messages;
+	}
+
+	public List<String> create(Request req) {
+		Request request = new Request(req);
+		request.put(GraphDACParams.relations.name(), toRelations(relations));
+		return getMessages(graphMgr.addRelations(request));
+	}
+
+	public List<String> delete(Request req) {
+		Request request = new Request(req);
+		request.put(GraphDACParams.relations.name(), toRelations(relations));
+		return getMessages(graphMgr.deleteRelations(request));
+	}
+
+	boolean hasNode(String nodeId) {
+		return null != nodes && nodes.containsKey(nodeId);
+	}
+
+	Node getNode(String nodeId) {
+		return null == nodes ? null : nodes.get(nodeId);
+	}
+
+	boolean isCycleChecked(IRelation relation) {
+		return null != checkedRelations && checkedRelations.contains(relation);
+	}
+
+	boolean isCyclicLoop(IRelation relation) {
+		return null != loops && loops.contains(relation);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void fetchNodes(Request req) {
+		Set<String> nodeIds = new HashSet<String>();
+		for (IRelation relation : relations) {
+			nodeIds.add(relation.getStartNodeId());
+			nodeIds.add(relation.getEndNodeId());
+		}
+		Request request = new Request(req);
+		request.put(GraphDACParams.node_ids.name(), new ArrayList<String>(nodeIds));
+		Response res = searchMgr.getNodesByUniqueIds(request);
+		if (manager.checkError(res))
+			throw new ServerException(GraphRelationErrorCodes.ERR_RELATION_VALIDATE.name(),
+					"Error occured while validating the relations: " + manager.getErrorMessage(res));
+		nodes = new HashMap<String, Node>();
+		for (String nodeId : nodeIds)
+			nodes.put(nodeId, null);
+		List<Node> nodeList = (List<Node>) res.get(GraphDACParams.node_list.name());
+		if (null != nodeList) {
+			for (Node node : nodeList)
+				nodes.put(node.getIdentifier(), node);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void checkCyclicLoops(Request req) {
+		checkedRelations = new HashSet<IRelation>();
+		loops = new HashSet<IRelation>();
+		Map<Relation, IRelation> acyclicRelations = new IdentityHashMap<Relation, IRelation>();
+		for (IRelation relation : relations) {
+			if (relation instanceof AbstractRelation && ((AbstractRelation) relation).isAcyclic())
+				acyclicRelations.put(toRelation(relation), relation);
+		}
+		if (acyclicRelations.isEmpty())
+			return;
+		Request request = new Request(req);
+		request.put(GraphDACParams.relations.name(), new ArrayList<Relation>(acyclicRelations.keySet()));
+		Response res = searchMgr.checkCyclicLoops(request);
+		if (manager.checkError(res))
+			throw new ServerException(GraphRelationErrorCodes.ERR_RELATION_VALIDATE.name(),
+					"Error occured while validating the relations: " + manager.getErrorMessage(res));
+		List<Relation> loopList = (List<Relation>) res.get(GraphDACParams.relations.name());
+		if (null != loopList) {
+			for (Relation loop : loopList) {
+				IRelation relation = acyclicRelations.get(loop);
+				if (null != relation)
+					loops.add(relation);
+			}
+		}
+		checkedRelations.addAll(acyclicRelations.values());
+	}
+
+	private List<Relation> toRelations(List<IRelation> list) {
+		List<Relation> rels = new ArrayList<Relation>();
+		for (IRelation relation : list)
+			rels.add(toRelation(relation));
+		return rels;
+	}
+
+	private Relation toRelation(IRelation relation) {
+		Relation rel = new Relation(relation.getStartNodeId(), relation.getRelationType(), relation.getEndNodeId());
+		rel.setMetadata(relation.getMetadata());
+		return rel;
+	}
+
+	private List<String> getMessages(Response res) {
+		List<String> messages = new ArrayList<String>();
+		if (manager.checkError(res))
+			messages.add(manager.getErrorMessage(res));
+		return messages;
+	}
+}
@@ -22,6 +22,11 @@ public class SequenceMembershipRelation extends AbstractRelation {
         return RelationTypes.SEQUENCE_MEMBERSHIP.relationName();
     }
 
+    @Override
+    public boolean isAcyclic() {
+        return true;
+    }
+
     @Override
 	public Map<String, List<String>> validateRelation(Request request) {
         try {
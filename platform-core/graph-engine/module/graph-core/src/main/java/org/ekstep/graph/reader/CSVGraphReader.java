@@ -7,6 +7,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +22,7 @@ import org.ekstep.graph.dac.enums.SystemNodeTypes;
 import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.exception.GraphEngineErrorCodes;
+import org.ekstep.graph.importer.ImportSource.ChunkHandler;
 import org.ekstep.graph.model.node.MetadataDefinition;
 import org.ekstep.graph.model.node.RelationDefinition;
 
@@ -43,21 +45,41 @@ public class CSVGraphReader implements GraphReader {
 
 	CSVFormat csvFileFormat = CSVFormat.DEFAULT;
 
-	@SuppressWarnings("resource")
 	public CSVGraphReader(BaseGraphManager manager, ObjectMapper mapper, String graphId, InputStream inputStream,
 			Map<String, Map<String, MetadataDefinition>> propertyDataMap) throws Exception {
+		this(manager, mapper, propertyDataMap);
+		tagMembersMap = new HashMap<String, List<String>>();
+		read(graphId, inputStream, Integer.MAX_VALUE, nodes -> dataNodes.addAll(nodes));
+	}
+
+	/**
+	 * Creates a reader of the nodes in chunks, see
+	 * {@link #read(String, InputStream, int, ChunkHandler)}.
+	 */
+	public CSVGraphReader(BaseGraphManager manager, ObjectMapper mapper,
+			Map<String, Map<String, MetadataDefinition>> propertyDataMap) {
 		this.manager = manager;
 		this.mapper = mapper;
 		this.propertyDataMap = propertyDataMap;
 		definitionNodes = new ArrayList<Node>();
 		dataNodes = new ArrayList<Node>();
-		tagMembersMap = new HashMap<String, List<String>>();
 		relations = new ArrayList<Relation>();
 		validations = new ArrayList<String>();
+	}
+
+	/**
+	 * Reads the rows one at a time and passes the nodes to the handler in
+	 * chunks of the given size. The tags are collected only by the reader of
+	 * all the nodes.
+	 */
+	public void read(String graphId, InputStream inputStream, int chunkSize, ChunkHandler handler) throws Exception {
 		try (InputStreamReader isReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
 				CSVParser csvReader = new CSVParser(isReader, csvFileFormat)) {
-			List<CSVRecord> recordsList = csvReader.getRecords();
-			CSVRecord headerRecord = recordsList.get(0);
+			Iterator<CSVRecord> records = csvReader.iterator();
+			if (!records.hasNext())
+				throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMNS.name(),
+						"Required columns are missing.");
+			CSVRecord headerRecord = records.next();
 			List<String> allHeaders = new ArrayList<String>();
 			Map<String, Integer> relHeaders = new HashMap<String, Integer>();
 			for (int i = 0; i < headerRecord.size(); i++) {
@@ -76,14 +98,16 @@ public class CSVGraphReader implements GraphReader {
 						"Required columns are missing.");
 			}
 
-			for (int i = 1; i < recordsList.size(); i++) {
-				CSVRecord record = recordsList.get(i);
+			List<Node> chunk = new ArrayList<Node>();
+			while (records.hasNext()) {
+				CSVRecord record = records.next();
 				String uniqueId = record.get(uniqueIdIndex);
 				String nodeType = SystemNodeTypes.DATA_NODE.name();
 				String objectType = record.get(objectTypeIndex);
 				if (StringUtils.isBlank(uniqueId) || StringUtils.isBlank(objectType)) {
 					throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_MISSING_REQ_COLUMN_DATA.name(),
-							"Required data(uniqueId, objectType) is missing for the row[" + (i + 1) + "]: " + record);
+							"Required data(uniqueId, objectType) is missing for the row[" + record.getRecordNumber()
+									+ "]: " + record);
 				}
 				Map<String, Object> metadata = new HashMap<String, Object>();
 				for (int j = 0; j < allHeaders.size(); j++) {
@@ -122,8 +146,12 @@ public class CSVGraphReader implements GraphReader {
 				if(null != relHeaders.keySet()&& !relHeaders.keySet().isEmpty()){
 					node.setOutRelations(relations);
 				}
-				dataNodes.add(node);
-				if (tagsIndex != -1) {
+				chunk.add(node);
+				if (chunk.size() >= chunkSize) {
+					handler.handle(chunk);
+					chunk = new ArrayList<Node>();
+				}
+				if (null != tagMembersMap && tagsIndex != -1) {
 					String tagsData = record.get(tagsIndex);
 					if (StringUtils.isNotBlank(tagsData)) {
 						String[] recordTags = tagsData.split(LIST_STR_DELIMITER);
@@ -140,6 +168,8 @@ public class CSVGraphReader implements GraphReader {
 					}
 				}
 			}
+			if (!chunk.isEmpty())
+				handler.handle(chunk);
 		}
 	}
 
@@ -1,14 +1,21 @@
 package org.ekstep.graph.reader;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 
 import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ClientException;
 import org.ekstep.graph.common.mgr.BaseGraphManager;
+import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.enums.ImportType;
 import org.ekstep.graph.exception.GraphEngineErrorCodes;
 import org.ekstep.graph.importer.ImportData;
+import org.ekstep.graph.importer.ImportSource;
 import org.ekstep.graph.model.node.MetadataDefinition;
 
 /**
@@ -19,6 +26,8 @@ import org.ekstep.graph.model.node.MetadataDefinition;
 public class GraphReaderFactory {
 
     private static ObjectMapper mapper = new ObjectMapper();
+    private static final int CHUNK_SIZE = Platform.config.hasPath("graph.import.batch.size")
+            ? Platform.config.getInt("graph.import.batch.size") : 1000;
 
     public static ImportData getObject(BaseGraphManager manager, String format, String graphId, InputStream inputStream,
             Map<String, Map<String, MetadataDefinition>> propertyDataMap) throws Exception {
@@ -32,12 +41,52 @@ public class GraphReaderFactory {
         } else {
             throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_INVALID_FORMAT.name(), "Format:" + format + " is invalid.");
         }
+        validate(graphReader);
+        ImportData inputData = new ImportData(graphReader.getDefinitionNodes(), graphReader.getDataNodes(), graphReader.getRelations(),
+                graphReader.getTagMembersMap());
+        return inputData;
+    }
+
+    /**
+     * Returns the data nodes of the import file, read again in chunks of
+     * <code>graph.import.batch.size</code> nodes every time the source is
+     * iterated. The statements of an RDF/XML node need not be contiguous, so
+     * an RDF file is parsed whole and only passed on in chunks.
+     */
+    public static ImportSource getSource(BaseGraphManager manager, String format, String graphId, File file,
+            Map<String, Map<String, MetadataDefinition>> propertyDataMap) {
+        if (ImportType.JSON.name().equals(format.toUpperCase())) {
+            return handler -> {
+                try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                    new JsonGraphReader(manager).read(graphId, inputStream, CHUNK_SIZE, handler);
+                }
+            };
+        } else if (ImportType.CSV.name().equals(format.toUpperCase())) {
+            return handler -> {
+                try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                    new CSVGraphReader(manager, mapper, propertyDataMap).read(graphId, inputStream, CHUNK_SIZE,
+                            handler);
+                }
+            };
+        } else if (ImportType.RDF.name().equals(format.toUpperCase())) {
+            return handler -> {
+                try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+                    GraphReader graphReader = new RDFGraphReader(manager, mapper, graphId, inputStream);
+                    validate(graphReader);
+                    List<Node> nodes = graphReader.getDataNodes();
+                    for (int start = 0; start < nodes.size(); start += CHUNK_SIZE)
+                        handler.handle(nodes.subList(start, Math.min(start + CHUNK_SIZE, nodes.size())));
+                }
+            };
+        } else {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_INVALID_FORMAT.name(), "Format:" + format + " is invalid.");
+        }
+    }
+
+    private static void validate(GraphReader graphReader) throws Exception {
         if (graphReader.getValidations().size() > 0) {
             String validations = mapper.writeValueAsString(graphReader.getValidations());
             throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_VALIDATION_FAILED.name(), validations);
         }
-        ImportData inputData = new ImportData(graphReader.getDefinitionNodes(), graphReader.getDataNodes(), graphReader.getRelations(),
-                graphReader.getTagMembersMap());
-        return inputData;
     }
 }
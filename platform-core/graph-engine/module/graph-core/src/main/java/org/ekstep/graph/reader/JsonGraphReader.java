@@ -10,6 +10,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.JsonMappingException;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.ekstep.common.exception.ClientException;
@@ -18,6 +20,8 @@ import org.ekstep.graph.dac.enums.RelationTypes;
 import org.ekstep.graph.dac.enums.SystemNodeTypes;
 import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.exception.GraphEngineErrorCodes;
+import org.ekstep.graph.importer.ImportSource.ChunkHandler;
 import org.ekstep.graph.model.collection.Sequence;
 import org.ekstep.graph.model.node.DataNode;
 import org.ekstep.graph.model.node.DefinitionNode;
@@ -173,25 +177,68 @@ public class JsonGraphReader implements GraphReader {
         return metaDefinitions;
     }
 
-    @SuppressWarnings("unchecked")
     private void createDataNodes(String graphId, List<Map<String, Object>> inputNodeList) {
         dataNodes = new ArrayList<Node>();
         if (null != inputNodeList) {
             for (Map<String, Object> inputNode : inputNodeList) {
-                String uniqueId = (String) inputNode.get("uniqueId");
-                String objectType = (String) inputNode.get("objectType");
-                String nodeType = (String) inputNode.get("nodeType");
-                Map<String, Object> metadata = (Map<String, Object>) inputNode.get("metadata");
-                removeNullProperties(metadata);
-                if (SystemNodeTypes.DATA_NODE.name().equals(nodeType)) {
-                    DataNode dataNode = new DataNode(manager, graphId, uniqueId, objectType, metadata);
-                    dataNodes.add(dataNode.toNode());
-                } else if (SystemNodeTypes.SEQUENCE.name().equals(nodeType)) {
-                    Sequence sequence = new Sequence(manager, graphId, uniqueId);
-                    dataNodes.add(sequence.toNode());
-                } else {
+                Node node = createDataNode(graphId, inputNode);
+                if (null != node)
+                    dataNodes.add(node);
+            }
+        }
+    }
 
+    @SuppressWarnings("unchecked")
+    private Node createDataNode(String graphId, Map<String, Object> inputNode) {
+        String uniqueId = (String) inputNode.get("uniqueId");
+        String objectType = (String) inputNode.get("objectType");
+        String nodeType = (String) inputNode.get("nodeType");
+        Map<String, Object> metadata = (Map<String, Object>) inputNode.get("metadata");
+        removeNullProperties(metadata);
+        if (SystemNodeTypes.DATA_NODE.name().equals(nodeType)) {
+            DataNode dataNode = new DataNode(manager, graphId, uniqueId, objectType, metadata);
+            return dataNode.toNode();
+        } else if (SystemNodeTypes.SEQUENCE.name().equals(nodeType)) {
+            Sequence sequence = new Sequence(manager, graphId, uniqueId);
+            return sequence.toNode();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the data nodes of the "nodes" array one at a time and passes them
+     * to the handler in chunks of the given size. The other fields are
+     * skipped: only the data nodes are imported.
+     */
+    @SuppressWarnings("unchecked")
+    public void read(String graphId, InputStream inputStream, int chunkSize, ChunkHandler handler) throws Exception {
+        try (JsonParser parser = mapper.getJsonFactory().createJsonParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_IMPORT_VALIDATION_FAILED.name(),
+                        "Invalid JSON input: an object is expected");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (!"nodes".equals(field) || token != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                List<Node> chunk = new ArrayList<Node>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    Node node = createDataNode(graphId, mapper.readValue(parser, Map.class));
+                    if (null != node)
+                        chunk.add(node);
+                    if (chunk.size() >= chunkSize) {
+                        handler.handle(chunk);
+                        chunk = new ArrayList<Node>();
+                    }
                 }
+                if (!chunk.isEmpty())
+                    handler.handle(chunk);
             }
         }
     }
@@ -23,50 +23,68 @@ public class CSVGraphWriter implements GraphWriter {
 	private static final String NEW_LINE_SEPARATOR = "\n";
 	private List<Node> nodes;
 
+	public CSVGraphWriter() {
+	}
+
 	public CSVGraphWriter(List<Node> nodes, List<Relation> relations) {
 		this.nodes = nodes;
 	}
 
 	@Override
 	public OutputStream getData() throws Exception {
+		try (OutputStream outputStream = new ByteArrayOutputStream()) {
+			write(ExportSource.of(nodes, null), outputStream);
+			return outputStream;
+		}
+	}
+
+	/**
+	 * Reads the nodes twice: once to collect the headers and once to write
+	 * the rows.
+	 */
+	@Override
+	public void write(ExportSource source, OutputStream outputStream) throws Exception {
 		List<String> headers = new ArrayList<String>();
 		headers.add(CSVGraphReader.PROPERTY_ID);
 		headers.add(CSVGraphReader.PROPERTY_OBJECT_TYPE);
 		headers.add(CSVGraphReader.PROPERTY_TAGS);
-		List<String[]> dataRows = new ArrayList<String[]>();
-		List<Map<String, String>> nodeMaps = new ArrayList<Map<String, String>>();
-		if (null != nodes) {
-			for (Node node : nodes) {
-				if (SystemNodeTypes.DATA_NODE.name().equalsIgnoreCase(node.getNodeType())) {
-					Map<String, String> nodeMap = getNode(node, headers);
-					nodeMaps.add(nodeMap);
-				}
-			}
-		}
-		for (Map<String, String> nodeMap : nodeMaps) {
-			List<String> nodeData = new ArrayList<String>();
-			for (String header : headers) {
-				if (StringUtils.isNotBlank(nodeMap.get(header))) {
-					nodeData.add(nodeMap.get(header).replaceAll("<", "&lt;").replaceAll(">", "&gt;")
-							.replaceAll("\n", "").replaceAll("\r", ""));
-				} else {
-					nodeData.add("");
-				}
+		source.forEachNodes(page -> {
+			for (Node node : page) {
+				if (SystemNodeTypes.DATA_NODE.name().equalsIgnoreCase(node.getNodeType()))
+					getNode(node, headers);
 			}
-			dataRows.add(nodeData.toArray(new String[nodeData.size()]));
-		}
-		List<String[]> allRows = new ArrayList<String[]>();
-		allRows.add(headers.toArray(new String[headers.size()]));
-		allRows.addAll(dataRows);
+		});
 		CSVFormat csvFileFormat = CSVFormat.DEFAULT.withRecordSeparator(NEW_LINE_SEPARATOR);
-		try (OutputStream outputStream = new ByteArrayOutputStream();
-				OutputStreamWriter osWriter = new OutputStreamWriter(outputStream);
-				CSVPrinter writer = new CSVPrinter(osWriter, csvFileFormat)) {
-			writer.printRecords(allRows);
-			return outputStream;
+		OutputStreamWriter osWriter = new OutputStreamWriter(outputStream);
+		CSVPrinter writer = new CSVPrinter(osWriter, csvFileFormat);
+		writer.printRecord(headers);
+		source.forEachNodes(page -> {
+			for (Node node : page) {
+				if (SystemNodeTypes.DATA_NODE.name().equalsIgnoreCase(node.getNodeType()))
+					writer.printRecord(getRow(getNode(node, null), headers));
+			}
+			writer.flush();
+		});
+		writer.flush();
+	}
+
+	private List<String> getRow(Map<String, String> nodeMap, List<String> headers) {
+		List<String> nodeData = new ArrayList<String>();
+		for (String header : headers) {
+			if (StringUtils.isNotBlank(nodeMap.get(header))) {
+				nodeData.add(nodeMap.get(header).replaceAll("<", "&lt;").replaceAll(">", "&gt;")
+						.replaceAll("\n", "").replaceAll("\r", ""));
+			} else {
+				nodeData.add("");
+			}
 		}
+		return nodeData;
 	}
 
+	/**
+	 * Returns the values of the columns of the node, adding the new columns
+	 * to the headers unless they are null.
+	 */
 	public Map<String, String> getNode(Node node, List<String> headers) {
 		Map<String, String> nodeMap = new HashMap<String, String>();
 		getKeys(node.getMetadata(), headers);
@@ -74,7 +92,7 @@ public class CSVGraphWriter implements GraphWriter {
 		if (null != node.getOutRelations() && !node.getOutRelations().isEmpty()) {
 			for (Relation rel : node.getOutRelations()) {
 				String relHeader = CSVGraphReader.REL_HEADER_START_WITH + rel.getRelationType();
-				if (!headers.contains(relHeader)) {
+				if (null != headers && !headers.contains(relHeader)) {
 					headers.add(relHeader);
 				}
 				List<String> relatedNodes = relMap.get(relHeader);
@@ -101,7 +119,7 @@ public class CSVGraphWriter implements GraphWriter {
 	}
 
 	private void getKeys(Map<String, Object> metadata, List<String> headers) {
-		if (null != metadata && !metadata.isEmpty()) {
+		if (null != headers && null != metadata && !metadata.isEmpty()) {
 			for (String key : metadata.keySet()) {
 				if (!headers.contains(key)) {
 					headers.add(key);
@@ -0,0 +1,40 @@
+package org.ekstep.graph.writer;
+
+import java.util.List;
+
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+
+/**
+ * Nodes and relations of an export, read page by page. Every call reads them
+ * again from the start, so a writer can make more than one pass over the
+ * graph without holding it in memory.
+ */
+public interface ExportSource {
+
+	void forEachNodes(PageHandler<Node> handler) throws Exception;
+
+	void forEachRelations(PageHandler<Relation> handler) throws Exception;
+
+	interface PageHandler<T> {
+
+		void handle(List<T> page) throws Exception;
+	}
+
+	static ExportSource of(List<Node> nodes, List<Relation> relations) {
+		return new ExportSource() {
+
+			@Override
+			public void forEachNodes(PageHandler<Node> handler) throws Exception {
+				if (null != nodes)
+					handler.handle(nodes);
+			}
+
+			@Override
+			public void forEachRelations(PageHandler<Relation> handler) throws Exception {
+				if (null != relations)
+					handler.handle(relations);
+			}
+		};
+	}
+}
@@ -6,4 +6,10 @@ public interface GraphWriter {
 
     OutputStream getData() throws Exception;
 
+    /**
+     * Writes the graph to the output stream as it is read from the source.
+     * The output stream is flushed but not closed.
+     */
+    void write(ExportSource source, OutputStream outputStream) throws Exception;
+
 }
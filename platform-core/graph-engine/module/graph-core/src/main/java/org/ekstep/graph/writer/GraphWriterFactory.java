@@ -24,4 +24,18 @@ public class GraphWriterFactory {
         }
         return graphWriter.getData();
     }
+
+    public static void write(String format, ExportSource source, OutputStream outputStream) throws Exception {
+        GraphWriter graphWriter = null;
+        if (ImportType.JSON.name().equals(format.toUpperCase())) {
+            graphWriter = new JsonGraphWriter();
+        } else if (ImportType.CSV.name().equals(format.toUpperCase())) {
+            graphWriter = new CSVGraphWriter();
+        } else if (ImportType.RDF.name().equals(format.toUpperCase())) {
+            graphWriter = new RDFGraphWriter();
+        } else {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_INVALID_FORMAT.name(), "Format:" + format + " is invalid.");
+        }
+        graphWriter.write(source, outputStream);
+    }
 }
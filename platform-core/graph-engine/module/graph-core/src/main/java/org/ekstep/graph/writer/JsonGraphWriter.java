@@ -6,8 +6,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.ekstep.graph.dac.enums.SystemNodeTypes;
 import org.ekstep.graph.dac.model.Node;
@@ -18,123 +21,153 @@ import org.ekstep.graph.model.node.RelationDefinition;
 
 public class JsonGraphWriter implements GraphWriter {
 
-	String exportedData = "";
 	private List<Node> nodes;
 	private List<Relation> relations;
 	private ObjectMapper mapper;
 
+	public JsonGraphWriter() {
+		mapper = new ObjectMapper();
+	}
+
 	public JsonGraphWriter(List<Node> nodes, List<Relation> relations) {
 		mapper = new ObjectMapper();
 		this.nodes = nodes;
 		this.relations = null == relations ? new ArrayList<Relation>() : relations;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public OutputStream getData() throws Exception {
-		StringBuilder sb = new StringBuilder();
+		try (OutputStream outputStream = new ByteArrayOutputStream()) {
+			write(ExportSource.of(nodes, relations), outputStream);
+			return outputStream;
+		}
+	}
+
+	/**
+	 * Writes the data nodes and the relations as they are read. The
+	 * definition nodes, one per object type, are kept until the end and the
+	 * counts are written last.
+	 */
+	@Override
+	public void write(ExportSource source, OutputStream outputStream) throws Exception {
 		List<Map<String, Object>> definitionNodesList = new ArrayList<Map<String, Object>>();
-		List<Map<String, Object>> dataNodesList = new ArrayList<Map<String, Object>>();
-		List<Map<String, Object>> relationsList = new ArrayList<Map<String, Object>>();
-		if (nodes != null) {
-			for (Node node : nodes) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("uniqueId", node.getIdentifier());
-				map.put("nodeType", node.getNodeType());
-				map.put("objectType", node.getObjectType());
+		AtomicInteger numberOfNodes = new AtomicInteger();
+		AtomicInteger numberOfRelations = new AtomicInteger();
+		JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(outputStream, JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		generator.writeStartObject();
+		generator.writeArrayFieldStart("nodes");
+		source.forEachNodes(page -> {
+			for (Node node : page) {
 				if (StringUtils.isNotBlank(node.getNodeType())
 						&& node.getNodeType().equals(SystemNodeTypes.DEFINITION_NODE.name())) {
-					Map<String, Object> metadata = mapper.convertValue(node.getMetadata(), Map.class);
-					List<MetadataDefinition> indexedMetadata = new ArrayList<MetadataDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY))) {
-						String metaList = (String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								indexedMetadata.add(
-										(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("indexedMetadata", indexedMetadata);
-
-					List<MetadataDefinition> nonIndexedMetadata = new ArrayList<MetadataDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY))) {
-						String metaList = (String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								nonIndexedMetadata.add(
-										(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("nonIndexedMetadata", nonIndexedMetadata);
-
-					List<RelationDefinition> inRelationMetadata = new ArrayList<RelationDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.IN_RELATIONS_KEY))) {
-						String inRelList = (String) metadata.get(DefinitionNode.IN_RELATIONS_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(inRelList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								inRelationMetadata.add(
-										(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("inRelations", inRelationMetadata);
-
-					List<RelationDefinition> outRelationMetadata = new ArrayList<RelationDefinition>();
-					if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY))) {
-						String outRelList = (String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY);
-						try {
-							List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(outRelList,
-									List.class);
-							for (Map<String, Object> metaMap : listMap) {
-								outRelationMetadata.add(
-										(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
-							}
-						} catch (Exception e) {
-						}
-					}
-					map.put("outRelations", outRelationMetadata);
-					definitionNodesList.add(map);
+					definitionNodesList.add(getDefinitionNode(node));
 				} else if (StringUtils.isNotBlank(node.getNodeType())
 						&& (node.getNodeType().equals(SystemNodeTypes.DATA_NODE.name())
 								|| node.getNodeType().equals(SystemNodeTypes.SEQUENCE.name()))) {
+					Map<String, Object> map = getNode(node);
 					map.put("metadata", node.getMetadata());
-					dataNodesList.add(map);
+					mapper.writeValue(generator, map);
+					numberOfNodes.incrementAndGet();
 				}
 			}
-		}
-		if (relations != null) {
-			for (Relation relation : relations) {
+			generator.flush();
+		});
+		generator.writeEndArray();
+		generator.writeArrayFieldStart("relations");
+		source.forEachRelations(page -> {
+			for (Relation relation : page) {
 				Map<String, Object> map = new HashMap<String, Object>();
 				map.put("startNode", relation.getStartNodeId());
 				map.put("endNode", relation.getEndNodeId());
 				map.put("type", relation.getRelationType());
 				map.put("metadata", relation.getMetadata());
-				relationsList.add(map);
+				mapper.writeValue(generator, map);
+				numberOfRelations.incrementAndGet();
+			}
+			generator.flush();
+		});
+		generator.writeEndArray();
+		generator.writeFieldName("definitionNodes");
+		mapper.writeValue(generator, definitionNodesList);
+		generator.writeNumberField("numberOfNodes", numberOfNodes.get());
+		generator.writeNumberField("numberOfRelations", numberOfRelations.get());
+		generator.writeEndObject();
+		generator.flush();
+	}
+
+	private Map<String, Object> getNode(Node node) {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("uniqueId", node.getIdentifier());
+		map.put("nodeType", node.getNodeType());
+		map.put("objectType", node.getObjectType());
+		return map;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getDefinitionNode(Node node) {
+		Map<String, Object> map = getNode(node);
+		Map<String, Object> metadata = mapper.convertValue(node.getMetadata(), Map.class);
+		List<MetadataDefinition> indexedMetadata = new ArrayList<MetadataDefinition>();
+		if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY))) {
+			String metaList = (String) metadata.get(DefinitionNode.INDEXABLE_METADATA_KEY);
+			try {
+				List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
+						List.class);
+				for (Map<String, Object> metaMap : listMap) {
+					indexedMetadata.add(
+							(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
+				}
+			} catch (Exception e) {
 			}
 		}
-		Map<String, Object> exportMap = new HashMap<String, Object>();
-		exportMap.put("definitionNodes", definitionNodesList);
-		exportMap.put("numberOfNodes", dataNodesList.size());
-		exportMap.put("numberOfRelations", relationsList.size());
-		exportMap.put("nodes", dataNodesList);
-		exportMap.put("relations", relationsList);
-		sb.append(mapper.writeValueAsString(exportMap));
-		exportedData = sb.toString();
-		try (OutputStream outputStream = new ByteArrayOutputStream()) {
-			outputStream.write(exportedData.getBytes());
-			return outputStream;
+		map.put("indexedMetadata", indexedMetadata);
+
+		List<MetadataDefinition> nonIndexedMetadata = new ArrayList<MetadataDefinition>();
+		if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY))) {
+			String metaList = (String) metadata.get(DefinitionNode.NON_INDEXABLE_METADATA_KEY);
+			try {
+				List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(metaList,
+						List.class);
+				for (Map<String, Object> metaMap : listMap) {
+					nonIndexedMetadata.add(
+							(MetadataDefinition) mapper.convertValue(metaMap, MetadataDefinition.class));
+				}
+			} catch (Exception e) {
+			}
+		}
+		map.put("nonIndexedMetadata", nonIndexedMetadata);
+
+		List<RelationDefinition> inRelationMetadata = new ArrayList<RelationDefinition>();
+		if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.IN_RELATIONS_KEY))) {
+			String inRelList = (String) metadata.get(DefinitionNode.IN_RELATIONS_KEY);
+			try {
+				List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(inRelList,
+						List.class);
+				for (Map<String, Object> metaMap : listMap) {
+					inRelationMetadata.add(
+							(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
+				}
+			} catch (Exception e) {
+			}
+		}
+		map.put("inRelations", inRelationMetadata);
+
+		List<RelationDefinition> outRelationMetadata = new ArrayList<RelationDefinition>();
+		if (StringUtils.isNotBlank((String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY))) {
+			String outRelList = (String) metadata.get(DefinitionNode.OUT_RELATIONS_KEY);
+			try {
+				List<Map<String, Object>> listMap = (List<Map<String, Object>>) mapper.readValue(outRelList,
+						List.class);
+				for (Map<String, Object> metaMap : listMap) {
+					outRelationMetadata.add(
+							(RelationDefinition) mapper.convertValue(metaMap, RelationDefinition.class));
+				}
+			} catch (Exception e) {
+			}
 		}
+		map.put("outRelations", outRelationMetadata);
+		return map;
 	}
 
 }
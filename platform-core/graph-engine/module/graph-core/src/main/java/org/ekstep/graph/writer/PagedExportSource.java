@@ -0,0 +1,88 @@
+package org.ekstep.graph.writer;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.dac.model.SearchCriteria;
+import org.ekstep.graph.enums.ImportType;
+
+/**
+ * Export of a graph read page by page: the nodes matching the search
+ * criteria, or all the nodes in pages of <code>graph.export.page.size</code>,
+ * and all the relations in pages of the same size. CSV exports have no
+ * relations.
+ *
+ * Subclasses only read a page, the paging itself is done by
+ * {@link #forEachPage(PageReader, int, Function, PageHandler)}.
+ */
+public abstract class PagedExportSource implements ExportSource {
+
+	public static final int PAGE_SIZE = Platform.config.hasPath("graph.export.page.size")
+			? Platform.config.getInt("graph.export.page.size") : 1000;
+
+	private SearchCriteria searchCriteria;
+	private String format;
+
+	public PagedExportSource(SearchCriteria searchCriteria, String format) {
+		this.searchCriteria = searchCriteria;
+		this.format = format;
+	}
+
+	/**
+	 * Reads a page of records, starting after the given internal id cursor.
+	 */
+	public interface PageReader<T> {
+
+		List<T> read(Long cursor, int limit) throws Exception;
+	}
+
+	protected abstract List<Node> getNodesPage(Long cursor, int limit) throws Exception;
+
+	protected abstract List<Relation> getRelationsPage(Long cursor, int limit) throws Exception;
+
+	protected abstract List<Node> searchNodes(SearchCriteria searchCriteria) throws Exception;
+
+	@Override
+	public void forEachNodes(PageHandler<Node> handler) throws Exception {
+		if (null == searchCriteria) {
+			forEachPage(this::getNodesPage, PAGE_SIZE, Node::getId, handler);
+		} else {
+			List<Node> nodes = searchNodes(searchCriteria);
+			if (null != nodes)
+				handler.handle(nodes);
+		}
+	}
+
+	@Override
+	public void forEachRelations(PageHandler<Relation> handler) throws Exception {
+		if (StringUtils.equalsIgnoreCase(ImportType.CSV.name(), format))
+			return;
+		forEachPage(this::getRelationsPage, PAGE_SIZE, Relation::getId, handler);
+	}
+
+	/**
+	 * Reads the records page by page with the internal id of the last record
+	 * of a page as the cursor of the next page.
+	 */
+	public static <T> void forEachPage(PageReader<T> reader, int pageSize, Function<T, Long> internalId,
+			PageHandler<T> handler) throws Exception {
+		Long cursor = null;
+		while (true) {
+			List<T> page = reader.read(cursor, pageSize);
+			if (null == page || page.isEmpty())
+				return;
+			handler.handle(page);
+			for (T record : page) {
+				Long recordId = internalId.apply(record);
+				if (null == cursor || recordId > cursor)
+					cursor = recordId;
+			}
+			if (page.size() < pageSize)
+				return;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package org.ekstep.graph.model.relation;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.ekstep.common.dto.Request;
+import org.ekstep.common.dto.Response;
+import org.ekstep.common.dto.ResponseParams;
+import org.ekstep.common.dto.ResponseParams.StatusType;
+import org.ekstep.common.exception.ServerException;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
+import org.ekstep.graph.dac.enums.GraphDACParams;
+import org.ekstep.graph.dac.enums.RelationTypes;
+import org.ekstep.graph.dac.enums.SystemNodeTypes;
+import org.ekstep.graph.dac.mgr.IGraphDACGraphMgr;
+import org.ekstep.graph.dac.mgr.IGraphDACSearchMgr;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+
+public class RelationBatchTest {
+
+	private static final String GRAPH_ID = "domain";
+
+	private BaseGraphManager manager;
+	private IGraphDACSearchMgr searchMgr;
+	private IGraphDACGraphMgr graphMgr;
+	private List<Node> nodes = new ArrayList<Node>();
+
+	@Before
+	public void init() {
+		manager = mock(BaseGraphManager.class);
+		when(manager.checkError(any(Response.class))).thenCallRealMethod();
+		when(manager.getErrorMessage(any(Response.class))).thenCallRealMethod();
+		searchMgr = mock(IGraphDACSearchMgr.class);
+		graphMgr = mock(IGraphDACGraphMgr.class);
+		for (String id : Arrays.asList("do_parent", "do_child_1", "do_child_2"))
+			nodes.add(new Node(id, SystemNodeTypes.DATA_NODE.name(), null));
+		when(searchMgr.getNodesByUniqueIds(any(Request.class))).thenReturn(getResponse(GraphDACParams.node_list, nodes));
+		when(searchMgr.checkCyclicLoops(any(Request.class)))
+				.thenReturn(getResponse(GraphDACParams.relations, new ArrayList<Relation>()));
+	}
+
+	@Test
+	public void testNodesAndLoopsAreFetchedOnce() {
+		RelationBatch batch = getBatch(hierarchy("do_parent", "do_child_1"), hierarchy("do_parent", "do_child_2"),
+				hierarchy("do_child_1", "do_child_2"));
+		Assert.assertTrue(batch.validate(new Request()).isEmpty());
+		verify(searchMgr, times(1)).getNodesByUniqueIds(any(Request.class));
+		verify(searchMgr, times(1)).checkCyclicLoops(any(Request.class));
+		verify(searchMgr, never()).getNodeByUniqueId(any(Request.class));
+		verify(searchMgr, never()).checkCyclicLoop(any(Request.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testAllNodeIdsAreFetched() {
+		getBatch(hierarchy("do_parent", "do_child_1"), hierarchy("do_parent", "do_child_2")).validate(new Request());
+		verify(searchMgr).getNodesByUniqueIds(argThat(new ArgumentMatcher<Request>() {
+			@Override
+			public boolean matches(Object argument) {
+				List<String> ids = (List<String>) ((Request) argument).get(GraphDACParams.node_ids.name());
+				return ids.size() == 3 && ids.containsAll(Arrays.asList("do_parent", "do_child_1", "do_child_2"));
+			}
+		}));
+	}
+
+	@Test
+	public void testMissingEndNode() {
+		Map<String, List<String>> messages = getBatch(hierarchy("do_parent", "do_missing"))
+				.getValidationMessages(new Request());
+		Assert.assertEquals(Arrays.asList("End Node Id is invalid"), messages.get("do_parent"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCyclicLoopIsReported() {
+		when(searchMgr.checkCyclicLoops(any(Request.class))).thenAnswer(invocation -> {
+			List<Relation> relations = (List<Relation>) ((Request) invocation.getArguments()[0])
+					.get(GraphDACParams.relations.name());
+			List<Relation> loops = new ArrayList<Relation>();
+			for (Relation relation : relations) {
+				if ("do_child_2".equals(relation.getStartNodeId()))
+					loops.add(relation);
+			}
+			return getResponse(GraphDACParams.relations, loops);
+		});
+		List<String> messages = getBatch(hierarchy("do_parent", "do_child_1"), hierarchy("do_child_2", "do_parent"))
+				.validate(new Request());
+		Assert.assertEquals(1, messages.size());
+		Assert.assertEquals("do_parent and do_child_2 are connected by relation: "
+				+ RelationTypes.HIERARCHY.relationName(), messages.get(0));
+	}
+
+	@Test
+	public void testSelfLoop() {
+		List<String> messages = getBatch(hierarchy("do_parent", "do_parent")).validate(new Request());
+		Assert.assertEquals(1, messages.size());
+		Assert.assertTrue(messages.get(0).startsWith("Relation '" + RelationTypes.HIERARCHY.relationName()
+				+ "' cannot be created between"));
+	}
+
+	@Test
+	public void testAssociationsAreNotCheckedForLoops() {
+		getBatch(new Relation("do_parent", RelationTypes.ASSOCIATED_TO.relationName(), "do_child_1"))
+				.validate(new Request());
+		verify(searchMgr, never()).checkCyclicLoops(any(Request.class));
+	}
+
+	@Test(expected = ServerException.class)
+	public void testErrorWhileFetchingNodes() {
+		Response response = new Response();
+		ResponseParams params = new ResponseParams();
+		params.setStatus(StatusType.failed.name());
+		params.setErrmsg("connection refused");
+		response.setParams(params);
+		when(searchMgr.getNodesByUniqueIds(any(Request.class))).thenReturn(response);
+		getBatch(hierarchy("do_parent", "do_child_1")).validate(new Request());
+	}
+
+	@Test
+	public void testRelationsAreCreatedTogether() {
+		when(graphMgr.addRelations(any(Request.class))).thenReturn(new Response());
+		RelationBatch batch = getBatch(hierarchy("do_parent", "do_child_1"), hierarchy("do_parent", "do_child_2"));
+		Assert.assertTrue(batch.create(new Request()).isEmpty());
+		verify(graphMgr, times(1)).addRelations(any(Request.class));
+	}
+
+	private RelationBatch getBatch(Relation... relations) {
+		// the batch reads the graph through its own managers, the relations through the batch.
+		return new RelationBatch(manager, GRAPH_ID, Arrays.asList(relations)) {
+			{
+				this.searchMgr = RelationBatchTest.this.searchMgr;
+				this.graphMgr = RelationBatchTest.this.graphMgr;
+			}
+		};
+	}
+
+	private Relation hierarchy(String startNodeId, String endNodeId) {
+		return new Relation(startNodeId, RelationTypes.HIERARCHY.relationName(), endNodeId);
+	}
+
+	private Response getResponse(GraphDACParams key, Object value) {
+		Response response = new Response();
+		response.put(key.name(), value);
+		return response;
+	}
+}
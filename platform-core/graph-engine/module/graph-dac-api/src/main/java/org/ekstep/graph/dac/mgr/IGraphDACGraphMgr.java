@@ -17,6 +17,10 @@ public interface IGraphDACGraphMgr {
 
 	Response deleteRelation(Request request);
 
+	Response addRelations(Request request);
+
+	Response deleteRelations(Request request);
+
 	Response updateRelation(Request request);
 
 	Response removeRelationMetadata(Request request);
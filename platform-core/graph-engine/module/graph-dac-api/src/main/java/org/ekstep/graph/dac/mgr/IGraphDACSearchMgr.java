@@ -19,11 +19,17 @@ public interface IGraphDACSearchMgr {
 
 	Response getAllNodes(Request request);
 
+	Response getNodesPage(Request request);
+
+	Response getRelationsPage(Request request);
+
 	Response getRelation(Request request);
 
 	Response getRelationProperty(Request request);
 
 	Response checkCyclicLoop(Request request);
+
+	Response checkCyclicLoops(Request request);
     
 	Response executeQuery(Request request);
 	
@@ -38,4 +44,6 @@ public interface IGraphDACSearchMgr {
 	Response traverseSubGraph(Request request);
     
 	Response getSubGraph(Request request);
+
+	Response getSubGraphNodes(Request request);
 }
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Request;
 import org.ekstep.graph.service.common.GraphOperation;
 import org.ekstep.graph.service.operation.Neo4JBoltSearchOperations;
@@ -22,6 +23,11 @@ public class Traverser implements Serializable {
     private static final long serialVersionUID = -8621143933941005381L;
     public static final int BREADTH_FIRST_TRAVERSAL = 0;
     public static final int DEPTH_FIRST_TRAVERSAL = 1;
+    // caps on the paths returned and the depth of a traversal, 0 for no cap.
+    private static final long MAX_RESULTS = Platform.config.hasPath("graph.traverse.max.results")
+            ? Platform.config.getLong("graph.traverse.max.results") : 0;
+    private static final long MAX_DEPTH = Platform.config.hasPath("graph.traverse.max.depth")
+            ? Platform.config.getLong("graph.traverse.max.depth") : 0;
 
     private String graphId;
     private long traversal = DEPTH_FIRST_TRAVERSAL;
@@ -90,11 +96,12 @@ public class Traverser implements Serializable {
         SubGraph subGraph = new SubGraph();
         Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
         try (Session session = driver.session()) {
-        	String query = "CALL ekstep.procs.traverse";
+        	String query = "CALL ekstep.procs.traverse.stream";
         	Map<String, Object> params = getTraverserParams();
         	StatementResult result = session.run(query, params);
-        	for (Record record : result.list()) {
-				Path path = getPathObject(this.graphId, record);
+        	// records are consumed as they are streamed by the procedure.
+        	while (result.hasNext()) {
+				Path path = getPathObject(this.graphId, result.next());
 				subGraph.addPath(path);
 			}
         }
@@ -106,13 +113,13 @@ public class Traverser implements Serializable {
         Graph subGraph = new Graph();
         Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
         try (Session session = driver.session()) {
-        	String query = "CALL ekstep.procs.traverse";
+        	String query = "CALL ekstep.procs.traverse.stream";
         	List<Node> nodes = new ArrayList<Node>();
         	List<Relation> relations = new ArrayList<Relation>();
         	Map<String, Object> params = getTraverserParams();
         	StatementResult result = session.run(query, params);
-        	for (Record record : result.list()) {
-				Path path = getPathObject(this.graphId, record);
+        	while (result.hasNext()) {
+				Path path = getPathObject(this.graphId, result.next());
 				if (null != path.getNodes())
 					nodes.addAll(path.getNodes());
 				if (null != path.getRelations())
@@ -137,6 +144,8 @@ public class Traverser implements Serializable {
 		params.put("wordIds", this.wordIds);
 		params.put("pathExpander", this.pathExpander);
 		params.put("relationMap", this.relationMap);
+		params.put("maxResults", MAX_RESULTS);
+		params.put("maxDepth", MAX_DEPTH);
 		return params;
     }
     
@@ -15,6 +15,7 @@ public class ImportData implements Serializable {
     private List<Node> dataNodes;
     private Map<String, List<String>> tagMembersMap;
     private List<Relation> relations;
+    private transient ImportSource source;
 
     public ImportData(List<Node> definitionNodes, List<Node> dataNodes, List<Relation> relations,
             Map<String, List<String>> tagMembersMap) {
@@ -24,6 +25,18 @@ public class ImportData implements Serializable {
         this.relations = relations;
     }
 
+    public ImportData(ImportSource source) {
+        this.source = source;
+    }
+
+    /**
+     * @return the source of the data nodes, reading them in chunks. Null when
+     *         the data nodes are in memory.
+     */
+    public ImportSource getSource() {
+        return source;
+    }
+
     /**
      * @return the definitionNodes
      */
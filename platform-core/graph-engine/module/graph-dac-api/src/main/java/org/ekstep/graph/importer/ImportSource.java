@@ -0,0 +1,20 @@
+package org.ekstep.graph.importer;
+
+import java.util.List;
+
+import org.ekstep.graph.dac.model.Node;
+
+/**
+ * Data nodes of an import, read in chunks instead of being held in memory.
+ * Every call of {@link #forEach(ChunkHandler)} reads the input again from the
+ * start, so the nodes and their relations can be imported in separate passes.
+ */
+public interface ImportSource {
+
+	void forEach(ChunkHandler handler) throws Exception;
+
+	interface ChunkHandler {
+
+		void handle(List<Node> nodes) throws Exception;
+	}
+}
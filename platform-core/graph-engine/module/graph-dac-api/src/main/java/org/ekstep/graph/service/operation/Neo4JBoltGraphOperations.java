@@ -1,12 +1,19 @@
 package org.ekstep.graph.service.operation;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.exception.ResourceNotFoundException;
 import org.ekstep.common.exception.ServerException;
@@ -15,11 +22,13 @@ import org.ekstep.graph.cache.util.RedisStoreUtil;
 import org.ekstep.graph.common.Identifier;
 import org.ekstep.graph.common.enums.GraphEngineParams;
 import org.ekstep.graph.dac.enums.GraphDACParams;
+import org.ekstep.graph.dac.enums.RelationTypes;
 import org.ekstep.graph.dac.enums.SystemNodeTypes;
 import org.ekstep.graph.dac.enums.SystemProperties;
 import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.importer.ImportData;
+import org.ekstep.graph.importer.ImportSource;
 import org.ekstep.graph.service.common.DACErrorCodeConstants;
 import org.ekstep.graph.service.common.DACErrorMessageConstants;
 import org.ekstep.graph.service.common.GraphOperation;
@@ -36,6 +45,8 @@ import org.neo4j.driver.v1.exceptions.ClientException;
 public class Neo4JBoltGraphOperations {
 
 	private final static String DEFAULT_CYPHER_NODE_OBJECT = "n";
+	private final static int IMPORT_BATCH_SIZE = Platform.config.hasPath("graph.import.batch.size")
+			? Platform.config.getInt("graph.import.batch.size") : 1000;
 	/**
 	 * Creates the graph.
 	 *
@@ -543,6 +554,156 @@ public class Neo4JBoltGraphOperations {
 			deleteRelation(graphId, startNodeId, endNodeId, relationType, request);
 	}
 
+	/**
+	 * Creates the relations with one UNWIND statement per relation type.
+	 * Existing relations are updated with the given metadata. New sequence
+	 * memberships without an index are appended to the existing members of
+	 * the sequence, as in {@link #createRelation}.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param relations
+	 *            the relations
+	 * @param request
+	 *            the request
+	 */
+	public static void createRelations(String graphId, List<Relation> relations, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Create Relations' Operation Failed.]");
+
+		if (null == relations || relations.isEmpty())
+			return;
+
+		List<Map<String, Object>> rows = getCreateRelationRows(relations, getSequenceMembers(graphId, relations));
+		writeRelations(graphId, null, request, rows,
+				type -> "UNWIND {batch} as row MATCH (from:" + graphId + "{IL_UNIQUE_ID: row.from}) MATCH (to:"
+						+ graphId + "{IL_UNIQUE_ID: row.to}) MERGE (from)-[rel:" + type
+						+ "]->(to) ON CREATE SET rel += row.createMetadata ON MATCH SET rel += row.metadata",
+				0, rows.size());
+	}
+
+	/**
+	 * Builds the rows of the relations to create: <code>metadata</code> is set
+	 * on existing relations and <code>createMetadata</code> on new ones. A new
+	 * sequence membership without an index gets the index after the highest
+	 * one of its sequence, counting the given existing members and the
+	 * memberships before it in the list.
+	 *
+	 * @param relations
+	 *            the relations
+	 * @param sequences
+	 *            existing sequence members with their index, by start node id
+	 * @return the rows
+	 */
+	static List<Map<String, Object>> getCreateRelationRows(List<Relation> relations,
+			Map<String, Map<String, Integer>> sequences) {
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		for (Relation relation : relations) {
+			validateRelation(relation, "Create Relations");
+			Map<String, Object> metadata = new HashMap<String, Object>();
+			if (null != relation.getMetadata())
+				metadata.putAll(relation.getMetadata());
+			Map<String, Object> createMetadata = new HashMap<String, Object>(metadata);
+			if (StringUtils.equalsIgnoreCase(RelationTypes.SEQUENCE_MEMBERSHIP.relationName(),
+					relation.getRelationType())) {
+				Map<String, Integer> members = sequences.get(relation.getStartNodeId());
+				if (null == members) {
+					members = new HashMap<String, Integer>();
+					sequences.put(relation.getStartNodeId(), members);
+				}
+				Integer index = getSequenceIndex(metadata);
+				if (null == index && !members.containsKey(relation.getEndNodeId())) {
+					index = (members.isEmpty() ? 0 : Collections.max(members.values())) + 1;
+					createMetadata.put(SystemProperties.IL_SEQUENCE_INDEX.name(), index);
+				}
+				if (null != index)
+					members.put(relation.getEndNodeId(), index);
+			}
+			Map<String, Object> row = getRelationRow(relation.getRelationType(), relation.getStartNodeId(),
+					relation.getEndNodeId(), metadata);
+			row.put("createMetadata", createMetadata);
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	/**
+	 * Deletes the relations with one UNWIND statement per relation type.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param relations
+	 *            the relations
+	 * @param request
+	 *            the request
+	 */
+	public static void deleteRelations(String graphId, List<Relation> relations, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Delete Relations' Operation Failed.]");
+
+		if (null == relations || relations.isEmpty())
+			return;
+
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		for (Relation relation : relations) {
+			validateRelation(relation, "Delete Relations");
+			rows.add(getRelationRow(relation.getRelationType(), relation.getStartNodeId(), relation.getEndNodeId(),
+					null));
+		}
+		writeRelations(graphId, null, request, rows,
+				type -> "UNWIND {batch} as row MATCH (from:" + graphId + "{IL_UNIQUE_ID: row.from})-[rel:" + type
+						+ "]->(to:" + graphId + "{IL_UNIQUE_ID: row.to}) DELETE rel",
+				0, rows.size());
+	}
+
+	private static void validateRelation(Relation relation, String operation) {
+		if (StringUtils.isBlank(relation.getStartNodeId()))
+			throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
+					DACErrorMessageConstants.INVALID_START_NODE_ID + " | ['" + operation + "' Operation Failed.]");
+
+		if (StringUtils.isBlank(relation.getEndNodeId()))
+			throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
+					DACErrorMessageConstants.INVALID_END_NODE_ID + " | ['" + operation + "' Operation Failed.]");
+
+		if (StringUtils.isBlank(relation.getRelationType()))
+			throw new ClientException(DACErrorCodeConstants.INVALID_RELATION.name(),
+					DACErrorMessageConstants.INVALID_RELATION_TYPE + " | ['" + operation + "' Operation Failed.]");
+	}
+
+	/**
+	 * Fetches the existing sequence members of the start nodes of the new
+	 * sequence memberships, with their index, grouped by start node id.
+	 */
+	private static Map<String, Map<String, Integer>> getSequenceMembers(String graphId, List<Relation> relations) {
+		Map<String, Map<String, Integer>> sequences = new HashMap<String, Map<String, Integer>>();
+		Set<String> sequenceIds = new HashSet<String>();
+		for (Relation relation : relations) {
+			if (StringUtils.equalsIgnoreCase(RelationTypes.SEQUENCE_MEMBERSHIP.relationName(),
+					relation.getRelationType()) && StringUtils.isNotBlank(relation.getStartNodeId()))
+				sequenceIds.add(relation.getStartNodeId());
+		}
+		String query = "UNWIND {ids} as id MATCH (n:" + graphId + "{IL_UNIQUE_ID: id})-[r:"
+				+ RelationTypes.SEQUENCE_MEMBERSHIP.relationName()
+				+ "]->(m) RETURN id, m.IL_UNIQUE_ID as endNodeId, r.IL_SEQUENCE_INDEX as sequenceIndex";
+		for (Record record : runBatchedQuery(graphId, query, new ArrayList<String>(sequenceIds))) {
+			String startNodeId = record.get("id").asString();
+			Map<String, Integer> members = sequences.get(startNodeId);
+			if (null == members) {
+				members = new HashMap<String, Integer>();
+				sequences.put(startNodeId, members);
+			}
+			Map<String, Object> metadata = new HashMap<String, Object>();
+			if (!record.get("sequenceIndex").isNull())
+				metadata.put(SystemProperties.IL_SEQUENCE_INDEX.name(), record.get("sequenceIndex").asObject());
+			Integer index = getSequenceIndex(metadata);
+			members.put(record.get("endNodeId").isNull() ? "" : record.get("endNodeId").asString(),
+					null == index ? 0 : index);
+		}
+		return sequences;
+	}
+
 	/**
 	 * Removes the relation metadata by key.
 	 *
@@ -675,7 +836,11 @@ public class Neo4JBoltGraphOperations {
 	}
 
 	/**
-	 * Import graph.
+	 * Import graph. The data nodes are read from the source of the input in
+	 * three passes: the first one counts (and so validates) the nodes before
+	 * anything is written, the second one upserts the nodes and the last one
+	 * writes the relations, when all the imported nodes exist. Only the chunk
+	 * being written and the identifiers of the imported nodes are in memory.
 	 *
 	 * @param graphId
 	 *            the graph id
@@ -700,21 +865,29 @@ public class Neo4JBoltGraphOperations {
 			throw new ClientException(DACErrorCodeConstants.INVALID_DATA.name(),
 					DACErrorMessageConstants.INVALID_IMPORT_DATA + " | ['Import Graph' Operation Failed.]");
 		Map<String, List<String>> messages = new HashMap<String, List<String>>();
-		// CHECK - write driver, session and transaction created for this - START
-		Map<String, org.ekstep.graph.dac.model.Node> existingNodes = new HashMap<String, org.ekstep.graph.dac.model.Node>();
-		Map<String, Map<String, List<Relation>>> existingRelations = new HashMap<String, Map<String, List<Relation>>>();
-		List<org.ekstep.graph.dac.model.Node> importedNodes = new ArrayList<org.ekstep.graph.dac.model.Node>(
-				input.getDataNodes());
-		int nodesCount = createNodes(graphId, request, existingNodes, existingRelations, importedNodes);
-		int relationsCount = createRelations(graphId, request, existingRelations, existingNodes, importedNodes,
-				messages);
+		ImportSource source = getImportSource(input);
+		Set<String> importedIds = new HashSet<String>();
+		source.forEach(nodes -> getImportedNodes(nodes, importedIds));
+		int nodesCount = createNodes(graphId, taskId, request, source, importedIds.size());
+		int relationsCount = createRelations(graphId, taskId, request, source, importedIds, messages);
 		upsertRootNode(graphId, nodesCount, relationsCount, request);
 		if (StringUtils.isNotBlank(taskId))
 			updateTaskStatus(graphId, taskId, request);
-		// CHECK - write driver and session created for this - END
 		return messages;
 	}
 
+	private static ImportSource getImportSource(ImportData input) {
+		if (null != input.getSource())
+			return input.getSource();
+		return handler -> {
+			List<Node> nodes = input.getDataNodes();
+			if (null == nodes)
+				return;
+			for (int start = 0; start < nodes.size(); start += IMPORT_BATCH_SIZE)
+				handler.handle(nodes.subList(start, Math.min(start + IMPORT_BATCH_SIZE, nodes.size())));
+		};
+	}
+
 	private static void updateTaskStatus(String graphId, String taskId, Request request) throws Exception {
 		Node taskNode = new Node();
 		taskNode.setGraphId(graphId);
@@ -724,208 +897,300 @@ public class Neo4JBoltGraphOperations {
 		Neo4JBoltNodeOperations.upsertNode(graphId, taskNode, request);
 	}
 
-	private static int createNodes(String graphId, Request request, Map<String, Node> existingNodes,
-			Map<String, Map<String, List<Relation>>> existingRelations, List<Node> nodes) {
-		int nodesCount = 0;
-		for (Node node : nodes) {
-			if (null == node || StringUtils.isBlank(node.getIdentifier()) || StringUtils.isBlank(node.getNodeType())) {
-				// ERROR(GraphDACErrorCodes.ERR_CREATE_NODE_MISSING_REQ_PARAMS.name(),
-				// "Invalid input node", request, getSender());
-			} else {
-				Node neo4jNode = null;
-				if (existingNodes.containsKey(node.getIdentifier())) {
-					neo4jNode = existingNodes.get(node.getIdentifier());
-				} else {
-					neo4jNode = Neo4JBoltNodeOperations.upsertNode(graphId, node, request);
-					nodesCount++;
-				}
-				neo4jNode = Neo4JBoltSearchOperations.getNodeByUniqueId(graphId, node.getIdentifier(), true, request);
-				existingNodes.put(node.getIdentifier(), neo4jNode);
-				List<Relation> relations = new ArrayList<Relation>();
-				if (null != neo4jNode.getOutRelations())
-					relations.addAll(neo4jNode.getOutRelations());
-				if (null != neo4jNode.getInRelations())
-					relations.addAll(neo4jNode.getInRelations());
-				getExistingRelations(relations, existingRelations);
+	/**
+	 * Updates the progress of the import task. A negative total is not known
+	 * in advance and is not reported.
+	 */
+	private static void updateTaskProgress(String graphId, String taskId, String entity, int processed, int total,
+			Request request) {
+		if (StringUtils.isBlank(taskId))
+			return;
+		Node taskNode = new Node();
+		taskNode.setGraphId(graphId);
+		taskNode.setIdentifier(taskId);
+		taskNode.setMetadata(new HashMap<String, Object>());
+		taskNode.getMetadata().put(entity + "Processed", processed);
+		if (total >= 0)
+			taskNode.getMetadata().put(entity + "Total", total);
+		Neo4JBoltNodeOperations.upsertNode(graphId, taskNode, request);
+		TelemetryManager.info("Import Graph | " + entity + " processed: " + processed
+				+ (total >= 0 ? "/" + total : "") + " | [Task Id: " + taskId + "]");
+	}
+
+	/**
+	 * Returns the valid nodes of the chunk not seen in the previous chunks,
+	 * by identifier. The first node of an identifier is imported.
+	 */
+	private static Map<String, Node> getImportedNodes(List<Node> nodes, Set<String> seenIds) {
+		Map<String, Node> importedNodes = new LinkedHashMap<String, Node>();
+		if (null != nodes) {
+			for (Node node : nodes) {
+				if (null == node || StringUtils.isBlank(node.getIdentifier())
+						|| StringUtils.isBlank(node.getNodeType()))
+					continue;
+				if (seenIds.add(node.getIdentifier()))
+					importedNodes.put(node.getIdentifier(), node);
 			}
 		}
-		return nodesCount;
+		return importedNodes;
 	}
 
-	private static Map<String, Map<String, List<Relation>>> getExistingRelations(List<Relation> dbRelations,
-			Map<String, Map<String, List<Relation>>> existingRelations) {
-		if (null != dbRelations && null != dbRelations.iterator()) {
-			for (Relation relationship : dbRelations) {
-				String startNodeId = relationship.getStartNodeId();
-				String relationType = relationship.getRelationType();
-				if (existingRelations.containsKey(startNodeId)) {
-					Map<String, List<Relation>> relationMap = existingRelations.get(startNodeId);
-					if (relationMap.containsKey(relationType)) {
-						List<Relation> relationList = relationMap.get(relationType);
-						relationList.add(relationship);
-					} else {
-						List<Relation> relationList = new ArrayList<Relation>();
-						relationList.add(relationship);
-						relationMap.put(relationType, relationList);
-					}
-				} else {
-					Map<String, List<Relation>> relationMap = new HashMap<String, List<Relation>>();
-					List<Relation> relationList = new ArrayList<Relation>();
-					relationList.add(relationship);
-					relationMap.put(relationType, relationList);
-					existingRelations.put(startNodeId, relationMap);
+	private static int createNodes(String graphId, String taskId, Request request, ImportSource source, int total)
+			throws Exception {
+		Set<String> seenIds = new HashSet<String>();
+		AtomicInteger processed = new AtomicInteger();
+		source.forEach(chunk -> {
+			List<Node> nodes = new ArrayList<Node>(getImportedNodes(chunk, seenIds).values());
+			for (int start = 0; start < nodes.size(); start += IMPORT_BATCH_SIZE) {
+				int end = Math.min(start + IMPORT_BATCH_SIZE, nodes.size());
+				Neo4JBoltNodeOperations.upsertNodes(graphId, nodes.subList(start, end), request);
+				updateTaskProgress(graphId, taskId, "nodes", processed.addAndGet(end - start), total, request);
+			}
+		});
+		return processed.get();
+	}
+
+	private static int createRelations(String graphId, String taskId, Request request, ImportSource source,
+			Set<String> importedIds, Map<String, List<String>> messages) throws Exception {
+		Set<String> seenIds = new HashSet<String>();
+		AtomicInteger relationsCount = new AtomicInteger();
+		AtomicInteger processed = new AtomicInteger();
+		source.forEach(chunk -> relationsCount.addAndGet(createRelations(graphId, taskId, request,
+				getImportedNodes(chunk, seenIds), importedIds, messages, processed)));
+		return relationsCount.get();
+	}
+
+	private static int createRelations(String graphId, String taskId, Request request,
+			Map<String, Node> importedNodes, Set<String> importedIds, Map<String, List<String>> messages,
+			AtomicInteger processed) {
+		// relations of the imported nodes: start node id -> relation type ->
+		// end node id -> relation
+		Map<String, Map<String, Map<String, Relation>>> nodeRelations = new LinkedHashMap<String, Map<String, Map<String, Relation>>>();
+		Set<String> endNodeIds = new HashSet<String>();
+		for (Node node : importedNodes.values()) {
+			if (null == node.getOutRelations())
+				continue;
+			Map<String, Map<String, Relation>> relMap = new LinkedHashMap<String, Map<String, Relation>>();
+			for (Relation rel : node.getOutRelations()) {
+				Map<String, Relation> endNodes = relMap.get(rel.getRelationType());
+				if (null == endNodes) {
+					endNodes = new LinkedHashMap<String, Relation>();
+					relMap.put(rel.getRelationType(), endNodes);
+				}
+				if (StringUtils.isNotBlank(rel.getEndNodeId())) {
+					String endNodeId = rel.getEndNodeId().trim();
+					endNodes.put(endNodeId, rel);
+					if (!importedIds.contains(endNodeId))
+						endNodeIds.add(endNodeId);
 				}
 			}
+			nodeRelations.put(node.getIdentifier(), relMap);
 		}
-		return existingRelations;
-	}
+		Map<String, Map<String, List<Relation>>> existingRelations = getExistingRelations(graphId,
+				new ArrayList<String>(nodeRelations.keySet()));
+		Set<String> existingNodeIds = getExistingNodeIds(graphId, new ArrayList<String>(endNodeIds));
 
-	private static int createRelations(String graphId, Request request,
-			Map<String, Map<String, List<Relation>>> existingRelations,
-			Map<String, Node> existingNodes, List<Node> nodes,
-			Map<String, List<String>> messages) {
 		int relationsCount = 0;
-		for (Node node : nodes) {
-			List<Relation> nodeRelations = node.getOutRelations();
-			if (nodeRelations != null) {
-				Map<String, List<String>> nodeRelMap = new HashMap<String, List<String>>();
-				Map<String, Map<String, Relation>> nodeRelation = new HashMap<String, Map<String, Relation>>();
-				for (Relation rel : nodeRelations) {
-					String relType = rel.getRelationType();
-					Map<String, Relation> relMap = nodeRelation.get(relType);
-					if (null == relMap) {
-						relMap = new HashMap<String, Relation>();
-						nodeRelation.put(relType, relMap);
-					}
-					if (nodeRelMap.containsKey(relType)) {
-						List<String> endNodeIds = nodeRelMap.get(relType);
-						if (endNodeIds == null) {
-							endNodeIds = new ArrayList<String>();
-							nodeRelMap.put(relType, endNodeIds);
-						}
-						if (StringUtils.isNotBlank(rel.getEndNodeId())) {
-							endNodeIds.add(rel.getEndNodeId().trim());
-							relMap.put(rel.getEndNodeId().trim(), rel);
-						}
+		List<Map<String, Object>> deletedRelations = new ArrayList<Map<String, Object>>();
+		List<Map<String, Object>> updatedRelations = new ArrayList<Map<String, Object>>();
+		List<Map<String, Object>> createdRelations = new ArrayList<Map<String, Object>>();
+		for (Entry<String, Map<String, Map<String, Relation>>> nodeEntry : nodeRelations.entrySet()) {
+			String uniqueId = nodeEntry.getKey();
+			Map<String, Map<String, Relation>> relMap = nodeEntry.getValue();
+			Map<String, List<Relation>> dbRelMap = existingRelations.get(uniqueId);
+			if (null == dbRelMap)
+				dbRelMap = new HashMap<String, List<Relation>>();
+			Map<String, Integer> sequenceIndices = new HashMap<String, Integer>();
+			for (Entry<String, List<Relation>> dbEntry : dbRelMap.entrySet()) {
+				String relType = dbEntry.getKey();
+				Map<String, Relation> endNodes = relMap.get(relType);
+				for (Relation rel : dbEntry.getValue()) {
+					if (null != endNodes && endNodes.containsKey(rel.getEndNodeId())) {
+						Map<String, Object> metadata = endNodes.get(rel.getEndNodeId()).getMetadata();
+						if (null != metadata && !metadata.isEmpty())
+							updatedRelations.add(getRelationRow(relType, uniqueId, rel.getEndNodeId(), metadata));
+						Integer index = getSequenceIndex(metadata);
+						updateSequenceIndex(sequenceIndices, relType,
+								null != index ? index : getSequenceIndex(rel.getMetadata()));
 					} else {
-						List<String> endNodeIds = new ArrayList<String>();
-						if (StringUtils.isNotBlank(rel.getEndNodeId())) {
-							endNodeIds.add(rel.getEndNodeId().trim());
-							relMap.put(rel.getEndNodeId().trim(), rel);
-						}
-						nodeRelMap.put(relType, endNodeIds);
+						deletedRelations.add(getRelationRow(relType, uniqueId, rel.getEndNodeId(), null));
+						relationsCount--;
 					}
 				}
-				String uniqueId = node.getIdentifier();
-				Node neo4jNode = existingNodes.get(uniqueId);
-				if (existingRelations.containsKey(uniqueId)) {
-					Map<String, List<Relation>> relationMap = existingRelations.get(uniqueId);
-					for (String relType : relationMap.keySet()) {
-						if (nodeRelMap.containsKey(relType)) {
-							List<String> relEndNodeIds = nodeRelMap.get(relType);
-							Map<String, Relation> relMap = nodeRelation.get(relType);
-							for (Relation rel : relationMap.get(relType)) {
-								String endNodeId = rel.getEndNodeId();
-								if (relEndNodeIds.contains(endNodeId)) {
-									relEndNodeIds.remove(endNodeId);
-									Relation relation = relMap.get(endNodeId);
-									request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-									updateRelation(graphId, rel.getStartNodeId(), rel.getEndNodeId(),
-											rel.getRelationType(), request);
-								} else {
-									deleteRelation(graphId, rel.getStartNodeId(), rel.getEndNodeId(),
-											rel.getRelationType(), request);
-									relationsCount--;
-								}
-							}
-							for (String endNodeId : relEndNodeIds) {
-								Node otherNode = existingNodes.get(endNodeId);
-								if (otherNode != null) {
-									Relation relation = relMap.get(endNodeId);
-									request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-									createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(),
-											relType, request);
-									relationsCount++;
-								} else {
-									otherNode = Neo4JBoltSearchOperations.getNodeByUniqueId(graphId, endNodeId, true,
-											request);
-									if (null == otherNode) {
-										List<String> rowMsgs = messages.get(uniqueId);
-										if (rowMsgs == null) {
-											rowMsgs = new ArrayList<String>();
-											messages.put(uniqueId, rowMsgs);
-										}
-										rowMsgs.add("Node with id: " + endNodeId + " not found to create relation:"
-												+ relType);
-									} else {
-										existingNodes.put(endNodeId, otherNode);
-										Relation relation = relMap.get(endNodeId);
-										request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-										createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(),
-												relType, request);
-										relationsCount++;
-									}
-								}
-
-							}
-						} else {
-							for (Relation rel : relationMap.get(relType)) {
-								deleteRelation(graphId, rel.getStartNodeId(), rel.getEndNodeId(), rel.getRelationType(),
-										request);
-								relationsCount--;
-							}
-						}
-					}
-					for (String relType : nodeRelMap.keySet()) {
-						if (!relationMap.containsKey(relType)) {
-							relationsCount += createNewRelations(neo4jNode, nodeRelMap, relType, nodeRelation, uniqueId,
-									existingNodes, messages, graphId, request);
+			}
+			for (Entry<String, Map<String, Relation>> relEntry : relMap.entrySet()) {
+				String relType = relEntry.getKey();
+				Set<String> dbEndNodeIds = new HashSet<String>();
+				if (dbRelMap.containsKey(relType)) {
+					for (Relation rel : dbRelMap.get(relType))
+						dbEndNodeIds.add(rel.getEndNodeId());
+				}
+				for (Entry<String, Relation> endEntry : relEntry.getValue().entrySet()) {
+					String endNodeId = endEntry.getKey();
+					if (dbEndNodeIds.contains(endNodeId))
+						continue;
+					if (!importedIds.contains(endNodeId) && !existingNodeIds.contains(endNodeId)) {
+						List<String> rowMsgs = messages.get(uniqueId);
+						if (rowMsgs == null) {
+							rowMsgs = new ArrayList<String>();
+							messages.put(uniqueId, rowMsgs);
 						}
+						rowMsgs.add("Node with id: " + endNodeId + " not found to create relation:" + relType);
+						continue;
 					}
-				} else {
-					for (String relType : nodeRelMap.keySet()) {
-						relationsCount += createNewRelations(neo4jNode, nodeRelMap, relType, nodeRelation, uniqueId,
-								existingNodes, messages, graphId, request);
+					Map<String, Object> metadata = new HashMap<String, Object>();
+					if (null != endEntry.getValue().getMetadata())
+						metadata.putAll(endEntry.getValue().getMetadata());
+					Integer index = getSequenceIndex(metadata);
+					if (null == index && StringUtils.equalsIgnoreCase(RelationTypes.SEQUENCE_MEMBERSHIP.relationName(),
+							relType)) {
+						Integer maxIndex = sequenceIndices.get(relType);
+						index = (null == maxIndex ? 0 : maxIndex) + 1;
+						metadata.put(SystemProperties.IL_SEQUENCE_INDEX.name(), index);
 					}
+					updateSequenceIndex(sequenceIndices, relType, index);
+					createdRelations.add(getRelationRow(relType, uniqueId, endNodeId, metadata));
+					relationsCount++;
 				}
 			}
 		}
+
+		int count = writeRelations(graphId, taskId, request, deletedRelations,
+				type -> "UNWIND {batch} as row MATCH (from:" + graphId + "{IL_UNIQUE_ID: row.from})-[rel:" + type
+						+ "]->(to:" + graphId + "{IL_UNIQUE_ID: row.to}) DELETE rel",
+				processed.get(), -1);
+		count = writeRelations(graphId, taskId, request, updatedRelations,
+				type -> "UNWIND {batch} as row MATCH (from:" + graphId + "{IL_UNIQUE_ID: row.from})-[rel:" + type
+						+ "]->(to:" + graphId + "{IL_UNIQUE_ID: row.to}) SET rel += row.metadata",
+				count, -1);
+		count = writeRelations(graphId, taskId, request, createdRelations,
+				type -> "UNWIND {batch} as row MATCH (from:" + graphId + "{IL_UNIQUE_ID: row.from}) MATCH (to:"
+						+ graphId + "{IL_UNIQUE_ID: row.to}) CREATE (from)-[rel:" + type
+						+ "]->(to) SET rel += row.metadata",
+				count, -1);
+		processed.set(count);
 		return relationsCount;
 	}
 
-	private static int createNewRelations(Node neo4jNode, Map<String, List<String>> nodeRelMap,
-			String relType, Map<String, Map<String, Relation>> nodeRelation, String uniqueId,
-			Map<String, Node> existingNodes, Map<String, List<String>> messages,
-			String graphId, Request request) {
-		int relationsCount = 0;
-		List<String> relEndNodeIds = nodeRelMap.get(relType);
-		Map<String, Relation> relMap = nodeRelation.get(relType);
-		for (String endNodeId : relEndNodeIds) {
-			Node otherNode = existingNodes.get(endNodeId);
-			if (null == otherNode) {
-				otherNode = Neo4JBoltSearchOperations.getNodeByUniqueId(graphId, endNodeId, true, request);
-				if (null == otherNode) {
-					List<String> rowMsgs = messages.get(uniqueId);
-					if (rowMsgs == null) {
-						rowMsgs = new ArrayList<String>();
-						messages.put(uniqueId, rowMsgs);
+	private static Map<String, Object> getRelationRow(String type, String from, String to,
+			Map<String, Object> metadata) {
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put("type", type);
+		row.put("from", from);
+		row.put("to", to);
+		row.put(GraphDACParams.metadata.name(), null == metadata ? new HashMap<String, Object>() : metadata);
+		return row;
+	}
+
+	private static Integer getSequenceIndex(Map<String, Object> metadata) {
+		if (null != metadata) {
+			try {
+				Object obj = metadata.get(SystemProperties.IL_SEQUENCE_INDEX.name());
+				if (null != obj)
+					return Integer.parseInt(obj.toString());
+			} catch (Exception e) {
+			}
+		}
+		return null;
+	}
+
+	private static void updateSequenceIndex(Map<String, Integer> sequenceIndices, String relType, Integer index) {
+		if (null == index)
+			return;
+		Integer maxIndex = sequenceIndices.get(relType);
+		if (null == maxIndex || index > maxIndex)
+			sequenceIndices.put(relType, index);
+	}
+
+	/**
+	 * Writes the relations in transactions of {@link #IMPORT_BATCH_SIZE}
+	 * relations, with one UNWIND statement per relation type.
+	 */
+	private static int writeRelations(String graphId, String taskId, Request request,
+			List<Map<String, Object>> relations, Function<String, String> queryByType, int processed, int total) {
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.WRITE);
+		for (int start = 0; start < relations.size(); start += IMPORT_BATCH_SIZE) {
+			List<Map<String, Object>> batch = relations.subList(start,
+					Math.min(start + IMPORT_BATCH_SIZE, relations.size()));
+			try (Session session = driver.session()) {
+				try (Transaction tr = session.beginTransaction()) {
+					for (Entry<String, List<Map<String, Object>>> entry : getRelationMap(batch).entrySet()) {
+						Map<String, Object> params = new HashMap<String, Object>();
+						params.put("batch", entry.getValue());
+						tr.run(queryByType.apply(entry.getKey()), params);
 					}
-					rowMsgs.add("Node with id: " + endNodeId + " not found to create relation:" + relType);
-				} else {
-					existingNodes.put(endNodeId, otherNode);
-					Relation relation = relMap.get(endNodeId);
-					request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-					createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(), relType, request);
-					relationsCount++;
+					tr.success();
 				}
-			} else {
-				Relation relation = relMap.get(endNodeId);
-				request.put(GraphDACParams.metadata.name(), relation.getMetadata());
-				createRelation(graphId, neo4jNode.getIdentifier(), otherNode.getIdentifier(), relType, request);
-				relationsCount++;
+			} catch (Exception e) {
+				throw new ServerException(DACErrorCodeConstants.CONNECTION_PROBLEM.name(),
+						DACErrorMessageConstants.CONNECTION_PROBLEM + " | " + e.getMessage());
 			}
+			for (Map<String, Object> relation : batch) {
+				NodeCacheManager.deleteDataNode(graphId, (String) relation.get("from"));
+				NodeCacheManager.deleteDataNode(graphId, (String) relation.get("to"));
+			}
+			processed += batch.size();
+			updateTaskProgress(graphId, taskId, "relations", processed, total, request);
 		}
-		return relationsCount;
+		return processed;
+	}
+
+	/**
+	 * Fetches the outgoing relations of the given nodes, grouped by start node
+	 * id and relation type.
+	 */
+	private static Map<String, Map<String, List<Relation>>> getExistingRelations(String graphId,
+			List<String> nodeIds) {
+		Map<String, Map<String, List<Relation>>> existingRelations = new HashMap<String, Map<String, List<Relation>>>();
+		String query = "UNWIND {ids} as id MATCH (n:" + graphId + "{IL_UNIQUE_ID: id})-[r]->(m:" + graphId
+				+ ") RETURN id, type(r) as type, m.IL_UNIQUE_ID as endNodeId, r.IL_SEQUENCE_INDEX as sequenceIndex";
+		for (Record record : runBatchedQuery(graphId, query, nodeIds)) {
+			String startNodeId = record.get("id").asString();
+			String relationType = record.get("type").asString();
+			Relation relation = new Relation(startNodeId, relationType, record.get("endNodeId").asString());
+			Map<String, Object> metadata = new HashMap<String, Object>();
+			if (!record.get("sequenceIndex").isNull())
+				metadata.put(SystemProperties.IL_SEQUENCE_INDEX.name(), record.get("sequenceIndex").asObject());
+			relation.setMetadata(metadata);
+			Map<String, List<Relation>> relationMap = existingRelations.get(startNodeId);
+			if (null == relationMap) {
+				relationMap = new HashMap<String, List<Relation>>();
+				existingRelations.put(startNodeId, relationMap);
+			}
+			List<Relation> relationList = relationMap.get(relationType);
+			if (null == relationList) {
+				relationList = new ArrayList<Relation>();
+				relationMap.put(relationType, relationList);
+			}
+			relationList.add(relation);
+		}
+		return existingRelations;
+	}
+
+	private static Set<String> getExistingNodeIds(String graphId, List<String> nodeIds) {
+		Set<String> existingNodeIds = new HashSet<String>();
+		String query = "UNWIND {ids} as id MATCH (n:" + graphId + "{IL_UNIQUE_ID: id}) RETURN id";
+		for (Record record : runBatchedQuery(graphId, query, nodeIds))
+			existingNodeIds.add(record.get("id").asString());
+		return existingNodeIds;
+	}
+
+	private static List<Record> runBatchedQuery(String graphId, String query, List<String> ids) {
+		List<Record> records = new ArrayList<Record>();
+		if (ids.isEmpty())
+			return records;
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			for (int start = 0; start < ids.size(); start += IMPORT_BATCH_SIZE) {
+				Map<String, Object> params = new HashMap<String, Object>();
+				params.put("ids", ids.subList(start, Math.min(start + IMPORT_BATCH_SIZE, ids.size())));
+				records.addAll(session.run(query, params).list());
+			}
+		} catch (Exception e) {
+			throw new ServerException(DACErrorCodeConstants.CONNECTION_PROBLEM.name(),
+					DACErrorMessageConstants.CONNECTION_PROBLEM + " | " + e.getMessage());
+		}
+		return records;
 	}
 
 	private static void upsertRootNode(String graphId, Integer nodesCount, Integer relationsCount, Request request) {
@@ -1,5 +1,6 @@
 package org.ekstep.graph.service.operation;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -304,6 +305,76 @@ public class Neo4JBoltNodeOperations {
 		}
 	}
 
+	/**
+	 * Upserts a batch of nodes with a single UNWIND statement in one
+	 * transaction. Each node gets the same properties as with
+	 * {@link #upsertNode(String, Node, Request)}.
+	 */
+	public static void upsertNodes(String graphId, List<Node> nodes, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | [Upsert Nodes Operation Failed.]");
+		if (null == nodes || nodes.isEmpty())
+			return;
+
+		String date = DateUtils.formatCurrentDate();
+		String versionKey = Long.toString(DateUtils.parse(date).getTime());
+		List<Map<String, Object>> batch = new ArrayList<Map<String, Object>>();
+		Map<String, String> nodeTypes = new HashMap<String, String>();
+		for (Node node : nodes) {
+			if (null == node.getMetadata())
+				node.setMetadata(new HashMap<String, Object>());
+			setRequestContextToNode(node, request);
+			validateAuthorization(graphId, node, request);
+			versionValidator.validateUpdateOperation(graphId, node);
+			node.getMetadata().remove(GraphDACParams.versionKey.name());
+			node.setGraphId(graphId);
+
+			Map<String, Object> metadata = new HashMap<String, Object>(node.getMetadata());
+			if (null == metadata.get(GraphDACParams.SYS_INTERNAL_LAST_UPDATED_ON.name()))
+				metadata.put(AuditProperties.lastUpdatedOn.name(), date);
+			metadata.put(GraphDACParams.versionKey.name(), versionKey);
+			Map<String, Object> row = new HashMap<String, Object>();
+			row.put(SystemProperties.IL_UNIQUE_ID.name(), node.getIdentifier());
+			row.put(SystemProperties.IL_SYS_NODE_TYPE.name(), node.getNodeType());
+			row.put(SystemProperties.IL_FUNC_OBJECT_TYPE.name(),
+					StringUtils.isNotBlank(node.getObjectType()) ? node.getObjectType() : null);
+			row.put(GraphDACParams.metadata.name(), metadata);
+			batch.add(row);
+			nodeTypes.put(node.getIdentifier(), node.getNodeType());
+		}
+
+		String query = "UNWIND {batch} as row MERGE (ee:" + graphId
+				+ " {IL_UNIQUE_ID: row.IL_UNIQUE_ID}) ON CREATE SET ee += row.metadata, ee.IL_SYS_NODE_TYPE = row.IL_SYS_NODE_TYPE,"
+				+ " ee.IL_FUNC_OBJECT_TYPE = row.IL_FUNC_OBJECT_TYPE, ee.createdOn = {createdOn}"
+				+ " ON MATCH SET ee += row.metadata RETURN ee";
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("batch", batch);
+		params.put(AuditProperties.createdOn.name(), date);
+
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.WRITE);
+		List<Record> records;
+		try (Session session = driver.session()) {
+			try (Transaction tx = session.beginTransaction()) {
+				records = tx.run(query, params).list();
+				tx.success();
+			}
+		} catch (Exception e) {
+			throw new ServerException(DACErrorCodeConstants.CONNECTION_PROBLEM.name(),
+					DACErrorMessageConstants.CONNECTION_PROBLEM + " | " + e.getMessage());
+		}
+		for (Record record : records) {
+			org.neo4j.driver.v1.types.Node neo4JNode = record.get(DEFAULT_CYPHER_NODE_OBJECT).asNode();
+			String identifier = neo4JNode.get(SystemProperties.IL_UNIQUE_ID.name()).asString();
+			try {
+				updateRedisCache(graphId, neo4JNode, identifier, nodeTypes.get(identifier));
+			} catch (Exception e) {
+				throw new ServerException(DACErrorCodeConstants.CACHE_ERROR.name(),
+						DACErrorMessageConstants.CACHE_ERROR + " | " + e.getMessage());
+			}
+		}
+	}
+
 	public static void updatePropertyValue(String graphId, String nodeId, Property property, Request request) {
 
 		if (StringUtils.isBlank(graphId))
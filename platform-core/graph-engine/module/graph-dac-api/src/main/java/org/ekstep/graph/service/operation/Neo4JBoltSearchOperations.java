@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Property;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.exception.ResourceNotFoundException;
@@ -36,6 +37,9 @@ import org.neo4j.graphdb.Direction;
 
 public class Neo4JBoltSearchOperations {
 
+	private final static int READ_PAGE_SIZE = Platform.config.hasPath("graph.read.page.size")
+			? Platform.config.getInt("graph.read.page.size") : 1000;
+
 	/**
 	 * Gets the node by id.
 	 *
@@ -358,7 +362,8 @@ public class Neo4JBoltSearchOperations {
 	}
 
 	/**
-	 * Gets the all nodes.
+	 * Gets the all nodes. The nodes are read page by page, in pages of
+	 * <code>graph.read.page.size</code> nodes.
 	 *
 	 * @param graphId
 	 *            the graph id
@@ -372,86 +377,229 @@ public class Neo4JBoltSearchOperations {
 			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
 					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get All Nodes' Operation Failed.]");
 
+		List<Node> nodes = new ArrayList<Node>();
+		Long cursor = null;
+		List<Node> page;
+		do {
+			page = getNodesPage(graphId, null, cursor, READ_PAGE_SIZE, request);
+			nodes.addAll(page);
+			cursor = getNodesCursor(page, cursor);
+		} while (page.size() >= READ_PAGE_SIZE);
+		TelemetryManager.log("Returning All Nodes: " + nodes.size());
+		return nodes;
+	}
+
+	/**
+	 * Gets the all relations. The relations are read page by page, in pages
+	 * of <code>graph.read.page.size</code> relations.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param request
+	 *            the request
+	 * @return the all relations
+	 */
+	public static List<Relation> getAllRelations(String graphId, Request request) {
+		
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get All Relations' Operation Failed.]");
+
+		List<Relation> relations = new ArrayList<Relation>();
+		Long cursor = null;
+		List<Relation> page;
+		do {
+			page = getRelationsPage(graphId, cursor, READ_PAGE_SIZE, request);
+			relations.addAll(page);
+			cursor = getRelationsCursor(page, cursor);
+		} while (page.size() >= READ_PAGE_SIZE);
+		TelemetryManager.log("Returning All Relations: " + relations.size());
+		return relations;
+	}
+
+	/**
+	 * Gets a page of the nodes of the graph with their relations. The nodes
+	 * are ordered by their internal id and the page starts after the given
+	 * cursor, so the graph can be read page by page without holding it in
+	 * memory.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param objectType
+	 *            the object type of the nodes, null for all the nodes
+	 * @param cursor
+	 *            the internal id of the last node of the previous page, null
+	 *            for the first page
+	 * @param limit
+	 *            the maximum number of nodes of the page
+	 * @param request
+	 *            the request
+	 * @return the nodes of the page, an empty list after the last page
+	 */
+	public static List<Node> getNodesPage(String graphId, String objectType, Long cursor, int limit,
+			Request request) {
+
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Page' Operation Failed.]");
+
 		List<Node> nodes = new ArrayList<Node>();
 		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
-		TelemetryManager.log("Driver Initialised. | [Graph Id: " + graphId + "]");
 		try (Session session = driver.session()) {
 			Map<String, Object> parameterMap = new HashMap<String, Object>();
 			parameterMap.put(GraphDACParams.graphId.name(), graphId);
-			parameterMap.put(GraphDACParams.request.name(), request);
+			parameterMap.put(GraphDACParams.objectType.name(), objectType);
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("cursor", null == cursor ? -1L : cursor);
+			params.put("limit", limit);
+			if (StringUtils.isNotBlank(objectType))
+				params.put("objectType", objectType);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetAllNodesCypherQuery(parameterMap));
-			Map<Long, Object> nodeMap = new HashMap<Long, Object>();
-			Map<Long, Object> relationMap = new HashMap<Long, Object>();
-			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
-			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
-			if (null != result) {
-				for (Record record : result.list()) {
-					TelemetryManager.log("'Get All Nodes' Operation Finished.", record.asMap());
-					if (null != record)
-						getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
-				}
-			}
-			
-			if (!nodeMap.isEmpty()) {
-				for (Entry<Long, Object> entry : nodeMap.entrySet())
-					nodes.add(new Node(graphId, (org.neo4j.driver.v1.types.Node) entry.getValue(), relationMap,
-							startNodeMap, endNodeMap));
-			}
+					.run(SearchQueryGenerationUtil.generateGetNodesPageCypherQuery(parameterMap), params);
+			nodes = getNodesWithRelations(graphId, result);
 		}
-		TelemetryManager.log("Returning All Nodes: " + nodes.size());
 		return nodes;
 	}
 
 	/**
-	 * Gets the all relations.
+	 * Gets the nodes reachable from the start node through outgoing relations
+	 * of the given type, up to the given depth, with one query. Each node has
+	 * its outgoing relations.
 	 *
 	 * @param graphId
 	 *            the graph id
+	 * @param startNodeId
+	 *            the start node id
+	 * @param relationType
+	 *            the relation type
+	 * @param depth
+	 *            the depth
 	 * @param request
 	 *            the request
-	 * @return the all relations
+	 * @return the nodes, including the start node
 	 */
-	public static List<Relation> getAllRelations(String graphId, Request request) {
-		
+	public static List<Node> getSubGraphNodes(String graphId, String startNodeId, String relationType, int depth,
+			Request request) {
+
 		if (StringUtils.isBlank(graphId))
 			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
-					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get All Relations' Operation Failed.]");
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Sub Graph Nodes' Operation Failed.]");
 
-		List<Relation> relations = new ArrayList<Relation>();
+		if (StringUtils.isBlank(startNodeId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_IDENTIFIER.name(),
+					DACErrorMessageConstants.INVALID_START_NODE_ID + " | ['Get Sub Graph Nodes' Operation Failed.]");
+
+		List<Node> nodes = new ArrayList<Node>();
 		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
-		TelemetryManager.log("Driver Initialised. | [Graph Id: " + graphId + "]");
 		try (Session session = driver.session()) {
 			Map<String, Object> parameterMap = new HashMap<String, Object>();
 			parameterMap.put(GraphDACParams.graphId.name(), graphId);
-			parameterMap.put(GraphDACParams.request.name(), request);
+			parameterMap.put(GraphDACParams.relationType.name(), relationType);
+			parameterMap.put(GraphDACParams.depth.name(), depth);
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("startNodeId", startNodeId);
 
 			StatementResult result = session
-					.run(SearchQueryGenerationUtil.generateGetAllRelationsCypherQuery(parameterMap));
+					.run(SearchQueryGenerationUtil.generateGetSubGraphNodesCypherQuery(parameterMap), params);
+			nodes = getNodesWithRelations(graphId, result);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Builds the nodes of a result having a node and one of its relations per
+	 * record, grouping the relations of each node.
+	 */
+	private static List<Node> getNodesWithRelations(String graphId, StatementResult result) {
+		List<Node> nodes = new ArrayList<Node>();
+		Map<Long, Object> nodeMap = new LinkedHashMap<Long, Object>();
+		Map<Long, Map<Long, Object>> nodeRelationMap = new HashMap<Long, Map<Long, Object>>();
+		Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
+		Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
+		while (result.hasNext()) {
+			Record record = result.next();
 			Map<Long, Object> relationMap = new HashMap<Long, Object>();
-			Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
-			Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
-			if (null != result) {
-				for (Record record : result.list()) {
-					TelemetryManager.log("'Get All Relations' Operation Finished.", record.asMap());
-					if (null != record)
-						getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
+			getRecordValues(record, nodeMap, relationMap, startNodeMap, endNodeMap);
+			if (!relationMap.isEmpty()) {
+				long nodeId = record.get(CypherQueryConfigurationConstants.DEFAULT_CYPHER_NODE_OBJECT).asNode().id();
+				Map<Long, Object> relations = nodeRelationMap.get(nodeId);
+				if (null == relations) {
+					relations = new HashMap<Long, Object>();
+					nodeRelationMap.put(nodeId, relations);
 				}
+				relations.putAll(relationMap);
 			}
-			TelemetryManager.log("Relation Map: " + relationMap + "\nStart Node Map: " + startNodeMap + "\nEnd Node Map: "
-					+ endNodeMap);
+		}
+		for (Entry<Long, Object> entry : nodeMap.entrySet())
+			nodes.add(new Node(graphId, (org.neo4j.driver.v1.types.Node) entry.getValue(),
+					nodeRelationMap.get(entry.getKey()), startNodeMap, endNodeMap));
+		return nodes;
+	}
 
-			if (!relationMap.isEmpty()) {
-				for (Entry<Long, Object> entry : relationMap.entrySet())
-					relations.add(new Relation(graphId, (org.neo4j.driver.v1.types.Relationship) entry.getValue(),
+	/**
+	 * Gets a page of the relations between the nodes of the graph. The
+	 * relations are ordered by their internal id and the page starts after
+	 * the given cursor.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param cursor
+	 *            the internal id of the last relation of the previous page,
+	 *            null for the first page
+	 * @param limit
+	 *            the maximum number of relations of the page
+	 * @param request
+	 *            the request
+	 * @return the relations of the page, an empty list after the last page
+	 */
+	public static List<Relation> getRelationsPage(String graphId, Long cursor, int limit, Request request) {
+
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Relations Page' Operation Failed.]");
+
+		List<Relation> relations = new ArrayList<Relation>();
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		try (Session session = driver.session()) {
+			Map<String, Object> parameterMap = new HashMap<String, Object>();
+			parameterMap.put(GraphDACParams.graphId.name(), graphId);
+			Map<String, Object> params = new HashMap<String, Object>();
+			params.put("cursor", null == cursor ? -1L : cursor);
+			params.put("limit", limit);
+
+			StatementResult result = session
+					.run(SearchQueryGenerationUtil.generateGetRelationsPageCypherQuery(parameterMap), params);
+			while (result.hasNext()) {
+				Record record = result.next();
+				Map<Long, Object> relationMap = new HashMap<Long, Object>();
+				Map<Long, Object> startNodeMap = new HashMap<Long, Object>();
+				Map<Long, Object> endNodeMap = new HashMap<Long, Object>();
+				getRecordValues(record, null, relationMap, startNodeMap, endNodeMap);
+				for (Object relationship : relationMap.values())
+					relations.add(new Relation(graphId, (org.neo4j.driver.v1.types.Relationship) relationship,
 							startNodeMap, endNodeMap));
 			}
 		}
-		TelemetryManager.log("Returning All Relations: " + relations.size());
 		return relations;
 	}
 
+	private static Long getNodesCursor(List<Node> nodes, Long cursor) {
+		for (Node node : nodes) {
+			if (null == cursor || node.getId() > cursor)
+				cursor = node.getId();
+		}
+		return cursor;
+	}
+
+	private static Long getRelationsCursor(List<Relation> relations, Long cursor) {
+		for (Relation relation : relations) {
+			if (null == cursor || relation.getId() > cursor)
+				cursor = relation.getId();
+		}
+		return cursor;
+	}
+
 	/**
 	 * Gets the relation property.
 	 *
@@ -701,6 +849,74 @@ public class Neo4JBoltSearchOperations {
 		return cyclicLoopMap;
 	}
 
+	/**
+	 * Checks the relations for cyclic loops with one UNWIND statement per
+	 * relation type.
+	 *
+	 * @param graphId
+	 *            the graph id
+	 * @param relations
+	 *            the relations
+	 * @param request
+	 *            the request
+	 * @return the relations whose end node is already connected to their
+	 *         start node by the relation type
+	 */
+	public static List<Relation> checkCyclicLoops(String graphId, List<Relation> relations, Request request) {
+		if (StringUtils.isBlank(graphId))
+			throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+					DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Check Cyclic Loops' Operation Failed.]");
+
+		List<Relation> loops = new ArrayList<Relation>();
+		if (null == relations || relations.isEmpty())
+			return loops;
+
+		Map<String, List<Relation>> relationsByType = new HashMap<String, List<Relation>>();
+		for (Relation relation : relations) {
+			if (StringUtils.isBlank(relation.getStartNodeId()) || StringUtils.isBlank(relation.getEndNodeId())
+					|| StringUtils.isBlank(relation.getRelationType()))
+				throw new ClientException(DACErrorCodeConstants.INVALID_RELATION.name(),
+						DACErrorMessageConstants.INVALID_RELATION_TYPE + " | ['Check Cyclic Loops' Operation Failed.]");
+			List<Relation> list = relationsByType.get(relation.getRelationType());
+			if (null == list) {
+				list = new ArrayList<Relation>();
+				relationsByType.put(relation.getRelationType(), list);
+			}
+			list.add(relation);
+		}
+
+		Driver driver = DriverUtil.getDriver(graphId, GraphOperation.READ);
+		TelemetryManager.log("Driver Initialised. | [Graph Id: " + graphId + "]");
+		try (Session session = driver.session()) {
+			for (Entry<String, List<Relation>> entry : relationsByType.entrySet()) {
+				List<Map<String, Object>> batch = new ArrayList<Map<String, Object>>();
+				Map<String, Relation> relationMap = new HashMap<String, Relation>();
+				for (Relation relation : entry.getValue()) {
+					Map<String, Object> row = new HashMap<String, Object>();
+					row.put("from", relation.getStartNodeId());
+					row.put("to", relation.getEndNodeId());
+					batch.add(row);
+					relationMap.put(relation.getStartNodeId() + ":" + relation.getEndNodeId(), relation);
+				}
+				String query = "UNWIND {batch} as row MATCH (ee:" + graphId + "{IL_UNIQUE_ID: row.to}) MATCH (aa:"
+						+ graphId + "{IL_UNIQUE_ID: row.from}) WHERE (ee)-[:" + entry.getKey()
+						+ "*1..]->(aa) RETURN DISTINCT row.from as from, row.to as to";
+				Map<String, Object> params = new HashMap<String, Object>();
+				params.put("batch", batch);
+				StatementResult result = session.run(query, params);
+				for (Record record : result.list()) {
+					Relation relation = relationMap
+							.get(record.get("from").asString() + ":" + record.get("to").asString());
+					if (null != relation)
+						loops.add(relation);
+				}
+			}
+		}
+
+		TelemetryManager.log("Returning Cyclic Loops: " + loops.size());
+		return loops;
+	}
+
 	/**
 	 * Execute query.
 	 *
@@ -1,6 +1,9 @@
 package org.ekstep.graph.service.request.validator;
 
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.graph.cache.util.CacheKeyGenerator;
 import org.ekstep.graph.cache.util.RedisStoreUtil;
 import org.ekstep.graph.dac.enums.GraphDACParams;
 import org.ekstep.graph.dac.enums.SystemNodeTypes;
@@ -34,8 +37,12 @@ public class Neo4jBoltValidator extends Neo4JBoltDataVersionKeyValidator {
 				return validateUpdateOperation(graphId, node, versionCheckMode, storedVersionKey);
 			}
 		} else {
-			versionCheckMode = RedisStoreUtil.getNodeProperty(graphId, nodeObjType,
-					GraphDACParams.versionCheckMode.name());
+			// fetch versionCheckMode of the object type and versionKey of the
+			// node in a single round trip
+			List<String> values = RedisStoreUtil.multiGet(
+					CacheKeyGenerator.getNodePropertyKey(graphId, nodeObjType, GraphDACParams.versionCheckMode.name()),
+					CacheKeyGenerator.getNodePropertyKey(graphId, nodeId, GraphDACParams.versionKey.name()));
+			versionCheckMode = values.get(0);
 			if (StringUtils.isNotBlank(versionCheckMode)) { // from Redis cache
 				// versionCheckMode is from Redis cache, check versionKey in
 				// Redis or graph
@@ -44,8 +51,7 @@ public class Neo4jBoltValidator extends Neo4JBoltDataVersionKeyValidator {
 				TelemetryManager.log(
 						"setting Version Check Mode in Local Cache: " + versionCheckMode + " for Object Type: " + node.getObjectType());
 				if (!StringUtils.equalsIgnoreCase(NodeUpdateMode.OFF.name(), versionCheckMode)) {
-					String storedVersionKey = RedisStoreUtil.getNodeProperty(graphId, nodeId,
-							GraphDACParams.versionKey.name());
+					String storedVersionKey = values.get(1);
 					return validateUpdateOperation(graphId, node, versionCheckMode, storedVersionKey);
 				}
 			} else { // from graph - fall back
@@ -1,37 +1,33 @@
 package org.ekstep.graph.service.util;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.ekstep.common.ConnectionRegistry;
 import org.ekstep.common.Platform;
 import org.ekstep.graph.service.common.DACConfigurationConstants;
 import org.ekstep.graph.service.common.GraphOperation;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import org.neo4j.driver.v1.Driver;
 import org.neo4j.driver.v1.GraphDatabase;
+import org.neo4j.driver.v1.Session;
 
 public class DriverUtil {
 
-	private static Map<String, Driver> driverMap = new HashMap<String, Driver>();
+	private static ConnectionRegistry<Driver> driverRegistry = ConnectionRegistry.<Driver>builder("neo4j")
+			.closer(Driver::close).healthCheck(DriverUtil::isHealthy, 60).build();
 
 	public static Driver getDriver(String graphId, GraphOperation graphOperation) {
-		TelemetryManager.log("Get Driver for Graph Id: "+ graphId);
+		TelemetryManager.log(() -> "Get Driver for Graph Id: "+ graphId);
 		String driverKey = graphId + DACConfigurationConstants.UNDERSCORE
 				+ StringUtils.lowerCase(graphOperation.name());
-		TelemetryManager.log("Driver Configuration Key: " + driverKey);
+		TelemetryManager.log(() -> "Driver Configuration Key: " + driverKey);
 
-		Driver driver = driverMap.get(driverKey);
-		if (null == driver) {
-			driver = loadDriver(graphId, graphOperation);
-			driverMap.put(driverKey, driver);
-		}
-		return driver;
+		return driverRegistry.get(driverKey, key -> loadDriver(graphId, graphOperation));
 	}
 
 	public static Driver loadDriver(String graphId, GraphOperation graphOperation) {
-		TelemetryManager.log("Loading driver for Graph Id: "+ graphId);
+		TelemetryManager.log(() -> "Loading driver for Graph Id: "+ graphId);
 		String driverType = Platform.config.hasPath("neo4j.driver.type")
 				? Platform.config.getString("neo4j.driver.type")
 				: DACConfigurationConstants.NEO4J_SERVER_DRIVER_TYPE;
@@ -55,33 +51,27 @@ public class DriverUtil {
 			break;
 
 		default:
-			TelemetryManager.log("Invalid Database (Bolt) Driver Type: " + driverType + " | [Default Driver Type is ]");
+			TelemetryManager.log(() -> "Invalid Database (Bolt) Driver Type: " + driverType + " | [Default Driver Type is ]");
 			driver = GraphDatabase.driver(RoutingUtil.getRoute(graphId, null));
 			break;
 		}
-		if (null != driver)
-			registerShutdownHook(driver);
 		return driver;
 	}
 
 	public static void closeDrivers() {
-		for (Iterator<Map.Entry<String, Driver>> it = driverMap.entrySet().iterator(); it.hasNext();) {
-			Map.Entry<String, Driver> entry = it.next();
-			Driver driver = entry.getValue();
-			driver.close();
-			it.remove();
-		}
+		TelemetryManager.log("Closing Neo4j Graph Drivers...");
+		driverRegistry.closeAll();
 	}
 
-	private static void registerShutdownHook(Driver driver) {
-		Runtime.getRuntime().addShutdownHook(new Thread() {
-			@Override
-			public void run() {
-				TelemetryManager.log("Closing Neo4j Graph Driver...");
-				if (null != driver)
-					driver.close();
-			}
-		});
+	public static Map<String, Object> getStats() {
+		return driverRegistry.getStats();
+	}
+
+	private static boolean isHealthy(Driver driver) {
+		try (Session session = driver.session()) {
+			session.run("RETURN 1").consume();
+			return true;
+		}
 	}
 
 }
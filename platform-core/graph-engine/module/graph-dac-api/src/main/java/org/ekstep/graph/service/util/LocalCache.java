@@ -1,51 +1,28 @@
 package org.ekstep.graph.service.util;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.ekstep.common.Platform;
 import org.ekstep.graph.cache.util.CacheKeyGenerator;
-import org.ekstep.telemetry.logger.TelemetryManager;
+import org.ekstep.graph.cache.util.InMemoryCache;
 
 /**
  * The Class LocalCache, is used to cache any object in current java instance
  * local heap until the cached object time to live(ttl) expired as per
- * configured ttl
+ * configured ttl. The cache is bounded by <code>cache.local.max_size</code>.
  *
  * @author karthik
  */
 public class LocalCache {
 
-	/** The cache map. */
-	private static Map<String, CacheObject> cacheMap = null;
+	/** The cache. */
+	private static InMemoryCache<Object> cache = null;
 
 	/** The ttl. */
 	private static long ttl = 36000000; // default 10 hour
 
-	/**
-	 * The Class CacheObject.
-	 *
-	 * @author karthik
-	 */
-	protected static class CacheObject {
-
-		/** The create on. */
-		public long createOn = System.currentTimeMillis();
-
-		/** The value. */
-		public Object value;
-
-		/**
-		 * Instantiates a new cache object.
-		 *
-		 * @param value
-		 *            the value
-		 */
-		protected CacheObject(Object value) {
-			this.value = value;
-			TelemetryManager.log("Local cache object value=" + value.toString() + "createOn=" + createOn);
-		}
-	}
+	/** The max size. */
+	private static long maxSize = 10000;
 
 	static {
 		init();
@@ -55,8 +32,8 @@ public class LocalCache {
 	 * Inits the.
 	 */
 	public static void init() {
-		cacheMap = new HashMap<String, CacheObject>();
 		setTTL();
+		cache = InMemoryCache.builder("local").maxSize(maxSize).ttl(Math.max(1, ttl / 1000)).build();
 	}
 
 	/**
@@ -67,20 +44,7 @@ public class LocalCache {
 	 * @return the object
 	 */
 	public static Object get(String key) {
-		CacheObject c = (CacheObject) cacheMap.get(key);
-
-		if (c == null)
-			return null;
-		else {
-			long now = System.currentTimeMillis();
-			if (now - c.createOn > ttl) {
-				TelemetryManager.log("Local cache object value=" + c.value.toString() + "createOn=" + c.createOn
-						+ " is expired now");
-				cacheMap.remove(key);
-				return null;
-			}
-			return c.value;
-		}
+		return cache.get(key);
 	}
 
 	/**
@@ -92,11 +56,16 @@ public class LocalCache {
 	 *            the value
 	 */
 	public static void set(String key, Object value) {
+		cache.put(key, value);
+	}
 
-		CacheObject cacheObj = new CacheObject(value);
-		cacheMap.put(key, cacheObj);
-		TelemetryManager.log("Local cache object value=" + cacheObj.value.toString() + "cacheObj.createOn="
-				+ cacheObj.createOn + " is set now");
+	/**
+	 * Gets the cache stats.
+	 *
+	 * @return the stats
+	 */
+	public static Map<String, Object> getStats() {
+		return cache.getStats();
 	}
 
 	/**
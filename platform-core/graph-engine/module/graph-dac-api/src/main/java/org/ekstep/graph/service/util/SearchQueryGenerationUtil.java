@@ -153,6 +153,69 @@ public class SearchQueryGenerationUtil {
 		return query.toString();
 	}
 
+	public static String generateGetNodesPageCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID + " | ['Get Nodes Page' Query Generation Failed.]");
+
+			query.append("MATCH (ee:" + graphId + ") WHERE id(ee) > {cursor}");
+			if (StringUtils.isNotBlank((String) parameterMap.get(GraphDACParams.objectType.name())))
+				query.append(" AND ee." + SystemProperties.IL_FUNC_OBJECT_TYPE.name() + " = {objectType}");
+			query.append(" WITH ee ORDER BY id(ee) LIMIT {limit}"
+					+ " OPTIONAL MATCH (ee)-[r]-() RETURN ee, r, startNode(r) as __startNode, endNode(r) as __endNode");
+		}
+
+		TelemetryManager.log("Returning Get Nodes Page Cypher Query: " + query);
+		return query.toString();
+	}
+
+	public static String generateGetSubGraphNodesCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID
+								+ " | ['Get Sub Graph Nodes' Query Generation Failed.]");
+
+			String relationType = (String) parameterMap.get(GraphDACParams.relationType.name());
+			if (StringUtils.isBlank(relationType) || StringUtils.contains(relationType, "`"))
+				throw new ClientException(DACErrorCodeConstants.INVALID_RELATION.name(),
+						DACErrorMessageConstants.INVALID_RELATION_TYPE
+								+ " | ['Get Sub Graph Nodes' Query Generation Failed.]");
+
+			int depth = (Integer) parameterMap.get(GraphDACParams.depth.name());
+			query.append("MATCH (n:" + graphId + " {" + SystemProperties.IL_UNIQUE_ID.name() + ": {startNodeId}})-[:`"
+					+ relationType + "`*0.." + depth + "]->(ee:" + graphId + ") WITH DISTINCT ee"
+					+ " OPTIONAL MATCH (ee)-[r]->(aa:" + graphId + ")"
+					+ " RETURN ee, r, ee as __startNode, aa as __endNode");
+		}
+
+		TelemetryManager.log("Returning Get Sub Graph Nodes Cypher Query: " + query);
+		return query.toString();
+	}
+
+	public static String generateGetRelationsPageCypherQuery(Map<String, Object> parameterMap) {
+		StringBuilder query = new StringBuilder();
+		if (null != parameterMap) {
+			String graphId = (String) parameterMap.get(GraphDACParams.graphId.name());
+			if (StringUtils.isBlank(graphId))
+				throw new ClientException(DACErrorCodeConstants.INVALID_GRAPH.name(),
+						DACErrorMessageConstants.INVALID_GRAPH_ID
+								+ " | ['Get Relations Page' Query Generation Failed.]");
+
+			query.append("MATCH (ee:" + graphId + ")-[r]->(aa:" + graphId
+					+ ") WHERE id(r) > {cursor} WITH r, ee, aa ORDER BY id(r) LIMIT {limit}"
+					+ " RETURN r, ee as __startNode, aa as __endNode");
+		}
+
+		TelemetryManager.log("Returning Get Relations Page Cypher Query: " + query);
+		return query.toString();
+	}
+
 	public static String generateGetAllRelationsCypherQuery(Map<String, Object> parameterMap) {
 		StringBuilder query = new StringBuilder();
 		if (null != parameterMap) {
@@ -0,0 +1,114 @@
+package org.ekstep.graph.service.operation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ekstep.graph.dac.enums.RelationTypes;
+import org.ekstep.graph.dac.enums.SystemProperties;
+import org.ekstep.graph.dac.model.Relation;
+import org.junit.Assert;
+import org.junit.Test;
+import org.neo4j.driver.v1.exceptions.ClientException;
+
+@SuppressWarnings("unchecked")
+public class CreateRelationRowsTest {
+
+	private static final String SEQUENCE_INDEX = SystemProperties.IL_SEQUENCE_INDEX.name();
+
+	@Test
+	public void testNewMemberIsAppended() {
+		Map<String, Map<String, Integer>> sequences = getSequences("do_seq", "do_1", 1, "do_2", 3);
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations
+				.getCreateRelationRows(Arrays.asList(member("do_seq", "do_3", null)), sequences);
+		Assert.assertEquals(4, getCreateMetadata(rows.get(0)).get(SEQUENCE_INDEX));
+		Assert.assertFalse(getMetadata(rows.get(0)).containsKey(SEQUENCE_INDEX));
+	}
+
+	@Test
+	public void testNewMembersOfOneBatchAreNumberedInOrder() {
+		Map<String, Map<String, Integer>> sequences = getSequences("do_seq", "do_1", 1);
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations.getCreateRelationRows(
+				Arrays.asList(member("do_seq", "do_2", null), member("do_seq", "do_3", null)), sequences);
+		Assert.assertEquals(2, getCreateMetadata(rows.get(0)).get(SEQUENCE_INDEX));
+		Assert.assertEquals(3, getCreateMetadata(rows.get(1)).get(SEQUENCE_INDEX));
+	}
+
+	@Test
+	public void testFirstMemberOfEmptySequence() {
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations.getCreateRelationRows(
+				Arrays.asList(member("do_seq", "do_1", null)), new HashMap<String, Map<String, Integer>>());
+		Assert.assertEquals(1, getCreateMetadata(rows.get(0)).get(SEQUENCE_INDEX));
+	}
+
+	@Test
+	public void testGivenIndexIsKept() {
+		Map<String, Map<String, Integer>> sequences = getSequences("do_seq", "do_1", 1);
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations.getCreateRelationRows(
+				Arrays.asList(member("do_seq", "do_2", 10), member("do_seq", "do_3", null)), sequences);
+		Assert.assertEquals(10, getCreateMetadata(rows.get(0)).get(SEQUENCE_INDEX));
+		Assert.assertEquals(10, getMetadata(rows.get(0)).get(SEQUENCE_INDEX));
+		Assert.assertEquals(11, getCreateMetadata(rows.get(1)).get(SEQUENCE_INDEX));
+	}
+
+	@Test
+	public void testExistingMemberKeepsItsIndex() {
+		Map<String, Map<String, Integer>> sequences = getSequences("do_seq", "do_1", 1, "do_2", 2);
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations
+				.getCreateRelationRows(Arrays.asList(member("do_seq", "do_1", null)), sequences);
+		Assert.assertFalse(getCreateMetadata(rows.get(0)).containsKey(SEQUENCE_INDEX));
+	}
+
+	@Test
+	public void testSequencesAreNumberedSeparately() {
+		Map<String, Map<String, Integer>> sequences = getSequences("do_seq_1", "do_1", 5);
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations.getCreateRelationRows(
+				Arrays.asList(member("do_seq_1", "do_2", null), member("do_seq_2", "do_3", null)), sequences);
+		Assert.assertEquals(6, getCreateMetadata(rows.get(0)).get(SEQUENCE_INDEX));
+		Assert.assertEquals(1, getCreateMetadata(rows.get(1)).get(SEQUENCE_INDEX));
+	}
+
+	@Test
+	public void testOtherRelationsHaveNoIndex() {
+		Relation relation = new Relation("do_parent", RelationTypes.HIERARCHY.relationName(), "do_child");
+		List<Map<String, Object>> rows = Neo4JBoltGraphOperations.getCreateRelationRows(Arrays.asList(relation),
+				new HashMap<String, Map<String, Integer>>());
+		Assert.assertEquals(RelationTypes.HIERARCHY.relationName(), rows.get(0).get("type"));
+		Assert.assertEquals("do_parent", rows.get(0).get("from"));
+		Assert.assertEquals("do_child", rows.get(0).get("to"));
+		Assert.assertTrue(getCreateMetadata(rows.get(0)).isEmpty());
+	}
+
+	@Test(expected = ClientException.class)
+	public void testRelationWithoutEndNode() {
+		Neo4JBoltGraphOperations.getCreateRelationRows(Arrays.asList(member("do_seq", null, null)),
+				new HashMap<String, Map<String, Integer>>());
+	}
+
+	private Relation member(String sequenceId, String memberId, Integer index) {
+		Relation relation = new Relation(sequenceId, RelationTypes.SEQUENCE_MEMBERSHIP.relationName(), memberId);
+		Map<String, Object> metadata = new HashMap<String, Object>();
+		if (null != index)
+			metadata.put(SEQUENCE_INDEX, index);
+		relation.setMetadata(metadata);
+		return relation;
+	}
+
+	private Map<String, Map<String, Integer>> getSequences(String sequenceId, Object... members) {
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+		for (int i = 0; i < members.length; i += 2)
+			indices.put((String) members[i], (Integer) members[i + 1]);
+		Map<String, Map<String, Integer>> sequences = new HashMap<String, Map<String, Integer>>();
+		sequences.put(sequenceId, indices);
+		return sequences;
+	}
+
+	private Map<String, Object> getCreateMetadata(Map<String, Object> row) {
+		return (Map<String, Object>) row.get("createMetadata");
+	}
+
+	private Map<String, Object> getMetadata(Map<String, Object> row) {
+		return (Map<String, Object>) row.get("metadata");
+	}
+}
@@ -13,6 +13,7 @@ import org.ekstep.graph.common.mgr.BaseDACMgr;
 import org.ekstep.graph.dac.enums.GraphDACParams;
 import org.ekstep.graph.dac.exception.GraphDACErrorCodes;
 import org.ekstep.graph.dac.mgr.IGraphDACGraphMgr;
+import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.importer.ImportData;
 import org.ekstep.graph.service.operation.Neo4JBoltGraphOperations;
 
@@ -203,6 +204,42 @@ public class Neo4JBoltGraphMgrImpl extends BaseDACMgr implements IGraphDACGraphM
 		}
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response addRelations(Request request) {
+		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+		List<Relation> relations = (List<Relation>) request.get(GraphDACParams.relations.name());
+		if (!validateRequired(relations)) {
+			throw new ClientException(GraphDACErrorCodes.ERR_CREATE_RELATION_MISSING_REQ_PARAMS.name(),
+					"Required Parameters are missing");
+		} else {
+			try {
+				Neo4JBoltGraphOperations.createRelations(graphId, relations, request);
+				return OK(GraphDACParams.graph_id.name(), graphId);
+			} catch (Exception e) {
+				return ERROR(e);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response deleteRelations(Request request) {
+		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+		List<Relation> relations = (List<Relation>) request.get(GraphDACParams.relations.name());
+		if (!validateRequired(relations)) {
+			throw new ClientException(GraphDACErrorCodes.ERR_DELETE_RELATION_MISSING_REQ_PARAMS.name(),
+					"Required Variables are missing");
+		} else {
+			try {
+				Neo4JBoltGraphOperations.deleteRelations(graphId, relations, request);
+				return OK();
+			} catch (Exception e) {
+				return ERROR(e);
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Response updateRelation(Request request) {
@@ -149,6 +149,45 @@ public class Neo4JBoltSearchMgrImpl extends BaseDACMgr implements IGraphDACSearc
         }
     }
 
+	@Override
+	public Response getNodesPage(Request request) {
+		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+		Number cursor = (Number) request.get(GraphDACParams.cursor.name());
+		Number limit = (Number) request.get(GraphDACParams.limit.name());
+		String objectType = (String) request.get(GraphDACParams.object_type.name());
+		if (!validateRequired(limit)) {
+			throw new ClientException(GraphDACErrorCodes.ERR_SEARCH_NODES_MISSING_REQ_PARAMS.name(),
+					"Required parameters are missing");
+		} else {
+			try {
+				List<Node> nodes = Neo4JBoltSearchOperations.getNodesPage(graphId, objectType,
+						null == cursor ? null : cursor.longValue(), limit.intValue(), request);
+				return OK(GraphDACParams.node_list.name(), nodes);
+			} catch (Exception e) {
+				return ERROR(e);
+			}
+		}
+	}
+
+	@Override
+	public Response getRelationsPage(Request request) {
+		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+		Number cursor = (Number) request.get(GraphDACParams.cursor.name());
+		Number limit = (Number) request.get(GraphDACParams.limit.name());
+		if (!validateRequired(limit)) {
+			throw new ClientException(GraphDACErrorCodes.ERR_GET_RELATIONS_MISSING_REQ_PARAMS.name(),
+					"Required parameters are missing");
+		} else {
+			try {
+				List<Relation> relations = Neo4JBoltSearchOperations.getRelationsPage(graphId,
+						null == cursor ? null : cursor.longValue(), limit.intValue(), request);
+				return OK(GraphDACParams.relations.name(), relations);
+			} catch (Exception e) {
+				return ERROR(e);
+			}
+		}
+	}
+
     @Override
 	public Response getAllRelations(Request request) {
         String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
@@ -218,6 +257,24 @@ public class Neo4JBoltSearchMgrImpl extends BaseDACMgr implements IGraphDACSearc
         }
     }
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public Response checkCyclicLoops(Request request) {
+		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+		List<Relation> relations = (List<Relation>) request.get(GraphDACParams.relations.name());
+		if (!validateRequired(relations)) {
+			throw new ClientException(GraphDACErrorCodes.ERR_CHECK_LOOP_MISSING_REQ_PARAMS.name(),
+					"Required parameters are missing");
+		} else {
+			try {
+				List<Relation> loops = Neo4JBoltSearchOperations.checkCyclicLoops(graphId, relations, request);
+				return OK(GraphDACParams.relations.name(), loops);
+			} catch (Exception e) {
+				return ERROR(e);
+			}
+		}
+	}
+
     @Override
     @SuppressWarnings("unchecked")
 	public Response executeQuery(Request request) {
@@ -321,4 +378,24 @@ public class Neo4JBoltSearchMgrImpl extends BaseDACMgr implements IGraphDACSearc
         }
     }
 
+	@Override
+	public Response getSubGraphNodes(Request request) {
+		String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+		String startNodeId = (String) request.get(GraphDACParams.start_node_id.name());
+		String relationType = (String) request.get(GraphDACParams.relation_type.name());
+		Integer depth = (Integer) request.get(GraphDACParams.depth.name());
+		if (!validateRequired(startNodeId, relationType, depth)) {
+			throw new ClientException(GraphDACErrorCodes.ERR_TRAVERSAL_MISSING_REQ_PARAMS.name(),
+					"Required parameters are missing");
+		} else {
+			try {
+				List<Node> nodes = Neo4JBoltSearchOperations.getSubGraphNodes(graphId, startNodeId, relationType,
+						depth, request);
+				return OK(GraphDACParams.node_list.name(), nodes);
+			} catch (Exception e) {
+				return ERROR(e);
+			}
+		}
+	}
+
 }
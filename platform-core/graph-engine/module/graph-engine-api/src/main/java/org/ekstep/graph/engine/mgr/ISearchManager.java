@@ -113,6 +113,31 @@ public interface ISearchManager {
      */
     void searchNodes(Request request);
 
+    /**
+     * Get a page of the nodes, ordered by internal id
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - OBJECT_TYPE object type of the nodes, optional
+     * @request - CURSOR internal id of the last node of the previous page,
+     *          optional
+     * @request - LIMIT maximum number of nodes of the page
+     * @response - NODE_LIST list of nodes
+     * @response - STATUS: API call status
+     */
+    void getNodesPage(Request request);
+
+    /**
+     * Get a page of the relations, ordered by internal id
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - CURSOR internal id of the last relation of the previous
+     *          page, optional
+     * @request - LIMIT maximum number of relations of the page
+     * @response - RELATIONS list of relations
+     * @response - STATUS: API call status
+     */
+    void getRelationsPage(Request request);
+
     /**
      * Search nodes by given criteria
      * 
@@ -148,6 +173,20 @@ public interface ISearchManager {
      * @response - STATUS: API call status
      */
     void getSubGraph(Request request);
+
+    /**
+     * Get the nodes reachable from a node through outgoing relations of the
+     * given type, up to the specified depth, with a single query. Each node
+     * has its outgoing relations.
+     * 
+     * @request - GRAPH_ID as request context variable
+     * @request - START_NODE_ID start node of the sub graph
+     * @request - RELATION_TYPE relation to be traversed
+     * @request - DEPTH traversal depth
+     * @response - NODE_LIST list of nodes, including the start node
+     * @response - STATUS: API call status
+     */
+    void getSubGraphNodes(Request request);
     
     void traverseSubGraph(Request request);
     
@@ -1,6 +1,6 @@
 package org.ekstep.graph.engine.mgr.impl;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 
 import org.ekstep.common.dto.Request;
@@ -25,13 +25,13 @@ public class CollectionManagerImpl extends BaseGraphManager implements ICollecti
     protected void invokeMethod(Request request, ActorRef parent) {
         String methodName = request.getOperation();
         try {
-            Method method = GraphEngineActorPoolMgr.getMethod(GraphEngineManagers.COLLECTION_MANAGER, methodName);
-            if (null == method) {
+            MethodHandle operation = GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.COLLECTION_MANAGER, methodName);
+            if (null == operation) {
                 throw new ClientException("ERR_GRAPH_INVALID_OPERATION", "Operation '" + methodName + "' not found");
             } else {
-                method.invoke(this, request);
+                operation.invokeExact((BaseGraphManager) this, request);
             }
-        } catch (Exception e) {
+        } catch (Throwable e) {
             ERROR(e, parent);
         }
     }
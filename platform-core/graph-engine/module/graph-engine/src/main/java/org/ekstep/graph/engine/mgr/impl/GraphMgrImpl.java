@@ -1,6 +1,6 @@
 package org.ekstep.graph.engine.mgr.impl;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 import java.util.Map;
 
@@ -31,13 +31,13 @@ public class GraphMgrImpl extends BaseGraphManager implements IGraphManager {
     protected void invokeMethod(Request request, ActorRef parent) {
         String methodName = request.getOperation();
         try {
-            Method method = GraphEngineActorPoolMgr.getMethod(GraphEngineManagers.GRAPH_MANAGER, methodName);
-            if (null == method) {
+            MethodHandle operation = GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.GRAPH_MANAGER, methodName);
+            if (null == operation) {
                 throw new ClientException("ERR_GRAPH_INVALID_OPERATION", "Operation '" + methodName + "' not found");
             } else {
-                method.invoke(this, request);
+                operation.invokeExact((BaseGraphManager) this, request);
             }
-        } catch (Exception e) {
+        } catch (Throwable e) {
             ERROR(e, parent);
         }
     }
@@ -1,6 +1,6 @@
 package org.ekstep.graph.engine.mgr.impl;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -56,14 +56,14 @@ public class NodeManagerImpl extends BaseGraphManager implements INodeManager {
 	protected void invokeMethod(Request request, ActorRef parent) {
 		String methodName = request.getOperation();
 		try {
-			Method method = GraphEngineActorPoolMgr.getMethod(GraphEngineManagers.NODE_MANAGER, methodName);
-			if (null == method) {
+			MethodHandle operation = GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.NODE_MANAGER, methodName);
+			if (null == operation) {
 				throw new ClientException("ERR_GRAPH_INVALID_OPERATION", "Operation '" + methodName + "' not found");
 			} else {
-				method.invoke(this, request);
+				operation.invokeExact((BaseGraphManager) this, request);
 			}
-		} catch (Exception e) {
-			ERROR(e.getCause(), parent);
+		} catch (Throwable e) {
+			ERROR(e, parent);
 		}
 	}
 
@@ -1,6 +1,6 @@
 package org.ekstep.graph.engine.mgr.impl;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,14 +36,14 @@ public class SearchManagerImpl extends BaseGraphManager implements ISearchManage
     protected void invokeMethod(Request request, ActorRef parent) {
         String methodName = request.getOperation();
         try {
-            Method method = GraphEngineActorPoolMgr.getMethod(GraphEngineManagers.SEARCH_MANAGER, methodName);
-            if (null == method) {
+            MethodHandle operation = GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.SEARCH_MANAGER, methodName);
+            if (null == operation) {
                 throw new ClientException("ERR_GRAPH_INVALID_OPERATION", "Operation '" + methodName + "' not found");
             } else {
-                method.invoke(this, request);
+                operation.invokeExact((BaseGraphManager) this, request);
             }
-        } catch (Exception e) {
-            ERROR(e.getCause(), parent);
+        } catch (Throwable e) {
+            ERROR(e, parent);
         }
     }
 
@@ -232,6 +232,40 @@ public class SearchManagerImpl extends BaseGraphManager implements ISearchManage
         }
     }
 
+    @Override
+    public void getNodesPage(Request request) {
+        Number limit = (Number) request.get(GraphDACParams.limit.name());
+        if (!validateRequired(limit)) {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_SEARCH_NODES_MISSING_REQ_PARAMS.name(),
+                    "Required parameters are missing...");
+        } else {
+            String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+            try {
+                Graph graph = new Graph(this, graphId);
+                graph.getNodesPage(request);
+            } catch (Exception e) {
+                handleException(e, getSender());
+            }
+        }
+    }
+
+    @Override
+    public void getRelationsPage(Request request) {
+        Number limit = (Number) request.get(GraphDACParams.limit.name());
+        if (!validateRequired(limit)) {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_SEARCH_NODES_MISSING_REQ_PARAMS.name(),
+                    "Required parameters are missing...");
+        } else {
+            String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+            try {
+                Graph graph = new Graph(this, graphId);
+                graph.getRelationsPage(request);
+            } catch (Exception e) {
+                handleException(e, getSender());
+            }
+        }
+    }
+
     @Override
     public void getNodesCount(Request request) {
         SearchCriteria sc = (SearchCriteria) request.get(GraphDACParams.search_criteria.name());
@@ -314,6 +348,25 @@ public class SearchManagerImpl extends BaseGraphManager implements ISearchManage
         }
     }
 
+    @Override
+    public void getSubGraphNodes(Request request) {
+        String startNodeId = (String) request.get(GraphDACParams.start_node_id.name());
+        String relationType = (String) request.get(GraphDACParams.relation_type.name());
+        Integer depth = (Integer) request.get(GraphDACParams.depth.name());
+        if (!validateRequired(startNodeId, relationType, depth)) {
+            throw new ClientException(GraphEngineErrorCodes.ERR_GRAPH_TRAVERSAL_MISSING_REQ_PARAMS.name(),
+                    "Required parameters are missing...");
+        } else {
+            String graphId = (String) request.getContext().get(GraphHeaderParams.graph_id.name());
+            try {
+                Graph graph = new Graph(this, graphId);
+                graph.getSubGraphNodes(request);
+            } catch (Exception e) {
+                handleException(e, getSender());
+            }
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void searchRelations(Request request) {
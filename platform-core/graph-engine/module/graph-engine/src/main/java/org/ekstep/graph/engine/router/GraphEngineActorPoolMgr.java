@@ -1,11 +1,12 @@
 package org.ekstep.graph.engine.router;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.graph.common.BaseRequestRouter;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
 import org.ekstep.graph.engine.mgr.impl.CollectionManagerImpl;
 import org.ekstep.graph.engine.mgr.impl.GraphMgrImpl;
 import org.ekstep.graph.engine.mgr.impl.NodeManagerImpl;
@@ -18,7 +19,7 @@ public class GraphEngineActorPoolMgr {
     private static final String DEFAULT_GRAPH_ID = "*";
 
     private static Map<String, Map<String, ActorRef>> actorMap = null;
-    private static Map<String, Map<String, Method>> methodMap = null;
+    private static Map<String, Map<String, MethodHandle>> methodMap = null;
 
     private static ActorRef reqRouter;
 
@@ -27,7 +28,7 @@ public class GraphEngineActorPoolMgr {
         Map<String, ActorRef> defaultActorMap = new HashMap<String, ActorRef>();
         actorMap.put(DEFAULT_GRAPH_ID, defaultActorMap);
 
-        methodMap = new HashMap<String, Map<String, Method>>();
+        methodMap = new HashMap<String, Map<String, MethodHandle>>();
     }
 
     public static ActorRef getRequestRouter() {
@@ -39,7 +40,7 @@ public class GraphEngineActorPoolMgr {
     }
 
     public static void initMethodMap(String managerName) {
-        Class<?> cls = null;
+        Class<? extends BaseGraphManager> cls = null;
         if (StringUtils.equals(GraphEngineManagers.GRAPH_MANAGER, managerName)) {
             cls = GraphMgrImpl.class;
         } else if (StringUtils.equals(GraphEngineManagers.NODE_MANAGER, managerName)) {
@@ -50,14 +51,14 @@ public class GraphEngineActorPoolMgr {
             cls = SearchManagerImpl.class;
         }
         if (null != cls) {
-            Map<String, Method> map = BaseRequestRouter.getMethodMap(cls);
+            Map<String, MethodHandle> map = BaseRequestRouter.getOperationMap(cls);
             if (null != map && !map.isEmpty())
                 methodMap.put(managerName, map);
         }
     }
 
-    public static Method getMethod(String managerName, String operation) {
-        Map<String, Method> map = methodMap.get(managerName);
+    public static MethodHandle getOperation(String managerName, String operation) {
+        Map<String, MethodHandle> map = methodMap.get(managerName);
         if (null != map && !map.isEmpty()) {
             return map.get(operation);
         }
@@ -0,0 +1,37 @@
+package org.ekstep.graph.engine.router;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import org.ekstep.common.dto.Request;
+import org.ekstep.graph.common.mgr.BaseGraphManager;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class GraphEngineActorPoolMgrTest {
+
+	@BeforeClass
+	public static void init() {
+		GraphEngineActorPoolMgr.initMethodMap(GraphEngineManagers.NODE_MANAGER);
+		GraphEngineActorPoolMgr.initMethodMap(GraphEngineManagers.GRAPH_MANAGER);
+	}
+
+	@Test
+	public void testOperations() {
+		MethodType type = MethodType.methodType(void.class, BaseGraphManager.class, Request.class);
+		MethodHandle operation = GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.NODE_MANAGER, "createDataNode");
+		Assert.assertNotNull(operation);
+		Assert.assertEquals(type, operation.type());
+		operation = GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.GRAPH_MANAGER, "importGraph");
+		Assert.assertNotNull(operation);
+		Assert.assertEquals(type, operation.type());
+	}
+
+	@Test
+	public void testInvalidOperation() {
+		Assert.assertNull(GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.NODE_MANAGER, "invokeMethod"));
+		Assert.assertNull(GraphEngineActorPoolMgr.getOperation(GraphEngineManagers.NODE_MANAGER, "importGraph"));
+		Assert.assertNull(GraphEngineActorPoolMgr.getOperation("invalidManager", "getDataNode"));
+	}
+}
@@ -0,0 +1,325 @@
+package org.ekstep.common;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe registry of long lived connection objects (Neo4j drivers,
+ * Cassandra sessions, Elasticsearch clients) keyed by a name.
+ *
+ * A connection is created lazily on first use and only once per key, even when
+ * many threads ask for it at the same time. Connections which are idle for
+ * longer than the health check interval are validated in the background and
+ * closed when unhealthy, to be re-created with the registered factory on the
+ * next use. The check and the close hold the lock of the connection, so a
+ * connection is never handed out while it is being evicted, and a connection
+ * handed out during the check is not closed. A single shutdown hook closes
+ * every connection of the registry.
+ *
+ * The health check interval is read from
+ * <code>connection.&lt;name&gt;.health_check_interval</code> (in seconds).
+ */
+public class ConnectionRegistry<C> {
+
+	private static final String CONFIG_PREFIX = "connection.";
+
+	private String name;
+	private Function<String, C> factory;
+	private Consumer<C> closer;
+	private Predicate<C> healthCheck;
+	private Function<C, Map<String, Object>> metrics;
+	private long healthCheckInterval;
+
+	private Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private AtomicLong acquisitions = new AtomicLong();
+	private AtomicLong waits = new AtomicLong();
+	private AtomicLong creations = new AtomicLong();
+	private AtomicLong evictions = new AtomicLong();
+	private AtomicLong totalWaitNanos = new AtomicLong();
+	private AtomicLong maxWaitNanos = new AtomicLong();
+
+	private ConnectionRegistry(Builder<C> builder) {
+		this.name = builder.name;
+		this.factory = builder.factory;
+		this.closer = builder.closer;
+		this.healthCheck = builder.healthCheck;
+		this.metrics = builder.metrics;
+		this.healthCheckInterval = builder.healthCheckInterval;
+		startHealthCheck();
+		registerShutdownHook();
+	}
+
+	public static <C> Builder<C> builder(String name) {
+		return new Builder<C>(name);
+	}
+
+	/**
+	 * Returns the connection for the key, creating it with the default factory
+	 * when it does not exist or was closed.
+	 */
+	public C get(String key) {
+		return get(key, factory);
+	}
+
+	/**
+	 * Returns the connection for the key, creating it with the given factory
+	 * when it does not exist. The factory is remembered for the key and used to
+	 * re-create the connection after it is closed.
+	 */
+	public C get(String key, Function<String, C> keyFactory) {
+		Entry entry = entries.computeIfAbsent(key, k -> new Entry(k, keyFactory));
+		return entry.acquire();
+	}
+
+	/**
+	 * Returns the connection for the key only if the key is registered.
+	 */
+	public C getIfPresent(String key) {
+		return entries.containsKey(key) ? get(key, null) : null;
+	}
+
+	/**
+	 * Closes and forgets the connection registered for the key.
+	 */
+	public void remove(String key) {
+		Entry entry = entries.remove(key);
+		if (null != entry)
+			entry.close();
+	}
+
+	/**
+	 * Closes every connection. Keys stay registered, so the connections are
+	 * re-created on the next use.
+	 */
+	public void closeAll() {
+		for (Entry entry : entries.values())
+			entry.close();
+	}
+
+	public int size() {
+		int size = 0;
+		for (Entry entry : entries.values()) {
+			if (null != entry.connection)
+				size++;
+		}
+		return size;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Acquisition waits count the acquisitions which could not take the
+	 * connection at once, because it was being created by another thread or
+	 * checked for eviction, and the time they were blocked for. The checkout
+	 * from the pool of the connection happens inside the driver and is
+	 * reported by the per-connection metrics.
+	 */
+	public Map<String, Object> getStats() {
+		Map<String, Object> stats = new HashMap<>();
+		long count = waits.get();
+		stats.put("name", name);
+		stats.put("size", size());
+		stats.put("acquisitions", acquisitions.get());
+		stats.put("creations", creations.get());
+		stats.put("evictions", evictions.get());
+		stats.put("acquireWaits", count);
+		stats.put("avgAcquireWaitMicros", count > 0 ? TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / count) : 0);
+		stats.put("maxAcquireWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+		if (null != metrics) {
+			Map<String, Object> connections = new HashMap<>();
+			for (Entry entry : entries.values()) {
+				C connection = entry.connection;
+				if (null != connection) {
+					try {
+						connections.put(entry.key, metrics.apply(connection));
+					} catch (Exception e) {
+						connections.put(entry.key, e.getMessage());
+					}
+				}
+			}
+			stats.put("connections", connections);
+		}
+		return stats;
+	}
+
+	private void startHealthCheck() {
+		if (null == healthCheck || healthCheckInterval <= 0)
+			return;
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "connection-health-check-" + name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::checkIdleConnections, healthCheckInterval, healthCheckInterval,
+				TimeUnit.SECONDS);
+	}
+
+	private void checkIdleConnections() {
+		long idleSince = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(healthCheckInterval);
+		for (Entry entry : entries.values()) {
+			if (entry.evictIfUnhealthy(idleSince))
+				evictions.incrementAndGet();
+		}
+	}
+
+	private boolean isHealthy(C connection) {
+		try {
+			return healthCheck.test(connection);
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private void registerShutdownHook() {
+		Runtime.getRuntime().addShutdownHook(new Thread(this::closeAll, "connection-registry-shutdown-" + name));
+	}
+
+	private class Entry {
+		private String key;
+		private Function<String, C> factory;
+		private volatile C connection;
+		private volatile long lastUsed = System.currentTimeMillis();
+		// read lock to hand out the connection, write lock to create, check or
+		// close it.
+		private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private Entry(String key, Function<String, C> factory) {
+			this.key = key;
+			this.factory = factory;
+		}
+
+		private C acquire() {
+			acquisitions.incrementAndGet();
+			if (lock.readLock().tryLock()) {
+				try {
+					C current = connection;
+					if (null != current) {
+						lastUsed = System.currentTimeMillis();
+						return current;
+					}
+				} finally {
+					lock.readLock().unlock();
+				}
+			}
+			long start = System.nanoTime();
+			lock.writeLock().lock();
+			try {
+				lastUsed = System.currentTimeMillis();
+				if (null == connection && null != factory) {
+					connection = factory.apply(key);
+					if (null != connection)
+						creations.incrementAndGet();
+				}
+				return connection;
+			} finally {
+				lock.writeLock().unlock();
+				long wait = System.nanoTime() - start;
+				waits.incrementAndGet();
+				totalWaitNanos.addAndGet(wait);
+				maxWaitNanos.accumulateAndGet(wait, Math::max);
+			}
+		}
+
+		/**
+		 * Closes the connection if it was not handed out since the given time
+		 * and fails the health check. Acquisitions wait for the check, which
+		 * only runs on connections idle for a whole interval.
+		 */
+		private boolean evictIfUnhealthy(long idleSince) {
+			if (null == connection || lastUsed >= idleSince)
+				return false;
+			lock.writeLock().lock();
+			try {
+				C current = connection;
+				if (null == current || lastUsed >= idleSince || isHealthy(current))
+					return false;
+				close();
+				return true;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		private void close() {
+			lock.writeLock().lock();
+			try {
+				C current = connection;
+				connection = null;
+				if (null != current && null != closer) {
+					try {
+						closer.accept(current);
+					} catch (Exception e) {
+						// connection is already unusable, nothing more to do.
+					}
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	public static class Builder<C> {
+		private String name;
+		private Function<String, C> factory;
+		private Consumer<C> closer;
+		private Predicate<C> healthCheck;
+		private Function<C, Map<String, Object>> metrics;
+		private long healthCheckInterval = 60;
+
+		private Builder(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Default factory used to create the connection for a key.
+		 */
+		public Builder<C> factory(Function<String, C> factory) {
+			this.factory = factory;
+			return this;
+		}
+
+		public Builder<C> closer(Consumer<C> closer) {
+			this.closer = closer;
+			return this;
+		}
+
+		/**
+		 * Validates an idle connection. Default interval in seconds is
+		 * overridden by <code>connection.&lt;name&gt;.health_check_interval</code>,
+		 * non positive value disables the check.
+		 */
+		public Builder<C> healthCheck(Predicate<C> healthCheck, long interval) {
+			this.healthCheck = healthCheck;
+			this.healthCheckInterval = interval;
+			return this;
+		}
+
+		/**
+		 * Pool level metrics of a connection, e.g. open and in-flight
+		 * connections, reported with the registry stats.
+		 */
+		public Builder<C> metrics(Function<C, Map<String, Object>> metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+
+		public ConnectionRegistry<C> build() {
+			String key = CONFIG_PREFIX + name + ".health_check_interval";
+			if (Platform.config.hasPath(key))
+				healthCheckInterval = Platform.config.getLong(key);
+			return new ConnectionRegistry<C>(this);
+		}
+	}
+}
@@ -21,4 +21,14 @@ public interface TelemetryHandler {
 	public void send(String event, Level level);
 	
 	public void send(String event, Level level, boolean telemetry);
+
+	/**
+	 * Checked before the event is generated, so that no event is built for a
+	 * level which is not logged.
+	 * 
+	 * @param level
+	 * @param telemetry
+	 * @return
+	 */
+	public boolean isEnabled(Level level, boolean telemetry);
 }
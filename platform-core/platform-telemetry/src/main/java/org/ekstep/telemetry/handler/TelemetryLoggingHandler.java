@@ -54,4 +54,10 @@ public class TelemetryLoggingHandler implements TelemetryHandler {
 		
 	}
 
+	public boolean isEnabled(Level level, boolean telemetry) {
+		if (telemetry)
+			return telemetryLogger.isInfoEnabled();
+		return rootLogger.isEnabled(org.apache.logging.log4j.Level.getLevel(level.name()));
+	}
+
 }
@@ -3,6 +3,7 @@ package org.ekstep.telemetry.logger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -40,6 +41,8 @@ public class TelemetryManager {
 	 */
 
 	public static void access(Map<String, String> context, Map<String, Object> params) {
+		if (!telemetryHandler.isEnabled(Level.INFO, true))
+			return;
 		String event = TelemetryGenerator.access(context, params);
 		telemetryHandler.send(event, Level.INFO, true);
 	}
@@ -62,6 +65,16 @@ public class TelemetryManager {
 	public static void log(String message, Map<String, Object> params) {
 		log(message, params, Level.DEBUG.name());
 	}
+
+	/**
+	 * To log a message which is built only if DEBUG is enabled.
+	 * 
+	 * @param message
+	 */
+	public static void log(Supplier<String> message) {
+		if (telemetryHandler.isEnabled(Level.DEBUG, false))
+			log(message.get(), null, Level.DEBUG.name());
+	}
 	
 	/**
 	 * To log only message as a telemetry event.
@@ -81,6 +94,16 @@ public class TelemetryManager {
 	public static void info(String message, Map<String, Object> params) {
 		log(message, params, Level.INFO.name());
 	}
+
+	/**
+	 * To log a message which is built only if INFO is enabled.
+	 * 
+	 * @param message
+	 */
+	public static void info(Supplier<String> message) {
+		if (telemetryHandler.isEnabled(Level.INFO, false))
+			log(message.get(), null, Level.INFO.name());
+	}
 	
 	/**
 	 * 
@@ -135,6 +158,8 @@ public class TelemetryManager {
 	 * @param object
 	 */
 	public static void error(String message, Throwable e, Object object) {
+		if (!telemetryHandler.isEnabled(Level.ERROR, false))
+			return;
 		Map<String, String> context = getContext();
 		String stacktrace = ExceptionUtils.getStackTrace(e);
 		String code = ResponseCode.SERVER_ERROR.name();
@@ -151,6 +176,8 @@ public class TelemetryManager {
 	}
 	
 	public static void audit(String id, String type, List<String> props, String state, String prevState) {
+		if (!telemetryHandler.isEnabled(Level.INFO, false))
+			return;
 		Map<String, String> context = getContext();
 		context.put("objectId", id);
 		context.put("objectType", type);
@@ -182,6 +209,8 @@ public class TelemetryManager {
 	 */
 	public static void search(Map<String, Object> context, String query, Object filters, Object sort,
 							  int size, Object topN, String type) {
+		if (!telemetryHandler.isEnabled(Level.INFO, true))
+			return;
 		Map<String, String> reqContext=null;
 		String deviceId=null;
 		String appId=null;
@@ -221,9 +250,13 @@ public class TelemetryManager {
 	 * @param logLevel
 	 */
 	private static void log(String message, Map<String, Object> params, String logLevel) {
+		Level level = Level.getLevel(logLevel);
+		// the event is generated only if it is going to be logged.
+		if (!telemetryHandler.isEnabled(level, false))
+			return;
 		Map<String, String> context = getContext();
 		String event = TelemetryGenerator.log(context, "system", logLevel, message, null, params);
-		telemetryHandler.send(event, Level.getLevel(logLevel));
+		telemetryHandler.send(event, level);
 	}
 
 	private static Map<String, String> getContext() {
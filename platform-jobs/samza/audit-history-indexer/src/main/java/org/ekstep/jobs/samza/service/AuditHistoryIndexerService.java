@@ -4,9 +4,11 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +22,7 @@ import org.ekstep.jobs.samza.service.task.JobMetrics;
 import org.ekstep.jobs.samza.util.JSONUtils;
 import org.ekstep.jobs.samza.util.JobLogger;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
+import org.elasticsearch.action.index.IndexRequest;
 
 /**
  * The Class AuditHistoryService provides implementations of the core operations defined in the IMessageProcessor along
@@ -34,6 +37,11 @@ public class AuditHistoryIndexerService implements ISamzaService {
 	static JobLogger LOGGER = new JobLogger(AuditHistoryIndexerService.class);
 	private ObjectMapper mapper = new ObjectMapper();
 	DateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+
+	/** Audit records are indexed in batches, keyed by document id. */
+	private int bulkSize = 500;
+	private Map<String, IndexRequest> pendingRecords = new LinkedHashMap<String, IndexRequest>();
+	private Map<String, String> pendingIdentifiers = new HashMap<String, String>();
 	
 	/** The constructor */
 	public AuditHistoryIndexerService() {
@@ -43,6 +51,7 @@ public class AuditHistoryIndexerService implements ISamzaService {
 
 	public void initialize(Config config) throws Exception {
 		JSONUtils.loadProperties(config);
+		bulkSize = config.getInt("audit.history.bulk.size", 500);
 		ElasticSearchUtil.initialiseESClient(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
 				Platform.config.getString("search.es_conn_info"));
 		// Create index if not found
@@ -66,11 +75,10 @@ public class AuditHistoryIndexerService implements ISamzaService {
 				String identifier = (String) message.get("nodeUniqueId");
 				LOGGER.info("Audit record created for " + identifier);
 				Map<String, Object> entity_map = mapper.convertValue(record, Map.class);
-				String document = mapper.writeValueAsString(entity_map);
-				LOGGER.debug("Saving the record into ES");
-				ElasticSearchUtil.addDocument(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
-						AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE, document);
-				metrics.incSuccessCounter();
+				String id = UUID.randomUUID().toString();
+				pendingRecords.put(id, new IndexRequest(AuditHistoryConstants.AUDIT_HISTORY_INDEX,
+						AuditHistoryConstants.AUDIT_HISTORY_INDEX_TYPE, id).source(entity_map));
+				pendingIdentifiers.put(id, identifier);
 			} catch (Exception ex) {
 				LOGGER.error("Error while processing message", message, ex);
 				metrics.incErrorCounter();
@@ -80,6 +88,53 @@ public class AuditHistoryIndexerService implements ISamzaService {
 		}
 	}
 
+	/**
+	 * Flushes the pending records once the batch size is reached.
+	 *
+	 * @return true if the pending records were flushed.
+	 */
+	public boolean flushIfRequired(JobMetrics metrics) {
+		if (pendingRecords.size() >= bulkSize)
+			return flush(metrics);
+		return false;
+	}
+
+	/**
+	 * Indexes the pending records in bulk and waits for them, so every record
+	 * is either indexed or counted as an error once this returns.
+	 *
+	 * @return true if there were pending records.
+	 */
+	public boolean flush(JobMetrics metrics) {
+		if (pendingRecords.isEmpty())
+			return false;
+		Map<String, IndexRequest> records = pendingRecords;
+		Map<String, String> identifiers = pendingIdentifiers;
+		pendingRecords = new LinkedHashMap<String, IndexRequest>();
+		pendingIdentifiers = new HashMap<String, String>();
+		try {
+			Map<String, String> failures = ElasticSearchUtil.getBulkWriter(AuditHistoryConstants.AUDIT_HISTORY_INDEX)
+					.writeAndWait(new ArrayList<IndexRequest>(records.values()));
+			for (String id : records.keySet()) {
+				if (failures.containsKey(id)) {
+					LOGGER.error("Error while saving the audit record of " + identifiers.get(id) + ": "
+							+ failures.get(id), null);
+					metrics.incErrorCounter();
+				} else {
+					metrics.incSuccessCounter();
+				}
+			}
+			LOGGER.debug("Audit records saved in bulk: " + records.size());
+		} catch (Exception ex) {
+			if (ex instanceof InterruptedException)
+				Thread.currentThread().interrupt();
+			LOGGER.error("Error while saving audit records in bulk: " + records.size(), ex);
+			for (int i = 0; i < records.size(); i++)
+				metrics.incErrorCounter();
+		}
+		return true;
+	}
+
 	/**
 	 * This method getAuditHistory sets the required data from the transaction message that can be saved to elastic
 	 * search
@@ -14,7 +14,6 @@ import org.apache.samza.task.TaskContext;
 import org.apache.samza.task.TaskCoordinator;
 import org.apache.samza.task.WindowableTask;
 import org.ekstep.jobs.samza.service.AuditHistoryIndexerService;
-import org.ekstep.jobs.samza.service.ISamzaService;
 import org.ekstep.jobs.samza.service.task.JobMetrics;
 import org.ekstep.jobs.samza.util.JobLogger;
 
@@ -23,7 +22,7 @@ public class AuditHistoryIndexerTask extends BaseTask {
 	private static JobLogger LOGGER = new JobLogger(AuditHistoryIndexerTask.class);
 
 	private JobMetrics metrics;
-	private ISamzaService auditHistoryMsgProcessor = new AuditHistoryIndexerService();
+	private AuditHistoryIndexerService auditHistoryMsgProcessor = new AuditHistoryIndexerService();
 
 	@Override
 	public void init(Config config, TaskContext context) throws Exception {
@@ -48,6 +47,9 @@ public class AuditHistoryIndexerTask extends BaseTask {
 			metrics.incErrorCounter();
 			LOGGER.error("Message processing Error", outgoingMap, e);
 		}
+		// offsets are committed only after the pending records are indexed, see window().
+		if (auditHistoryMsgProcessor.flushIfRequired(metrics))
+			coordinator.commit(TaskCoordinator.RequestScope.CURRENT_TASK);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -61,8 +63,15 @@ public class AuditHistoryIndexerTask extends BaseTask {
 		}
 	}
 
+	/**
+	 * Runs every <code>task.window.ms</code>: indexes the pending records of a
+	 * quiet partition and commits the offsets, as auto commit is disabled for
+	 * the job.
+	 */
 	@Override
 	public void window(MessageCollector collector, TaskCoordinator coordinator) throws Exception {
+		auditHistoryMsgProcessor.flush(metrics);
+		coordinator.commit(TaskCoordinator.RequestScope.CURRENT_TASK);
 		Map<String, Object> event = metrics.collect();
 		collector.send(new OutgoingMessageEnvelope(new SystemStream("kafka", metrics.getTopic()), event));
 		metrics.clear();
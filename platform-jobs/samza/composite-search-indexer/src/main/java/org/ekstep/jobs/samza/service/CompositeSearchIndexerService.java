@@ -1,6 +1,7 @@
 package org.ekstep.jobs.samza.service;
 
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.samza.config.Config;
 import org.apache.samza.system.SystemStream;
 import org.apache.samza.task.MessageCollector;
@@ -17,6 +18,8 @@ import org.ekstep.learning.router.LearningRequestRouterPool;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.elasticsearch.client.transport.NoNodeAvailableException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public class CompositeSearchIndexerService implements ISamzaService {
@@ -28,6 +31,13 @@ public class CompositeSearchIndexerService implements ISamzaService {
 	private DialCodeMetricsIndexer dcMetricsIndexer;
 	private SystemStream systemStream = null;
 
+	/** Bulk mode: data node events are indexed in batches. */
+	private boolean bulkEnabled = false;
+	private int bulkSize = 500;
+	private long bulkInterval = 60000;
+	private List<Map<String, Object>> pendingMessages = new ArrayList<Map<String, Object>>();
+	private long pendingSince = 0;
+
 	public CompositeSearchIndexerService() {}
 
 	public CompositeSearchIndexerService(CompositeSearchIndexer csIndexer, DialCodeIndexer dcIndexer,
@@ -44,6 +54,10 @@ public class CompositeSearchIndexerService implements ISamzaService {
 		LearningRequestRouterPool.init();
 		LOGGER.info("Learning actors initialized");
 		systemStream = new SystemStream("kafka", config.get("output.failed.events.topic.name"));
+		bulkEnabled = config.getBoolean("search.indexer.bulk.enabled", false);
+		bulkSize = config.getInt("search.indexer.bulk.size", 500);
+		bulkInterval = config.getLong("search.indexer.bulk.interval.ms", 60000);
+		LOGGER.info("Bulk indexing enabled: " + bulkEnabled);
 		csIndexer = csIndexer == null ? new CompositeSearchIndexer(): csIndexer;
 		csIndexer.createCompositeSearchIndex();
 		LOGGER.info(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX + " created");
@@ -61,6 +75,12 @@ public class CompositeSearchIndexerService implements ISamzaService {
 		Object index = message.get("index");
 		Boolean shouldindex = BooleanUtils.toBoolean(null == index ? "true" : index.toString());
 		if (!BooleanUtils.isFalse(shouldindex)) {
+			if (bulkEnabled && isBulkMessage(message)) {
+				if (pendingMessages.isEmpty())
+					pendingSince = System.currentTimeMillis();
+				pendingMessages.add(message);
+				return;
+			}
 			LOGGER.debug("Indexing event into ES");
 			try {
 				processMessage(message, metrics);
@@ -86,6 +106,73 @@ public class CompositeSearchIndexerService implements ISamzaService {
 		}
 	}
 
+	public void invalidateIndexingPlan(String graphId, String objectType) {
+		if (null != csIndexer)
+			csIndexer.invalidateIndexingPlan(graphId, objectType);
+	}
+
+	public boolean isBulkEnabled() {
+		return bulkEnabled;
+	}
+
+	/**
+	 * Flushes the pending messages once the batch size or the interval is
+	 * reached.
+	 *
+	 * @return true if the pending messages were flushed.
+	 */
+	public boolean flushIfRequired(JobMetrics metrics, MessageCollector collector) {
+		if (pendingMessages.size() >= bulkSize
+				|| (!pendingMessages.isEmpty() && System.currentTimeMillis() - pendingSince >= bulkInterval))
+			return flush(metrics, collector);
+		return false;
+	}
+
+	/**
+	 * Indexes the pending messages in bulk. Messages which could not be indexed
+	 * are pushed to the failed events topic, so every message is either indexed
+	 * or retried once this returns.
+	 *
+	 * @return true if there were pending messages.
+	 */
+	public boolean flush(JobMetrics metrics, MessageCollector collector) {
+		if (pendingMessages.isEmpty())
+			return false;
+		List<Map<String, Object>> messages = pendingMessages;
+		pendingMessages = new ArrayList<Map<String, Object>>();
+		try {
+			Map<String, String> failures = csIndexer.processESMessages(messages);
+			for (Map<String, Object> message : messages) {
+				String uniqueId = (String) message.get("nodeUniqueId");
+				if (failures.containsKey(uniqueId)) {
+					metrics.incFailedCounter();
+					FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
+							PlatformErrorCodes.PROCESSING_ERROR.name(),
+							new PlatformException(PlatformErrorCodes.PROCESSING_ERROR.name(), failures.get(uniqueId)));
+				} else {
+					metrics.incSuccessCounter();
+				}
+			}
+			LOGGER.debug("Composite records added/updated in bulk: " + messages.size());
+		} catch (Exception ex) {
+			LOGGER.error("Error while indexing messages in bulk: " + messages.size(), ex);
+			for (Map<String, Object> message : messages) {
+				metrics.incErrorCounter();
+				FailedEventsUtil.pushEventForRetry(systemStream, message, metrics, collector,
+						PlatformErrorCodes.SYSTEM_ERROR.name(), ex);
+			}
+		}
+		return true;
+	}
+
+	private boolean isBulkMessage(Map<String, Object> message) {
+		if (null == message || null == message.get("operationType"))
+			return false;
+		String nodeType = (String) message.get("nodeType");
+		return StringUtils.equals(CompositeSearchConstants.NODE_TYPE_DATA, nodeType)
+				|| StringUtils.equals(CompositeSearchConstants.NODE_TYPE_SET, nodeType);
+	}
+
 	public void processMessage(Map<String, Object> message, JobMetrics metrics) throws Exception {
 		if (message != null && message.get("operationType") != null) {
 			String nodeType = (String) message.get("nodeType");
@@ -3,11 +3,11 @@
  */
 package org.ekstep.jobs.samza.service.util;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 import org.ekstep.common.Platform;
+import org.ekstep.graph.cache.util.InMemoryCache;
 import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.jobs.samza.exception.PlatformErrorCodes;
 import org.ekstep.jobs.samza.exception.PlatformException;
@@ -16,12 +16,18 @@ import org.ekstep.jobs.samza.util.JobLogger;
 import org.ekstep.learning.util.ControllerUtil;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -33,8 +39,10 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 
 	private JobLogger LOGGER = new JobLogger(CompositeSearchIndexer.class);
 	private ObjectMapper mapper = new ObjectMapper();
-	private List<String> nestedFields = new ArrayList<String>();
+	private Set<String> nestedFields = new HashSet<String>();
 	private ControllerUtil util = new ControllerUtil();
+	private InMemoryCache<IndexingPlan> indexingPlans = InMemoryCache.<IndexingPlan>builder("indexing_plan")
+			.maxSize(1000).build();
 
 	public CompositeSearchIndexer() {
 		setNestedFields();
@@ -78,19 +86,18 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private Map<String, Object> getIndexDocument(Map<String, Object> message,
-												 Map<String, String> relationMap, boolean updateRequest, List<String> indexableProps) throws Exception {
+	private Map<String, Object> getIndexDocument(Map<String, Object> message, IndexingPlan plan,
+			boolean updateRequest) throws Exception {
 		Map<String, Object> indexDocument = new HashMap<String, Object>();
 		String uniqueId = (String) message.get("nodeUniqueId");
-		if (updateRequest) {
-			String documentJson = ElasticSearchUtil.getDocumentAsStringById(
-					CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
-					CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE, uniqueId);
-			if (documentJson != null && !documentJson.isEmpty()) {
-				indexDocument = mapper.readValue(documentJson, new TypeReference<Map<String, Object>>() {
-				});
-			}
-		}
+		if (updateRequest)
+			indexDocument = getIndexDocument(uniqueId);
+		return updateIndexDocument(indexDocument, message, plan);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Map<String, Object> updateIndexDocument(Map<String, Object> indexDocument, Map<String, Object> message,
+			IndexingPlan plan) throws Exception {
 		Map transactionData = (Map) message.get("transactionData");
 		if (transactionData != null) {
 			Map<String, Object> addedProperties = (Map<String, Object>) transactionData.get("properties");
@@ -99,13 +106,8 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 					if (propertyMap != null && propertyMap.getKey() != null) {
 						String propertyName = (String) propertyMap.getKey();
 						// filter metadata based on definition
-						if (CollectionUtils.isNotEmpty(indexableProps)) {
-							if (indexableProps.contains(propertyName)) {
-								addMetadataToDocument(propertyMap, propertyName, indexDocument);
-							}
-						} else {
-							addMetadataToDocument(propertyMap, propertyName, indexDocument);
-						}
+						if (plan.isIndexable(propertyName))
+							addMetadataToDocument(propertyMap, propertyName, indexDocument, plan);
 					}
 				}
 			}
@@ -113,8 +115,7 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 					.get("addedRelations");
 			if (null != addedRelations && !addedRelations.isEmpty()) {
 				for (Map<String, Object> rel : addedRelations) {
-					String key = rel.get("dir") + "_" + rel.get("type") + "_" + rel.get("rel");
-					String title = relationMap.get(key);
+					String title = plan.getRelationTitle(rel.get("dir"), rel.get("type"), rel.get("rel"));
 					if (StringUtils.isNotBlank(title)) {
 						List<String> list = (List<String>) indexDocument.get(title);
 						if (null == list)
@@ -131,8 +132,7 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 					.get("removedRelations");
 			if (null != removedRelations && !removedRelations.isEmpty()) {
 				for (Map<String, Object> rel : removedRelations) {
-					String key = rel.get("dir") + "_" + rel.get("type") + "_" + rel.get("rel");
-					String title = (String) relationMap.get(key);
+					String title = plan.getRelationTitle(rel.get("dir"), rel.get("type"), rel.get("rel"));
 					if (StringUtils.isNotBlank(title)) {
 						List<String> list = (List<String>) indexDocument.get(title);
 						if (null != list && !list.isEmpty()) {
@@ -159,68 +159,165 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 				CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE, uniqueId, jsonIndexDocument);
 	}
 
+	public void processESMessage(String graphId, String objectType, String uniqueId, String messageId,
+			 Map<String, Object> message, JobMetrics metrics) throws Exception {
+		IndexingPlan plan = getIndexingPlan(graphId, objectType);
+		LOGGER.info("Message Id: " + messageId + ", " + "Unique Id: " + uniqueId + " is indexing into compositesearch.");
+		upsertDocument(uniqueId, message, plan);
+	}
+
+	/**
+	 * Indexes a batch of messages. Messages of the same node are applied in
+	 * order on a single copy of the document, the existing documents are
+	 * fetched with one multi get request and the results are written through
+	 * the shared bulk writer of the index, waiting for all of them.
+	 *
+	 * @param messages
+	 * @return error message of the nodes which could not be indexed, keyed by
+	 *         nodeUniqueId.
+	 * @throws Exception
+	 */
 	@SuppressWarnings("rawtypes")
-	private Map<String, String> getRelationMap(String objectType, Map definitionNode) throws Exception {
-		Map<String, String> relationDefinition = retrieveRelations(definitionNode, "IN", "inRelations");
-		relationDefinition.putAll(retrieveRelations(definitionNode, "OUT", "outRelations"));
-		return relationDefinition;
+	public Map<String, String> processESMessages(List<Map<String, Object>> messages) throws Exception {
+		Set<String> uniqueIds = new HashSet<String>();
+		List<String> fetchIds = new ArrayList<String>();
+		for (Map<String, Object> message : messages) {
+			String uniqueId = (String) message.get("nodeUniqueId");
+			if (uniqueIds.add(uniqueId)
+					&& !StringUtils.equals(CompositeSearchConstants.OPERATION_CREATE, (String) message.get("operationType")))
+				fetchIds.add(uniqueId);
+		}
+		Map<String, String> documents = ElasticSearchUtil.getMultiDocumentAsStringById(
+				CompositeSearchConstants.COMPOSITE_SEARCH_INDEX, CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE,
+				fetchIds);
+		Map<String, String> failures = new HashMap<String, String>();
+		List<DocWriteRequest> requests = getWriteRequests(messages, documents, failures);
+		LOGGER.info("Indexing " + messages.size() + " messages as " + requests.size()
+				+ " writes into compositesearch.");
+		failures.putAll(ElasticSearchUtil.getBulkWriter(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX)
+				.writeAndWait(requests));
+		return failures;
 	}
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private static Map<String, String> retrieveRelations(Map definitionNode, String direction, String relationProperty)
-			throws Exception {
-		Map<String, String> definition = new HashMap<String, String>();
-		List<Map> inRelsList = (List<Map>) definitionNode.get(relationProperty);
-		if (null != inRelsList && !inRelsList.isEmpty()) {
-			for (Map relMap : inRelsList) {
-				List<String> objectTypes = (List<String>) relMap.get("objectTypes");
-				if (null != objectTypes && !objectTypes.isEmpty()) {
-					for (String type : objectTypes) {
-						String key = direction + "_" + type + "_" + (String) relMap.get("relationName");
-						definition.put(key, (String) relMap.get("title"));
+	/**
+	 * Coalesces the messages of each node into a single write: the messages
+	 * are applied in order on the indexed document, so the last write of a
+	 * node wins and a delete drops the writes before it. Documents visible
+	 * only through their parent are not deleted.
+	 *
+	 * @param messages
+	 * @param documents
+	 *            indexed documents as json, keyed by nodeUniqueId.
+	 * @param failures
+	 *            error message of the nodes which could not be indexed, keyed
+	 *            by nodeUniqueId.
+	 * @return one index or delete request per node, in the order of their first
+	 *         message.
+	 */
+	@SuppressWarnings("rawtypes")
+	public List<DocWriteRequest> getWriteRequests(List<Map<String, Object>> messages, Map<String, String> documents,
+			Map<String, String> failures) {
+		Map<String, List<Map<String, Object>>> nodeMessages = new LinkedHashMap<String, List<Map<String, Object>>>();
+		for (Map<String, Object> message : messages) {
+			String uniqueId = (String) message.get("nodeUniqueId");
+			nodeMessages.computeIfAbsent(uniqueId, id -> new ArrayList<Map<String, Object>>()).add(message);
+		}
+		List<DocWriteRequest> requests = new ArrayList<DocWriteRequest>();
+		for (Map.Entry<String, List<Map<String, Object>>> entry : nodeMessages.entrySet()) {
+			String uniqueId = entry.getKey();
+			try {
+				Map<String, Object> indexDocument = new HashMap<String, Object>();
+				String documentJson = documents.get(uniqueId);
+				if (StringUtils.isNotBlank(documentJson))
+					indexDocument = mapper.readValue(documentJson, new TypeReference<Map<String, Object>>() {
+					});
+				boolean modified = false;
+				boolean deleted = false;
+				for (Map<String, Object> message : entry.getValue()) {
+					String operationType = (String) message.get("operationType");
+					switch (operationType) {
+					case CompositeSearchConstants.OPERATION_CREATE:
+					case CompositeSearchConstants.OPERATION_UPDATE: {
+						IndexingPlan plan = getIndexingPlan((String) message.get("graphId"),
+								(String) message.get("objectType"));
+						if (StringUtils.equals(CompositeSearchConstants.OPERATION_CREATE, operationType))
+							indexDocument = new HashMap<String, Object>();
+						indexDocument = updateIndexDocument(indexDocument, message, plan);
+						modified = true;
+						deleted = false;
+						break;
+					}
+					case CompositeSearchConstants.OPERATION_DELETE: {
+						String visibility = (String) indexDocument.get("visibility");
+						if (StringUtils.equalsIgnoreCase("Parent", visibility)) {
+							LOGGER.info("Not deleting the document (visibility: Parent) with ID:" + uniqueId);
+						} else {
+							indexDocument = new HashMap<String, Object>();
+							modified = false;
+							deleted = true;
+						}
+						break;
+					}
 					}
 				}
+				if (modified)
+					requests.add(new IndexRequest(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
+							CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE, uniqueId).source(indexDocument));
+				else if (deleted)
+					requests.add(new DeleteRequest(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
+							CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE, uniqueId));
+			} catch (Exception e) {
+				LOGGER.error("Error while indexing document with ID: " + uniqueId, e);
+				failures.put(uniqueId, e.getMessage());
 			}
 		}
-		return definition;
+		return requests;
 	}
 
-	public void processESMessage(String graphId, String objectType, String uniqueId, String messageId,
-			 Map<String, Object> message, JobMetrics metrics) throws Exception {
-		List<String> indexablePropslist = new ArrayList<String>();
-		DefinitionDTO definitionNode = util.getDefinition(graphId, objectType);
-		if (null == definitionNode) {
-			LOGGER.info("Failed to fetch definition node from cache");
-			throw new PlatformException(PlatformErrorCodes.ERR_DEFINITION_NOT_FOUND.name(),
-					"defnition node for graphId:" + graphId + " and objectType:" + objectType
-							+ " is null due to some issue");
+	/**
+	 * Returns the indexing plan of the objectType, building it from the
+	 * definition only on the first use.
+	 */
+	protected IndexingPlan getIndexingPlan(String graphId, String objectType) throws Exception {
+		String key = graphId + ":" + objectType;
+		IndexingPlan plan = indexingPlans.get(key);
+		if (null == plan) {
+			DefinitionDTO definitionNode = util.getDefinition(graphId, objectType);
+			if (null == definitionNode) {
+				LOGGER.info("Failed to fetch definition node from cache");
+				throw new PlatformException(PlatformErrorCodes.ERR_DEFINITION_NOT_FOUND.name(),
+						"defnition node for graphId:" + graphId + " and objectType:" + objectType
+								+ " is null due to some issue");
+			}
+			LOGGER.debug("definition fetched from cache: " + definitionNode.getIdentifier());
+			//Index only the metadata marked as indexed, if objectType is enabled for metadata filtration.
+			List<String> objectTypeList = Platform.config.hasPath("restrict.metadata.objectTypes") ?
+					Arrays.asList(Platform.config.getString("restrict.metadata.objectTypes").split(",")) : Collections.emptyList();
+			plan = new IndexingPlan(definitionNode, objectTypeList.contains(objectType), nestedFields);
+			indexingPlans.put(key, plan);
 		}
-		Map<String, Object> definition = mapper.convertValue(definitionNode, new TypeReference<Map<String, Object>>() {
-		});
-		LOGGER.debug("definition fetched from cache: " + definitionNode.getIdentifier());
-		//Create List of metadata which should be indexed, if objectType is enabled for metadata filtration.
-		List<String> objectTypeList = Platform.config.hasPath("restrict.metadata.objectTypes") ?
-				Arrays.asList(Platform.config.getString("restrict.metadata.objectTypes").split(",")) : Collections.emptyList();
-		if (objectTypeList.contains(objectType))
-			indexablePropslist = getIndexableProperties(definition);
+		return plan;
+	}
 
-		LOGGER.info("Message Id: " + messageId + ", " + "Unique Id: " + uniqueId + " is indexing into compositesearch.");
-		Map<String, String> relationMap = getRelationMap(objectType, definition);
-		upsertDocument(uniqueId, message, relationMap, indexablePropslist);
+	/**
+	 * Drops the indexing plan of the objectType, to be rebuilt from the updated
+	 * definition.
+	 */
+	public void invalidateIndexingPlan(String graphId, String objectType) {
+		indexingPlans.remove(graphId + ":" + objectType);
 	}
 
-	private void upsertDocument(String uniqueId, Map<String, Object> message, Map<String, String> relationMap, List<String> indexableProps)
-			throws Exception {
+	private void upsertDocument(String uniqueId, Map<String, Object> message, IndexingPlan plan) throws Exception {
 		String operationType = (String) message.get("operationType");
 		switch (operationType) {
 		case CompositeSearchConstants.OPERATION_CREATE: {
-			Map<String, Object> indexDocument = getIndexDocument(message, relationMap, false, indexableProps);
+			Map<String, Object> indexDocument = getIndexDocument(message, plan, false);
 			String jsonIndexDocument = mapper.writeValueAsString(indexDocument);
 			upsertDocument(uniqueId, jsonIndexDocument);
 			break;
 		}
 		case CompositeSearchConstants.OPERATION_UPDATE: {
-			Map<String, Object> indexDocument = getIndexDocument(message, relationMap, true, indexableProps);
+			Map<String, Object> indexDocument = getIndexDocument(message, plan, true);
 			String jsonIndexDocument = mapper.writeValueAsString(indexDocument);
 			upsertDocument(uniqueId, jsonIndexDocument);
 			break;
@@ -240,25 +337,15 @@ public class CompositeSearchIndexer extends AbstractESIndexer {
 		}
 	}
 
-	private List<String> getIndexableProperties(Map<String, Object> definition) {
-		List<String> propsList = new ArrayList<>();
-		List<Map<String, Object>> properties = (List<Map<String, Object>>) definition.get("properties");
-		for (Map<String, Object> property : properties) {
-			if ((Boolean) property.get("indexed")) {
-				propsList.add((String) property.get("propertyName"));
-			}
-		}
-		return propsList;
-	}
-
-	private void addMetadataToDocument(Map.Entry<String, Object> propertyMap, String propertyName, Map<String, Object> indexDocument) throws Exception {
+	private void addMetadataToDocument(Map.Entry<String, Object> propertyMap, String propertyName,
+			Map<String, Object> indexDocument, IndexingPlan plan) throws Exception {
 		// new value of the property
 		Object propertyNewValue = ((Map<String, Object>) propertyMap.getValue()).get("nv");
 		// New value from transaction data is null, then remove the property from document
 		if (propertyNewValue == null)
 			indexDocument.remove(propertyName);
 		else {
-			if (nestedFields.contains(propertyName)) {
+			if (plan.isNested(propertyName)) {
 				propertyNewValue = mapper.readValue((String) propertyNewValue,
 						new TypeReference<Object>() {
 						});
@@ -0,0 +1,79 @@
+package org.ekstep.jobs.samza.service.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ekstep.graph.model.node.DefinitionDTO;
+import org.ekstep.graph.model.node.MetadataDefinition;
+import org.ekstep.graph.model.node.RelationDefinition;
+
+/**
+ * Pre-resolved view of a definition used to build the search document of a
+ * node: the metadata to be indexed, the nested (JSON) fields and the document
+ * field of each relation.
+ */
+public class IndexingPlan {
+
+	private Set<String> indexableProperties;
+	private Set<String> nestedFields;
+	private Map<String, String> relationTitles = new HashMap<String, String>();
+
+	/**
+	 * @param definition
+	 * @param restrictMetadata
+	 *            index only the metadata marked as 'indexed' in the definition.
+	 * @param nestedFields
+	 */
+	public IndexingPlan(DefinitionDTO definition, boolean restrictMetadata, Set<String> nestedFields) {
+		this.nestedFields = nestedFields;
+		if (restrictMetadata) {
+			indexableProperties = new HashSet<String>();
+			if (null != definition.getProperties()) {
+				for (MetadataDefinition property : definition.getProperties()) {
+					if (property.isIndexed())
+						indexableProperties.add(property.getPropertyName());
+				}
+			}
+			// nothing marked as indexed, index all the metadata.
+			indexableProperties = indexableProperties.isEmpty() ? null
+					: Collections.unmodifiableSet(indexableProperties);
+		}
+		addRelations(definition.getInRelations(), "IN");
+		addRelations(definition.getOutRelations(), "OUT");
+	}
+
+	private void addRelations(List<RelationDefinition> relations, String direction) {
+		if (null == relations)
+			return;
+		for (RelationDefinition relation : relations) {
+			if (null == relation.getObjectTypes())
+				continue;
+			for (String type : relation.getObjectTypes())
+				relationTitles.put(getRelationKey(direction, type, relation.getRelationName()), relation.getTitle());
+		}
+	}
+
+	private static String getRelationKey(Object direction, Object type, Object relationName) {
+		return direction + "_" + type + "_" + relationName;
+	}
+
+	public boolean isIndexable(String propertyName) {
+		return null == indexableProperties || indexableProperties.contains(propertyName);
+	}
+
+	public boolean isNested(String propertyName) {
+		return nestedFields.contains(propertyName);
+	}
+
+	/**
+	 * @return the document field holding the related ids, null if the relation
+	 *         is not part of the definition.
+	 */
+	public String getRelationTitle(Object direction, Object type, Object relationName) {
+		return relationTitles.get(getRelationKey(direction, type, relationName));
+	}
+}
@@ -28,14 +28,14 @@ public class CompositeSearchIndexerTask extends BaseTask {
 	private JobLogger LOGGER = new JobLogger(CompositeSearchIndexerTask.class);
 	private ControllerUtil controllerUtil = new ControllerUtil();
 
-	private ISamzaService service;
+	private CompositeSearchIndexerService service;
 	private JobMetrics metrics;
 
 	public ISamzaService getService() {
 		return service;
 	}
 
-	public CompositeSearchIndexerTask(Config config, TaskContext context, ISamzaService service) throws Exception {
+	public CompositeSearchIndexerTask(Config config, TaskContext context, CompositeSearchIndexerService service) throws Exception {
 		init(config, context, service);
 	}
 
@@ -43,7 +43,7 @@ public class CompositeSearchIndexerTask extends BaseTask {
 
 	}
 
-	public void init(Config config, TaskContext context, ISamzaService service) throws Exception {
+	public void init(Config config, TaskContext context, CompositeSearchIndexerService service) throws Exception {
 		try {
 			metrics = new JobMetrics(context, config.get("output.metrics.job.name"), config.get("output.metrics.topic.name"));
 			this.service = (service == null ? new CompositeSearchIndexerService() : service);
@@ -72,6 +72,7 @@ public class CompositeSearchIndexerTask extends BaseTask {
 					String graphId = edata.getOrDefault("graphId", "").toString();
 					String objectType = edata.getOrDefault("objectType", "").toString();
 					controllerUtil.updateDefinitionCache(graphId, objectType);
+					service.invalidateIndexingPlan(graphId, objectType);
 				}
 			} else {
 				service.processMessage(outgoingMap, metrics, collector);
@@ -80,6 +81,9 @@ public class CompositeSearchIndexerTask extends BaseTask {
 			metrics.incErrorCounter();
 			LOGGER.error("Error while processing message:", outgoingMap, e);
 		}
+		// offsets are committed only after the pending messages are indexed, see window().
+		if (service.isBulkEnabled() && service.flushIfRequired(metrics, collector))
+			coordinator.commit(TaskCoordinator.RequestScope.CURRENT_TASK);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -93,8 +97,16 @@ public class CompositeSearchIndexerTask extends BaseTask {
 		}
 	}
 	
+	/**
+	 * Runs every <code>task.window.ms</code>, which is the bulk flush
+	 * interval: indexes the pending messages of a quiet partition and commits
+	 * the offsets, as auto commit is disabled for the job.
+	 */
 	@Override
 	public void window(MessageCollector collector, TaskCoordinator coordinator) {
+		if (service.isBulkEnabled())
+			service.flush(metrics, collector);
+		coordinator.commit(TaskCoordinator.RequestScope.CURRENT_TASK);
 		Map<String, Object> event = metrics.collect();
 		collector.send(new OutgoingMessageEnvelope(new SystemStream("kafka", metrics.getTopic()), event));
 		metrics.clear();
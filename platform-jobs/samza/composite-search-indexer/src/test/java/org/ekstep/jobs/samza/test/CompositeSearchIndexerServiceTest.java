@@ -0,0 +1,123 @@
+package org.ekstep.jobs.samza.test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.samza.config.MapConfig;
+import org.apache.samza.system.OutgoingMessageEnvelope;
+import org.apache.samza.task.MessageCollector;
+import org.ekstep.jobs.samza.service.CompositeSearchIndexerService;
+import org.ekstep.jobs.samza.service.task.JobMetrics;
+import org.ekstep.jobs.samza.service.util.CompositeSearchIndexer;
+import org.ekstep.jobs.samza.service.util.DialCodeIndexer;
+import org.ekstep.jobs.samza.service.util.DialCodeMetricsIndexer;
+import org.ekstep.searchindex.util.CompositeSearchConstants;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class CompositeSearchIndexerServiceTest {
+
+	private CompositeSearchIndexer csIndexer;
+	private CompositeSearchIndexerService service;
+	private JobMetrics metrics;
+	private MessageCollector collector;
+
+	@Before
+	public void init() throws Exception {
+		csIndexer = mock(CompositeSearchIndexer.class);
+		service = new CompositeSearchIndexerService(csIndexer, mock(DialCodeIndexer.class),
+				mock(DialCodeMetricsIndexer.class));
+		Map<String, String> props = new HashMap<String, String>();
+		props.put("output.failed.events.topic.name", "test.learning.events.failed");
+		props.put("search.indexer.bulk.enabled", "true");
+		props.put("search.indexer.bulk.size", "2");
+		props.put("search.indexer.bulk.interval.ms", "600000");
+		service.initialize(new MapConfig(props));
+		metrics = mock(JobMetrics.class);
+		collector = mock(MessageCollector.class);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testMessagesAreIndexedInBulk() throws Exception {
+		when(csIndexer.processESMessages(any(List.class))).thenReturn(new HashMap<String, String>());
+		Map<String, Object> first = getMessage("do_1");
+		Map<String, Object> second = getMessage("do_2");
+		service.processMessage(first, metrics, collector);
+		Assert.assertFalse(service.flushIfRequired(metrics, collector));
+		verify(csIndexer, never()).processESMessages(any(List.class));
+
+		service.processMessage(second, metrics, collector);
+		Assert.assertTrue(service.flushIfRequired(metrics, collector));
+		ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+		verify(csIndexer, times(1)).processESMessages(batch.capture());
+		Assert.assertEquals(Arrays.asList(first, second), batch.getValue());
+		verify(csIndexer, never()).processESMessage(any(String.class), any(String.class), any(String.class),
+				any(String.class), any(Map.class), any(JobMetrics.class));
+		verify(metrics, times(2)).incSuccessCounter();
+
+		Assert.assertFalse(service.flush(metrics, collector));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFailedNodesAreRetried() throws Exception {
+		Map<String, String> failures = new HashMap<String, String>();
+		failures.put("do_2", "mapper_parsing_exception");
+		when(csIndexer.processESMessages(any(List.class))).thenReturn(failures);
+		service.processMessage(getMessage("do_1"), metrics, collector);
+		service.processMessage(getMessage("do_2"), metrics, collector);
+		Assert.assertTrue(service.flush(metrics, collector));
+
+		ArgumentCaptor<OutgoingMessageEnvelope> envelope = ArgumentCaptor.forClass(OutgoingMessageEnvelope.class);
+		verify(collector, times(1)).send(envelope.capture());
+		Map<String, Object> failed = (Map<String, Object>) envelope.getValue().getMessage();
+		Assert.assertEquals("do_2", failed.get("nodeUniqueId"));
+		Assert.assertEquals("test.learning.events.failed", envelope.getValue().getSystemStream().getStream());
+		verify(metrics, times(1)).incSuccessCounter();
+		verify(metrics, times(1)).incFailedCounter();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testBatchIsRetriedWhenBulkWriteFails() throws Exception {
+		when(csIndexer.processESMessages(any(List.class))).thenThrow(new RuntimeException("bulk write timed out"));
+		service.processMessage(getMessage("do_1"), metrics, collector);
+		service.processMessage(getMessage("do_2"), metrics, collector);
+		Assert.assertTrue(service.flush(metrics, collector));
+		verify(collector, times(2)).send(any(OutgoingMessageEnvelope.class));
+		verify(metrics, times(2)).incErrorCounter();
+		Assert.assertFalse(service.flush(metrics, collector));
+	}
+
+	@Test
+	public void testMessageNotQualifiedForIndexing() throws Exception {
+		Map<String, Object> message = getMessage("do_1");
+		message.put("index", false);
+		service.processMessage(message, metrics, collector);
+		Assert.assertFalse(service.flush(metrics, collector));
+	}
+
+	private Map<String, Object> getMessage(String id) {
+		Map<String, Object> message = new HashMap<String, Object>();
+		message.put("nodeUniqueId", id);
+		message.put("operationType", CompositeSearchConstants.OPERATION_UPDATE);
+		message.put("graphId", "domain");
+		message.put("objectType", "Content");
+		message.put("nodeType", CompositeSearchConstants.NODE_TYPE_DATA);
+		message.put("nodeGraphId", 1);
+		message.put("transactionData", new HashMap<String, Object>());
+		return message;
+	}
+}
@@ -0,0 +1,96 @@
+package org.ekstep.jobs.samza.test;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.samza.config.Config;
+import org.apache.samza.config.MapConfig;
+import org.apache.samza.container.SamzaContainerContext;
+import org.apache.samza.container.TaskName;
+import org.apache.samza.metrics.MetricsRegistryMap;
+import org.apache.samza.system.IncomingMessageEnvelope;
+import org.apache.samza.system.OutgoingMessageEnvelope;
+import org.apache.samza.task.MessageCollector;
+import org.apache.samza.task.TaskContext;
+import org.apache.samza.task.TaskCoordinator;
+import org.apache.samza.task.TaskCoordinator.RequestScope;
+import org.ekstep.jobs.samza.service.CompositeSearchIndexerService;
+import org.ekstep.jobs.samza.service.task.JobMetrics;
+import org.ekstep.jobs.samza.task.CompositeSearchIndexerTask;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class CompositeSearchIndexerTaskTest {
+
+	private CompositeSearchIndexerService service;
+	private CompositeSearchIndexerTask task;
+	private MessageCollector collector;
+	private TaskCoordinator coordinator;
+
+	@Before
+	public void init() throws Exception {
+		Map<String, String> props = new HashMap<String, String>();
+		props.put("output.metrics.job.name", "composite-search-indexer");
+		props.put("output.metrics.topic.name", "test.pipeline_metrics");
+		Config config = new MapConfig(props);
+		TaskContext context = mock(TaskContext.class);
+		when(context.getMetricsRegistry()).thenReturn(new MetricsRegistryMap());
+		when(context.getSamzaContainerContext()).thenReturn(new SamzaContainerContext("0", config,
+				Collections.<TaskName>emptyList(), new MetricsRegistryMap()));
+		service = mock(CompositeSearchIndexerService.class);
+		when(service.isBulkEnabled()).thenReturn(true);
+		task = new CompositeSearchIndexerTask(config, context, service);
+		collector = mock(MessageCollector.class);
+		coordinator = mock(TaskCoordinator.class);
+	}
+
+	@Test
+	public void testOffsetsAreCommittedAfterFlush() throws Exception {
+		when(service.flushIfRequired(any(JobMetrics.class), any(MessageCollector.class))).thenReturn(true);
+		task.process(getEnvelope(), collector, coordinator);
+		InOrder inOrder = inOrder(service, coordinator);
+		inOrder.verify(service).flushIfRequired(any(JobMetrics.class), any(MessageCollector.class));
+		inOrder.verify(coordinator).commit(RequestScope.CURRENT_TASK);
+	}
+
+	@Test
+	public void testOffsetsAreNotCommittedWithPendingMessages() throws Exception {
+		when(service.flushIfRequired(any(JobMetrics.class), any(MessageCollector.class))).thenReturn(false);
+		task.process(getEnvelope(), collector, coordinator);
+		verify(coordinator, never()).commit(any(RequestScope.class));
+	}
+
+	@Test
+	public void testWindowFlushesBeforeCommit() throws Exception {
+		task.window(collector, coordinator);
+		InOrder inOrder = inOrder(service, coordinator, collector);
+		inOrder.verify(service).flush(any(JobMetrics.class), any(MessageCollector.class));
+		inOrder.verify(coordinator).commit(RequestScope.CURRENT_TASK);
+		inOrder.verify(collector).send(any(OutgoingMessageEnvelope.class));
+	}
+
+	@Test
+	public void testWindowCommitsWithoutBulkMode() throws Exception {
+		when(service.isBulkEnabled()).thenReturn(false);
+		task.window(collector, coordinator);
+		verify(service, never()).flush(any(JobMetrics.class), any(MessageCollector.class));
+		verify(coordinator).commit(RequestScope.CURRENT_TASK);
+	}
+
+	private IncomingMessageEnvelope getEnvelope() {
+		Map<String, Object> message = new HashMap<String, Object>();
+		message.put("nodeUniqueId", "do_1");
+		message.put("operationType", "UPDATE");
+		message.put("nodeType", "DATA_NODE");
+		return new IncomingMessageEnvelope(null, null, null, message);
+	}
+}
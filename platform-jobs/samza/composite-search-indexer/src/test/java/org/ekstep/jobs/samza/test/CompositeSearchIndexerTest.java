@@ -0,0 +1,137 @@
+package org.ekstep.jobs.samza.test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.ekstep.graph.model.node.DefinitionDTO;
+import org.ekstep.graph.model.node.MetadataDefinition;
+import org.ekstep.jobs.samza.service.util.CompositeSearchIndexer;
+import org.ekstep.jobs.samza.service.util.IndexingPlan;
+import org.ekstep.searchindex.util.CompositeSearchConstants;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("rawtypes")
+public class CompositeSearchIndexerTest {
+
+	private CompositeSearchIndexer indexer = new CompositeSearchIndexer() {
+		@Override
+		protected IndexingPlan getIndexingPlan(String graphId, String objectType) {
+			MetadataDefinition name = new MetadataDefinition();
+			name.setPropertyName("name");
+			DefinitionDTO definition = new DefinitionDTO();
+			definition.setProperties(Arrays.asList(name));
+			return new IndexingPlan(definition, false, new HashSet<String>());
+		}
+	};
+
+	@Test
+	public void testLastWriteWins() {
+		Map<String, String> failures = new HashMap<String, String>();
+		List<DocWriteRequest> requests = indexer.getWriteRequests(
+				Arrays.asList(getMessage("do_1", "CREATE", "first"), getMessage("do_1", "UPDATE", "second"),
+						getMessage("do_1", "UPDATE", "third")),
+				new HashMap<String, String>(), failures);
+		Assert.assertTrue(failures.isEmpty());
+		Assert.assertEquals(1, requests.size());
+		IndexRequest request = (IndexRequest) requests.get(0);
+		Assert.assertEquals("do_1", request.id());
+		Assert.assertEquals("third", request.sourceAsMap().get("name"));
+	}
+
+	@Test
+	public void testUpdateIsAppliedOnIndexedDocument() {
+		Map<String, String> documents = new HashMap<String, String>();
+		documents.put("do_1", "{\"name\":\"indexed\",\"status\":\"Live\"}");
+		List<DocWriteRequest> requests = indexer.getWriteRequests(
+				Arrays.asList(getMessage("do_1", "UPDATE", "updated")), documents, new HashMap<String, String>());
+		Assert.assertEquals(1, requests.size());
+		Map<String, Object> source = ((IndexRequest) requests.get(0)).sourceAsMap();
+		Assert.assertEquals("updated", source.get("name"));
+		Assert.assertEquals("Live", source.get("status"));
+	}
+
+	@Test
+	public void testCreateReplacesIndexedDocument() {
+		Map<String, String> documents = new HashMap<String, String>();
+		documents.put("do_1", "{\"name\":\"indexed\",\"status\":\"Live\"}");
+		List<DocWriteRequest> requests = indexer.getWriteRequests(
+				Arrays.asList(getMessage("do_1", "UPDATE", "updated"), getMessage("do_1", "CREATE", "created")),
+				documents, new HashMap<String, String>());
+		Map<String, Object> source = ((IndexRequest) requests.get(0)).sourceAsMap();
+		Assert.assertEquals("created", source.get("name"));
+		Assert.assertFalse(source.containsKey("status"));
+	}
+
+	@Test
+	public void testDeleteSupersedesWrites() {
+		List<DocWriteRequest> requests = indexer.getWriteRequests(
+				Arrays.asList(getMessage("do_1", "CREATE", "first"), getMessage("do_1", "UPDATE", "second"),
+						getMessage("do_1", "DELETE", null)),
+				new HashMap<String, String>(), new HashMap<String, String>());
+		Assert.assertEquals(1, requests.size());
+		Assert.assertTrue(requests.get(0) instanceof DeleteRequest);
+		Assert.assertEquals("do_1", requests.get(0).id());
+	}
+
+	@Test
+	public void testWriteAfterDelete() {
+		List<DocWriteRequest> requests = indexer.getWriteRequests(
+				Arrays.asList(getMessage("do_1", "DELETE", null), getMessage("do_1", "CREATE", "recreated")),
+				new HashMap<String, String>(), new HashMap<String, String>());
+		Assert.assertEquals(1, requests.size());
+		Assert.assertEquals("recreated", ((IndexRequest) requests.get(0)).sourceAsMap().get("name"));
+	}
+
+	@Test
+	public void testParentVisibleDocumentIsNotDeleted() {
+		Map<String, String> documents = new HashMap<String, String>();
+		documents.put("do_1", "{\"name\":\"unit\",\"visibility\":\"Parent\"}");
+		List<DocWriteRequest> requests = indexer.getWriteRequests(Arrays.asList(getMessage("do_1", "DELETE", null)),
+				documents, new HashMap<String, String>());
+		Assert.assertTrue(requests.isEmpty());
+	}
+
+	@Test
+	public void testOneRequestPerNode() {
+		Map<String, String> failures = new HashMap<String, String>();
+		Map<String, Object> invalid = getMessage("do_3", "UPDATE", "invalid");
+		invalid.remove("nodeGraphId");
+		List<DocWriteRequest> requests = indexer.getWriteRequests(
+				Arrays.asList(getMessage("do_1", "CREATE", "one"), getMessage("do_2", "CREATE", "two"), invalid,
+						getMessage("do_1", "UPDATE", "one again"), getMessage("do_2", "DELETE", null)),
+				new HashMap<String, String>(), failures);
+		Assert.assertEquals(2, requests.size());
+		Assert.assertEquals("do_1", requests.get(0).id());
+		Assert.assertEquals("one again", ((IndexRequest) requests.get(0)).sourceAsMap().get("name"));
+		Assert.assertEquals("do_2", requests.get(1).id());
+		Assert.assertTrue(requests.get(1) instanceof DeleteRequest);
+		Assert.assertEquals(1, failures.size());
+		Assert.assertTrue(failures.containsKey("do_3"));
+	}
+
+	private Map<String, Object> getMessage(String id, String operationType, String name) {
+		Map<String, Object> nameChange = new HashMap<String, Object>();
+		nameChange.put("ov", null);
+		nameChange.put("nv", name);
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("name", nameChange);
+		Map<String, Object> transactionData = new HashMap<String, Object>();
+		transactionData.put("properties", properties);
+		Map<String, Object> message = new HashMap<String, Object>();
+		message.put("nodeUniqueId", id);
+		message.put("operationType", operationType);
+		message.put("graphId", "domain");
+		message.put("objectType", "Content");
+		message.put("nodeType", CompositeSearchConstants.NODE_TYPE_DATA);
+		message.put("nodeGraphId", 1);
+		message.put("transactionData", transactionData);
+		return message;
+	}
+}
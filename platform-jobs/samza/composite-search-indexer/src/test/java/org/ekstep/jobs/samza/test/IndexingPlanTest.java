@@ -0,0 +1,54 @@
+package org.ekstep.jobs.samza.test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.ekstep.graph.model.node.DefinitionDTO;
+import org.ekstep.graph.model.node.MetadataDefinition;
+import org.ekstep.graph.model.node.RelationDefinition;
+import org.ekstep.jobs.samza.service.util.IndexingPlan;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexingPlanTest {
+
+	private DefinitionDTO getDefinition(boolean indexed) {
+		MetadataDefinition name = new MetadataDefinition();
+		name.setPropertyName("name");
+		name.setIndexed(indexed);
+		MetadataDefinition body = new MetadataDefinition();
+		body.setPropertyName("body");
+		RelationDefinition children = new RelationDefinition();
+		children.setRelationName("hasSequenceMember");
+		children.setObjectTypes(Arrays.asList("Content", "ContentImage"));
+		children.setTitle("children");
+		DefinitionDTO definition = new DefinitionDTO();
+		definition.setProperties(Arrays.asList(name, body));
+		definition.setOutRelations(Arrays.asList(children));
+		return definition;
+	}
+
+	@Test
+	public void testRestrictedMetadata() {
+		IndexingPlan plan = new IndexingPlan(getDefinition(true), true, new HashSet<String>());
+		Assert.assertTrue(plan.isIndexable("name"));
+		Assert.assertFalse(plan.isIndexable("body"));
+	}
+
+	@Test
+	public void testAllMetadataIsIndexedWithoutRestriction() {
+		IndexingPlan plan = new IndexingPlan(getDefinition(true), false, new HashSet<String>());
+		Assert.assertTrue(plan.isIndexable("body"));
+		plan = new IndexingPlan(getDefinition(false), true, new HashSet<String>());
+		Assert.assertTrue(plan.isIndexable("body"));
+	}
+
+	@Test
+	public void testRelationTitleAndNestedFields() {
+		IndexingPlan plan = new IndexingPlan(getDefinition(true), false, new HashSet<String>(Arrays.asList("badgeAssertions")));
+		Assert.assertEquals("children", plan.getRelationTitle("OUT", "ContentImage", "hasSequenceMember"));
+		Assert.assertNull(plan.getRelationTitle("IN", "Content", "hasSequenceMember"));
+		Assert.assertTrue(plan.isNested("badgeAssertions"));
+		Assert.assertFalse(plan.isNested("name"));
+	}
+}
@@ -1,7 +1,6 @@
 package org.ekstep.learning.actor;
 
 import akka.actor.ActorRef;
-import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.exception.ClientException;
@@ -17,6 +16,7 @@ import org.ekstep.telemetry.logger.TelemetryManager;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 /**
  * The Class ContentStoreActor, provides akka actor functionality to access the
@@ -57,8 +57,13 @@ public class ContentStoreActor extends BaseGraphManager {
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.getContentProperties.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				List<String> properties = (List<String>) request.get(ContentStoreParams.properties.name());
-				Map<String, Object> value = contentStore.getContentProperties(contentId, properties);
-				OK(ContentStoreParams.values.name(), value, sender());
+				ActorRef parent = sender();
+				contentStore.getContentPropertiesAsync(contentId, properties).whenComplete((value, error) -> {
+					if (null != error)
+						handleException(getCause(error), parent);
+					else
+						OK(ContentStoreParams.values.name(), value, parent);
+				});
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.updateContentProperty.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
 				String property = (String) request.get(ContentStoreParams.property.name());
@@ -72,11 +77,18 @@ public class ContentStoreActor extends BaseGraphManager {
 				OK(sender());
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.getCollectionHierarchy.name(), operation)) {
 				String contentId = (String) request.get(ContentStoreParams.content_id.name());
-				Map<String, Object> hierarchy = hierarchyStore.getHierarchy(contentId);
-				if(MapUtils.isEmpty(hierarchy)) {
-					throw new ResourceNotFoundException(ResponseCode.RESOURCE_NOT_FOUND.name(), "Resource not found : " + contentId);
-				}
-				OK(ContentStoreParams.hierarchy.name(), hierarchy, sender());
+				// only the subtree of the unit is read when a bookmark is given, it is empty if the unit is not found.
+				String bookmarkId = (String) request.get(ContentStoreParams.bookmark_id.name());
+				ActorRef parent = sender();
+				hierarchyStore.getHierarchyAsync(contentId, bookmarkId).whenComplete((hierarchy, error) -> {
+					if (null != error)
+						handleException(getCause(error), parent);
+					else if (null == hierarchy || (null == bookmarkId && hierarchy.isEmpty()))
+						handleException(new ResourceNotFoundException(ResponseCode.RESOURCE_NOT_FOUND.name(),
+								"Resource not found : " + contentId), parent);
+					else
+						OK(ContentStoreParams.hierarchy.name(), hierarchy, parent);
+				});
 			} else if (StringUtils.equalsIgnoreCase(ContentStoreOperations.deleteHierarchy.name(), operation)) {
 				List<String> identifiers = (List<String>) request.get(ContentStoreParams.content_id.name());
 				hierarchyStore.deleteHierarchy(identifiers);
@@ -98,6 +110,10 @@ public class ContentStoreActor extends BaseGraphManager {
 		}
 	}
 
+	private Throwable getCause(Throwable error) {
+		return (error instanceof CompletionException && null != error.getCause()) ? error.getCause() : error;
+	}
+
 	@Override
 	protected void invokeMethod(Request request, ActorRef parent) {
 		// TODO Auto-generated method stub
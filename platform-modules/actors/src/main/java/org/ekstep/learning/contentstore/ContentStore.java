@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
@@ -58,7 +59,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid property name. Please specify a valid property name");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		BoundStatement bound = ps.bind(contentId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -80,30 +81,49 @@ public class ContentStore extends CassandraStore {
 	public Map<String, Object> getContentProperties(String contentId, List<String> properties) {
 		TelemetryManager.log("GetContentProperties | Content: " + contentId + " | Properties: " + properties);
 		Session session = CassandraConnector.getSession();
-		String query = getSelectQuery(properties);
-		if (StringUtils.isBlank(query))
-			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
-					"Invalid properties list. Please specify a valid list of property names");
-		PreparedStatement ps = session.prepare(query);
-		BoundStatement bound = ps.bind(contentId);
+		BoundStatement bound = getContentPropertiesStatement(session, contentId, properties);
 		try {
 			ResultSet rs = session.execute(bound);
-			if (null != rs) {
-				Map<String, Object> map = new HashMap<String, Object>();
-				while (rs.iterator().hasNext()) {
-					Row row = rs.iterator().next();
-					for (String prop : properties) {
-						String value = row.getString(prop + PROPERTY_SUFFIX);
-						map.put(prop, value);
-					}
-					return map;
-				}
-			}
+			return getContentProperties(rs, properties);
 		} catch (Exception e) {
 			TelemetryManager.error("Error! Executing get content property: " + e.getMessage(), e);
 			throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
 					"Error fetching property from Content Store.");
 		}
+	}
+
+	/**
+	 * Reads the content properties without blocking the caller, so that the read
+	 * can overlap with other calls (e.g. graph reads) of the request.
+	 */
+	public CompletableFuture<Map<String, Object>> getContentPropertiesAsync(String contentId, List<String> properties) {
+		TelemetryManager.log("GetContentPropertiesAsync | Content: " + contentId + " | Properties: " + properties);
+		Session session = CassandraConnector.getSession();
+		BoundStatement bound = getContentPropertiesStatement(session, contentId, properties);
+		return executeAsync(session, bound).thenApply(rs -> getContentProperties(rs, properties));
+	}
+
+	private BoundStatement getContentPropertiesStatement(Session session, String contentId, List<String> properties) {
+		String query = getSelectQuery(properties);
+		if (StringUtils.isBlank(query))
+			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
+					"Invalid properties list. Please specify a valid list of property names");
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
+		return ps.bind(contentId);
+	}
+
+	private Map<String, Object> getContentProperties(ResultSet rs, List<String> properties) {
+		if (null != rs) {
+			Map<String, Object> map = new HashMap<String, Object>();
+			while (rs.iterator().hasNext()) {
+				Row row = rs.iterator().next();
+				for (String prop : properties) {
+					String value = row.getString(prop + PROPERTY_SUFFIX);
+					map.put(prop, value);
+				}
+				return map;
+			}
+		}
 		return null;
 	}
 
@@ -115,7 +135,7 @@ public class ContentStore extends CassandraStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid property name. Please specify a valid property name");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		BoundStatement bound = ps.bind(value, contentId);
 		try {
 			session.execute(bound);
@@ -136,7 +156,7 @@ public class ContentStore extends CassandraStore {
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
 					"Invalid property values. Please specify valid property values");
 		String query = getUpdateQuery(map.keySet());
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		Object[] values = new Object[map.size() + 1];
 		try {
 			int i = 0;
@@ -4,5 +4,5 @@ public enum ContentStoreParams {
 
 	content_id, body, property, value, properties, values, 
 	ERR_BLANK_CONTENT_ID, ERR_BLANK_CONTENT_BODY, ERR_CONTENT_DATA_NOT_FOUND, 
-	ERR_INVALID_PROPERTY_NAME, ERR_SERVER_ERROR, ERR_INVALID_PROPERTY_VALUES, hierarchy;
+	ERR_INVALID_PROPERTY_NAME, ERR_SERVER_ERROR, ERR_INVALID_PROPERTY_VALUES, hierarchy, bookmark_id;
 }
@@ -43,7 +43,7 @@ public class VideoStreamingJobRequest extends CassandraStore {
         String requestData = mapper.writeValueAsString(requestMap);
 
         Session session = CassandraConnector.getSession("lpa");
-        com.datastax.driver.core.PreparedStatement statement = session.prepare(query);
+        com.datastax.driver.core.PreparedStatement statement = CassandraConnector.prepare(session, query);
         BoundStatement boundStatement = new BoundStatement(statement);
         session.execute(boundStatement.bind(requestId, requestData, artifactUrl));
         } catch (Exception e) {
@@ -11,16 +11,19 @@ import org.ekstep.common.dto.Response;
 import org.ekstep.common.exception.ClientException;
 import org.ekstep.common.exception.ResourceNotFoundException;
 import org.ekstep.common.exception.ResponseCode;
+import org.ekstep.common.exception.ServerException;
 import org.ekstep.common.mgr.BaseManager;
 import org.ekstep.common.mgr.ConvertGraphNode;
 import org.ekstep.common.util.FrameworkCache;
 import org.ekstep.graph.dac.enums.GraphDACParams;
+import org.ekstep.graph.dac.enums.RelationTypes;
 import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.dac.model.Relation;
 import org.ekstep.graph.engine.router.GraphEngineManagers;
 import org.ekstep.graph.model.cache.CategoryCache;
 import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.learning.hierarchy.store.HierarchyStore;
+import org.ekstep.telemetry.logger.TelemetryManager;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -45,33 +48,44 @@ public class FrameworkHierarchy extends BaseManager {
 			? Platform.config.getString("framework.hierarchy.table")
 			: "framework_hierarchy";
 	private static final String objectType = "Framework";
+	private static final int HIERARCHY_DEPTH = Platform.config.hasPath("framework.hierarchy.depth")
+			? Platform.config.getInt("framework.hierarchy.depth")
+			: 10;
 	private HierarchyStore hierarchyStore = new HierarchyStore(keyspace, table, objectType, false);
 
 	/**
+	 * Generates the hierarchy of the framework from its nodes, read with one
+	 * query, and saves it when it differs from the stored hierarchy.
+	 *
 	 * @param id
 	 * @throws Exception
 	 */
 	public void generateFrameworkHierarchy(String id) throws Exception {
-		Response responseNode = getDataNode(GRAPH_ID, id);
-		if (checkError(responseNode))
+		Map<String, Node> nodes = getFrameworkNodes(id);
+		Node node = nodes.get(id);
+		if (null == node)
 			throw new ResourceNotFoundException("ERR_DATA_NOT_FOUND", "Data not found with id : " + id);
-		Node node = (Node) responseNode.get(GraphDACParams.node.name());
 		if (StringUtils.equalsIgnoreCase(node.getObjectType(), "Framework")) {
 			FrameworkCache.delete(id);
+			Map<String, DefinitionDTO> definitions = new HashMap<>();
 			Map<String, Object> frameworkDocument = new HashMap<>();
-			Map<String, Object> frameworkHierarchy = getHierarchy(node.getIdentifier(), 0, false, true);
+			Map<String, Object> frameworkHierarchy = getHierarchy(node.getIdentifier(), 0, false, true, nodes,
+					definitions);
 			CategoryCache.setFramework(node.getIdentifier(), frameworkHierarchy);
 
 			frameworkDocument.putAll(frameworkHierarchy);
 			frameworkDocument.put("identifier", node.getIdentifier());
 			frameworkDocument.put("objectType", node.getObjectType());
-			DefinitionDTO definition = getDefinition(GRAPH_ID, node.getObjectType());
+			DefinitionDTO definition = getDefinition(node.getObjectType(), definitions);
 			String[] fields = getFields(definition);
 			for (String field : fields) {
 				if(null!=node.getMetadata().get(field))
 					frameworkDocument.put(field, node.getMetadata().get(field));
 			}
-			hierarchyStore.saveOrUpdateHierarchy(node.getIdentifier(),frameworkDocument);
+			if (hierarchyStore.isStored(node.getIdentifier(), frameworkDocument))
+				TelemetryManager.info("Framework hierarchy is unchanged, not updating the hierarchy store: " + id);
+			else
+				hierarchyStore.saveOrUpdateHierarchy(node.getIdentifier(),frameworkDocument);
 		} else {
 			throw new ClientException(ResponseCode.CLIENT_ERROR.name(), "The object with given identifier is not a framework: " + id);
 		}
@@ -96,20 +110,58 @@ public class FrameworkHierarchy extends BaseManager {
 
 	}
 
+	/**
+	 * Nodes of the framework, categories and terms, keyed by identifier. They
+	 * are read with one query, through the sequence membership relations up
+	 * to <code>framework.hierarchy.depth</code> levels.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, Node> getFrameworkNodes(String id) {
+		Request request = getRequest(GRAPH_ID, GraphEngineManagers.SEARCH_MANAGER, "getSubGraphNodes");
+		request.put(GraphDACParams.start_node_id.name(), id);
+		request.put(GraphDACParams.relation_type.name(), RelationTypes.SEQUENCE_MEMBERSHIP.relationName());
+		request.put(GraphDACParams.depth.name(), HIERARCHY_DEPTH);
+		Response response = getResponse(request);
+		if (checkError(response))
+			throw new ServerException(response.getParams().getErr(), response.getParams().getErrmsg());
+		Map<String, Node> nodes = new HashMap<String, Node>();
+		List<Node> nodeList = (List<Node>) response.get(GraphDACParams.node_list.name());
+		if (null != nodeList) {
+			for (Node node : nodeList)
+				nodes.put(node.getIdentifier(), node);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Gets the node from the nodes of the framework. Nodes out of the
+	 * framework nodes, e.g. associations beyond the depth, are read one by
+	 * one.
+	 */
+	private Node getNode(String id, Map<String, Node> nodes) {
+		Node node = nodes.get(id);
+		if (null == node) {
+			Response responseNode = getDataNode(GRAPH_ID, id);
+			if (checkError(responseNode))
+				throw new ResourceNotFoundException("ERR_DATA_NOT_FOUND", "Data not found with id : " + id,
+						ResponseCode.RESOURCE_NOT_FOUND);
+			node = (Node) responseNode.get(GraphDACParams.node.name());
+			nodes.put(id, node);
+		}
+		return node;
+	}
+
 	@SuppressWarnings("unchecked")
-	private Map<String, Object> getHierarchy(String id, int index, boolean includeMetadata, boolean includeRelations) throws Exception {
+	private Map<String, Object> getHierarchy(String id, int index, boolean includeMetadata, boolean includeRelations,
+			Map<String, Node> nodes, Map<String, DefinitionDTO> definitions) throws Exception {
 		Map<String, Object> data = new HashMap<String, Object>();
-		Response responseNode = getDataNode(GRAPH_ID, id);
-		if (checkError(responseNode))
-			throw new ResourceNotFoundException("ERR_DATA_NOT_FOUND", "Data not found with id : " + id,
-					ResponseCode.RESOURCE_NOT_FOUND);
-		Node node = (Node) responseNode.get(GraphDACParams.node.name());
+		Node node = getNode(id, nodes);
 
 		Map<String, Object> metadata = node.getMetadata();
 		String status = (String) metadata.get("status");
 		if (StringUtils.equalsIgnoreCase("Live", status)) {
 			String objectType = node.getObjectType();
-			DefinitionDTO definition = getDefinition(GRAPH_ID, objectType);
+			DefinitionDTO definition = getDefinition(objectType, definitions);
 			if (includeMetadata) {
 				String[] fields = getFields(definition);
 				if (fields != null) {
@@ -153,7 +205,8 @@ public class FrameworkHierarchy extends BaseManager {
 						if ("associations".equalsIgnoreCase(title)) {
 							getChildren = false;
 						}
-						Map<String, Object> childData = getHierarchy(relation.getEndNodeId(), seqIndex, true, getChildren);
+						Map<String, Object> childData = getHierarchy(relation.getEndNodeId(), seqIndex, true,
+								getChildren, nodes, definitions);
 						if (!childData.isEmpty())
 							relData.add(childData);
 					}
@@ -168,6 +221,18 @@ public class FrameworkHierarchy extends BaseManager {
 		return data;
 	}
 
+	/**
+	 * Gets the definition of the object type, read once per object type.
+	 */
+	private DefinitionDTO getDefinition(String objectType, Map<String, DefinitionDTO> definitions) {
+		DefinitionDTO definition = definitions.get(objectType);
+		if (null == definition && !definitions.containsKey(objectType)) {
+			definition = getDefinition(GRAPH_ID, objectType);
+			definitions.put(objectType, definition);
+		}
+		return definition;
+	}
+
 	private DefinitionDTO getDefinition(String graphId, String objectType) {
 		Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getNodeDefinition",
 				GraphDACParams.object_type.name(), objectType);
@@ -0,0 +1,234 @@
+package org.ekstep.learning.hierarchy.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.jpountz.lz4.LZ4Factory;
+
+/**
+ * Encodes and decodes the hierarchy column of the hierarchy store.
+ *
+ * Two formats are supported:
+ * <ul>
+ * <li><b>json</b>: the hierarchy as plain JSON text (legacy rows).</li>
+ * <li><b>lz4</b>: <code>HS1:</code> followed by the Base64 of an LZ4
+ * compressed block. The block holds every node of the tree as its own JSON
+ * record (without the children), a node table with the offset, length and
+ * children of each record and an index of the first node (in level order) of
+ * each identifier. This allows a subtree to be read without parsing the rest
+ * of the hierarchy.</li>
+ * </ul>
+ * The format is detected on read, so both kinds of rows can live in the same
+ * table.
+ */
+public class HierarchyCodec {
+
+	public static final String FORMAT_JSON = "json";
+	public static final String FORMAT_LZ4 = "lz4";
+
+	private static final String LZ4_PREFIX = "HS1:";
+	private static final String CHILDREN = "children";
+	private static final String IDENTIFIER = "identifier";
+	// the node has no 'children' list or a list which is not made of nodes.
+	private static final int NO_CHILD_NODES = -1;
+
+	private static ObjectMapper mapper = new ObjectMapper();
+	private static LZ4Factory lz4 = LZ4Factory.fastestInstance();
+
+	public static String encode(Map<String, Object> hierarchy, String format) throws IOException {
+		if (StringUtils.equalsIgnoreCase(FORMAT_LZ4, format))
+			return LZ4_PREFIX + Base64.getEncoder().encodeToString(compress(toRecords(hierarchy)));
+		return mapper.writeValueAsString(hierarchy);
+	}
+
+	public static Map<String, Object> decode(String value) throws IOException {
+		if (StringUtils.isBlank(value))
+			return null;
+		if (!value.startsWith(LZ4_PREFIX))
+			return mapper.readValue(value, Map.class);
+		return new Records(decompress(value)).getNode(0);
+	}
+
+	/**
+	 * Returns the subtree of the first node (in level order) with the given
+	 * identifier, null if the hierarchy does not have it.
+	 */
+	public static Map<String, Object> decode(String value, String identifier) throws IOException {
+		if (StringUtils.isBlank(value))
+			return null;
+		if (!value.startsWith(LZ4_PREFIX))
+			return findNode(mapper.readValue(value, Map.class), identifier);
+		Records records = new Records(decompress(value));
+		Integer node = records.index.get(identifier);
+		return null == node ? null : records.getNode(node);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> findNode(Map<String, Object> hierarchy, String identifier) {
+		Deque<Map<String, Object>> queue = new ArrayDeque<Map<String, Object>>();
+		queue.add(hierarchy);
+		while (!queue.isEmpty()) {
+			Map<String, Object> node = queue.poll();
+			if (StringUtils.equals(identifier, (String) node.get(IDENTIFIER)))
+				return node;
+			List<Object> children = getChildNodes(node);
+			if (null != children) {
+				for (Object child : children)
+					queue.add((Map<String, Object>) child);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the children of the node when all of them are nodes (maps).
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Object> getChildNodes(Map<String, Object> node) {
+		Object children = node.get(CHILDREN);
+		if (!(children instanceof List))
+			return null;
+		for (Object child : (List<Object>) children) {
+			if (!(child instanceof Map))
+				return null;
+		}
+		return (List<Object>) children;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static byte[] toRecords(Map<String, Object> hierarchy) throws IOException {
+		// nodes are numbered in level order, so that the index points to the
+		// first occurrence of an identifier in level order.
+		List<Map<String, Object>> nodes = new ArrayList<Map<String, Object>>();
+		List<int[]> children = new ArrayList<int[]>();
+		Map<String, Integer> index = new LinkedHashMap<String, Integer>();
+		nodes.add(hierarchy);
+		for (int i = 0; i < nodes.size(); i++) {
+			Map<String, Object> node = nodes.get(i);
+			Object identifier = node.get(IDENTIFIER);
+			if (identifier instanceof String && !index.containsKey(identifier))
+				index.put((String) identifier, i);
+			List<Object> childNodes = getChildNodes(node);
+			if (null == childNodes) {
+				children.add(null);
+			} else {
+				int[] childIds = new int[childNodes.size()];
+				for (int j = 0; j < childIds.length; j++) {
+					childIds[j] = nodes.size();
+					nodes.add((Map<String, Object>) childNodes.get(j));
+				}
+				children.add(childIds);
+			}
+		}
+
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		int[] offsets = new int[nodes.size() + 1];
+		for (int i = 0; i < nodes.size(); i++) {
+			Map<String, Object> record = nodes.get(i);
+			if (null != children.get(i)) {
+				record = new LinkedHashMap<String, Object>(record);
+				record.remove(CHILDREN);
+			}
+			mapper.writeValue(records, record);
+			offsets[i + 1] = records.size();
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(records.size() + nodes.size() * 16);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(nodes.size());
+			for (int i = 0; i < nodes.size(); i++) {
+				out.writeInt(offsets[i]);
+				out.writeInt(offsets[i + 1] - offsets[i]);
+				int[] childIds = children.get(i);
+				out.writeInt(null == childIds ? NO_CHILD_NODES : childIds.length);
+				if (null != childIds) {
+					for (int childId : childIds)
+						out.writeInt(childId);
+				}
+			}
+			out.writeInt(index.size());
+			for (Map.Entry<String, Integer> entry : index.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue());
+			}
+			records.writeTo(out);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] compress(byte[] data) {
+		byte[] compressed = lz4.fastCompressor().compress(data);
+		return ByteBuffer.allocate(4 + compressed.length).putInt(data.length).put(compressed).array();
+	}
+
+	private static byte[] decompress(String value) {
+		ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(value.substring(LZ4_PREFIX.length())));
+		byte[] data = new byte[buffer.getInt()];
+		lz4.fastDecompressor().decompress(buffer.array(), 4, data, 0, data.length);
+		return data;
+	}
+
+	private static class Records {
+		private byte[] data;
+		private int[] offsets;
+		private int[] lengths;
+		private int[][] children;
+		private Map<String, Integer> index = new HashMap<String, Integer>();
+		private int recordsStart;
+
+		private Records(byte[] data) throws IOException {
+			this.data = data;
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			int count = buffer.getInt();
+			offsets = new int[count];
+			lengths = new int[count];
+			children = new int[count][];
+			for (int i = 0; i < count; i++) {
+				offsets[i] = buffer.getInt();
+				lengths[i] = buffer.getInt();
+				int childCount = buffer.getInt();
+				if (childCount != NO_CHILD_NODES) {
+					children[i] = new int[childCount];
+					for (int j = 0; j < childCount; j++)
+						children[i][j] = buffer.getInt();
+				}
+			}
+			DataInputStream in = new DataInputStream(
+					new ByteArrayInputStream(data, buffer.position(), data.length - buffer.position()));
+			int indexSize = in.readInt();
+			for (int i = 0; i < indexSize; i++)
+				index.put(in.readUTF(), in.readInt());
+			recordsStart = data.length - in.available();
+		}
+
+		@SuppressWarnings("unchecked")
+		private Map<String, Object> getNode(int node) throws IOException {
+			Map<String, Object> map = mapper.readValue(new String(data, recordsStart + offsets[node], lengths[node],
+					StandardCharsets.UTF_8), Map.class);
+			if (null != children[node]) {
+				List<Object> childList = new ArrayList<Object>(children[node].length);
+				for (int child : children[node])
+					childList.add(getNode(child));
+				map.put(CHILDREN, childList);
+			}
+			return map;
+		}
+	}
+}
@@ -5,7 +5,6 @@ import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import org.ekstep.cassandra.connector.util.CassandraConnector;
 import org.ekstep.cassandra.store.CassandraStore;
 import org.ekstep.common.Platform;
@@ -14,11 +13,18 @@ import org.ekstep.learning.contentstore.ContentStoreParams;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class HierarchyStore extends CassandraStore {
 
+    private static final String FORMAT = Platform.config.hasPath("hierarchy.store.format")
+            ? Platform.config.getString("hierarchy.store.format")
+            : HierarchyCodec.FORMAT_JSON;
+
     public HierarchyStore() {
         super();
         String keyspace = Platform.config.hasPath("hierarchy.keyspace.name")
@@ -41,32 +47,39 @@ public class HierarchyStore extends CassandraStore {
     public void saveOrUpdateHierarchy(String contentId, Map<String, Object> hierarchy) {
         try {
             String query = "UPDATE " + getKeyspace() + "." + getTable() + " SET hierarchy = ? WHERE identifier = ?";
-            String hierarchyData = mapper.writeValueAsString(hierarchy);
+            String hierarchyData = HierarchyCodec.encode(hierarchy, FORMAT);
             Session session = CassandraConnector.getSession();
-            PreparedStatement statement = session.prepare(query);
+            PreparedStatement statement = CassandraConnector.prepare(session, query);
             BoundStatement boundStatement = new BoundStatement(statement);
             session.execute(boundStatement.bind(hierarchyData, contentId));
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             TelemetryManager.error("Error while updating collection hierarchy for ID" + contentId, e);
         }
 
     }
 
     public Map<String, Object> getHierarchy(String contentId) {
-        String query = "SELECT hierarchy FROM " + getKeyspace() + "." + getTable() + " WHERE identifier=?";
+        return getHierarchy(contentId, null);
+    }
 
+    /**
+     * Reads the subtree of the given unit (first occurrence in level order)
+     * from the hierarchy of the collection. Only the records of the subtree
+     * are decoded for the rows in the compressed format.
+     *
+     * @param contentId
+     * @param bookmarkId
+     *            identifier of the unit, the whole hierarchy if null.
+     * @return null if the collection has no hierarchy, an empty map if the
+     *         hierarchy does not have the unit.
+     */
+    public Map<String, Object> getHierarchy(String contentId, String bookmarkId) {
         Session session = CassandraConnector.getSession();
-        PreparedStatement ps = session.prepare(query);
+        PreparedStatement ps = CassandraConnector.prepare(session, getSelectQuery());
         BoundStatement bound = ps.bind(contentId);
         try {
             ResultSet rs = session.execute(bound);
-            if (null != rs && rs.iterator().hasNext()) {
-                Row row = rs.iterator().next();
-                String value = row.getString("hierarchy");
-                return mapper.readValue(value, Map.class);
-            } else {
-               return null;
-            }
+            return getHierarchy(rs, bookmarkId);
         } catch (Exception e) {
             TelemetryManager.error("Error! Executing get collection hierarchy: " + e.getMessage(), e);
             throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
@@ -74,11 +87,72 @@ public class HierarchyStore extends CassandraStore {
         }
     }
 
+    /**
+     * Reads the hierarchy without blocking the caller, so that the read can
+     * overlap with other calls (e.g. graph reads) of the request.
+     *
+     * @param contentId
+     * @return
+     */
+    public CompletableFuture<Map<String, Object>> getHierarchyAsync(String contentId) {
+        return getHierarchyAsync(contentId, null);
+    }
+
+    public CompletableFuture<Map<String, Object>> getHierarchyAsync(String contentId, String bookmarkId) {
+        Session session = CassandraConnector.getSession();
+        PreparedStatement ps = CassandraConnector.prepare(session, getSelectQuery());
+        return executeAsync(session, ps.bind(contentId)).thenApply(rs -> {
+            try {
+                return getHierarchy(rs, bookmarkId);
+            } catch (Exception e) {
+                TelemetryManager.error("Error! Executing get collection hierarchy: " + e.getMessage(), e);
+                throw new ServerException(ContentStoreParams.ERR_SERVER_ERROR.name(),
+                        "Error fetching hierarchy from hierarchy Store.", e);
+            }
+        });
+    }
+
+    /**
+     * Checks if the given hierarchy is the stored hierarchy of the content.
+     * The hierarchy is encoded and decoded to compare it with the same types
+     * as the stored one.
+     *
+     * @param contentId
+     * @param hierarchy
+     * @return
+     */
+    public boolean isStored(String contentId, Map<String, Object> hierarchy) {
+        try {
+            Map<String, Object> stored = getHierarchy(contentId);
+            return null != stored && stored.equals(HierarchyCodec.decode(HierarchyCodec.encode(hierarchy, FORMAT)));
+        } catch (Exception e) {
+            TelemetryManager.error("Error while comparing the stored hierarchy of ID" + contentId, e);
+            return false;
+        }
+    }
+
+    private String getSelectQuery() {
+        return "SELECT hierarchy FROM " + getKeyspace() + "." + getTable() + " WHERE identifier=?";
+    }
+
+    private Map<String, Object> getHierarchy(ResultSet rs, String bookmarkId) throws Exception {
+        if (null != rs && rs.iterator().hasNext()) {
+            Row row = rs.iterator().next();
+            String value = row.getString("hierarchy");
+            if (null == bookmarkId)
+                return HierarchyCodec.decode(value);
+            Map<String, Object> unit = HierarchyCodec.decode(value, bookmarkId);
+            return null == unit ? new HashMap<String, Object>() : unit;
+        } else {
+            return null;
+        }
+    }
+
     public void deleteHierarchy(List<String> identifiers) {
         String query = "DELETE FROM " + getKeyspace() + "." + getTable() + " WHERE identifier IN :ids";
 
         Session session = CassandraConnector.getSession();
-        PreparedStatement ps = session.prepare(query);
+        PreparedStatement ps = CassandraConnector.prepare(session, query);
         BoundStatement bs = ps.bind();
         session.execute(bs.setList("ids", identifiers));
     }
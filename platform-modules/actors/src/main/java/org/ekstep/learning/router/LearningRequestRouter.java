@@ -1,8 +1,6 @@
 package org.ekstep.learning.router;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.ekstep.common.Platform;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
@@ -14,6 +12,7 @@ import org.ekstep.common.exception.ResourceNotFoundException;
 import org.ekstep.common.exception.ResponseCode;
 import org.ekstep.common.exception.ServerException;
 import org.ekstep.common.router.RequestRouterPool;
+import org.ekstep.graph.common.RequestPerfLogger;
 import org.ekstep.graph.common.enums.GraphHeaderParams;
 import org.ekstep.learning.actor.ContentStoreActor;
 import org.ekstep.learning.actor.FrameworkHierarchyActor;
@@ -44,8 +43,6 @@ public class LearningRequestRouter extends UntypedActor {
 	/** The timeout. */
 	protected long timeout = Platform.config.hasPath("akka.request_timeout")? (Platform.config.getLong("akka.request_timeout") * 1000): 30000;
 
-	private static final Logger perfLogger = LogManager.getLogger("PerformanceTestLogger");
-
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -64,9 +61,7 @@ public class LearningRequestRouter extends UntypedActor {
 			Request request = (Request) message;
 			long startTime = System.currentTimeMillis();
 			request.getContext().put(GraphHeaderParams.start_time.name(), startTime);
-			perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-					+ request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-					+ request.getOperation() + ",STARTTIME," + startTime);
+			RequestPerfLogger.start(request, startTime);
 			ActorRef parent = getSender();
 			try {
 				ActorRef actorRef = getActorFromPool(request);
@@ -128,18 +123,12 @@ public class LearningRequestRouter extends UntypedActor {
 			@Override
 			public void onSuccess(Object arg0) throws Throwable {
 				parent.tell(arg0, getSelf());
-				long endTime = System.currentTimeMillis();
-				long exeTime = endTime - (Long) request.getContext().get(GraphHeaderParams.start_time.name());
 				Response res = (Response) arg0;
 				ResponseParams params = res.getParams();
 				TelemetryManager.log(
 						request.getManagerName() + "," + request.getOperation() + ", SUCCESS, " + params.toString());
-				perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-						+ request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-						+ request.getOperation() + ",ENDTIME," + endTime);
-				perfLogger.info(request.getContext().get(GraphHeaderParams.scenario_name.name()) + ","
-						+ request.getContext().get(GraphHeaderParams.request_id.name()) + "," + request.getManagerName() + ","
-						+ request.getOperation() + "," + params.getStatus() + "," + exeTime);
+				RequestPerfLogger.end(request, (Long) request.getContext().get(GraphHeaderParams.start_time.name()),
+						System.currentTimeMillis(), params.getStatus());
 			}
 		}, getContext().dispatcher());
 
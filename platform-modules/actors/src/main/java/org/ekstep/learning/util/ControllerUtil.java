@@ -384,6 +384,25 @@ public class ControllerUtil extends BaseLearningManager {
         }
     }
 
+    /**
+     * Gets a page of the nodes of an object type, ordered by internal id. The
+     * internal id of the last node of a page is the cursor of the next page.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Node> getNodesPage(String graphId, String objectType, Long cursor, int batchSize) {
+        Request req = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getNodesPage",
+                GraphDACParams.object_type.name(), objectType);
+        req.put(GraphDACParams.cursor.name(), cursor);
+        req.put(GraphDACParams.limit.name(), batchSize);
+        Response listRes = getResponse(req);
+        if (checkError(listRes))
+            throw new ResourceNotFoundException("NODES_NOT_FOUND", "Nodes not found: " + graphId);
+        else {
+            List<Node> nodes = (List<Node>) listRes.get(GraphDACParams.node_list.name());
+            return nodes;
+        }
+    }
+
     public List<String> getNodesWithInDateRange(String graphId, String objectType, String startDate, String endDate) {
 
         List<String> nodeIds = new ArrayList<>();
@@ -436,6 +455,9 @@ public class ControllerUtil extends BaseLearningManager {
 
 
     /**
+     * Builds the hierarchy below the given node. The subtree is loaded level by
+     * level, with one batched node read per level, and assembled in memory.
+     *
      * @param graphId
      * @param node
      * @param definition
@@ -444,28 +466,49 @@ public class ControllerUtil extends BaseLearningManager {
      */
     public Map<String, Object> getContentHierarchyRecursive(String graphId, Node node, DefinitionDTO definition,
                                                             String mode, boolean fetchAll) {
-        Map<String, Object> contentMap = ConvertGraphNode.convertGraphNode(node, graphId, definition, null);
-        List<NodeDTO> children = (List<NodeDTO>) contentMap.get("children");
+        Map<String, Object> root = ConvertGraphNode.convertGraphNode(node, graphId, definition, null);
+        Map<String, Map<String, Object>> contents = new HashMap<String, Map<String, Object>>();
+        List<Map<String, Object>> level = Arrays.asList(root);
+        while (!level.isEmpty()) {
+            Set<String> childIds = new LinkedHashSet<String>();
+            for (Map<String, Object> content : level) {
+                for (NodeDTO dto : getChildren(content)) {
+                    if (!contents.containsKey(dto.getIdentifier()))
+                        childIds.add(dto.getIdentifier());
+                }
+            }
+            List<Map<String, Object>> nextLevel = new ArrayList<Map<String, Object>>();
+            for (Map.Entry<String, Node> entry : getContentNodes(graphId, childIds, mode).entrySet()) {
+                Map<String, Object> childMap = ConvertGraphNode.convertGraphNode(entry.getValue(), graphId, definition, null);
+                contents.put(entry.getKey(), childMap);
+                if (isHierarchyMember(childMap, fetchAll))
+                    nextLevel.add(childMap);
+            }
+            level = nextLevel;
+        }
+        return assembleHierarchy(root, contents, fetchAll);
+    }
+
+    private Map<String, Object> assembleHierarchy(Map<String, Object> content, Map<String, Map<String, Object>> contents,
+                                                  boolean fetchAll) {
+        // the same content can be placed at more than one position.
+        Map<String, Object> contentMap = new HashMap<String, Object>(content);
+        List<NodeDTO> children = new ArrayList<NodeDTO>(getChildren(contentMap));
 
         // Collections sort method is used to sort the child content list on the
         // basis of index.
-        if (null != children && !children.isEmpty()) {
+        if (!children.isEmpty()) {
             Collections.sort(children, new Comparator<NodeDTO>() {
                 @Override
                 public int compare(NodeDTO o1, NodeDTO o2) {
                     return o1.getIndex() - o2.getIndex();
                 }
             });
-        }
-
-        if (null != children && !children.isEmpty()) {
             List<Map<String, Object>> childList = new ArrayList<Map<String, Object>>();
             for (NodeDTO dto : children) {
-                Node childNode = getContentNode(graphId, dto.getIdentifier(), mode);
-                String nodeStatus = (String) childNode.getMetadata().get("status");
-                if ((!org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Retired")) &&
-                        (fetchAll || (org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Live") || org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Unlisted")))) {
-                    Map<String, Object> childMap = getContentHierarchyRecursive(graphId, childNode, definition, mode, fetchAll);
+                Map<String, Object> child = contents.get(dto.getIdentifier());
+                if (isHierarchyMember(child, fetchAll)) {
+                    Map<String, Object> childMap = assembleHierarchy(child, contents, fetchAll);
                     childMap.put("index", dto.getIndex());
                     Map<String, Object> childData = contentCleanUp(childMap);
                     childList.add(childData);
@@ -482,6 +525,18 @@ public class ControllerUtil extends BaseLearningManager {
         return contentMap;
     }
 
+    @SuppressWarnings("unchecked")
+    private List<NodeDTO> getChildren(Map<String, Object> content) {
+        List<NodeDTO> children = (List<NodeDTO>) content.get("children");
+        return null == children ? Collections.<NodeDTO>emptyList() : children;
+    }
+
+    private boolean isHierarchyMember(Map<String, Object> content, boolean fetchAll) {
+        String nodeStatus = (String) content.get("status");
+        return (!org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Retired")) &&
+                (fetchAll || (org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Live") || org.apache.commons.lang3.StringUtils.equalsIgnoreCase(nodeStatus, "Unlisted")));
+    }
+
     private Map<String, Object> contentCleanUp(Map<String, Object> map) {
         if (map.containsKey("identifier")) {
             String identifier = (String) map.get("identifier");
@@ -494,23 +549,52 @@ public class ControllerUtil extends BaseLearningManager {
         return map;
     }
 
-    private Node getContentNode(String graphId, String contentId, String mode) {
+    /**
+     * Returns the nodes of the given content ids, keyed by the content id. In
+     * edit mode the image node is returned when it exists.
+     */
+    private Map<String, Node> getContentNodes(String graphId, Collection<String> contentIds, String mode) {
+        Map<String, Node> contents = new LinkedHashMap<String, Node>();
+        if (contentIds.isEmpty())
+            return contents;
+        boolean edit = org.apache.commons.lang3.StringUtils.equalsIgnoreCase("edit", mode);
+        List<String> ids = new ArrayList<String>(contentIds);
+        if (edit) {
+            for (String contentId : contentIds)
+                ids.add(getImageId(contentId));
+        }
+        Map<String, Node> nodes = getDataNodeMap(graphId, ids);
+        for (String contentId : contentIds) {
+            Node content = edit ? nodes.get(getImageId(contentId)) : null;
+            if (null == content)
+                content = nodes.get(contentId);
+            if (null == content)
+                throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(),
+                        "Content not found with id: " + contentId);
+            contents.put(contentId, content);
+        }
+        return contents;
+    }
 
-        if (org.apache.commons.lang3.StringUtils.equalsIgnoreCase("edit", mode)) {
-            String contentImageId = getImageId(contentId);
-            Response responseNode = getDataNode(graphId, contentImageId);
-            if (!checkError(responseNode)) {
-                Node content = (Node) responseNode.get(GraphDACParams.node.name());
-                return content;
+    @SuppressWarnings("unchecked")
+    private Map<String, Node> getDataNodeMap(String graphId, List<String> ids) {
+        Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "getDataNodes",
+                GraphDACParams.node_ids.name(), ids);
+        Response response = getResponse(request);
+        if (checkError(response)) {
+            if (response.getResponseCode() == ResponseCode.CLIENT_ERROR) {
+                throw new ClientException(ContentErrorCodes.ERR_INVALID_INPUT.name(), response.getParams().getErrmsg());
+            } else {
+                throw new ServerException(ContentAPIParams.SERVER_ERROR.name(), response.getParams().getErrmsg());
             }
         }
-        Response responseNode = getDataNode(graphId, contentId);
-        if (checkError(responseNode))
-            throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(),
-                    "Content not found with id: " + contentId);
-
-        Node content = (Node) responseNode.get(GraphDACParams.node.name());
-        return content;
+        Map<String, Node> nodes = new HashMap<String, Node>();
+        List<Node> nodeList = (List<Node>) response.get(GraphDACParams.node_list.name());
+        if (null != nodeList) {
+            for (Node node : nodeList)
+                nodes.put(node.getIdentifier(), node);
+        }
+        return nodes;
     }
 
     protected String getImageId(String identifier) {
@@ -520,52 +604,56 @@ public class ControllerUtil extends BaseLearningManager {
         return imageId;
     }
 
+    /**
+     * Builds the tree from the flat hierarchy list of
+     * {@link #getContentHierarchy(String, String, String)}. A node is added to
+     * the children of every entry of its parent at the previous depth, in the
+     * order of the list.
+     */
     public Map<String, Object> constructHierarchy(List<Map<String, Object>> list) {
-
-        Map<String, Object> hierarchy = list.stream().filter(e -> ((Number) e.get("depth")).intValue() == 0).findFirst().get();
-        if (MapUtils.isNotEmpty(hierarchy)) {
-            int max = list.stream().map(e -> ((Number) e.get("depth")).intValue()).max(Comparator.naturalOrder()).orElse(1);
-
-            for (int i = 0; i <= max; i++) {
-                final int depth = i;
-                Map<String, List<Map<String, Object>>> currentLevelNodes = new HashMap<>();
-                list.stream().filter(e -> ((Number) e.get("depth")).intValue() == depth)
-                        .collect(Collectors.toList()).forEach(e -> {
-                    String id = (String) e.get("identifier");
-                    List<Map<String, Object>> nodes = currentLevelNodes.get(id);
-                    if (CollectionUtils.isEmpty(nodes)) {
-                        nodes = new ArrayList<>();
-                        currentLevelNodes.put((String) e.get("identifier"), nodes);
+        Map<String, Object> hierarchy = null;
+        Map<String, List<Map<String, Object>>> nodesByDepth = new HashMap<>();
+        for (Map<String, Object> e : list) {
+            int depth = getDepth(e);
+            if (depth == 0 && null == hierarchy)
+                hierarchy = e;
+            String key = getHierarchyKey(depth, (String) e.get("identifier"));
+            List<Map<String, Object>> nodes = nodesByDepth.get(key);
+            if (null == nodes) {
+                nodes = new ArrayList<>();
+                nodesByDepth.put(key, nodes);
+            }
+            nodes.add(e);
+        }
+        if (null == hierarchy)
+            throw new NoSuchElementException("No value present");
+        for (Map<String, Object> e : list) {
+            int depth = getDepth(e);
+            if (depth == 0)
+                continue;
+            List<Map<String, Object>> parents = nodesByDepth.get(getHierarchyKey(depth - 1, (String) e.get("parent")));
+            if (CollectionUtils.isNotEmpty(parents)) {
+                for (Map<String, Object> parent : parents) {
+                    List<Object> children = (List<Object>) parent.get("children");
+                    if (CollectionUtils.isEmpty(children)) {
+                        children = new ArrayList<>();
+                        parent.put("children", children);
                     }
-                    nodes.add(e);
-
-                });
-
-                List<Map<String, Object>> nextLevelNodes = list.stream().filter(e -> ((Number) e.get("depth")).intValue() == depth + 1)
-                        .collect(Collectors.toList());
-                if (MapUtils.isNotEmpty(currentLevelNodes) && CollectionUtils.isNotEmpty(nextLevelNodes)) {
-                    nextLevelNodes.forEach(e -> {
-                                String parentId = (String) e.get("parent");
-                                List<Map<String, Object>> parents = currentLevelNodes.get(parentId);
-                                if (CollectionUtils.isNotEmpty(parents)) {
-                                    for (Map<String, Object> parent : parents) {
-                                        List<Object> children = (List<Object>) parent.get("children");
-                                        if (CollectionUtils.isEmpty(children)) {
-                                            children = new ArrayList<>();
-                                            parent.put("children", children);
-                                        }
-                                        //contentCleanUp(e);
-                                        children.add(e);
-                                    }
-                                }
-                            }
-                    );
+                    children.add(e);
                 }
             }
         }
         return hierarchy;
     }
 
+    private static int getDepth(Map<String, Object> e) {
+        return ((Number) e.get("depth")).intValue();
+    }
+
+    private static String getHierarchyKey(int depth, String identifier) {
+        return depth + "_" + identifier;
+    }
+
     public List<Map<String, Object>> getContentHierarchy(String graphId, String contentId, String mode) {
         Request request = getRequest(graphId, GraphEngineManagers.SEARCH_MANAGER, "executeQueryForProps");
         String query = "MATCH p=(n:{0})-[r:hasSequenceMember*0..10]->(s:{0}) WHERE n.IL_UNIQUE_ID=\"{1}\" RETURN s.IL_UNIQUE_ID as identifier, s.IL_FUNC_OBJECT_TYPE as objectType, s.visibility as visibility, s.status as status, length(p) as depth, (nodes(p)[length(p)-1]).IL_UNIQUE_ID as parent, (rels(p)[length(p)-1]).IL_SEQUENCE_INDEX as index order by depth,index;";
@@ -579,45 +667,7 @@ public class ControllerUtil extends BaseLearningManager {
             if (CollectionUtils.isEmpty(list)) {
                 throw new ResourceNotFoundException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "No data find for the given identifier: " + contentId.replace(".img", ""));
             }
-            List<String> invalidStatus = Arrays.asList("Flagged", "Retired");
-            list = list.stream().filter(e -> !invalidStatus.contains(e.get("status"))).distinct().collect
-                    (Collectors.toList());
-
-            // Get leaf nodes(image) from the hierarchy (graph) and remove them.
-            List<String> resourceImgIds = list.stream()
-                    .filter(e -> StringUtils.equals((String) e.get("objectType"), "ContentImage") && StringUtils.equalsIgnoreCase((String) e.get("visibility"), "default") && ((Number) e.get("depth")).intValue() > 0)
-                    .map(e -> (String) e.get("identifier"))
-                    .map(id -> id.endsWith(".img") ? id : id + ".img")
-                    .distinct().collect(Collectors.toList());
-//			Stream<Map<String, Object>> listStream = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")));
-
-            // Get image nodes from the hierarchy (graph) other than root.
-//			Stream<Map<String,Object>> imgList = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-//					.filter(e -> StringUtils.equals((String) e.get("objectType"), "ContentImage") && ((Number) e.get("depth")).intValue() > 0);
-
-            if (StringUtils.equalsIgnoreCase("edit", mode)) {
-                // mode=edit - remove the Content which have Image Nodes.
-                List<String> removeIds = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> StringUtils.equals((String) e.get("objectType"), "ContentImage") && ((Number) e.get("depth")).intValue() > 0).map(e -> ((String) e.get("identifier")).replace(".img", "")).collect(Collectors.toList());
-                List<Map<String, Object>> contentList = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> !removeIds.contains(e.get("identifier")))
-                        .collect(Collectors.toList());
-
-                return contentList;
-            } else {
-                List<String> publicStatus = Arrays.asList("Live", "Unlisted");
-                Map<String, Object> root = list.stream().filter(e -> ((Number) e.get("depth")).intValue() == 0).findFirst().get();
-                if (MapUtils.isEmpty(root) || !publicStatus.contains(root.get("status"))) {
-                    throw new ResourceNotFoundException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "No data find for the given identifier: " + contentId.replace(".img", ""));
-                }
-                // mode!=edit - remove Image Nodes.
-                List<String> removeIds = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> (!publicStatus.contains(e.get("status")) || StringUtils.equals((String) e.get("objectType"), "ContentImage")) && ((Number) e.get("depth")).intValue() > 0).map(e -> ((String) e.get("identifier"))).collect(Collectors.toList());
-                List<Map<String, Object>> contentList = list.stream().filter(e -> !resourceImgIds.contains((String) e.get("identifier")))
-                        .filter(e -> !removeIds.contains(e.get("identifier"))).collect(Collectors.toList());
-                return contentList;
-            }
-
+            return filterHierarchy(list, contentId, mode);
         } else {
             if (response.getResponseCode() == ResponseCode.CLIENT_ERROR) {
                 throw new ClientException(ContentErrorCodes.ERR_INVALID_INPUT.name(), response.getParams().getErrmsg());
@@ -627,6 +677,56 @@ public class ControllerUtil extends BaseLearningManager {
         }
     }
 
+    /**
+     * Removes the duplicate rows, the Flagged and Retired nodes and the nodes
+     * replaced by (mode=edit) or hidden behind (other modes) an image node.
+     */
+    protected List<Map<String, Object>> filterHierarchy(List<Map<String, Object>> hierarchy, String contentId, String mode) {
+        Set<String> invalidStatus = new HashSet<>(Arrays.asList("Flagged", "Retired"));
+        // a row is identified by the node, its position and the parent.
+        Set<String> rows = new HashSet<>();
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Map<String, Object> e : hierarchy) {
+            if (!invalidStatus.contains(e.get("status")) && rows.add(e.get("identifier") + "_" + e.get("depth") + "_" + e.get("parent") + "_" + e.get("index")))
+                list.add(e);
+        }
+
+        // Get leaf nodes(image) from the hierarchy (graph) and remove them.
+        Set<String> resourceImgIds = new HashSet<>();
+        for (Map<String, Object> e : list) {
+            if (StringUtils.equals((String) e.get("objectType"), "ContentImage") && StringUtils.equalsIgnoreCase((String) e.get("visibility"), "default") && getDepth(e) > 0) {
+                String id = (String) e.get("identifier");
+                resourceImgIds.add(id.endsWith(".img") ? id : id + ".img");
+            }
+        }
+
+        Set<String> removeIds = new HashSet<>();
+        if (StringUtils.equalsIgnoreCase("edit", mode)) {
+            // mode=edit - remove the Content which have Image Nodes.
+            for (Map<String, Object> e : list) {
+                if (!resourceImgIds.contains(e.get("identifier")) && StringUtils.equals((String) e.get("objectType"), "ContentImage") && getDepth(e) > 0)
+                    removeIds.add(((String) e.get("identifier")).replace(".img", ""));
+            }
+        } else {
+            Set<String> publicStatus = new HashSet<>(Arrays.asList("Live", "Unlisted"));
+            Map<String, Object> root = list.stream().filter(e -> getDepth(e) == 0).findFirst().get();
+            if (MapUtils.isEmpty(root) || !publicStatus.contains(root.get("status"))) {
+                throw new ResourceNotFoundException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "No data find for the given identifier: " + contentId.replace(".img", ""));
+            }
+            // mode!=edit - remove Image Nodes.
+            for (Map<String, Object> e : list) {
+                if (!resourceImgIds.contains(e.get("identifier")) && (!publicStatus.contains(e.get("status")) || StringUtils.equals((String) e.get("objectType"), "ContentImage")) && getDepth(e) > 0)
+                    removeIds.add((String) e.get("identifier"));
+            }
+        }
+        List<Map<String, Object>> contentList = new ArrayList<>();
+        for (Map<String, Object> e : list) {
+            if (!resourceImgIds.contains(e.get("identifier")) && !removeIds.contains(e.get("identifier")))
+                contentList.add(e);
+        }
+        return contentList;
+    }
+
 
     public Map<String, Object> getHierarchyMap(String graphId, String contentId, DefinitionDTO
             definition, String mode, List<String> fields) {
@@ -635,40 +735,30 @@ public class ControllerUtil extends BaseLearningManager {
         List<Map<String, Object>> contentList = getContentHierarchy(graphId, contentId, mode);
 //		System.out.println("Time to call cypher and get hierarchy list: " + (System.currentTimeMillis() - startTime));
 
-        List<String> ids = contentList.stream().map(content -> (String) content.get("identifier")).collect(Collectors
-                .toList());
-        Map<String, Object> collectionHierarchy = new HashMap<>();
+        List<String> ids = contentList.stream().map(content -> (String) content.get("identifier")).distinct()
+                .collect(Collectors.toList());
 //		startTime = System.currentTimeMillis();
-        Response getList = getDataNodes(graphId, ids);
+        Map<String, Node> nodes = getDataNodeMap(graphId, ids);
 //		System.out.println("Time to get required data nodes: " + (System.currentTimeMillis() - startTime));
-		if (null != getList && !checkError(getList)) {
-			List<Node> nodeList = (List<Node>) getList.get("node_list");
-			Map<String, Map<String, Object>> contentsWithMetadata = nodeList.stream().map(n -> ConvertGraphNode.convertGraphNode
-					(n, graphId, definition, fields)).map(contentMap -> {
-				contentMap.remove("collections");
-				contentMap.remove("children");
-				contentMap.remove("usedByContent");
-				contentMap.remove("item_sets");
-				contentMap.remove("methods");
-				contentMap.remove("libraries");
-				contentMap.remove("editorState");
-				return contentMap;
-			}).collect(Collectors.toMap(e -> (String) e.get("identifier"), e -> e));
-
-            contentList = contentList.stream().map(n -> {
-                n.putAll(contentsWithMetadata.get(n.get("identifier")));
-                return n;
-            }).collect(Collectors.toList());
-//			startTime = System.currentTimeMillis();
-            collectionHierarchy = contentCleanUp(constructHierarchy(contentList));
-//			System.out.println("Time to construct hierarchy: " + (System.currentTimeMillis() - startTime));
-		} else {
-			if (null != getList && getList.getResponseCode() == ResponseCode.CLIENT_ERROR) {
-				throw new ClientException(ContentErrorCodes.ERR_INVALID_INPUT.name(), getList.getParams().getErrmsg());
-			} else {
-				throw new ServerException(ContentAPIParams.SERVER_ERROR.name(), getList.getParams().getErrmsg());
-			}
-		}
+        Map<String, Map<String, Object>> contentsWithMetadata = nodes.values().stream().map(n -> ConvertGraphNode.convertGraphNode
+                (n, graphId, definition, fields)).map(contentMap -> {
+            contentMap.remove("collections");
+            contentMap.remove("children");
+            contentMap.remove("usedByContent");
+            contentMap.remove("item_sets");
+            contentMap.remove("methods");
+            contentMap.remove("libraries");
+            contentMap.remove("editorState");
+            return contentMap;
+        }).collect(Collectors.toMap(e -> (String) e.get("identifier"), e -> e));
+
+        contentList = contentList.stream().map(n -> {
+            n.putAll(contentsWithMetadata.get(n.get("identifier")));
+            return n;
+        }).collect(Collectors.toList());
+//		startTime = System.currentTimeMillis();
+        Map<String, Object> collectionHierarchy = contentCleanUp(constructHierarchy(contentList));
+//		System.out.println("Time to construct hierarchy: " + (System.currentTimeMillis() - startTime));
 		hierarchyCleanUp(collectionHierarchy);
 		return collectionHierarchy;
 	}
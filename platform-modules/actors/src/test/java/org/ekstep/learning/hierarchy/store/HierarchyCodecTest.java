@@ -0,0 +1,72 @@
+package org.ekstep.learning.hierarchy.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HierarchyCodecTest {
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	private static Map<String, Object> node(String identifier, Object... children) {
+		Map<String, Object> node = new LinkedHashMap<String, Object>();
+		node.put("identifier", identifier);
+		node.put("name", "Name of " + identifier);
+		node.put("keywords", Arrays.asList("unit", "test"));
+		if (children.length > 0)
+			node.put("children", new ArrayList<Object>(Arrays.asList(children)));
+		return node;
+	}
+
+	private static Map<String, Object> getHierarchy() {
+		Map<String, Object> unit1 = node("do_unit_1", node("do_res_1"), node("do_res_2"));
+		Map<String, Object> unit2 = node("do_unit_2", node("do_unit_3", node("do_res_1")));
+		// empty children list must be kept as is.
+		Map<String, Object> unit4 = node("do_unit_4");
+		unit4.put("children", new ArrayList<Object>());
+		return node("do_root", unit1, unit2, unit4);
+	}
+
+	@Test
+	public void testJsonFormat() throws Exception {
+		Map<String, Object> hierarchy = getHierarchy();
+		String value = HierarchyCodec.encode(hierarchy, HierarchyCodec.FORMAT_JSON);
+		Assert.assertEquals(mapper.writeValueAsString(hierarchy), value);
+		Assert.assertEquals(hierarchy, HierarchyCodec.decode(value));
+	}
+
+	@Test
+	public void testLz4Format() throws Exception {
+		Map<String, Object> hierarchy = getHierarchy();
+		String value = HierarchyCodec.encode(hierarchy, HierarchyCodec.FORMAT_LZ4);
+		Assert.assertTrue(value.startsWith("HS1:"));
+		Assert.assertEquals(hierarchy, HierarchyCodec.decode(value));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testReadUnit() throws Exception {
+		Map<String, Object> hierarchy = getHierarchy();
+		for (String format : Arrays.asList(HierarchyCodec.FORMAT_JSON, HierarchyCodec.FORMAT_LZ4)) {
+			String value = HierarchyCodec.encode(hierarchy, format);
+			Map<String, Object> unit = HierarchyCodec.decode(value, "do_unit_2");
+			Assert.assertEquals(((List<Object>) hierarchy.get("children")).get(1), unit);
+			// first occurrence in level order.
+			Assert.assertEquals(node("do_res_1"), HierarchyCodec.decode(value, "do_res_1"));
+			Assert.assertNull(HierarchyCodec.decode(value, "do_invalid"));
+		}
+	}
+
+	@Test
+	public void testEmptyValue() throws Exception {
+		Assert.assertNull(HierarchyCodec.decode(null));
+		Assert.assertNull(HierarchyCodec.decode("", "do_unit_1"));
+	}
+}
@@ -0,0 +1,98 @@
+package org.ekstep.learning.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ControllerUtilTest {
+
+	private ControllerUtil util = new ControllerUtil();
+
+	private static Map<String, Object> row(String identifier, String objectType, String status, int depth,
+			String parent, int index) {
+		Map<String, Object> row = new HashMap<String, Object>();
+		row.put("identifier", identifier);
+		row.put("objectType", objectType);
+		row.put("visibility", depth > 1 ? "Default" : "Parent");
+		row.put("status", status);
+		row.put("depth", (long) depth);
+		row.put("parent", parent);
+		row.put("index", index);
+		return row;
+	}
+
+	/**
+	 * Synthetic hierarchy of units, each with the given number of leaf
+	 * resources.
+	 */
+	private static List<Map<String, Object>> getHierarchy(int units, int resources) {
+		List<Map<String, Object>> list = new ArrayList<Map<String, Object>>();
+		list.add(row("do_root", "Content", "Live", 0, "do_root", 0));
+		for (int i = 0; i < units; i++)
+			list.add(row("do_unit_" + i, "Content", "Live", 1, "do_root", i + 1));
+		for (int i = 0; i < units; i++) {
+			for (int j = 0; j < resources; j++)
+				list.add(row("do_res_" + i + "_" + j, "Content", "Live", 2, "do_unit_" + i, j + 1));
+		}
+		return list;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testConstructHierarchy() {
+		List<Map<String, Object>> list = getHierarchy(2, 2);
+		// same resource under both the units.
+		list.add(row("do_res_0_0", "Content", "Live", 2, "do_unit_1", 3));
+		Map<String, Object> hierarchy = util.constructHierarchy(list);
+		Assert.assertEquals("do_root", hierarchy.get("identifier"));
+		List<Map<String, Object>> units = (List<Map<String, Object>>) hierarchy.get("children");
+		Assert.assertEquals(2, units.size());
+		Assert.assertEquals("do_unit_0", units.get(0).get("identifier"));
+		List<Map<String, Object>> resources = (List<Map<String, Object>>) units.get(1).get("children");
+		Assert.assertEquals(3, resources.size());
+		Assert.assertEquals("do_res_1_0", resources.get(0).get("identifier"));
+		Assert.assertEquals("do_res_0_0", resources.get(2).get("identifier"));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test(timeout = 10000)
+	public void testConstructLargeHierarchy() {
+		List<Map<String, Object>> list = getHierarchy(500, 100);
+		Map<String, Object> hierarchy = util.constructHierarchy(list);
+		List<Map<String, Object>> units = (List<Map<String, Object>>) hierarchy.get("children");
+		Assert.assertEquals(500, units.size());
+		for (Map<String, Object> unit : units)
+			Assert.assertEquals(100, ((List<Object>) unit.get("children")).size());
+	}
+
+	@Test
+	public void testFilterHierarchyInEditMode() {
+		List<Map<String, Object>> list = getHierarchy(1, 2);
+		list.add(row("do_unit_0", "Content", "Live", 1, "do_root", 1));
+		list.add(row("do_unit_0.img", "ContentImage", "Draft", 1, "do_root", 2));
+		list.add(row("do_res_retired", "Content", "Retired", 2, "do_unit_0", 3));
+		List<Map<String, Object>> contents = util.filterHierarchy(list, "do_root", "edit");
+		List<Object> ids = new ArrayList<Object>();
+		for (Map<String, Object> content : contents)
+			ids.add(content.get("identifier"));
+		Assert.assertEquals(4, contents.size());
+		Assert.assertTrue(ids.contains("do_unit_0.img"));
+		Assert.assertFalse(ids.contains("do_unit_0"));
+		Assert.assertFalse(ids.contains("do_res_retired"));
+	}
+
+	@Test
+	public void testFilterHierarchyInReadMode() {
+		List<Map<String, Object>> list = getHierarchy(1, 2);
+		list.add(row("do_unit_0.img", "ContentImage", "Draft", 1, "do_root", 2));
+		list.add(row("do_res_draft", "Content", "Draft", 2, "do_unit_0", 3));
+		List<Map<String, Object>> contents = util.filterHierarchy(list, "do_root", null);
+		Assert.assertEquals(4, contents.size());
+		for (Map<String, Object> content : contents)
+			Assert.assertEquals("Live", content.get("status"));
+	}
+}
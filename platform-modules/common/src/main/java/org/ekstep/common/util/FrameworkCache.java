@@ -7,51 +7,152 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.Platform;
+import org.ekstep.graph.cache.util.InMemoryCache;
 import org.ekstep.graph.cache.util.RedisStoreUtil;
+import org.ekstep.graph.cache.util.RedisSubscriber;
+import org.ekstep.telemetry.logger.TelemetryManager;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Cache of framework hierarchies.
+ *
+ * One document holding all the categories is cached per framework, in Redis
+ * and in a bounded local tier in front of it: 100 entries expiring after 300
+ * seconds, overridden by <code>cache.framework.max_size</code> and
+ * <code>cache.framework.ttl</code> (see {@link InMemoryCache}). The categories
+ * asked for are projected from the cached document on every read, so a delete
+ * is a single key.
+ *
+ * A delete is published on the <code>framework.cache.channel</code> channel
+ * and drops the local entry on every instance. Pub/sub does not redeliver, so
+ * the ttl bounds how long a missed message leaves a stale entry.
+ */
 public class FrameworkCache {
 
     private static final int cacheTtl = Platform.config.hasPath("framework.cache.ttl") ? Platform.config.getInt("framework.cache.ttl") : 86400;
     protected static boolean cacheEnabled = Platform.config.hasPath("framework.cache.read") ? Platform.config.getBoolean("framework.cache.read") : false;
-    private static final String CACHE_PREFIX = "fw_";
+    private static final String CACHE_PREFIX = "fwh_";
+    private static final String INVALIDATION_CHANNEL = Platform.config.hasPath("framework.cache.channel") ? Platform.config.getString("framework.cache.channel") : "framework_update";
     protected static ObjectMapper mapper = new ObjectMapper();
+    private static InMemoryCache<Map<String, Object>> localCache = InMemoryCache.<Map<String, Object>>builder("framework")
+            .maxSize(100).ttl(300).build();
 
+    static {
+        if(cacheEnabled)
+            RedisSubscriber.subscribe(INVALIDATION_CHANNEL, FrameworkCache::invalidate);
+    }
 
-    protected static String getFwCacheKey(String identifier, List<String> categoryNames) {
-        Collections.sort(categoryNames);
-        return CACHE_PREFIX + identifier.toLowerCase() + "_" + categoryNames.stream().map(cat -> cat.toLowerCase()).collect(Collectors.joining("_"));
+    protected static String getFwCacheKey(String identifier) {
+        return CACHE_PREFIX + identifier.toLowerCase();
     }
 
 
     public static Map<String, Object> get(String id, List<String> returnCategories) throws IOException {
-        if(CollectionUtils.isNotEmpty(returnCategories) && cacheEnabled) {
-            Collections.sort(returnCategories);
-            String cachedCategories = RedisStoreUtil.get(getFwCacheKey(id, returnCategories));
-            if(StringUtils.isNotBlank(cachedCategories)) {
-               return mapper.readValue(cachedCategories, new TypeReference<Map<String, Object>>(){});
+        if(cacheEnabled && StringUtils.isNotBlank(id)) {
+            String key = getFwCacheKey(id);
+            Map<String, Object> framework = localCache.get(key);
+            if(null == framework) {
+                String cachedFramework = RedisStoreUtil.get(key);
+                if(StringUtils.isBlank(cachedFramework))
+                    return null;
+                framework = mapper.readValue(cachedFramework, new TypeReference<Map<String, Object>>(){});
+                localCache.put(key, framework);
             }
+            return project(framework, returnCategories);
         }
         return null;
     }
 
 
-    public static void save(Map<String, Object> framework, List<String> categoryNames) throws JsonProcessingException {
+    /**
+     * Saves the framework with all its categories. The framework is
+     * serialized before returning, so it can be changed afterwards.
+     */
+    public static void save(Map<String, Object> framework) throws JsonProcessingException {
         if(cacheEnabled && MapUtils.isNotEmpty(framework) && StringUtils.isNotBlank((String) framework.get("identifier"))) {
-            Collections.sort(categoryNames);
-            String key = getFwCacheKey((String) framework.get("identifier"), categoryNames);
+            String key = getFwCacheKey((String) framework.get("identifier"));
             RedisStoreUtil.save(key, mapper.writeValueAsString(framework), cacheTtl);
+            localCache.remove(key);
         }
     }
 
     public static void delete(String id) {
-        if(StringUtils.isNotBlank(id))
-            RedisStoreUtil.deleteByPattern(CACHE_PREFIX + id + "_*");
+        if(StringUtils.isNotBlank(id)) {
+            String key = getFwCacheKey(id);
+            localCache.remove(key);
+            RedisStoreUtil.delete(key);
+            publish(id);
+        }
+    }
+
+    private static void publish(String id) {
+        try {
+            RedisStoreUtil.publish(INVALIDATION_CHANNEL, id);
+        } catch (Exception e) {
+            TelemetryManager.error("Error while publishing framework cache invalidation for: " + id, e);
+        }
+    }
+
+    /**
+     * Handles the invalidation message (framework id) published on delete.
+     */
+    private static void invalidate(String id) {
+        if(StringUtils.isNotBlank(id)) {
+            localCache.remove(getFwCacheKey(id));
+            TelemetryManager.log("Framework cache invalidated for: " + id);
+        }
+    }
+
+    /**
+     * Returns a copy of the framework with only the given categories, and
+     * only the associations of their terms to those categories. The
+     * framework itself is not changed; the terms without associations are
+     * shared with it.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> project(Map<String, Object> framework, List<String> categoryNames) {
+        Map<String, Object> projection = new LinkedHashMap<>(framework);
+        List<Map<String, Object>> categories = (List<Map<String, Object>>) framework.get("categories");
+        if(CollectionUtils.isNotEmpty(categories) && CollectionUtils.isNotEmpty(categoryNames)) {
+            Set<String> names = new HashSet<>(categoryNames);
+            projection.put("categories", categories.stream().filter(p -> names.contains(p.get("code")))
+                    .map(category -> {
+                        Map<String, Object> copy = new LinkedHashMap<>(category);
+                        List<Map<String, Object>> terms = (List<Map<String, Object>>) category.get("terms");
+                        if(CollectionUtils.isNotEmpty(terms))
+                            copy.put("terms", projectTerms(terms, names));
+                        return copy;
+                    }).collect(Collectors.toList()));
+        }
+        return projection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> projectTerms(List<Map<String, Object>> terms, Set<String> categoryNames) {
+        return terms.stream().map(term -> {
+            List<Map<String, Object>> associations = (List<Map<String, Object>>) term.get("associations");
+            if(CollectionUtils.isEmpty(associations))
+                return term;
+            Map<String, Object> copy = new LinkedHashMap<>(term);
+            List<Map<String, Object>> filtered = associations.stream().filter(Objects::nonNull)
+                    .filter(p -> categoryNames.contains(p.get("category"))).collect(Collectors.toList());
+            if(filtered.isEmpty())
+                copy.remove("associations");
+            else
+                copy.put("associations", filtered);
+            List<Map<String, Object>> children = (List<Map<String, Object>>) term.get("children");
+            if(CollectionUtils.isNotEmpty(children))
+                copy.put("children", projectTerms(children, categoryNames));
+            return copy;
+        }).collect(Collectors.toList());
     }
 
 }
@@ -9,8 +9,12 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.security.MessageDigest;
 import java.util.List;
+import java.util.regex.Pattern;
 
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.Slug;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
@@ -23,6 +27,7 @@ import org.ekstep.telemetry.logger.TelemetryManager;
 public class HttpDownloadUtility {
 
 	private static final int BUFFER_SIZE = 4096;
+	private static final Pattern MD5_PATTERN = Pattern.compile("^[0-9a-fA-F]{32}$");
 
 	/**
 	 * Downloads a file from a URL
@@ -33,6 +38,23 @@ public class HttpDownloadUtility {
 	 *            path of the directory to save the file
 	 */
 	public static File downloadFile(String fileURL, String saveDir) {
+		return downloadFile(fileURL, saveDir, false);
+	}
+
+	/**
+	 * Downloads a file from a URL, optionally verifying the downloaded bytes
+	 * against the Content-Length and, when it is a plain MD5 digest (as
+	 * returned by S3 for single part uploads), the ETag of the response. A
+	 * file failing the verification is deleted and 'null' is returned.
+	 * 
+	 * @param fileURL
+	 *            HTTP URL of the file to be downloaded
+	 * @param saveDir
+	 *            path of the directory to save the file
+	 * @param verify
+	 *            whether to verify size and checksum of the download
+	 */
+	public static File downloadFile(String fileURL, String saveDir, boolean verify) {
 		HttpURLConnection httpConn = null;
 		InputStream inputStream = null;
 		FileOutputStream outputStream = null;
@@ -49,7 +71,8 @@ public class HttpDownloadUtility {
 				String fileName = "";
 				String disposition = httpConn.getHeaderField("Content-Disposition");
 				httpConn.getContentType();
-				httpConn.getContentLength();
+				long contentLength = httpConn.getContentLengthLong();
+				String etag = StringUtils.remove(httpConn.getHeaderField("ETag"), '"');
 				TelemetryManager.log("Content Disposition: " + disposition);
 
 				if (disposition != null) {
@@ -79,13 +102,23 @@ public class HttpDownloadUtility {
 				// opens an output stream to save into file
 				outputStream = new FileOutputStream(saveFilePath);
 
+				MessageDigest digest = MessageDigest.getInstance("MD5");
+				long size = 0;
 				int bytesRead = -1;
 				byte[] buffer = new byte[BUFFER_SIZE];
-				while ((bytesRead = inputStream.read(buffer)) != -1)
+				while ((bytesRead = inputStream.read(buffer)) != -1) {
 					outputStream.write(buffer, 0, bytesRead);
+					if (verify)
+						digest.update(buffer, 0, bytesRead);
+					size += bytesRead;
+				}
 				outputStream.close();
 				inputStream.close();
 				File file = new File(saveFilePath);
+				if (verify && !isValidDownload(fileURL, contentLength, size, etag, digest.digest())) {
+					file.delete();
+					return null;
+				}
 				file = Slug.createSlugFile(file);
 				TelemetryManager.log("Sluggified File Name: " + file.getAbsolutePath());
 
@@ -117,6 +150,20 @@ public class HttpDownloadUtility {
 		return null;
 	}
 
+	private static boolean isValidDownload(String fileURL, long contentLength, long size, String etag, byte[] md5) {
+		if (contentLength >= 0 && contentLength != size) {
+			TelemetryManager.warn("Incomplete download for: " + fileURL + ", expected: " + contentLength
+					+ " bytes, received: " + size + " bytes.");
+			return false;
+		}
+		if (null != etag && MD5_PATTERN.matcher(etag).matches()
+				&& !StringUtils.equalsIgnoreCase(etag, Hex.encodeHexString(md5))) {
+			TelemetryManager.warn("Checksum mismatch for: " + fileURL + ", expected: " + etag);
+			return false;
+		}
+		return true;
+	}
+
 	public static boolean isValidUrl(Object url) {
 		if (null != url) {
 			try {
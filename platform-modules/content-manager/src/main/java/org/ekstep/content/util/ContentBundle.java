@@ -1,11 +1,12 @@
 package org.ekstep.content.util;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -77,6 +78,23 @@ public class ContentBundle {
 	private static final List<String> EXCLUDE_ECAR_METADATA_FIELDS=Arrays.asList("screenshots","posterImage");
 	private static final String COLLECTION_MIMETYPE = "application/vnd.ekstep.content-collection";
 
+	/** Download settings of the bundle assets. */
+	private static final int DOWNLOAD_THREADS = getConfig("content.bundle.download.threads", 10);
+	private static final int MAX_DOWNLOADS_PER_HOST = getConfig("content.bundle.download.max_per_host", 4);
+	private static final int DOWNLOAD_RETRIES = getConfig("content.bundle.download.retries", 2);
+	private static final int DOWNLOAD_TIMEOUT = getConfig("content.bundle.download.timeout", 600);
+	private static final long RETRY_INTERVAL = 1000;
+	// off by default: the ETag is the MD5 of the content only for plain S3 uploads.
+	private static final boolean VERIFY_CHECKSUM = Platform.config.hasPath("content.bundle.download.verify")
+			? Platform.config.getBoolean("content.bundle.download.verify") : false;
+
+	private static final ExecutorService DOWNLOAD_POOL = Executors.newFixedThreadPool(DOWNLOAD_THREADS, r -> {
+		Thread thread = new Thread(r, "content-bundle-download");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final Map<String, Semaphore> HOST_PERMITS = new ConcurrentHashMap<>();
+
 
 	/**
 	 * Creates the content manifest data.
@@ -257,9 +275,7 @@ public class ContentBundle {
 			if (StringUtils.isBlank(bundleFileName))
 				throw new ClientException(ContentErrorCodeConstants.BUNDLE_FILE_WRITE.name(),
 						ContentErrorMessageConstants.INVALID_BUNDLE_FILE_NAME + " | [Bundle File Name is Required.]");
-			try (FileOutputStream stream = new FileOutputStream(bundleFileName)) {
-				stream.write(createECAR(files));
-			}
+			createECAR(files, bundleFileName);
 		} catch (Throwable e) {
 			throw new ServerException(ContentErrorCodeConstants.BUNDLE_FILE_WRITE.name(),
 					ContentErrorMessageConstants.BUNDLE_FILE_WRITE_ERROR + " | [Unable to Bundle File.]", e);
@@ -356,7 +372,8 @@ public class ContentBundle {
 	}
 
 	/**
-	 * Gets the content bundle.
+	 * Gets the content bundle. Files are downloaded in parallel on a shared
+	 * pool, limiting the number of concurrent downloads from a single host.
 	 *
 	 * @param downloadUrls
 	 *            the download urls
@@ -367,7 +384,6 @@ public class ContentBundle {
 	private List<File> getContentBundle(final Map<Object, List<String>> downloadUrls, final String bundlePath) {
 		List<File> files = new ArrayList<File>();
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool(1);
 			List<Callable<List<File>>> tasks = new ArrayList<Callable<List<File>>>(downloadUrls.size());
 
 			for (final Object val : downloadUrls.keySet()) {
@@ -386,7 +402,7 @@ public class ContentBundle {
 							} else {
 								String url = val.toString();
 								if (url.endsWith(".ecar")) {
-									File ecarFile = HttpDownloadUtility.downloadFile(url, destPath + "_ecar");
+									File ecarFile = downloadFile(url, destPath + "_ecar");
 									UnzipUtility unzipper = new UnzipUtility();
 									unzipper.unzip(ecarFile.getPath(), destPath + "_ecar");
 									File ecarFolder = new File(destPath + "_ecar" + File.separator + id);
@@ -413,9 +429,7 @@ public class ContentBundle {
 										// do nothing
 									}
 								} else {
-									File newFile = HttpDownloadUtility.downloadFile(url, destPath);
-									if (null != newFile)
-										files.add(newFile);
+									files.add(downloadFile(url, destPath));
 								}
 							}
 						}
@@ -423,14 +437,23 @@ public class ContentBundle {
 					}
 				});
 			}
-			List<Future<List<File>>> results = pool.invokeAll(tasks);
+			List<Future<List<File>>> results = DOWNLOAD_POOL.invokeAll(tasks, DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
 			for (Future<List<File>> ff : results) {
-				List<File> f = ff.get(60, TimeUnit.SECONDS);
+				if (ff.isCancelled())
+					throw new ServerException(ContentErrorCodeConstants.DOWNLOAD_ERROR.name(),
+							ContentErrorMessageConstants.ASSET_CONCURRENT_DOWNLOAD_ERROR
+									+ " Downloads did not complete in " + DOWNLOAD_TIMEOUT + " seconds.");
+				List<File> f = ff.get();
 				if (null != f && !f.isEmpty())
 					files.addAll(f);
 			}
-			pool.shutdown();
-		} catch (InterruptedException | ExecutionException | TimeoutException e ) {
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof ServerException)
+				throw (ServerException) e.getCause();
+			e.printStackTrace();
+			throw new ServerException(ContentErrorCodeConstants.MANIFEST_FILE_WRITE.name(),
+					ContentErrorMessageConstants.MANIFEST_FILE_WRITE_ERROR + "Error while creating contentBundle", e);
+		} catch (InterruptedException | CancellationException e ) {
 			e.printStackTrace();
 			throw new ServerException(ContentErrorCodeConstants.MANIFEST_FILE_WRITE.name(),
 					ContentErrorMessageConstants.MANIFEST_FILE_WRITE_ERROR + "Error while creating contentBundle", e);
@@ -439,19 +462,62 @@ public class ContentBundle {
 	}
 
 	/**
-	 * Creates the ECAR.
+	 * Downloads the file, holding a permit of the url's host and retrying
+	 * failed or corrupt downloads.
+	 *
+	 * @param url
+	 *            the url
+	 * @param destPath
+	 *            the destination path
+	 * @return the downloaded file
+	 * @throws ServerException
+	 *             if all the attempts failed, the bundle is not built without
+	 *             the asset
+	 * @throws InterruptedException
+	 */
+	private File downloadFile(String url, String destPath) throws InterruptedException {
+		Semaphore permits = HOST_PERMITS.computeIfAbsent(getHost(url), host -> new Semaphore(MAX_DOWNLOADS_PER_HOST));
+		for (int attempt = 1; attempt <= DOWNLOAD_RETRIES + 1; attempt++) {
+			File file = null;
+			permits.acquire();
+			try {
+				file = HttpDownloadUtility.downloadFile(url, destPath, VERIFY_CHECKSUM);
+			} finally {
+				permits.release();
+			}
+			if (null != file)
+				return file;
+			if (attempt <= DOWNLOAD_RETRIES) {
+				TelemetryManager.warn("Download failed for: " + url + ", attempt: " + attempt + ", retrying.");
+				Thread.sleep(RETRY_INTERVAL * attempt);
+			}
+		}
+		TelemetryManager.error("Download failed for: " + url + " after " + (DOWNLOAD_RETRIES + 1) + " attempts.");
+		throw new ServerException(ContentErrorCodeConstants.DOWNLOAD_ERROR.name(),
+				ContentErrorMessageConstants.ASSET_CONCURRENT_DOWNLOAD_ERROR + " Failed to download: " + url);
+	}
+
+	private String getHost(String url) {
+		try {
+			return StringUtils.defaultString(new URL(url).getHost());
+		} catch (MalformedURLException e) {
+			return "";
+		}
+	}
+
+	/**
+	 * Writes the ECAR, streaming each file into the zip.
 	 *
 	 * @param files
 	 *            the files
-	 * @return the byte[]
+	 * @param bundleFileName
+	 *            the bundle file name
 	 * @throws IOException
 	 *             Signals that an I/O exception has occurred.
 	 */
-	private byte[] createECAR(List<File> files) throws IOException {
-		// creating byteArray stream, make it bufforable and passing this buffor
-		// to ZipOutputStream
-		try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-				BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(byteArrayOutputStream);
+	private void createECAR(List<File> files, String bundleFileName) throws IOException {
+		try (FileOutputStream fileOutputStream = new FileOutputStream(bundleFileName);
+				BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(fileOutputStream);
 				ZipOutputStream zipOutputStream = new ZipOutputStream(bufferedOutputStream)) {
 			// packing files
 			for (File file : files) {
@@ -469,7 +535,7 @@ public class ContentBundle {
 								+ File.separator + file.getName();
 					}
 					// new zip entry and copying inputstream with file to
-					// zipOutputStream, after all closing streams
+					// zipOutputStream
 					zipOutputStream.putNextEntry(new ZipEntry(fileName));
 					try (FileInputStream fileInputStream = new FileInputStream(file)) {
 						IOUtils.copy(fileInputStream, zipOutputStream);
@@ -477,15 +543,7 @@ public class ContentBundle {
 					}
 				}
 			}
-
-			if (zipOutputStream != null) {
-				zipOutputStream.finish();
-				zipOutputStream.flush();
-				IOUtils.closeQuietly(zipOutputStream);
-			}
-			IOUtils.closeQuietly(bufferedOutputStream);
-			IOUtils.closeQuietly(byteArrayOutputStream);
-			return byteArrayOutputStream.toByteArray();
+			zipOutputStream.finish();
 		}
 	}
 
@@ -523,6 +581,10 @@ public class ContentBundle {
 		return uid.toString();
 	}
 
+	private static int getConfig(String key, int defaultValue) {
+		return Platform.config.hasPath(key) ? Platform.config.getInt(key) : defaultValue;
+	}
+
 	/**
 	 *
 	 * @param contentMap
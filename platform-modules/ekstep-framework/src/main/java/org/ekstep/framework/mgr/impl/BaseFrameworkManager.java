@@ -13,9 +13,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import akka.pattern.Patterns;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.ekstep.common.Platform;
 import org.ekstep.common.Slug;
@@ -538,35 +536,6 @@ public class BaseFrameworkManager extends BaseManager {
 		}
 	}
 
-	/**
-	 * @param responseMap
-	 * @param returnCategories
-	 */
-	@SuppressWarnings("unchecked")
-	protected void removeAssociations(Map<String, Object> responseMap, List<String> returnCategories) {
-		((List<Map<String, Object>>) responseMap.get("categories")).forEach(category -> {
-			removeTermAssociations((List<Map<String, Object>>) category.get("terms"), returnCategories);
-		});
-	}
-
-	@SuppressWarnings("unchecked")
-	protected void removeTermAssociations(List<Map<String, Object>> terms, List<String> returnCategories) {
-		if (!CollectionUtils.isEmpty(terms)) {
-			terms.forEach(term -> {
-				if (!CollectionUtils.isEmpty((List<Map<String, Object>>) term.get("associations"))) {
-					term.put("associations",
-							((List<Map<String, Object>>) term.get("associations")).stream().filter(s -> s != null)
-									.filter(p -> returnCategories.contains(p.get("category")))
-									.collect(Collectors.toList()));
-					if (CollectionUtils.isEmpty((List<Map<String, Object>>) term.get("associations")))
-						term.remove("associations");
-
-					removeTermAssociations((List<Map<String, Object>>) term.get("children"), returnCategories);
-				}
-			});
-		}
-	}
-
 	@SuppressWarnings("unchecked")
 	protected Response copyHierarchy(String existingObjectId, String clonedObjectId, String existingFrameworkId,
 									 String clonedFrameworkId, Map<String, Object> requestMap) throws Exception {
@@ -639,17 +608,4 @@ public class BaseFrameworkManager extends BaseManager {
 		return response;
 	}
 
-
-	protected void filterFrameworkCategories(Map<String, Object> framework, List<String> categoryNames) throws JsonProcessingException {
-		List<Map<String, Object>> categories = (List<Map<String, Object>>) framework.get("categories");
-		if (CollectionUtils.isNotEmpty(categories) && CollectionUtils.isNotEmpty(categoryNames)) {
-			framework.put("categories",
-					categories.stream().filter(p -> categoryNames.contains(p.get("code")))
-							.collect(Collectors.toList()));
-			removeAssociations(framework, categoryNames);
-		}
-	}
-
-
-
 }
@@ -83,10 +83,9 @@ public class FrameworkManagerImpl extends BaseFrameworkManager implements IFrame
 		}
 
 		if (MapUtils.isNotEmpty(framework)) {
-			filterFrameworkCategories(framework, returnCategories);
-			FrameworkCache.save(framework, returnCategories);
+			FrameworkCache.save(framework);
 			Response response = OK();
-			response.put(FrameworkEnum.framework.name(), framework);
+			response.put(FrameworkEnum.framework.name(), FrameworkCache.project(framework, returnCategories));
 			return response;
 		} else {
 			Response readResponse = read(frameworkId, FRAMEWORK_OBJECT_TYPE, FrameworkEnum.framework.name());
@@ -72,7 +72,7 @@ public class AssessmentStore {
 		if (StringUtils.isBlank(query))
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_NAME.name(),
 					"Invalid properties list. Please specify a valid list of property names");
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		BoundStatement bound = ps.bind(questionId);
 		try {
 			ResultSet rs = session.execute(bound);
@@ -120,7 +120,7 @@ public class AssessmentStore {
 			throw new ClientException(ContentStoreParams.ERR_INVALID_PROPERTY_VALUES.name(),
 					"Invalid property values. Please specify valid property values");
 		String query = getUpdateQuery(map.keySet());
-		PreparedStatement ps = session.prepare(query);
+		PreparedStatement ps = CassandraConnector.prepare(session, query);
 		Object[] values = new Object[map.size() + 1];
 		try {
 			int i = 0;
@@ -155,7 +155,7 @@ public class AssessmentStore {
 			}
 			String selectQuery = getSelectStatement(identifier, properties);
 			Session session = CassandraConnector.getSession();
-			PreparedStatement statement = session.prepare(selectQuery);
+			PreparedStatement statement = CassandraConnector.prepare(session, selectQuery);
 			BoundStatement boundStatement = new BoundStatement(statement);
 			ResultSet results = CassandraConnector.getSession().execute(boundStatement.bind(idValue));
 			return results.all();
@@ -193,7 +193,7 @@ public class AssessmentStore {
 
 	private ResultSet executeQuery(String query, Object... objects) {
 		Session session = CassandraConnector.getSession();
-		PreparedStatement statement = session.prepare(query);
+		PreparedStatement statement = CassandraConnector.prepare(session, query);
 		BoundStatement boundStatement = new BoundStatement(statement);
 		return session.execute(boundStatement.bind(objects));
 	}
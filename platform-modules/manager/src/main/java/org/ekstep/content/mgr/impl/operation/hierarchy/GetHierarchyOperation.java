@@ -84,14 +84,13 @@ public class GetHierarchyOperation extends BaseContentManager {
             if(StringUtils.equalsIgnoreCase("Retired", (String) rootNode.getMetadata().get("status")))
                 throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + rootId);
 
-            Response hierarchyResponse = getCollectionHierarchy(rootId + IMAGE_SUFFIX);
+            Response hierarchyResponse = getCollectionHierarchy(rootId + IMAGE_SUFFIX, bookmarkId);
             DefinitionDTO definition = getDefinition(TAXONOMY_ID, rootNode.getObjectType());
             Map<String, Object> dataMap = ConvertGraphNode.convertGraphNode(rootNode, TAXONOMY_ID, definition, fields);
             if(!checkError(hierarchyResponse)) {
                 Map<String, Object> hierarchy = (Map<String, Object>) hierarchyResponse.getResult().get("hierarchy");
-                List<Map<String, Object>> children = (List<Map<String, Object>>) hierarchy.get("children");
                 if (StringUtils.isNotBlank(bookmarkId)) {
-                    dataMap = filterBookmark(children, bookmarkId);
+                    dataMap = getBookmark(hierarchy);
                     if (MapUtils.isEmpty(dataMap)) {
                         throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
                     }
@@ -100,7 +99,7 @@ public class GetHierarchyOperation extends BaseContentManager {
                     if (version == null || version.intValue() < 2) {
                         generateMigrationInstructionEvent(rootId);
                     }
-                    dataMap.put("children", children);
+                    dataMap.put("children", hierarchy.get("children"));
                 }
 
             } else {
@@ -133,13 +132,11 @@ public class GetHierarchyOperation extends BaseContentManager {
                 bookmarkId = rootId;
                 rootId = searchRootId(bookmarkId);
                 if(StringUtils.isNotBlank(rootId)) {
-                    Response hierarchyResponse = getCollectionHierarchy(rootId + IMAGE_SUFFIX);
+                    Response hierarchyResponse = getCollectionHierarchy(rootId + IMAGE_SUFFIX, bookmarkId);
                     if(checkError(hierarchyResponse)){
                         return hierarchyResponse;
                     } else {
-                        Map<String, Object> rootHierarchy = (Map<String, Object>) hierarchyResponse.getResult().get("hierarchy");
-                        List<Map<String, Object>> rootChildren = (List<Map<String, Object>>) rootHierarchy.get("children");
-                        Map<String, Object> hierarchy = filterBookmark(rootChildren, bookmarkId);
+                        Map<String, Object> hierarchy = getBookmark((Map<String, Object>) hierarchyResponse.getResult().get("hierarchy"));
                         if (MapUtils.isNotEmpty(hierarchy)) {
                             generateMigrationInstructionEvent(rootId);
                             util.hierarchyCleanUp(hierarchy);
@@ -181,6 +178,12 @@ public class GetHierarchyOperation extends BaseContentManager {
             }
             response.getResult().put("content", rootHierarchy);
             return getHierarchyResponse(rootHierarchy, bookmarkId);
+        } else if (StringUtils.isNotBlank(bookmarkId) && !CONTENT_CACHE_ENABLED) {
+            // the whole hierarchy is only needed to be cached, otherwise only the unit is read.
+            response = getCollectionHierarchy(rootId, bookmarkId);
+            if (checkError(response))
+                throw new ClientException(ContentErrorCodes.ERR_INVALID_INPUT.name(), "Given collection root object ID is invalid: " + rootId);
+            return getBookmarkResponse(getBookmark((Map<String, Object>) response.getResult().get("hierarchy")), bookmarkId);
         } else {
             response = getCollectionHierarchy(rootId);
             if (!checkError(response)) {
@@ -193,15 +196,12 @@ public class GetHierarchyOperation extends BaseContentManager {
                     bookmarkId = rootId;
                     rootId = searchRootId(bookmarkId);
                     if (StringUtils.isNotBlank(rootId)) {
-                        response = getCollectionHierarchy(rootId);
-                        rootHierarchy = (Map<String, Object>) response.getResult().get("hierarchy");
-                        if (CONTENT_CACHE_ENABLED && MapUtils.isNotEmpty(rootHierarchy)){
-                            List<Map<String, Object>> rootChildren = (List<Map<String, Object>>) rootHierarchy.get("children");
-                            Map<String, Object> bookmarkHierarchy = filterBookmark(rootChildren, bookmarkId);
-                            if(MapUtils.isNotEmpty(bookmarkHierarchy))
-                                RedisStoreUtil.saveData(cacheKey, bookmarkHierarchy, CONTENT_CACHE_TTL);
-                        }
-                        return getHierarchyResponse(rootHierarchy, bookmarkId);
+                        response = getCollectionHierarchy(rootId, bookmarkId);
+                        Map<String, Object> bookmarkHierarchy = checkError(response) ? null
+                                : getBookmark((Map<String, Object>) response.getResult().get("hierarchy"));
+                        if (CONTENT_CACHE_ENABLED && MapUtils.isNotEmpty(bookmarkHierarchy))
+                            RedisStoreUtil.saveData(cacheKey, bookmarkHierarchy, CONTENT_CACHE_TTL);
+                        return getBookmarkResponse(bookmarkHierarchy, bookmarkId);
                     } else {
                         throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
                     }
@@ -262,17 +262,34 @@ public class GetHierarchyOperation extends BaseContentManager {
             return OK("content", hierarchy);
         } else {
             List<Map<String, Object>> rootChildren = (List<Map<String, Object>>) hierarchy.get("children");
-            hierarchy = filterBookmark(rootChildren, bookmarkId);
-            if (MapUtils.isNotEmpty(hierarchy)) {
-                return OK("content", hierarchy);
-            } else {
-                throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
-            }
+            return getBookmarkResponse(filterBookmark(rootChildren, bookmarkId), bookmarkId);
+        }
+    }
+
+    private Response getBookmarkResponse(Map<String, Object> hierarchy, String bookmarkId) {
+        if (MapUtils.isNotEmpty(hierarchy)) {
+            return OK("content", hierarchy);
+        } else {
+            throw new ResourceNotFoundException(ContentErrorCodes.ERR_CONTENT_NOT_FOUND.name(), "Content not found with id: " + bookmarkId);
         }
     }
 
     /**
-     * Filter and return bookMark Hierarchy
+     * Returns the unit read from the hierarchy store if it can be bookmarked.
+     *
+     * @param unit
+     * @return
+     */
+    private static Map<String, Object> getBookmark(Map<String, Object> unit) {
+        if (MapUtils.isNotEmpty(unit) &&
+                StringUtils.equalsIgnoreCase(ContentAPIParams.Parent.name(), (String) unit.get(ContentAPIParams.visibility.name())))
+            return unit;
+        return null;
+    }
+
+    /**
+     * Filter and return bookMark Hierarchy from a hierarchy which is already
+     * loaded (cached or built from the graph).
      *
      * @param children
      * @param bookMarkId
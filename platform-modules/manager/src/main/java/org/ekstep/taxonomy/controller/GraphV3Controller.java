@@ -1,6 +1,6 @@
 package org.ekstep.taxonomy.controller;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -11,10 +11,11 @@ import javax.servlet.http.HttpServletResponse;
 import org.ekstep.common.controller.BaseController;
 import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
+import org.ekstep.common.enums.TaxonomyErrorCodes;
+import org.ekstep.common.exception.ServerException;
 import org.ekstep.graph.common.enums.GraphEngineParams;
 import org.ekstep.graph.dac.model.SearchCriteria;
 import org.ekstep.graph.enums.ImportType;
-import org.ekstep.graph.importer.OutputStreamValue;
 import org.ekstep.taxonomy.enums.TaxonomyAPIParams;
 import org.ekstep.taxonomy.mgr.IContentManager;
 import org.ekstep.taxonomy.mgr.ITaxonomyManager;
@@ -35,6 +36,8 @@ import org.springframework.web.multipart.MultipartFile;
 @RequestMapping("/system/v3")
 public class GraphV3Controller extends BaseController {
 
+	private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
 	@Autowired
 	private ITaxonomyManager taxonomyManager;
 	
@@ -85,22 +88,23 @@ public class GraphV3Controller extends BaseController {
 			} catch (Exception e) {
 			}
 			req.put(GraphEngineParams.format.name(), format);
-			Response response = taxonomyManager.export(id, req);
-			if (!checkError(response)) {
-				OutputStreamValue graphOutputStream = (OutputStreamValue) response
-						.get(GraphEngineParams.output_stream.name());
-				try (OutputStream os = graphOutputStream.getOutputStream();
-						ByteArrayOutputStream bos = (ByteArrayOutputStream) os) {
-					byte[] bytes = bos.toByteArray();
-					resp.setContentType("text/csv");
-					resp.setHeader("Content-Disposition", "attachment; filename=graph.csv");
-					resp.getOutputStream().write(bytes);
-					resp.getOutputStream().close();
-				}
-			}
-			TelemetryManager.log("Export | Response: " , response.getResult());
+			resp.setContentType("text/csv");
+			resp.setHeader("Content-Disposition", "attachment; filename=graph.csv");
+			// the graph is written to the response as it is read, the response
+			// is committed only once the buffer is full.
+			OutputStream os = new BufferedOutputStream(resp.getOutputStream(), EXPORT_BUFFER_SIZE);
+			taxonomyManager.export(id, req, os);
+			os.close();
+			TelemetryManager.log("Export | Completed: " + id);
 		} catch (Exception e) {
-			TelemetryManager.error("Create | Exception: " + e.getMessage(), e);
+			TelemetryManager.error("Export | Exception: " + e.getMessage(), e);
+			if (!resp.isCommitted()) {
+				resp.reset();
+				writeError(e, resp);
+			} else {
+				// the body is not ended, so the client sees an incomplete response.
+				throw new ServerException(TaxonomyErrorCodes.SYSTEM_ERROR.name(), "Export failed: " + e.getMessage(), e);
+			}
 		}
 	}
 
@@ -1,6 +1,7 @@
 package org.ekstep.taxonomy.mgr;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.ekstep.common.dto.Request;
@@ -10,7 +11,7 @@ public interface ITaxonomyManager {
 
     Response create(String id, InputStream stream);
     
-    Response export(String id, Request req);
+    void export(String id, Request req, OutputStream outputStream) throws Exception;
 
     Response delete(String id);
 
@@ -439,8 +439,7 @@ public abstract class BaseContentManager extends BaseManager {
     }
 
     private void clearRedisCache(String originalId) {
-        RedisStoreUtil.delete(originalId);
-        RedisStoreUtil.delete(COLLECTION_CACHE_KEY_PREFIX + originalId);
+        RedisStoreUtil.delete(originalId, COLLECTION_CACHE_KEY_PREFIX + originalId);
     }
 
     private void setPassportKey(Map<String, Object> changedData) {
@@ -869,10 +868,25 @@ public abstract class BaseContentManager extends BaseManager {
      * @return
      */
     public Response getCollectionHierarchy(String contentId) {
+        return getCollectionHierarchy(contentId, null);
+    }
+
+    /**
+     * Cassandra call to fetch the hierarchy of a unit of the collection. The
+     * hierarchy in the response is empty if the collection does not have the
+     * unit.
+     *
+     * @param contentId
+     * @param bookmarkId
+     * @return
+     */
+    public Response getCollectionHierarchy(String contentId, String bookmarkId) {
         Request request = new Request();
         request.setManagerName(LearningActorNames.CONTENT_STORE_ACTOR.name());
         request.setOperation(ContentStoreOperations.getCollectionHierarchy.name());
         request.put(ContentStoreParams.content_id.name(), contentId);
+        if (StringUtils.isNotBlank(bookmarkId))
+            request.put(ContentStoreParams.bookmark_id.name(), bookmarkId);
         Response response = getResponse(request, LearningRequestRouterPool.getRequestRouter());
         return response;
     }
@@ -3,6 +3,7 @@ package org.ekstep.taxonomy.mgr.impl;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -13,14 +14,22 @@ import org.ekstep.common.dto.Request;
 import org.ekstep.common.dto.Response;
 import org.ekstep.common.enums.TaxonomyErrorCodes;
 import org.ekstep.common.exception.ClientException;
+import org.ekstep.common.exception.ServerException;
 import org.ekstep.common.mgr.BaseManager;
 import org.ekstep.common.util.DefinitionUtil;
 import org.ekstep.graph.common.enums.GraphEngineParams;
 import org.ekstep.graph.dac.enums.GraphDACParams;
+import org.ekstep.graph.dac.model.Node;
+import org.ekstep.graph.dac.model.Relation;
+import org.ekstep.graph.dac.model.SearchCriteria;
 import org.ekstep.graph.engine.router.GraphEngineManagers;
 import org.ekstep.graph.enums.ImportType;
+import org.ekstep.graph.exception.GraphEngineErrorCodes;
 import org.ekstep.graph.importer.InputStreamValue;
 import org.ekstep.graph.importer.OutputStreamValue;
+import org.ekstep.graph.writer.ExportSource;
+import org.ekstep.graph.writer.GraphWriterFactory;
+import org.ekstep.graph.writer.PagedExportSource;
 import org.ekstep.taxonomy.enums.TaxonomyAPIParams;
 import org.ekstep.taxonomy.mgr.ITaxonomyManager;
 import org.ekstep.telemetry.logger.TelemetryManager;
@@ -75,18 +84,67 @@ public class TaxonomyManagerImpl extends BaseManager implements ITaxonomyManager
 		}
 	}
 
+	/**
+	 * Writes the graph to the output stream in the calling thread. The nodes
+	 * and the relations are read from the search manager page by page (see
+	 * {@link PagedExportSource}), each page with the usual request timeout, so
+	 * the export is not bounded by a single request.
+	 */
 	@Override
-	public Response export(String id, Request req) {
+	public void export(String id, Request req, OutputStream outputStream) throws Exception {
 		if (StringUtils.isBlank(id))
 			throw new ClientException(TaxonomyErrorCodes.ERR_TAXONOMY_BLANK_TAXONOMY_ID.name(), "Taxonomy Id is blank");
 		String format = (String) req.get(GraphEngineParams.format.name());
 		TelemetryManager.log("Export Taxonomy : " + id + " | Format: " + format);
+		SearchCriteria sc = (SearchCriteria) req.get(TaxonomyAPIParams.search_criteria.name());
+		GraphWriterFactory.write(format, getExportSource(id, req, sc, format), outputStream);
+		outputStream.flush();
+	}
+
+	private ExportSource getExportSource(final String id, final Request req, final SearchCriteria sc,
+			final String format) {
+		return new PagedExportSource(sc, format) {
+
+			@Override
+			protected List<Node> getNodesPage(Long cursor, int limit) throws Exception {
+				return readPage(id, req, "getNodesPage", GraphDACParams.node_list.name(), cursor, limit);
+			}
+
+			@Override
+			protected List<Relation> getRelationsPage(Long cursor, int limit) throws Exception {
+				return readPage(id, req, "getRelationsPage", GraphDACParams.relations.name(), cursor, limit);
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			protected List<Node> searchNodes(SearchCriteria searchCriteria) throws Exception {
+				Request request = new Request(req);
+				setContext(request, id, GraphEngineManagers.SEARCH_MANAGER, "searchNodes");
+				request.put(GraphDACParams.search_criteria.name(), searchCriteria);
+				request.put(GraphDACParams.get_tags.name(), true);
+				Response response = getResponse(request);
+				checkExportError(response);
+				return (List<Node>) response.get(GraphDACParams.node_list.name());
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> readPage(String id, Request req, String operation, String resultKey, Long cursor,
+			int limit) {
 		Request request = new Request(req);
-		setContext(request, id, GraphEngineManagers.GRAPH_MANAGER, "exportGraph");
-		request.put(GraphEngineParams.format.name(), format);
-		request.put(GraphEngineParams.search_criteria.name(), req.get(TaxonomyAPIParams.search_criteria.name()));
-		Response exportRes = getResponse(request);
-		return exportRes;
+		setContext(request, id, GraphEngineManagers.SEARCH_MANAGER, operation);
+		request.put(GraphDACParams.cursor.name(), cursor);
+		request.put(GraphDACParams.limit.name(), limit);
+		Response response = getResponse(request);
+		checkExportError(response);
+		return (List<T>) response.get(resultKey);
+	}
+
+	private void checkExportError(Response response) {
+		if (checkError(response))
+			throw new ServerException(GraphEngineErrorCodes.ERR_GRAPH_EXPORT_UNKNOWN_ERROR.name(),
+					getErrorMessage(response));
 	}
 
 	@Override
@@ -0,0 +1,123 @@
+package org.ekstep.neo4j.procedures;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Relationship;
+
+/**
+ * Lazily filters the paths of a traversal, returning only the paths which are
+ * not a sub-path (prefix) of another path of the traversal.
+ *
+ * Only the paths which may still be extended are held:
+ * <ul>
+ * <li>depth first: the extensions of a path immediately follow it, so only the
+ * previous path is held.</li>
+ * <li>breadth first: the paths of a level are held, keyed by their prefix
+ * (start node and relationship ids), until the next level is complete.</li>
+ * </ul>
+ */
+public class MaximalPathIterator implements Iterator<Path> {
+
+	private Iterator<Path> paths;
+	private boolean depthFirst;
+	private List<Path> ready = new ArrayList<Path>();
+	private int readyIndex = 0;
+
+	// depth first
+	private Path previous;
+	private List<Long> previousKey;
+
+	// breadth first: paths not yet known to be extended, by level.
+	private Map<List<Long>, Path> previousLevel = new LinkedHashMap<List<Long>, Path>();
+	private Map<List<Long>, Path> currentLevel = new LinkedHashMap<List<Long>, Path>();
+	private int currentLength = -1;
+
+	public MaximalPathIterator(Iterator<Path> paths, boolean depthFirst) {
+		this.paths = paths;
+		this.depthFirst = depthFirst;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (readyIndex >= ready.size()) {
+			ready.clear();
+			readyIndex = 0;
+			if (paths.hasNext()) {
+				Path path = paths.next();
+				if (depthFirst)
+					nextDepthFirst(path);
+				else
+					nextBreadthFirst(path);
+			} else {
+				flush();
+				if (ready.isEmpty())
+					return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Path next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		return ready.get(readyIndex++);
+	}
+
+	private void nextDepthFirst(Path path) {
+		List<Long> key = getKey(path);
+		if (null != previous && !isPrefix(previousKey, key))
+			ready.add(previous);
+		previous = path;
+		previousKey = key;
+	}
+
+	private void nextBreadthFirst(Path path) {
+		List<Long> key = getKey(path);
+		if (path.length() != currentLength) {
+			// paths of the level before the previous one can not be extended
+			// anymore.
+			ready.addAll(previousLevel.values());
+			if (path.length() == currentLength + 1) {
+				previousLevel = currentLevel;
+			} else {
+				ready.addAll(currentLevel.values());
+				previousLevel = new LinkedHashMap<List<Long>, Path>();
+			}
+			currentLevel = new LinkedHashMap<List<Long>, Path>();
+			currentLength = path.length();
+		}
+		if (key.size() > 1)
+			previousLevel.remove(key.subList(0, key.size() - 1));
+		currentLevel.put(key, path);
+	}
+
+	private void flush() {
+		if (null != previous) {
+			ready.add(previous);
+			previous = null;
+		}
+		ready.addAll(previousLevel.values());
+		ready.addAll(currentLevel.values());
+		previousLevel.clear();
+		currentLevel.clear();
+	}
+
+	private static List<Long> getKey(Path path) {
+		List<Long> key = new ArrayList<Long>(path.length() + 1);
+		key.add(path.startNode().getId());
+		for (Relationship rel : path.relationships())
+			key.add(rel.getId());
+		return key;
+	}
+
+	private static boolean isPrefix(List<Long> prefix, List<Long> key) {
+		return key.size() > prefix.size() && key.subList(0, prefix.size()).equals(prefix);
+	}
+}
@@ -1,21 +1,24 @@
 package org.ekstep.neo4j.procedures;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
-import java.util.stream.Stream.Builder;
+import java.util.stream.StreamSupport;
 
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
-import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.PathExpander;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.traversal.BranchState;
 import org.neo4j.graphdb.traversal.Evaluation;
 import org.neo4j.graphdb.traversal.Evaluator;
@@ -64,11 +67,34 @@ public class TraversalProc {
 			@Name("uniqueness") List<String> uniqueness, @Name("wordIds") List<String> wordIds,
 			@Name("relationMap") Map<String, String> relationMap,
 			@Name("pathExpander") Map<String, Object> pathExpander) {
+		return traverseStream(graphId, startNodeIds, traversal, fromDepth, toDepth, endNodeIds, endRelations,
+				uniqueness, wordIds, relationMap, pathExpander, null, null);
+	}
 
-		System.out.println("traversal procedure begin");
+	/**
+	 * Same as <code>ekstep.procs.traverse</code>, with caps on the number of
+	 * paths returned and on the depth of the traversal. The paths are
+	 * traversed and returned lazily, as the caller consumes them.
+	 * 
+	 * @param maxResults
+	 *            maximum number of paths to return, no limit if null or 0.
+	 * @param maxDepth
+	 *            maximum depth of the traversal, no limit if null or 0.
+	 * @return
+	 */
+	@Procedure(value = "ekstep.procs.traverse.stream")
+	public Stream<PathResult> traverseStream(@Name("graphId") String graphId,
+			@Name("startNodeIds") List<String> startNodeIds, @Name("traversal") Long traversal,
+			@Name("fromDepth") Long fromDepth, @Name("toDepth") Long toDepth,
+			@Name("endNodeIds") List<String> endNodeIds, @Name("endRelations") List<String> endRelations,
+			@Name("uniqueness") List<String> uniqueness, @Name("wordIds") List<String> wordIds,
+			@Name("relationMap") Map<String, String> relationMap,
+			@Name("pathExpander") Map<String, Object> pathExpander, @Name("maxResults") Long maxResults,
+			@Name("maxDepth") Long maxDepth) {
 		try {
 			TraversalDescription td = db.traversalDescription();
-	        if (null != traversal && traversal == DEPTH_FIRST_TRAVERSAL)
+			boolean depthFirst = null != traversal && traversal == DEPTH_FIRST_TRAVERSAL;
+	        if (depthFirst)
 	            td = td.depthFirst();
 	        else
 	            td = td.breadthFirst();
@@ -76,13 +102,11 @@ public class TraversalProc {
 	            td = td.evaluator(Evaluators.fromDepth(fromDepth.intValue()));
 	        if (null != toDepth && toDepth > 0)
 	            td = td.evaluator(Evaluators.toDepth(toDepth.intValue()));
+	        if (null != maxDepth && maxDepth > 0)
+	            td = td.evaluator(Evaluators.toDepth(maxDepth.intValue()));
 			
 	        if (null != endNodeIds && endNodeIds.size() > 0) {
-	            Node[] nodeArray = new Node[endNodeIds.size()];
-	            for (int i = 0; i < endNodeIds.size(); i++) {
-	            	Node node = db.findNode(Label.label(graphId), "IL_UNIQUE_ID", endNodeIds.get(i));
-	                nodeArray[i] = node;
-	            }
+	            Node[] nodeArray = findNodes(graphId, endNodeIds).toArray(new Node[0]);
 	            td = td.evaluator(Evaluators.pruneWhereEndNodeIs(nodeArray));
 	        }
 	        
@@ -122,67 +146,43 @@ public class TraversalProc {
 				td = td.expand(expander);
 			}
 			
-			Node[] startNodes = new Node[startNodeIds.size()];
-			if (null != startNodeIds && startNodeIds.size() > 0) {
-	            for (int i = 0; i < startNodeIds.size(); i++) {
-	            	Node node = db.findNode(Label.label(graphId), "IL_UNIQUE_ID", startNodeIds.get(i));
-	            	System.out.println(startNodeIds.get(i) + " - " + node.getId());
-	            	startNodes[i] = node;
-	            }
-	        }
-			
-			ResourceIterator<Path> pathsIterator = td.traverse(startNodes).iterator();
-			System.out.println("got pahts... ");
-			Builder<PathResult> builder = Stream.builder();
-			if (null != pathsIterator) {
-	        	List<Path> finalPaths = removeSubPaths(pathsIterator);
-	        	System.out.println("final paths: " + finalPaths.size());
-	        	for (Path path : finalPaths) {
-	        		builder.add(new PathResult(path));
-	        	}
-			}
-			return builder.build();
+			List<Node> startNodes = (null == startNodeIds) ? new ArrayList<Node>() : findNodes(graphId, startNodeIds);
+			ResourceIterator<Path> pathsIterator = td.traverse(startNodes.toArray(new Node[0])).iterator();
+			Stream<PathResult> paths = StreamSupport
+					.stream(Spliterators.spliteratorUnknownSize(new MaximalPathIterator(pathsIterator, depthFirst),
+							Spliterator.ORDERED), false)
+					.map(PathResult::new).onClose(pathsIterator::close);
+			if (null != maxResults && maxResults > 0)
+				paths = paths.limit(maxResults);
+			return paths;
 		} catch (Exception e) {
-			e.printStackTrace();
 			log.error("Error in traversal", e);
 		}
-		return null;
+		return Stream.empty();
 	}
 
-	public List<Path> removeSubPaths(ResourceIterator<Path> pathsIterator) {
-		List<Path> finalPaths = new ArrayList<Path>();
-		try {
-			Path previousPath = null;
-			int previousPathLength = 0;
-			while (pathsIterator.hasNext()) {
-				Path traversedPath = pathsIterator.next();
-				System.out.println(traversedPath.startNode().getId() + " - " + traversedPath.endNode().getId() + " : " + traversedPath.length());
-				if (traversedPath.length() > previousPathLength) {
-					previousPath = traversedPath;
-					previousPathLength = traversedPath.length();
-				} else if (traversedPath.length() == previousPathLength) {
-					if (previousPath != null) {
-						finalPaths.add(previousPath);
-					}
-					previousPath = traversedPath;
-					previousPathLength = traversedPath.length();
-				} else {
-					if (previousPath != null) {
-						finalPaths.add(previousPath);
-						previousPath = null;
-					}
-				}
-			}
-
-			if (previousPath != null) {
-				finalPaths.add(previousPath);
-				previousPath = null;
+	/**
+	 * Resolves the nodes of the given identifiers with a single index lookup.
+	 */
+	private List<Node> findNodes(String graphId, List<String> identifiers) {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("ids", identifiers);
+		Map<String, Node> nodes = new HashMap<String, Node>();
+		try (Result result = db.execute(
+				"MATCH (n:`" + graphId.replace("`", "``") + "`) WHERE n.IL_UNIQUE_ID IN {ids} RETURN n.IL_UNIQUE_ID AS id, n AS node",
+				params)) {
+			while (result.hasNext()) {
+				Map<String, Object> row = result.next();
+				nodes.put((String) row.get("id"), (Node) row.get("node"));
 			}
-
-		} catch (Exception e) {
-			e.printStackTrace();
 		}
-		return finalPaths;
+		List<Node> list = new ArrayList<Node>();
+		for (String identifier : identifiers) {
+			Node node = nodes.get(identifier);
+			if (null != node)
+				list.add(node);
+		}
+		return list;
 	}
 	
 	private Direction getDirection(String direction) throws Exception {
@@ -0,0 +1,81 @@
+package org.ekstep.neo4j.procedures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+
+/**
+ * Embedded graph shared by the traversal tests:
+ *
+ * <pre>
+ * a -> b -> d
+ *      b -> e
+ * a -> c
+ * g
+ * </pre>
+ */
+public abstract class BaseTraversalTest {
+
+	protected static final String GRAPH_ID = "domain";
+	protected static final RelationshipType HAS_MEMBER = RelationshipType.withName("hasSequenceMember");
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	protected static GraphDatabaseService db;
+
+	@BeforeClass
+	public static void createGraph() throws Exception {
+		db = new GraphDatabaseFactory().newEmbeddedDatabase(folder.newFolder("graph"));
+		try (Transaction tx = db.beginTx()) {
+			Node a = createNode("a");
+			Node b = createNode("b");
+			Node c = createNode("c");
+			Node d = createNode("d");
+			Node e = createNode("e");
+			createNode("g");
+			a.createRelationshipTo(b, HAS_MEMBER);
+			b.createRelationshipTo(d, HAS_MEMBER);
+			b.createRelationshipTo(e, HAS_MEMBER);
+			a.createRelationshipTo(c, HAS_MEMBER);
+			tx.success();
+		}
+	}
+
+	@AfterClass
+	public static void shutdown() {
+		if (null != db)
+			db.shutdown();
+	}
+
+	protected static Node findNode(String id) {
+		return db.findNode(Label.label(GRAPH_ID), "IL_UNIQUE_ID", id);
+	}
+
+	/**
+	 * Identifiers of the nodes of a path, e.g. <code>a/b/d</code>.
+	 */
+	protected static String toString(Path path) {
+		List<String> ids = new ArrayList<String>();
+		for (Node node : path.nodes())
+			ids.add((String) node.getProperty("IL_UNIQUE_ID"));
+		return String.join("/", ids);
+	}
+
+	private static Node createNode(String id) {
+		Node node = db.createNode(Label.label(GRAPH_ID));
+		node.setProperty("IL_UNIQUE_ID", id);
+		return node;
+	}
+}
@@ -0,0 +1,87 @@
+package org.ekstep.neo4j.procedures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.traversal.Evaluators;
+import org.neo4j.graphdb.traversal.TraversalDescription;
+import org.neo4j.graphdb.traversal.Uniqueness;
+
+public class MaximalPathIteratorTest extends BaseTraversalTest {
+
+	@Test
+	public void testDepthFirstReturnsMaximalPaths() {
+		List<String> paths = traverse(true, 0, "a");
+		Assert.assertEquals(3, paths.size());
+		Assert.assertEquals(new HashSet<String>(Arrays.asList("a/b/d", "a/b/e", "a/c")), new HashSet<String>(paths));
+	}
+
+	@Test
+	public void testBreadthFirstReturnsMaximalPaths() {
+		List<String> paths = traverse(false, 0, "a");
+		Assert.assertEquals(3, paths.size());
+		Assert.assertEquals(new HashSet<String>(Arrays.asList("a/b/d", "a/b/e", "a/c")), new HashSet<String>(paths));
+	}
+
+	@Test
+	public void testLeavesAtDepthCap() {
+		List<String> expected = Arrays.asList("a/b", "a/c");
+		List<String> depthFirst = traverse(true, 1, "a");
+		List<String> breadthFirst = traverse(false, 1, "a");
+		Collections.sort(depthFirst);
+		Collections.sort(breadthFirst);
+		Assert.assertEquals(expected, depthFirst);
+		Assert.assertEquals(expected, breadthFirst);
+	}
+
+	@Test
+	public void testStartNodeWithoutRelations() {
+		Assert.assertEquals(Arrays.asList("g"), traverse(true, 0, "g"));
+		Assert.assertEquals(Arrays.asList("g"), traverse(false, 0, "g"));
+	}
+
+	@Test
+	public void testMultipleStartNodes() {
+		List<String> paths = traverse(false, 0, "a", "g");
+		Assert.assertEquals(new HashSet<String>(Arrays.asList("a/b/d", "a/b/e", "a/c", "g")),
+				new HashSet<String>(paths));
+		Assert.assertEquals(4, paths.size());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNextWithoutPaths() {
+		Iterator<Path> iterator = new MaximalPathIterator(Collections.<Path>emptyIterator(), true);
+		Assert.assertFalse(iterator.hasNext());
+		iterator.next();
+	}
+
+	private List<String> traverse(boolean depthFirst, int toDepth, String... startIds) {
+		try (Transaction tx = db.beginTx()) {
+			TraversalDescription td = db.traversalDescription().relationships(HAS_MEMBER, Direction.OUTGOING)
+					.uniqueness(Uniqueness.NODE_PATH);
+			td = depthFirst ? td.depthFirst() : td.breadthFirst();
+			if (toDepth > 0)
+				td = td.evaluator(Evaluators.toDepth(toDepth));
+			List<org.neo4j.graphdb.Node> startNodes = new ArrayList<org.neo4j.graphdb.Node>();
+			for (String id : startIds)
+				startNodes.add(findNode(id));
+			Iterator<Path> iterator = new MaximalPathIterator(
+					td.traverse(startNodes.toArray(new org.neo4j.graphdb.Node[0])).iterator(), depthFirst);
+			List<String> paths = new ArrayList<String>();
+			while (iterator.hasNext())
+				paths.add(toString(iterator.next()));
+			tx.success();
+			return paths;
+		}
+	}
+}
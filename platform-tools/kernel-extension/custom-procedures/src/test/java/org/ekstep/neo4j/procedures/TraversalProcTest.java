@@ -0,0 +1,81 @@
+package org.ekstep.neo4j.procedures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphdb.Result;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+public class TraversalProcTest extends BaseTraversalTest {
+
+	private static final String TRAVERSE_STREAM = "CALL ekstep.procs.traverse.stream({graphId}, {startNodeIds}, "
+			+ "{traversal}, 0, 0, [], [], ['NODE_PATH'], [], {relationMap}, {}, {maxResults}, {maxDepth}) "
+			+ "YIELD endNode RETURN endNode.IL_UNIQUE_ID AS id";
+
+	@BeforeClass
+	public static void registerProcedures() throws Exception {
+		((GraphDatabaseAPI) db).getDependencyResolver().resolveDependency(Procedures.class)
+				.register(TraversalProc.class);
+	}
+
+	@Test
+	public void testDepthFirstStream() {
+		Assert.assertEquals(Arrays.asList("c", "d", "e"),
+				sorted(traverse(TraversalProc.DEPTH_FIRST_TRAVERSAL, 0, 0)));
+	}
+
+	@Test
+	public void testBreadthFirstStream() {
+		Assert.assertEquals(Arrays.asList("c", "d", "e"),
+				sorted(traverse(TraversalProc.BREADTH_FIRST_TRAVERSAL, 0, 0)));
+	}
+
+	@Test
+	public void testMaxDepth() {
+		Assert.assertEquals(Arrays.asList("b", "c"), sorted(traverse(TraversalProc.DEPTH_FIRST_TRAVERSAL, 0, 1)));
+		Assert.assertEquals(Arrays.asList("b", "c"),
+				sorted(traverse(TraversalProc.BREADTH_FIRST_TRAVERSAL, 0, 1)));
+	}
+
+	@Test
+	public void testMaxResults() {
+		Assert.assertEquals(2, traverse(TraversalProc.DEPTH_FIRST_TRAVERSAL, 2, 0).size());
+		Assert.assertEquals(1, traverse(TraversalProc.BREADTH_FIRST_TRAVERSAL, 1, 0).size());
+	}
+
+	@Test
+	public void testMaxResultsAndMaxDepth() {
+		List<String> ids = traverse(TraversalProc.BREADTH_FIRST_TRAVERSAL, 1, 1);
+		Assert.assertEquals(1, ids.size());
+		Assert.assertTrue(Arrays.asList("b", "c").contains(ids.get(0)));
+	}
+
+	private List<String> traverse(long traversal, long maxResults, long maxDepth) {
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("graphId", GRAPH_ID);
+		params.put("startNodeIds", Arrays.asList("a"));
+		params.put("traversal", traversal);
+		params.put("relationMap", Collections.singletonMap(HAS_MEMBER.name(), "OUTGOING"));
+		params.put("maxResults", maxResults);
+		params.put("maxDepth", maxDepth);
+		List<String> ids = new ArrayList<String>();
+		try (Result result = db.execute(TRAVERSE_STREAM, params)) {
+			while (result.hasNext())
+				ids.add((String) result.next().get("id"));
+		}
+		return ids;
+	}
+
+	private static List<String> sorted(List<String> ids) {
+		Collections.sort(ids);
+		return ids;
+	}
+}
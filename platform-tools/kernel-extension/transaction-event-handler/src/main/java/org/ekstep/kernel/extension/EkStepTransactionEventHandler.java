@@ -1,13 +1,20 @@
 package org.ekstep.kernel.extension;
 
+import java.util.List;
+import java.util.Map;
+
 import org.ekstep.telemetry.logger.TelemetryManager;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.event.TransactionData;
 import org.neo4j.graphdb.event.TransactionEventHandler;
 
 
-@SuppressWarnings("rawtypes")
-public class EkStepTransactionEventHandler implements TransactionEventHandler {
+/**
+ * Builds the graph events of a transaction before it is committed and
+ * publishes them once it is committed, so the events of a rolled back
+ * transaction are never pushed.
+ */
+public class EkStepTransactionEventHandler implements TransactionEventHandler<List<Map<String, Object>>> {
 
 	public static GraphDatabaseService db;
 
@@ -16,24 +23,19 @@ public class EkStepTransactionEventHandler implements TransactionEventHandler {
 	}
 
 	@Override
-	public Void beforeCommit(TransactionData transactionData) throws Exception {
-		try {
-			ProcessTransactionData processTransactionData = new ProcessTransactionData(
-					"domain", db);
-			processTransactionData.processTxnData(transactionData);
-		} catch (Exception e) {
-			throw e;
-		}
-		return null;
+	public List<Map<String, Object>> beforeCommit(TransactionData transactionData) throws Exception {
+		ProcessTransactionData processTransactionData = new ProcessTransactionData(
+				"domain", db);
+		return processTransactionData.processTxnData(transactionData);
 	}
 
 	@Override
-	public void afterCommit(TransactionData transactionData, Object o) {
-		TelemetryManager.log("After Commit Executed.");
+	public void afterCommit(TransactionData transactionData, List<Map<String, Object>> messages) {
+		GraphEventPublisher.publish(messages);
 	}
 
 	@Override
-	public void afterRollback(TransactionData transactionData, Object o) {
+	public void afterRollback(TransactionData transactionData, List<Map<String, Object>> messages) {
 		TelemetryManager.log("After Rollback Executed.");
 	}
 }
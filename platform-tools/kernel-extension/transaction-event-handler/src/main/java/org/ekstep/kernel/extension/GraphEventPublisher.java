@@ -0,0 +1,80 @@
+package org.ekstep.kernel.extension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.ekstep.common.Platform;
+import org.ekstep.telemetry.logger.TelemetryManager;
+import org.ekstep.telemetry.util.LogAsyncGraphEvent;
+
+/**
+ * Serializes and pushes the graph events of committed transactions on a single
+ * background thread. The events are built before the commit and handed over
+ * after it (see {@link EkStepTransactionEventHandler}), so the committing
+ * thread does not wait for them to be pushed.
+ *
+ * The queue is bounded: when it is full the committing thread waits for a
+ * free slot, so events are never dropped and are always pushed in commit
+ * order, which the indexer relies on to apply the old/new value changes of a
+ * node.
+ */
+public class GraphEventPublisher {
+
+	private static final int QUEUE_SIZE = Platform.config.hasPath("graph.event.queue.size")
+			? Platform.config.getInt("graph.event.queue.size")
+			: 10000;
+
+	private static ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), runnable -> {
+				Thread thread = new Thread(runnable, "graph-event-publisher");
+				thread.setDaemon(true);
+				return thread;
+			}, GraphEventPublisher::enqueue);
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(30, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+	}
+
+	private static void enqueue(Runnable task, ThreadPoolExecutor pool) {
+		if (pool.isShutdown()) {
+			// the JVM is exiting, push the events rather than losing them.
+			task.run();
+			return;
+		}
+		// waits even when interrupted, pushing the events out of order would leave the index stale.
+		boolean interrupted = false;
+		while (true) {
+			try {
+				pool.getQueue().put(task);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	public static void publish(List<Map<String, Object>> messages) {
+		if (null == messages || messages.isEmpty())
+			return;
+		executor.execute(() -> {
+			try {
+				LogAsyncGraphEvent.pushMessageToLogger(messages);
+			} catch (Exception e) {
+				TelemetryManager.error("Error pushing graph events: " + e.getMessage(), e);
+			}
+		});
+	}
+}
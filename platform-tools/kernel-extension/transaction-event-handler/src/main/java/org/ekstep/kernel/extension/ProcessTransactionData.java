@@ -3,8 +3,6 @@ package org.ekstep.kernel.extension;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -17,11 +15,11 @@ import org.ekstep.graph.dac.enums.AuditProperties;
 import org.ekstep.graph.dac.enums.GraphDACParams;
 import org.ekstep.graph.dac.enums.SystemProperties;
 import org.ekstep.telemetry.logger.TelemetryManager;
-import org.ekstep.telemetry.util.LogAsyncGraphEvent;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.event.LabelEntry;
+import org.neo4j.graphdb.event.PropertyEntry;
 import org.neo4j.graphdb.event.TransactionData;
 
 public class ProcessTransactionData {
@@ -35,15 +33,18 @@ public class ProcessTransactionData {
 		this.graphDb = graphDb;
 	}
 
-	public void processTxnData(TransactionData data) {
+	/**
+	 * Builds the graph events of the transaction. Must be called before the
+	 * commit, as the properties of the deleted nodes and relations are read
+	 * from the transaction.
+	 */
+	public List<Map<String, Object>> processTxnData(TransactionData data) {
 		try {
-			List<Map<String, Object>> kafkaMessages = getMessageObj(data);
-			if (kafkaMessages != null && !kafkaMessages.isEmpty()) {
-				LogAsyncGraphEvent.pushMessageToLogger(kafkaMessages);
-			}
+			return getMessageObj(data);
 		} catch (Exception e) {
 			TelemetryManager.error("Exception: " + e.getMessage(), e);
 		}
+		return new ArrayList<Map<String, Object>>();
 	}
 
 	private String getGraphId(Node node) {
@@ -67,26 +68,28 @@ public class ProcessTransactionData {
 	private List<Map<String, Object>> getMessageObj(TransactionData data) {
 		String userId = (String) ExecutionContext.getCurrent().getGlobalContext().get(HeaderParam.USER_ID.name());
 		String requestId = (String) ExecutionContext.getCurrent().getGlobalContext().get(HeaderParam.REQUEST_ID.name());
+		// entries of the transaction grouped by node/relation, in one pass.
+		TransactionDataIndex index = new TransactionDataIndex(data);
 		List<Map<String, Object>> messageMap = new ArrayList<Map<String, Object>>();
-		messageMap.addAll(getCretedNodeMessages(data, graphDb, userId, requestId));
-		messageMap.addAll(getUpdatedNodeMessages(data, graphDb, userId, requestId));
-		messageMap.addAll(getDeletedNodeMessages(data, graphDb, userId, requestId));
+		messageMap.addAll(getCretedNodeMessages(index, graphDb, userId, requestId));
+		messageMap.addAll(getUpdatedNodeMessages(index, graphDb, userId, requestId));
+		messageMap.addAll(getDeletedNodeMessages(data, index, graphDb, userId, requestId));
 		messageMap.addAll(getAddedTagsMessage(data, graphDb, userId, requestId));
 		messageMap.addAll(getRemovedTagsMessage(data, graphDb, userId, requestId));
-		messageMap.addAll(getRemovedRelationShipMessages(data, userId, requestId));
+		messageMap.addAll(getRemovedRelationShipMessages(data, index, userId, requestId));
 		messageMap.addAll(getAddedRelationShipMessages(data, userId, requestId));
 		return messageMap;
 	}
 
-	private List<Map<String, Object>> getCretedNodeMessages(TransactionData data, GraphDatabaseService graphDb,
+	private List<Map<String, Object>> getCretedNodeMessages(TransactionDataIndex index, GraphDatabaseService graphDb,
 			String userId, String requestId) {
 		List<Map<String, Object>> lstMessageMap = new ArrayList<Map<String, Object>>();
 		try {
-			List<Long> createdNodeIds = getCreatedNodeIds(data);
+			List<Long> createdNodeIds = index.getCreatedNodeIds();
 			for (Long nodeId : createdNodeIds) {
 				// Map<String, Object> map = new HashMap<String, Object>();
 				Map<String, Object> transactionData = new HashMap<String, Object>();
-				Map<String, Object> propertiesMap = getAssignedNodePropertyEntry(nodeId, data);
+				Map<String, Object> propertiesMap = getNodePropertyEntry(index.getAssignedNodeProperties(nodeId));
 				if (null != propertiesMap && !propertiesMap.isEmpty()) {
 					transactionData.put(GraphDACParams.properties.name(), propertiesMap);
 					Map<String, Object> map = setMessageData(graphDb, nodeId, userId, requestId,
@@ -100,16 +103,16 @@ public class ProcessTransactionData {
 		return lstMessageMap;
 	}
 
-	private List<Map<String, Object>> getUpdatedNodeMessages(TransactionData data, GraphDatabaseService graphDb,
+	private List<Map<String, Object>> getUpdatedNodeMessages(TransactionDataIndex index, GraphDatabaseService graphDb,
 			String userId, String requestId) {
 		List<Map<String, Object>> lstMessageMap = new ArrayList<Map<String, Object>>();
 		try {
-			List<Long> updatedNodeIds = getUpdatedNodeIds(data);
+			List<Long> updatedNodeIds = index.getUpdatedNodeIds();
 			for (Long nodeId : updatedNodeIds) {
 				Map<String, Object> transactionData = new HashMap<String, Object>();
-				Map<String, Object> propertiesMap = getAllPropertyEntry(nodeId, data);
+				Map<String, Object> propertiesMap = getAllPropertyEntry(nodeId, index);
 				if (null != propertiesMap && !propertiesMap.isEmpty()) {
-					String lastUpdatedBy = getLastUpdatedByValue(nodeId, data);
+					String lastUpdatedBy = getLastUpdatedByValue(index.getAssignedNodeProperties(nodeId));
 					transactionData.put(GraphDACParams.properties.name(), propertiesMap);
 					if (StringUtils.isNotBlank(lastUpdatedBy)) {
 						userId = lastUpdatedBy;
@@ -128,15 +131,16 @@ public class ProcessTransactionData {
 	}
 
 	@SuppressWarnings("rawtypes")
-	private List<Map<String, Object>> getDeletedNodeMessages(TransactionData data, GraphDatabaseService graphDb,
-			String userId, String requestId) {
+	private List<Map<String, Object>> getDeletedNodeMessages(TransactionData data, TransactionDataIndex index,
+			GraphDatabaseService graphDb, String userId, String requestId) {
 		List<Map<String, Object>> lstMessageMap = new ArrayList<Map<String, Object>>();
 		try {
-			List<Long> deletedNodeIds = getDeletedNodeIds(data);
+			List<Long> deletedNodeIds = index.getDeletedNodeIds();
+			String graphId = deletedNodeIds.isEmpty() ? null : getGraphId(data.removedLabels());
 			for (Long nodeId : deletedNodeIds) {
 				Map<String, Object> map = new HashMap<String, Object>();
 				Map<String, Object> transactionData = new HashMap<String, Object>();
-				Map<String, Object> removedNodeProp = getRemovedNodePropertyEntry(nodeId, data);
+				Map<String, Object> removedNodeProp = getNodeRemovedPropertyEntry(index.getRemovedNodeProperties(nodeId));
 				if (null != removedNodeProp && !removedNodeProp.isEmpty()) {
 					transactionData.put(GraphDACParams.properties.name(), removedNodeProp);
 					map.put(GraphDACParams.requestId.name(), requestId);
@@ -151,7 +155,7 @@ public class ProcessTransactionData {
 					map.put(GraphDACParams.userId.name(), userId);
 					map.put(GraphDACParams.operationType.name(), GraphDACParams.DELETE.name());
 					map.put(GraphDACParams.label.name(), getLabel(removedNodeProp));
-					map.put(GraphDACParams.graphId.name(), getGraphId(data.removedLabels()));
+					map.put(GraphDACParams.graphId.name(), graphId);
 					map.put(GraphDACParams.nodeGraphId.name(), nodeId);
 					map.put(GraphDACParams.createdOn.name(), DateUtils.format(new Date()));
 					map.put(GraphDACParams.ets.name(), System.currentTimeMillis());
@@ -174,47 +178,35 @@ public class ProcessTransactionData {
 		return lstMessageMap;
 	}
 
-	private Map<String, Object> getAllPropertyEntry(Long nodeId, TransactionData data) {
-		Map<String, Object> map = getAssignedNodePropertyEntry(nodeId, data);
-		map.putAll(getRemovedNodePropertyEntry(nodeId, data));
+	private Map<String, Object> getAllPropertyEntry(Long nodeId, TransactionDataIndex index) {
+		Map<String, Object> map = getNodePropertyEntry(index.getAssignedNodeProperties(nodeId));
+		map.putAll(getNodeRemovedPropertyEntry(index.getRemovedNodeProperties(nodeId)));
 		return map;
 	}
 
-	private Map<String, Object> getAssignedNodePropertyEntry(Long nodeId, TransactionData data) {
-		Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> assignedNodeProp = data.assignedNodeProperties();
-		return getNodePropertyEntry(nodeId, assignedNodeProp);
-	}
-
-	private String getLastUpdatedByValue(Long nodeId, TransactionData data) {
-		Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> assignedNodeProp = data.assignedNodeProperties();
-		for (org.neo4j.graphdb.event.PropertyEntry<Node> pe : assignedNodeProp) {
-			if (nodeId == pe.entity().getId()) {
-				if (StringUtils.equalsIgnoreCase("lastUpdatedBy", (String) pe.key())) {
-					String lastUpdatedBy = (String) pe.value();
-					return lastUpdatedBy;
-				}
+	private String getLastUpdatedByValue(List<PropertyEntry<Node>> assignedNodeProp) {
+		for (PropertyEntry<Node> pe : assignedNodeProp) {
+			if (StringUtils.equalsIgnoreCase("lastUpdatedBy", (String) pe.key())) {
+				String lastUpdatedBy = (String) pe.value();
+				return lastUpdatedBy;
 			}
 		}
 		return null;
 	}
 
-	private Map<String, Object> getRemovedNodePropertyEntry(Long nodeId, TransactionData data) {
-		Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> removedNodeProp = data.removedNodeProperties();
-		return getNodeRemovedPropertyEntry(nodeId, removedNodeProp);
-	}
-
-	private Map<String, Object> getNodePropertyEntry(Long nodeId,
-			Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> nodeProp) {
+	/**
+	 * @param nodeProp
+	 *            assigned properties of a single node.
+	 */
+	private Map<String, Object> getNodePropertyEntry(List<PropertyEntry<Node>> nodeProp) {
 		Map<String, Object> map = new HashMap<String, Object>();
-		for (org.neo4j.graphdb.event.PropertyEntry<Node> pe : nodeProp) {
-			if (nodeId == pe.entity().getId()) {
-				if (!compareValues(pe.previouslyCommitedValue(), pe.value())) {
-					Map<String, Object> valueMap = new HashMap<String, Object>();
-					valueMap.put("ov", pe.previouslyCommitedValue()); // old
-																		// value
-					valueMap.put("nv", pe.value()); // new value
-					map.put((String) pe.key(), valueMap);
-				}
+		for (PropertyEntry<Node> pe : nodeProp) {
+			if (!compareValues(pe.previouslyCommitedValue(), pe.value())) {
+				Map<String, Object> valueMap = new HashMap<String, Object>();
+				valueMap.put("ov", pe.previouslyCommitedValue()); // old
+																	// value
+				valueMap.put("nv", pe.value()); // new value
+				map.put((String) pe.key(), valueMap);
 			}
 		}
 		if (map.size() == 1 && null != map.get(AuditProperties.lastUpdatedOn.name()))
@@ -222,16 +214,17 @@ public class ProcessTransactionData {
 		return map;
 	}
 
-	private Map<String, Object> getNodeRemovedPropertyEntry(Long nodeId,
-			Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> nodeProp) {
+	/**
+	 * @param nodeProp
+	 *            removed properties of a single node.
+	 */
+	private Map<String, Object> getNodeRemovedPropertyEntry(List<PropertyEntry<Node>> nodeProp) {
 		Map<String, Object> map = new HashMap<String, Object>();
-		for (org.neo4j.graphdb.event.PropertyEntry<Node> pe : nodeProp) {
-			if (nodeId == pe.entity().getId()) {
-				Map<String, Object> valueMap = new HashMap<String, Object>();
-				valueMap.put("ov", pe.previouslyCommitedValue()); // old value
-				valueMap.put("nv", null); // new value
-				map.put((String) pe.key(), valueMap);
-			}
+		for (PropertyEntry<Node> pe : nodeProp) {
+			Map<String, Object> valueMap = new HashMap<String, Object>();
+			valueMap.put("ov", pe.previouslyCommitedValue()); // old value
+			valueMap.put("nv", null); // new value
+			map.put((String) pe.key(), valueMap);
 		}
 		if (map.size() == 1 && null != map.get(AuditProperties.lastUpdatedOn.name()))
 			map = new HashMap<String, Object>();
@@ -359,18 +352,14 @@ public class ProcessTransactionData {
 		return getRelationShipMessages(createdRelations, GraphDACParams.UPDATE.name(), false, userId, requestId, null);
 	}
 
-	private List<Map<String, Object>> getRemovedRelationShipMessages(TransactionData data, String userId,
-			String requestId) {
+	private List<Map<String, Object>> getRemovedRelationShipMessages(TransactionData data, TransactionDataIndex index,
+			String userId, String requestId) {
 		Iterable<Relationship> deletedRelations = data.deletedRelationships();
-		Iterable<org.neo4j.graphdb.event.PropertyEntry<Relationship>> removedRelationshipProp = data
-				.removedRelationshipProperties();
-		return getRelationShipMessages(deletedRelations, GraphDACParams.UPDATE.name(), true, userId, requestId,
-				removedRelationshipProp);
+		return getRelationShipMessages(deletedRelations, GraphDACParams.UPDATE.name(), true, userId, requestId, index);
 	}
 
 	private List<Map<String, Object>> getRelationShipMessages(Iterable<Relationship> relations, String operationType,
-			boolean delete, String userId, String requestId,
-			Iterable<org.neo4j.graphdb.event.PropertyEntry<Relationship>> removedRelationshipProp) {
+			boolean delete, String userId, String requestId, TransactionDataIndex index) {
 		List<Map<String, Object>> lstMessageMap = new ArrayList<Map<String, Object>>();
 		try {
 			if (null != relations) {
@@ -379,7 +368,7 @@ public class ProcessTransactionData {
 					Node endNode = rel.getEndNode();
 					Map<String, Object> relMetadata = null;
 					if (delete)
-						relMetadata = getRelationShipPropertyEntry(rel.getId(), removedRelationshipProp);
+						relMetadata = getRelationShipPropertyEntry(index.getRemovedRelationshipProperties(rel.getId()));
 					else
 						relMetadata = rel.getAllProperties();
 					String relationTypeName = rel.getType().name();
@@ -468,14 +457,11 @@ public class ProcessTransactionData {
 		return lstMessageMap;
 	}
 
-	private Map<String, Object> getRelationShipPropertyEntry(Long relId,
-			Iterable<org.neo4j.graphdb.event.PropertyEntry<Relationship>> relProp) {
+	private Map<String, Object> getRelationShipPropertyEntry(List<PropertyEntry<Relationship>> relProp) {
 		Map<String, Object> map = new HashMap<String, Object>();
-		for (org.neo4j.graphdb.event.PropertyEntry<Relationship> pe : relProp) {
-			if (relId == pe.entity().getId()) {
-				if (pe.previouslyCommitedValue() != null) {
-					map.put((String) pe.key(), pe.previouslyCommitedValue());
-				}
+		for (PropertyEntry<Relationship> pe : relProp) {
+			if (pe.previouslyCommitedValue() != null) {
+				map.put((String) pe.key(), pe.previouslyCommitedValue());
 			}
 		}
 		return map;
@@ -515,49 +501,6 @@ public class ProcessTransactionData {
 		return null;
 	}
 
-	private List<Long> getUpdatedNodeIds(TransactionData data) {
-		List<Long> lstNodeIds = new ArrayList<Long>();
-		List<Long> lstCreatedNodeIds = getCreatedNodeIds(data);
-		List<Long> lstDeletedNodeIds = getDeletedNodeIds(data);
-		Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> assignedNodeProp = data.assignedNodeProperties();
-		for (org.neo4j.graphdb.event.PropertyEntry<Node> pe : assignedNodeProp) {
-			if (!lstCreatedNodeIds.contains(pe.entity().getId()) && !lstDeletedNodeIds.contains(pe.entity().getId())) {
-				lstNodeIds.add(pe.entity().getId());
-			}
-		}
-		Iterable<org.neo4j.graphdb.event.PropertyEntry<Node>> removedNodeProp = data.removedNodeProperties();
-		for (org.neo4j.graphdb.event.PropertyEntry<Node> pe : removedNodeProp) {
-			if (!lstCreatedNodeIds.contains(pe.entity().getId()) && !lstDeletedNodeIds.contains(pe.entity().getId())) {
-				lstNodeIds.add(pe.entity().getId());
-			}
-		}
-		return new ArrayList<Long>(new HashSet<Long>(lstNodeIds));
-	}
-
-	private List<Long> getCreatedNodeIds(TransactionData data) {
-		List<Long> lstNodeIds = new ArrayList<Long>();
-		if (null != data.createdNodes()) {
-			Iterator<Node> nodes = data.createdNodes().iterator();
-			while (nodes.hasNext()) {
-				lstNodeIds.add(nodes.next().getId());
-			}
-		}
-
-		return new ArrayList<Long>(new HashSet<Long>(lstNodeIds));
-	}
-
-	private List<Long> getDeletedNodeIds(TransactionData data) {
-		List<Long> lstNodeIds = new ArrayList<Long>();
-		if (null != data.deletedNodes()) {
-			Iterator<Node> nodes = data.deletedNodes().iterator();
-			while (nodes.hasNext()) {
-				lstNodeIds.add(nodes.next().getId());
-			}
-		}
-
-		return new ArrayList<Long>(new HashSet<Long>(lstNodeIds));
-	}
-
 	private Map<String, Object> setMessageData(GraphDatabaseService graphDb, Long nodeId, String userId,
 			String requestId, String operationType, Map<String, Object> transactionData) {
 		Map<String, Object> map = new HashMap<String, Object>();
@@ -0,0 +1,98 @@
+package org.ekstep.kernel.extension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+
+/**
+ * Groups the entries of a {@link TransactionData} by entity id in a single pass
+ * over each of them, so that the messages of a node (or relation) are built
+ * from its own entries instead of rescanning all the entries of the
+ * transaction for every node.
+ */
+class TransactionDataIndex {
+
+	private Set<Long> createdNodeIds = new LinkedHashSet<Long>();
+	private Set<Long> deletedNodeIds = new LinkedHashSet<Long>();
+	private Map<Long, List<PropertyEntry<Node>>> assignedNodeProperties = new LinkedHashMap<Long, List<PropertyEntry<Node>>>();
+	private Map<Long, List<PropertyEntry<Node>>> removedNodeProperties = new LinkedHashMap<Long, List<PropertyEntry<Node>>>();
+	private Map<Long, List<PropertyEntry<Relationship>>> removedRelationshipProperties = new HashMap<Long, List<PropertyEntry<Relationship>>>();
+
+	TransactionDataIndex(TransactionData data) {
+		if (null != data.createdNodes()) {
+			for (Node node : data.createdNodes())
+				createdNodeIds.add(node.getId());
+		}
+		if (null != data.deletedNodes()) {
+			for (Node node : data.deletedNodes())
+				deletedNodeIds.add(node.getId());
+		}
+		group(data.assignedNodeProperties(), Node::getId, assignedNodeProperties);
+		group(data.removedNodeProperties(), Node::getId, removedNodeProperties);
+		group(data.removedRelationshipProperties(), Relationship::getId, removedRelationshipProperties);
+	}
+
+	private static <T extends PropertyContainer> void group(Iterable<PropertyEntry<T>> entries, ToLongFunction<T> getId,
+			Map<Long, List<PropertyEntry<T>>> index) {
+		if (null == entries)
+			return;
+		for (PropertyEntry<T> pe : entries) {
+			long id = getId.applyAsLong(pe.entity());
+			List<PropertyEntry<T>> list = index.get(id);
+			if (null == list) {
+				list = new ArrayList<PropertyEntry<T>>();
+				index.put(id, list);
+			}
+			list.add(pe);
+		}
+	}
+
+	List<Long> getCreatedNodeIds() {
+		return new ArrayList<Long>(createdNodeIds);
+	}
+
+	List<Long> getDeletedNodeIds() {
+		return new ArrayList<Long>(deletedNodeIds);
+	}
+
+	/**
+	 * Nodes with assigned or removed properties, which are neither created nor
+	 * deleted in the transaction.
+	 */
+	List<Long> getUpdatedNodeIds() {
+		Set<Long> nodeIds = new LinkedHashSet<Long>(assignedNodeProperties.keySet());
+		nodeIds.addAll(removedNodeProperties.keySet());
+		nodeIds.removeAll(createdNodeIds);
+		nodeIds.removeAll(deletedNodeIds);
+		return new ArrayList<Long>(nodeIds);
+	}
+
+	List<PropertyEntry<Node>> getAssignedNodeProperties(Long nodeId) {
+		return get(assignedNodeProperties, nodeId);
+	}
+
+	List<PropertyEntry<Node>> getRemovedNodeProperties(Long nodeId) {
+		return get(removedNodeProperties, nodeId);
+	}
+
+	List<PropertyEntry<Relationship>> getRemovedRelationshipProperties(Long relId) {
+		return get(removedRelationshipProperties, relId);
+	}
+
+	private static <T> List<T> get(Map<Long, List<T>> index, Long id) {
+		List<T> list = index.get(id);
+		return null == list ? Collections.<T>emptyList() : list;
+	}
+}
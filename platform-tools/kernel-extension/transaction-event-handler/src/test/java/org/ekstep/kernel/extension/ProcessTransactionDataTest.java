@@ -0,0 +1,132 @@
+package org.ekstep.kernel.extension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+
+@SuppressWarnings("unchecked")
+public class ProcessTransactionDataTest {
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static GraphDatabaseService graphDb;
+	private static List<Map<String, Object>> messages = new ArrayList<Map<String, Object>>();
+	private static Label label = Label.label("domain");
+
+	@BeforeClass
+	public static void beforeTest() throws Exception {
+		graphDb = new GraphDatabaseFactory().newEmbeddedDatabase(folder.newFolder("graph"));
+		graphDb.registerTransactionEventHandler(new TransactionEventHandler.Adapter<Void>() {
+			@Override
+			public Void beforeCommit(TransactionData data) throws Exception {
+				messages = new ProcessTransactionData("domain", graphDb).processTxnData(data);
+				return null;
+			}
+		});
+	}
+
+	@AfterClass
+	public static void afterTest() {
+		graphDb.shutdown();
+	}
+
+	@Test
+	public void testCreateMessage() {
+		createNode("do_created", "created");
+		Assert.assertEquals(1, messages.size());
+		Map<String, Object> message = messages.get(0);
+		Assert.assertEquals("CREATE", message.get("operationType"));
+		Assert.assertEquals("do_created", message.get("nodeUniqueId"));
+		Assert.assertEquals("DATA_NODE", message.get("nodeType"));
+		Assert.assertEquals("created", getPropertyChange(message, "name").get("nv"));
+	}
+
+	@Test
+	public void testUpdateMessage() {
+		long nodeId = createNode("do_updated", "old");
+		try (Transaction tx = graphDb.beginTx()) {
+			graphDb.getNodeById(nodeId).setProperty("name", "new");
+			tx.success();
+		}
+		Assert.assertEquals(1, messages.size());
+		Map<String, Object> message = messages.get(0);
+		Assert.assertEquals("UPDATE", message.get("operationType"));
+		Map<String, Object> change = getPropertyChange(message, "name");
+		Assert.assertEquals("old", change.get("ov"));
+		Assert.assertEquals("new", change.get("nv"));
+	}
+
+	@Test
+	public void testRelationMessages() {
+		long startId = createNode("do_parent", "parent");
+		long endId = createNode("do_child", "child");
+		long relId;
+		try (Transaction tx = graphDb.beginTx()) {
+			Relationship rel = graphDb.getNodeById(startId).createRelationshipTo(graphDb.getNodeById(endId),
+					RelationshipType.withName("hasSequenceMember"));
+			rel.setProperty("IL_SEQUENCE_INDEX", 1);
+			relId = rel.getId();
+			tx.success();
+		}
+		Assert.assertEquals(2, messages.size());
+		Map<String, Object> out = getRelation(messages.get(0), "addedRelations");
+		Assert.assertEquals("do_child", out.get("id"));
+		Assert.assertEquals("OUT", out.get("dir"));
+		Assert.assertEquals(Collections.singletonMap("IL_SEQUENCE_INDEX", 1), out.get("relMetadata"));
+		Map<String, Object> in = getRelation(messages.get(1), "addedRelations");
+		Assert.assertEquals("do_parent", in.get("id"));
+		Assert.assertEquals("IN", in.get("dir"));
+
+		try (Transaction tx = graphDb.beginTx()) {
+			graphDb.getRelationshipById(relId).delete();
+			tx.success();
+		}
+		Assert.assertEquals(2, messages.size());
+		Map<String, Object> removed = getRelation(messages.get(0), "removedRelations");
+		Assert.assertEquals("do_child", removed.get("id"));
+		Assert.assertEquals("hasSequenceMember", removed.get("rel"));
+		Assert.assertEquals(Collections.singletonMap("IL_SEQUENCE_INDEX", 1), removed.get("relMetadata"));
+		Assert.assertEquals("do_parent", messages.get(0).get("nodeUniqueId"));
+	}
+
+	private long createNode(String id, String name) {
+		try (Transaction tx = graphDb.beginTx()) {
+			Node node = graphDb.createNode(label);
+			node.setProperty("IL_UNIQUE_ID", id);
+			node.setProperty("IL_SYS_NODE_TYPE", "DATA_NODE");
+			node.setProperty("name", name);
+			tx.success();
+			return node.getId();
+		}
+	}
+
+	private Map<String, Object> getPropertyChange(Map<String, Object> message, String property) {
+		Map<String, Object> transactionData = (Map<String, Object>) message.get("transactionData");
+		return (Map<String, Object>) ((Map<String, Object>) transactionData.get("properties")).get(property);
+	}
+
+	private Map<String, Object> getRelation(Map<String, Object> message, String key) {
+		Map<String, Object> transactionData = (Map<String, Object>) message.get("transactionData");
+		List<Map<String, Object>> relations = (List<Map<String, Object>>) transactionData.get(key);
+		Assert.assertEquals(1, relations.size());
+		return relations.get(0);
+	}
+}
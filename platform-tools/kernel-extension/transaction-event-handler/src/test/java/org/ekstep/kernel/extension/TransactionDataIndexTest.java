@@ -0,0 +1,184 @@
+package org.ekstep.kernel.extension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+
+public class TransactionDataIndexTest {
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static GraphDatabaseService graphDb;
+	private static TransactionDataIndex index;
+	private static Label label = Label.label("domain");
+
+	@BeforeClass
+	public static void beforeTest() throws Exception {
+		graphDb = new GraphDatabaseFactory().newEmbeddedDatabase(folder.newFolder("graph"));
+		graphDb.registerTransactionEventHandler(new TransactionEventHandler.Adapter<Void>() {
+			@Override
+			public Void beforeCommit(TransactionData data) throws Exception {
+				index = new TransactionDataIndex(data);
+				return null;
+			}
+		});
+	}
+
+	@AfterClass
+	public static void afterTest() {
+		graphDb.shutdown();
+	}
+
+	@Test
+	public void testCreatedNode() {
+		long nodeId;
+		try (Transaction tx = graphDb.beginTx()) {
+			Node node = graphDb.createNode(label);
+			node.setProperty("IL_UNIQUE_ID", "do_created");
+			node.setProperty("name", "created");
+			nodeId = node.getId();
+			tx.success();
+		}
+		Assert.assertEquals(Arrays.asList(nodeId), index.getCreatedNodeIds());
+		Assert.assertTrue(index.getUpdatedNodeIds().isEmpty());
+		Assert.assertTrue(index.getDeletedNodeIds().isEmpty());
+		Map<String, Object> values = getValues(index.getAssignedNodeProperties(nodeId));
+		Assert.assertEquals("do_created", values.get("IL_UNIQUE_ID"));
+		Assert.assertEquals("created", values.get("name"));
+	}
+
+	@Test
+	public void testPropertyChanges() {
+		long nodeId = createNode("do_updated", "name", "old", "status", "Draft");
+		try (Transaction tx = graphDb.beginTx()) {
+			Node node = graphDb.getNodeById(nodeId);
+			node.setProperty("name", "new");
+			node.removeProperty("status");
+			tx.success();
+		}
+		Assert.assertEquals(Arrays.asList(nodeId), index.getUpdatedNodeIds());
+		Assert.assertTrue(index.getCreatedNodeIds().isEmpty());
+		List<PropertyEntry<Node>> assigned = index.getAssignedNodeProperties(nodeId);
+		Assert.assertEquals(1, assigned.size());
+		Assert.assertEquals("name", assigned.get(0).key());
+		Assert.assertEquals("old", assigned.get(0).previouslyCommitedValue());
+		Assert.assertEquals("new", assigned.get(0).value());
+		List<PropertyEntry<Node>> removed = index.getRemovedNodeProperties(nodeId);
+		Assert.assertEquals(1, removed.size());
+		Assert.assertEquals("status", removed.get(0).key());
+		Assert.assertEquals("Draft", removed.get(0).previouslyCommitedValue());
+	}
+
+	@Test
+	public void testEntriesAreGroupedByNode() {
+		long firstId = createNode("do_first", "name", "first");
+		long secondId = createNode("do_second", "name", "second");
+		try (Transaction tx = graphDb.beginTx()) {
+			graphDb.getNodeById(firstId).setProperty("name", "first updated");
+			graphDb.getNodeById(secondId).setProperty("name", "second updated");
+			graphDb.getNodeById(firstId).setProperty("status", "Live");
+			tx.success();
+		}
+		Assert.assertEquals(Arrays.asList(firstId, secondId), sorted(index.getUpdatedNodeIds()));
+		Map<String, Object> first = getValues(index.getAssignedNodeProperties(firstId));
+		Assert.assertEquals(2, first.size());
+		Assert.assertEquals("first updated", first.get("name"));
+		Assert.assertEquals("Live", first.get("status"));
+		Assert.assertEquals(Collections.singletonMap("name", "second updated"),
+				getValues(index.getAssignedNodeProperties(secondId)));
+		Assert.assertTrue(index.getRemovedNodeProperties(firstId).isEmpty());
+	}
+
+	@Test
+	public void testDeletedNode() {
+		long nodeId = createNode("do_deleted", "name", "deleted");
+		try (Transaction tx = graphDb.beginTx()) {
+			graphDb.getNodeById(nodeId).delete();
+			tx.success();
+		}
+		Assert.assertEquals(Arrays.asList(nodeId), index.getDeletedNodeIds());
+		Assert.assertTrue(index.getUpdatedNodeIds().isEmpty());
+		Map<String, Object> removed = getPreviousValues(index.getRemovedNodeProperties(nodeId));
+		Assert.assertEquals("do_deleted", removed.get("IL_UNIQUE_ID"));
+		Assert.assertEquals("deleted", removed.get("name"));
+	}
+
+	@Test
+	public void testRemovedRelation() {
+		long startId = createNode("do_start", "name", "start");
+		long endId = createNode("do_end", "name", "end");
+		long relId;
+		try (Transaction tx = graphDb.beginTx()) {
+			Relationship rel = graphDb.getNodeById(startId).createRelationshipTo(graphDb.getNodeById(endId),
+					RelationshipType.withName("hasSequenceMember"));
+			rel.setProperty("IL_SEQUENCE_INDEX", 1);
+			relId = rel.getId();
+			tx.success();
+		}
+		Assert.assertTrue(index.getRemovedRelationshipProperties(relId).isEmpty());
+		Assert.assertTrue(index.getUpdatedNodeIds().isEmpty());
+
+		try (Transaction tx = graphDb.beginTx()) {
+			graphDb.getRelationshipById(relId).delete();
+			tx.success();
+		}
+		Assert.assertEquals(Collections.singletonMap("IL_SEQUENCE_INDEX", 1),
+				getPreviousValues(index.getRemovedRelationshipProperties(relId)));
+		Assert.assertTrue(index.getUpdatedNodeIds().isEmpty());
+		Assert.assertTrue(index.getDeletedNodeIds().isEmpty());
+	}
+
+	private long createNode(String id, Object... properties) {
+		try (Transaction tx = graphDb.beginTx()) {
+			Node node = graphDb.createNode(label);
+			node.setProperty("IL_UNIQUE_ID", id);
+			for (int i = 0; i < properties.length; i += 2)
+				node.setProperty((String) properties[i], properties[i + 1]);
+			tx.success();
+			return node.getId();
+		}
+	}
+
+	private static <T extends PropertyContainer> Map<String, Object> getValues(List<PropertyEntry<T>> entries) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		for (PropertyEntry<T> entry : entries)
+			values.put(entry.key(), entry.value());
+		return values;
+	}
+
+	private static <T extends PropertyContainer> Map<String, Object> getPreviousValues(
+			List<PropertyEntry<T>> entries) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		for (PropertyEntry<T> entry : entries)
+			values.put(entry.key(), entry.previouslyCommitedValue());
+		return values;
+	}
+
+	private static List<Long> sorted(List<Long> ids) {
+		List<Long> list = new ArrayList<Long>(ids);
+		Collections.sort(list);
+		return list;
+	}
+}
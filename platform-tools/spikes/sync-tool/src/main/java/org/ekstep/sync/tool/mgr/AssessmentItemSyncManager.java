@@ -19,6 +19,7 @@ import org.ekstep.graph.dac.model.Node;
 import org.ekstep.graph.model.node.DefinitionDTO;
 import org.ekstep.graph.model.node.MetadataDefinition;
 import org.ekstep.learning.util.ControllerUtil;
+import org.ekstep.sync.tool.util.GraphUtil;
 import org.springframework.stereotype.Component;
 
 @Component("assessmentItemSyncManager")
@@ -41,7 +42,7 @@ public class AssessmentItemSyncManager {
 			if (null != def) {
 				System.out.println("\nSyncing external data of " + objectType + " from neo4j to cassandta.\n");
 				
-				int start = 0;
+				Long cursor = null;
 				boolean found = true;
 				
 				
@@ -59,22 +60,21 @@ public class AssessmentItemSyncManager {
 					}else {
 						while (found) {
 							try {
-									nodes = util.getNodes(graphId, def.getObjectType(), start, batchSize);
+									nodes = util.getNodesPage(graphId, def.getObjectType(), cursor, batchSize);
 									if (CollectionUtils.isNotEmpty(nodes)) {
 										pushToCassandra(nodes, def);
 										if (delay > 0) {
 											Thread.sleep(delay);
 										}
-										start += batchSize;
+										cursor = GraphUtil.getCursor(nodes, cursor);
 									} else {
 										found = false;
 										break;
 									}
 							
 							}catch(ResourceNotFoundException e) {
-								System.out.println("error while fetching neo4j records for objectType="+objectType+", start="+start+",batchSize="+batchSize);
-								start += batchSize;
-								continue;
+								System.out.println("error while fetching neo4j records for objectType="+objectType+", cursor="+cursor+",batchSize="+batchSize);
+								break;
 							}
 						}
 					}
@@ -109,11 +109,10 @@ public class CassandraESSyncManager {
                     //Clear TextBookUnits from Cassandra Hierarchy Store
                     hierarchyStore.deleteHierarchy(collectionUnitIds);
 
-                    //Clear TextBook from Redis Cache
-                    RedisStoreUtil.delete(CACHE_PREFIX + resourceId);
-
-                    //Clear TextBookUnits from Redis Cache
-                    collectionUnitIds.forEach(id -> RedisStoreUtil.delete(CACHE_PREFIX + id));
+                    //Clear TextBook and TextBookUnits from Redis Cache
+                    List<String> cacheKeys = collectionUnitIds.stream().map(id -> CACHE_PREFIX + id).collect(Collectors.toList());
+                    cacheKeys.add(CACHE_PREFIX + resourceId);
+                    RedisStoreUtil.delete(cacheKeys.toArray(new String[cacheKeys.size()]));
 
                     //print success message
                     printMessages("success", collectionUnitIds, resourceId);
@@ -135,21 +135,20 @@ public class Neo4jESSyncManager implements ISyncManager {
 				});
 				Map<String, String> relationMap = GraphUtil.getRelationMap(objectType, definition);
 				SyncMessageGenerator.definitionMap.put(objectType, relationMap);
-				int start = 0;
+				Long cursor = null;
 				int completed =0;
 				boolean found = true;
 				while (found) {
 					List<Node> nodes = null;
 					try {
-						nodes = util.getNodes(graphId, def.getObjectType(), start, batchSize);
+						nodes = util.getNodesPage(graphId, def.getObjectType(), cursor, batchSize);
 					}catch(ResourceNotFoundException e) {
-						System.out.println("error while fetching neo4j records for objectType="+objectType+", start="+start+",batchSize="+batchSize);
-						start += batchSize;
-						continue;
+						System.out.println("error while fetching neo4j records for objectType="+objectType+", cursor="+cursor+",batchSize="+batchSize);
+						break;
 					}
 					if (CollectionUtils.isNotEmpty(nodes)) {
+						cursor = GraphUtil.getCursor(nodes, cursor);
 						filterDefinitionNodes(nodes);
-						start += batchSize;
 						Map<String, Object> messages = SyncMessageGenerator.getMessages(nodes, objectType, errors);
 						esConnector.bulkImport(messages);
 						completed += batchSize;
@@ -236,22 +235,21 @@ public class Neo4jESSyncManager implements ISyncManager {
 				});
 				Map<String, String> relationMap = GraphUtil.getRelationMap(objectType, definition);
 				SyncMessageGenerator.definitionMap.put(objectType, relationMap);
-				int start = 0;
+				Long cursor = null;
 				int current = 0;
 				boolean found = true;
 				long startTime = System.currentTimeMillis();
 				while (found) {
 					List<Node> nodes = null;
 					try {
-						nodes = util.getNodes(graphId, def.getObjectType(), start, batchSize);
+						nodes = util.getNodesPage(graphId, def.getObjectType(), cursor, batchSize);
 					}catch(ResourceNotFoundException e) {
-						System.out.println("error while fetching neo4j records for objectType="+objectType+", start="+start+",batchSize="+batchSize);
-						start += batchSize;
-						continue;
+						System.out.println("error while fetching neo4j records for objectType="+objectType+", cursor="+cursor+",batchSize="+batchSize);
+						break;
 					}
 					if (CollectionUtils.isNotEmpty(nodes)) {
+						cursor = GraphUtil.getCursor(nodes, cursor);
 						filterDefinitionNodes(nodes);
-						start += batchSize;
 						Map<String, Object> messages = SyncMessageGenerator.getMessages(nodes, objectType, errors);
 						esConnector.bulkImport(messages);
 						current += messages.size();
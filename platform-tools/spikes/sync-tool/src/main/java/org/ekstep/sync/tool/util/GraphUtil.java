@@ -35,6 +35,18 @@ public class GraphUtil {
 		return relationDefinition;
 	}
 
+	/**
+	 * Cursor of the page after the given nodes: the highest internal id of
+	 * the nodes.
+	 */
+	public static Long getCursor(List<Node> nodes, Long cursor) {
+		for (Node node : nodes) {
+			if (null == cursor || node.getId() > cursor)
+				cursor = node.getId();
+		}
+		return cursor;
+	}
+
 	public static List<String> getAllObjectTypes(List<Node> nodes) {
 		return nodes.stream().map(x -> x.getObjectType()).distinct().collect(Collectors.toList());
 	}
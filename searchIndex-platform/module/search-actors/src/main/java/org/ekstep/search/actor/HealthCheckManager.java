@@ -14,6 +14,7 @@ import org.ekstep.common.dto.ResponseParams.StatusType;
 import org.ekstep.common.exception.ResponseCode;
 import org.ekstep.compositesearch.enums.SearchOperations;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
+import org.ekstep.searchindex.processor.SearchQueryCache;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 
 import akka.actor.ActorRef;
@@ -55,6 +56,7 @@ public class HealthCheckManager extends SearchBaseActor {
 			checks.add(getResponseData(response, false, "503", e.getMessage()));
 		}
 		response.put("checks", checks);
+		response.put("cache", SearchQueryCache.getStats());
 		return response;
 	}
 
@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import akka.dispatch.OnFailure;
@@ -24,20 +25,31 @@ import org.ekstep.compositesearch.enums.CompositeSearchErrorCodes;
 import org.ekstep.compositesearch.enums.CompositeSearchParams;
 import org.ekstep.compositesearch.enums.Modes;
 import org.ekstep.compositesearch.enums.SearchOperations;
-import org.ekstep.search.router.SearchRequestRouterPool;
 import org.ekstep.searchindex.dto.SearchDTO;
 import org.ekstep.searchindex.processor.SearchProcessor;
+import org.ekstep.searchindex.processor.SearchQueryCache;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.ekstep.searchindex.util.ObjectDefinitionCache;
+import org.ekstep.searchindex.util.SearchCache;
 import org.ekstep.telemetry.logger.TelemetryManager;
 
 import akka.actor.ActorRef;
+import akka.dispatch.Futures;
+import akka.dispatch.Mapper;
 import akka.dispatch.OnSuccess;
-import scala.concurrent.Await;
+import akka.dispatch.Recover;
+import scala.concurrent.ExecutionContext;
 import scala.concurrent.Future;
 
 public class SearchManager extends SearchBaseActor {
 
+	private static SearchCache<Map<String, Object>> collectionCache = new SearchCache<Map<String, Object>>(
+			"collections", 1000, 60);
+
+	static {
+		SearchQueryCache.register(collectionCache);
+	}
+
 	private ObjectMapper mapper = new ObjectMapper();
 	@SuppressWarnings({ "unchecked" })
 	@Override
@@ -47,25 +59,28 @@ public class SearchManager extends SearchBaseActor {
 		try {
 			if (StringUtils.equalsIgnoreCase(SearchOperations.INDEX_SEARCH.name(), operation)) {
 				SearchDTO searchDTO = getSearchDTO(request);
+				ExecutionContext ec = getContext().dispatcher();
 				Future<Map<String, Object>> searchResult = processor.processSearch(searchDTO, true);
+				String mode = (String) request.getRequest().get(CompositeSearchParams.mode.name());
+				if (StringUtils.isNotBlank(mode) && StringUtils.equalsIgnoreCase("collection", mode)) {
+					searchResult = searchResult.flatMap(new Mapper<Map<String, Object>, Future<Map<String, Object>>>() {
+						public Future<Map<String, Object>> apply(Map<String, Object> lstResult) {
+							return getCollectionsResult(lstResult, processor, request, ec);
+						}
+					}, ec);
+				}
 				searchResult.onSuccess(new OnSuccess<Map<String, Object>>() {
 					public void onSuccess(Map<String, Object> lstResult) {
-						String mode = (String) request.getRequest().get(CompositeSearchParams.mode.name());
-						if (StringUtils.isNotBlank(mode) && StringUtils.equalsIgnoreCase("collection", mode)) {
-							Map<String, Object> result = getCollectionsResult(lstResult, processor, request);
-							OK(result, parent);
-						} else {
-							OK(lstResult, parent);
-						}
+						OK(lstResult, parent);
 					}
-				}, getContext().dispatcher());
+				}, ec);
 				searchResult.onFailure(new OnFailure() {
 					@Override
 					public void onFailure(Throwable failure) throws Throwable {
 						TelemetryManager.error("Error in SearchManager actor: " + failure.getMessage(), failure);
-						handleException(failure, getSender());
+						handleException(failure, parent);
 					}
-				}, getContext().dispatcher());
+				}, ec);
 
 			} else if (StringUtils.equalsIgnoreCase(SearchOperations.COUNT.name(), operation)) {
 				Map<String, Object> countResult = processor.processCount(getSearchDTO(request));
@@ -87,7 +102,7 @@ public class SearchManager extends SearchBaseActor {
 					@Override
 					public void onFailure(Throwable failure) throws Throwable {
 						TelemetryManager.error("Error in SearchManager actor: " + failure.getMessage(), failure);
-						handleException(failure, getSender());
+						handleException(failure, parent);
 					}
 				}, getContext().dispatcher());
 
@@ -652,50 +667,94 @@ private Integer getIntValue(Object num) {
 	}
 
 	/**
+	 * Looks up the collections having the contents of the search result as
+	 * children, without blocking the actor. The lookup is cached for a short
+	 * time by content ids, fields and sort order; on failure the search result
+	 * is returned without the collections.
+	 * 
 	 * @param lstResult
 	 * @param processor
 	 * @param parentRequest
+	 * @param ec
 	 * @return
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private Map<String, Object> getCollectionsResult(Map<String, Object> lstResult, SearchProcessor processor,
-			Request parentRequest) {
+	private Future<Map<String, Object>> getCollectionsResult(Map<String, Object> lstResult, SearchProcessor processor,
+			Request parentRequest, ExecutionContext ec) {
 		List<Map> contentResults = (List<Map>) lstResult.get("results");
-		if (null != contentResults && !contentResults.isEmpty()) {
-			try {
-				List<String> contentIds = new ArrayList<String>();
-				for (Map<String, Object> content : contentResults) {
-					contentIds.add((String) content.get("identifier"));
-				}
+		if (null == contentResults || contentResults.isEmpty())
+			return Futures.successful(lstResult);
+		try {
+			List<String> contentIds = new ArrayList<String>();
+			for (Map<String, Object> content : contentResults) {
+				contentIds.add((String) content.get("identifier"));
+			}
 
-				Request request = new Request();
-				Map<String, Object> filters = new HashMap<String, Object>();
-				List<String> objectTypes = new ArrayList<String>();
-				objectTypes.add("Content");
-				filters.put(CompositeSearchParams.objectType.name(), objectTypes);
-				List<String> mimeTypes = new ArrayList<String>();
-				mimeTypes.add("application/vnd.ekstep.content-collection");
-				filters.put("mimeType", mimeTypes);
-				filters.put("childNodes", contentIds);
-				request.put(CompositeSearchParams.sort_by.name(),
-						parentRequest.get(CompositeSearchParams.sort_by.name()));
-				request.put(CompositeSearchParams.fields.name(),
-						getCollectionFields(getList(parentRequest.get(CompositeSearchParams.fields.name()))));
-				request.put(CompositeSearchParams.filters.name(), filters);
-				SearchDTO searchDTO = getSearchDTO(request);
-				Map<String, Object> collectionResult = Await.result(processor.processSearch(searchDTO, true),
-						SearchRequestRouterPool.WAIT_TIMEOUT.duration());
-				collectionResult = prepareCollectionResult(collectionResult, contentIds);
-				lstResult.putAll(collectionResult);
-				return lstResult;
-			} catch (Exception e) {
-				TelemetryManager.error("Error while fetching the collection for the contents : ", e);
-				return lstResult;
+			Request request = new Request();
+			Map<String, Object> filters = new HashMap<String, Object>();
+			List<String> objectTypes = new ArrayList<String>();
+			objectTypes.add("Content");
+			filters.put(CompositeSearchParams.objectType.name(), objectTypes);
+			List<String> mimeTypes = new ArrayList<String>();
+			mimeTypes.add("application/vnd.ekstep.content-collection");
+			filters.put("mimeType", mimeTypes);
+			filters.put("childNodes", contentIds);
+			request.put(CompositeSearchParams.sort_by.name(),
+					parentRequest.get(CompositeSearchParams.sort_by.name()));
+			request.put(CompositeSearchParams.fields.name(),
+					getCollectionFields(getList(parentRequest.get(CompositeSearchParams.fields.name()))));
+			request.put(CompositeSearchParams.filters.name(), filters);
+
+			String cacheKey = getCollectionCacheKey(contentIds, request);
+			Map<String, Object> cached = collectionCache.get(cacheKey);
+			if (null != cached) {
+				lstResult.putAll(copyCollectionResult(cached));
+				return Futures.successful(lstResult);
 			}
+			SearchDTO searchDTO = getSearchDTO(request);
+			return processor.processSearch(searchDTO, true).map(new Mapper<Map<String, Object>, Map<String, Object>>() {
+				public Map<String, Object> apply(Map<String, Object> collectionResult) {
+					collectionResult = prepareCollectionResult(collectionResult, contentIds);
+					collectionCache.put(cacheKey, copyCollectionResult(collectionResult));
+					lstResult.putAll(collectionResult);
+					return lstResult;
+				}
+			}, ec).recover(new Recover<Map<String, Object>>() {
+				public Map<String, Object> recover(Throwable e) {
+					TelemetryManager.error("Error while fetching the collection for the contents : ", e);
+					return lstResult;
+				}
+			}, ec);
+		} catch (Exception e) {
+			TelemetryManager.error("Error while fetching the collection for the contents : ", e);
+			return Futures.successful(lstResult);
+		}
+	}
 
-		} else {
-			return lstResult;
+	private String getCollectionCacheKey(List<String> contentIds, Request request) throws Exception {
+		List<String> ids = new ArrayList<String>(new TreeSet<String>(contentIds));
+		Map<String, Object> key = new HashMap<String, Object>();
+		key.put("ids", ids);
+		key.put(CompositeSearchParams.fields.name(), request.get(CompositeSearchParams.fields.name()));
+		key.put(CompositeSearchParams.sort_by.name(), request.get(CompositeSearchParams.sort_by.name()));
+		return mapper.writeValueAsString(key);
+	}
+
+	/**
+	 * Copies the collection maps of a collection result, so that the cached
+	 * result is not shared with (and changed through) a response.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Map<String, Object> copyCollectionResult(Map<String, Object> collectionResult) {
+		Map<String, Object> copy = new HashMap<String, Object>(collectionResult);
+		List<Map> collections = (List<Map>) collectionResult.get("collections");
+		if (null != collections) {
+			List<Map> list = new ArrayList<Map>(collections.size());
+			for (Map collection : collections)
+				list.add(new HashMap(collection));
+			copy.put("collections", list);
 		}
+		return copy;
 	}
 
 	/**
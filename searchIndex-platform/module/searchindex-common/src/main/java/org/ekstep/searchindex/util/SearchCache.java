@@ -0,0 +1,69 @@
+package org.ekstep.searchindex.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.ekstep.common.Platform;
+import org.ekstep.graph.cache.util.InMemoryCache;
+
+/**
+ * Short lived cache of search results, backed by an {@link InMemoryCache}
+ * named <code>search_&lt;name&gt;</code>.
+ *
+ * Bounds are read from configuration using the cache name, e.g.
+ * <code>cache.search_collections.max_size</code> and
+ * <code>cache.search_collections.ttl</code> (in seconds). The keys used
+ * before, e.g. <code>search.cache.collections.max_size</code>, are still read
+ * when the new ones are not set. A non positive max size disables the cache.
+ */
+public class SearchCache<V> {
+
+	private static final String LEGACY_CONFIG_PREFIX = "search.cache.";
+	private static final String CACHE_PREFIX = "search_";
+
+	private String name;
+	private InMemoryCache<V> cache;
+
+	public SearchCache(String name, long defaultMaxSize, long defaultTtl) {
+		this.name = CACHE_PREFIX + name;
+		long maxSize = getConfig(name, "max_size", defaultMaxSize);
+		long ttl = getConfig(name, "ttl", defaultTtl);
+		if (maxSize > 0)
+			this.cache = InMemoryCache.<V>builder(this.name).maxSize(maxSize).ttl(ttl).build();
+	}
+
+	public boolean isEnabled() {
+		return null != cache;
+	}
+
+	public V get(String key) {
+		return null == cache ? null : cache.get(key);
+	}
+
+	public void put(String key, V value) {
+		if (null != cache && null != value)
+			cache.put(key, value);
+	}
+
+	public void clear() {
+		if (null != cache)
+			cache.clear();
+	}
+
+	public Map<String, Object> getStats() {
+		if (null != cache)
+			return cache.getStats();
+		Map<String, Object> map = new HashMap<>();
+		map.put("name", name);
+		map.put("enabled", false);
+		return map;
+	}
+
+	private static long getConfig(String name, String key, long defaultValue) {
+		String path = "cache." + CACHE_PREFIX + name + "." + key;
+		String legacyPath = LEGACY_CONFIG_PREFIX + name + "." + key;
+		if (Platform.config.hasPath(path))
+			return Platform.config.getLong(path);
+		return Platform.config.hasPath(legacyPath) ? Platform.config.getLong(legacyPath) : defaultValue;
+	}
+}
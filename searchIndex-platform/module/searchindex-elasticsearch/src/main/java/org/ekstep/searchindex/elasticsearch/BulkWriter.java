@@ -0,0 +1,318 @@
+package org.ekstep.searchindex.elasticsearch;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.ekstep.common.Platform;
+import org.ekstep.telemetry.logger.TelemetryManager;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.rest.RestStatus;
+
+/**
+ * Shared asynchronous writer of an index, built on a {@link BulkProcessor}.
+ *
+ * Documents are buffered and sent as bulk requests when the number of actions
+ * (<code>search.bulk.actions</code>), the size
+ * (<code>search.bulk.size_mb</code>) or the flush interval
+ * (<code>search.bulk.flush_interval</code>, in seconds) is reached. At most
+ * <code>search.bulk.concurrent_requests</code> bulk requests are in flight;
+ * adding a document blocks when the limit is reached, which pushes back on
+ * the writers.
+ *
+ * Requests and items rejected with 429 (too many requests) are retried with
+ * exponential backoff (<code>search.bulk.retry.delay</code> in milliseconds,
+ * <code>search.bulk.retry.max</code> times). The outcome of every document is
+ * reported to its {@link Callback}. Synchronous callers wait for their
+ * documents at most <code>search.bulk.write.timeout</code> seconds.
+ */
+public class BulkWriter implements Closeable {
+
+	private static final int BULK_ACTIONS = Platform.config.hasPath("search.bulk.actions")
+			? Platform.config.getInt("search.bulk.actions")
+			: (Platform.config.hasPath("search.batch.size") ? Platform.config.getInt("search.batch.size") : 1000);
+	private static final long BULK_SIZE_MB = Platform.config.hasPath("search.bulk.size_mb")
+			? Platform.config.getLong("search.bulk.size_mb")
+			: 5;
+	private static final long FLUSH_INTERVAL = Platform.config.hasPath("search.bulk.flush_interval")
+			? Platform.config.getLong("search.bulk.flush_interval")
+			: 5;
+	private static final int CONCURRENT_REQUESTS = Platform.config.hasPath("search.bulk.concurrent_requests")
+			? Platform.config.getInt("search.bulk.concurrent_requests")
+			: 2;
+	private static final long RETRY_DELAY = Platform.config.hasPath("search.bulk.retry.delay")
+			? Platform.config.getLong("search.bulk.retry.delay")
+			: 100;
+	private static final int MAX_RETRIES = Platform.config.hasPath("search.bulk.retry.max")
+			? Platform.config.getInt("search.bulk.retry.max")
+			: 5;
+	private static final long WRITE_TIMEOUT = Platform.config.hasPath("search.bulk.write.timeout")
+			? Platform.config.getLong("search.bulk.write.timeout")
+			: 120;
+
+	private static ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "es-bulk-retry");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Outcome of a document written through the writer. Called on the thread
+	 * of the client, it should not block.
+	 */
+	public interface Callback {
+
+		default void onSuccess(String id) {
+		}
+
+		void onFailure(String id, String message);
+	}
+
+	private String indexName;
+	private Supplier<RestHighLevelClient> client;
+	private BulkProcessor processor;
+	private Callback defaultCallback;
+
+	BulkWriter(String indexName, Supplier<RestHighLevelClient> client) {
+		this.indexName = indexName;
+		this.client = client;
+		this.defaultCallback = (id, message) -> TelemetryManager
+				.error("Failed to write document " + id + " to index " + indexName + ": " + message);
+		this.processor = BulkProcessor.builder((request, listener) -> send(request, listener, 0), new Listener())
+				.setBulkActions(BULK_ACTIONS).setBulkSize(new ByteSizeValue(BULK_SIZE_MB, ByteSizeUnit.MB))
+				.setFlushInterval(TimeValue.timeValueSeconds(FLUSH_INTERVAL))
+				.setConcurrentRequests(Math.max(1, CONCURRENT_REQUESTS)).build();
+	}
+
+	public String getIndexName() {
+		return indexName;
+	}
+
+	public void index(String documentType, String id, Map<String, Object> document, Callback callback) {
+		add(new IndexRequest(indexName, documentType, id).source(document), callback);
+	}
+
+	public void upsert(String documentType, String id, Map<String, Object> document, Callback callback) {
+		add(new UpdateRequest(indexName, documentType, id).doc(document)
+				.upsert(new IndexRequest(indexName, documentType, id).source(document)), callback);
+	}
+
+	public void delete(String documentType, String id, Callback callback) {
+		add(new DeleteRequest(indexName, documentType, id), callback);
+	}
+
+	/**
+	 * Adds a write request of the index. A null callback logs the failures.
+	 */
+	@SuppressWarnings("rawtypes")
+	public void add(DocWriteRequest request, Callback callback) {
+		processor.add(request, null == callback ? defaultCallback : callback);
+	}
+
+	/**
+	 * Adds the write requests, sends them without waiting for the flush
+	 * interval and returns the failure messages of the requests, keyed by
+	 * document id, once all of them are done.
+	 */
+	@SuppressWarnings("rawtypes")
+	public CompletableFuture<Map<String, String>> write(List<? extends DocWriteRequest> requests) {
+		Map<String, String> failures = new ConcurrentHashMap<String, String>();
+		CompletableFuture<Map<String, String>> future = new CompletableFuture<Map<String, String>>();
+		if (null == requests || requests.isEmpty()) {
+			future.complete(failures);
+			return future;
+		}
+		AtomicInteger pending = new AtomicInteger(requests.size());
+		Callback callback = new Callback() {
+			@Override
+			public void onSuccess(String id) {
+				done();
+			}
+
+			@Override
+			public void onFailure(String id, String message) {
+				failures.put(String.valueOf(id), String.valueOf(message));
+				done();
+			}
+
+			private void done() {
+				if (pending.decrementAndGet() == 0)
+					future.complete(failures);
+			}
+		};
+		for (DocWriteRequest request : requests)
+			add(request, callback);
+		processor.flush();
+		return future;
+	}
+
+	/**
+	 * Writes the requests like {@link #write(List)} and waits for them at most
+	 * <code>search.bulk.write.timeout</code> seconds.
+	 *
+	 * @return the failure messages of the requests, keyed by document id.
+	 */
+	@SuppressWarnings("rawtypes")
+	public Map<String, String> writeAndWait(List<? extends DocWriteRequest> requests)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return write(requests).get(WRITE_TIMEOUT, TimeUnit.SECONDS);
+	}
+
+	public void flush() {
+		processor.flush();
+	}
+
+	/**
+	 * Sends the buffered documents and waits for the requests in flight.
+	 */
+	public boolean awaitClose(long timeout, TimeUnit unit) throws InterruptedException {
+		return processor.awaitClose(timeout, unit);
+	}
+
+	@Override
+	public void close() {
+		try {
+			awaitClose(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void send(BulkRequest request, ActionListener<BulkResponse> listener, int attempt) {
+		client.get().bulkAsync(request, new ActionListener<BulkResponse>() {
+			@Override
+			public void onResponse(BulkResponse response) {
+				List<Integer> rejected = new ArrayList<Integer>();
+				if (response.hasFailures() && attempt < MAX_RETRIES) {
+					BulkItemResponse[] items = response.getItems();
+					for (int i = 0; i < items.length; i++) {
+						if (items[i].isFailed() && RestStatus.TOO_MANY_REQUESTS == items[i].status())
+							rejected.add(i);
+					}
+				}
+				if (rejected.isEmpty())
+					listener.onResponse(response);
+				else
+					retry(request, response, rejected, listener, attempt);
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				if (attempt < MAX_RETRIES && isRejected(e))
+					retryScheduler.schedule(() -> send(request, listener, attempt + 1), getDelay(attempt),
+							TimeUnit.MILLISECONDS);
+				else
+					listener.onFailure(e);
+			}
+		});
+	}
+
+	/**
+	 * Sends again the rejected items of a bulk request and merges their
+	 * responses into the response of the request.
+	 */
+	@SuppressWarnings("rawtypes")
+	private void retry(BulkRequest request, BulkResponse response, List<Integer> rejected,
+			ActionListener<BulkResponse> listener, int attempt) {
+		BulkRequest retryRequest = new BulkRequest();
+		for (Integer i : rejected)
+			retryRequest.add((DocWriteRequest) request.requests().get(i));
+		BulkItemResponse[] items = response.getItems();
+		retryScheduler.schedule(() -> send(retryRequest, new ActionListener<BulkResponse>() {
+			@Override
+			public void onResponse(BulkResponse retryResponse) {
+				BulkItemResponse[] retryItems = retryResponse.getItems();
+				for (int j = 0; j < retryItems.length; j++) {
+					int i = rejected.get(j);
+					BulkItemResponse item = retryItems[j];
+					items[i] = item.isFailed() ? new BulkItemResponse(i, item.getOpType(), item.getFailure())
+							: new BulkItemResponse(i, item.getOpType(), item.getResponse());
+				}
+				listener.onResponse(new BulkResponse(items, response.getTook().millis()));
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				listener.onFailure(e);
+			}
+		}, attempt + 1), getDelay(attempt), TimeUnit.MILLISECONDS);
+	}
+
+	private static long getDelay(int attempt) {
+		return RETRY_DELAY << Math.min(attempt, 16);
+	}
+
+	private static boolean isRejected(Exception e) {
+		if (e instanceof ElasticsearchException)
+			return RestStatus.TOO_MANY_REQUESTS == ((ElasticsearchException) e).status();
+		if (e instanceof ResponseException)
+			return 429 == ((ResponseException) e).getResponse().getStatusLine().getStatusCode();
+		return false;
+	}
+
+	private class Listener implements BulkProcessor.Listener {
+
+		@Override
+		public void beforeBulk(long executionId, BulkRequest request) {
+		}
+
+		@Override
+		public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+			BulkItemResponse[] items = response.getItems();
+			for (int i = 0; i < items.length; i++) {
+				Callback callback = getCallback(request, i);
+				try {
+					if (items[i].isFailed())
+						callback.onFailure(items[i].getId(), items[i].getFailureMessage());
+					else
+						callback.onSuccess(items[i].getId());
+				} catch (Exception e) {
+					TelemetryManager.error("Error in bulk write callback of index " + indexName + ": " + e.getMessage(), e);
+				}
+			}
+		}
+
+		@Override
+		public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+			TelemetryManager.error("Error while writing " + request.numberOfActions() + " documents to index "
+					+ indexName + ": " + failure.getMessage(), failure);
+			for (int i = 0; i < request.requests().size(); i++) {
+				try {
+					getCallback(request, i).onFailure(request.requests().get(i).id(), failure.getMessage());
+				} catch (Exception e) {
+					TelemetryManager.error("Error in bulk write callback of index " + indexName + ": " + e.getMessage(), e);
+				}
+			}
+		}
+
+		private Callback getCallback(BulkRequest request, int i) {
+			List<Object> payloads = request.payloads();
+			Object payload = (null == payloads || payloads.size() <= i) ? null : payloads.get(i);
+			return payload instanceof Callback ? (Callback) payload : defaultCallback;
+		}
+	}
+}
@@ -5,31 +5,30 @@ package org.ekstep.searchindex.elasticsearch;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHost;
 import org.apache.http.util.EntityUtils;
 import org.codehaus.jackson.JsonGenerationException;
 import org.codehaus.jackson.map.JsonMappingException;
+import org.ekstep.common.ConnectionRegistry;
 import org.ekstep.common.Platform;
 import org.ekstep.common.exception.ServerException;
 import org.ekstep.searchindex.transformer.IESResultTransformer;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.ekstep.telemetry.logger.TelemetryManager;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.get.GetRequest;
@@ -75,18 +74,17 @@ public class ElasticSearchUtil {
 
 	static {
 		System.setProperty("es.set.netty.runtime.available.processors", "false");
-		registerShutdownHook();
 	}
 
-	private static Map<String, RestHighLevelClient> esClient = new HashMap<String, RestHighLevelClient>();
+	private static ConnectionRegistry<RestHighLevelClient> esClient = ConnectionRegistry
+			.<RestHighLevelClient>builder("elasticsearch").closer(ElasticSearchUtil::closeClient)
+			.healthCheck(ElasticSearchUtil::isHealthy, 60).build();
 
 	public static int defaultResultLimit = 10000;
 	private static final int resultLimit = 100;
 	public int defaultResultOffset = 0;
-	private static int BATCH_SIZE = (Platform.config.hasPath("search.batch.size"))
-			? Platform.config.getInt("search.batch.size")
-			: 1000;
 	private static ObjectMapper mapper = new ObjectMapper();
+	private static Map<String, BulkWriter> bulkWriters = new ConcurrentHashMap<String, BulkWriter>();
 
 	public static void initialiseESClient(String indexName, String connectionInfo) {
 		if (StringUtils.isBlank(indexName))
@@ -98,7 +96,7 @@ public class ElasticSearchUtil {
 	 * 
 	 */
 	private static void createClient(String indexName, String connectionInfo) {
-		if (!esClient.containsKey(indexName)) {
+		esClient.get(indexName, key -> {
 			Map<String, Integer> hostPort = new HashMap<String, Integer>();
 			for (String info : connectionInfo.split(",")) {
 				hostPort.put(info.split(":")[0], Integer.valueOf(info.split(":")[1]));
@@ -107,17 +105,33 @@ public class ElasticSearchUtil {
 			for (String host : hostPort.keySet()) {
 				httpHosts.add(new HttpHost(host, hostPort.get(host)));
 			}
-			RestHighLevelClient client = new RestHighLevelClient(
-					RestClient.builder(httpHosts.toArray(new HttpHost[httpHosts.size()])));
-			if (null != client)
-				esClient.put(indexName, client);
-		}
+			return new RestHighLevelClient(RestClient.builder(httpHosts.toArray(new HttpHost[httpHosts.size()])));
+		});
 	}
 
 	private static RestHighLevelClient getClient(String indexName) {
 		if (StringUtils.isBlank(indexName))
 			indexName = CompositeSearchConstants.COMPOSITE_SEARCH_INDEX;
-		return esClient.get(indexName);
+		return esClient.getIfPresent(indexName);
+	}
+
+	private static boolean isHealthy(RestHighLevelClient client) {
+		try {
+			return client.ping();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static void closeClient(RestHighLevelClient client) {
+		try {
+			client.close();
+		} catch (IOException e) {
+		}
+	}
+
+	public static Map<String, Object> getStats() {
+		return esClient.getStats();
 	}
 
 	public void finalize() {
@@ -153,6 +167,19 @@ public class ElasticSearchUtil {
 
 	}
 
+	/**
+	 * Returns the total of the index and delete operations on the primary
+	 * shards of the index, which changes whenever the index is written to.
+	 */
+	@SuppressWarnings("rawtypes")
+	public static long getWriteCount(String indexName) throws IOException {
+		Response response = getClient(indexName).getLowLevelClient().performRequest("GET",
+				"/" + indexName + "/_stats/indexing");
+		Map stats = mapper.readValue(EntityUtils.toString(response.getEntity()), Map.class);
+		Map indexing = (Map) ((Map) ((Map) stats.get("_all")).get("primaries")).get("indexing");
+		return ((Number) indexing.get("index_total")).longValue() + ((Number) indexing.get("delete_total")).longValue();
+	}
+
 	public static boolean addIndex(String indexName, String documentType, String settings, String mappings)
 			throws IOException {
 		boolean response = false;
@@ -251,51 +278,67 @@ public class ElasticSearchUtil {
 		return finalResult;
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Fetches the documents with a single multi get request.
+	 *
+	 * @return source of the existing documents, keyed by document id.
+	 */
+	public static Map<String, String> getMultiDocumentAsStringById(String indexName, String documentType,
+			Collection<String> documentIds) throws IOException {
+		Map<String, String> documents = new HashMap<String, String>();
+		if (null == documentIds || documentIds.isEmpty())
+			return documents;
+		MultiGetRequest request = new MultiGetRequest();
+		documentIds.forEach(docId -> request.add(indexName, documentType, docId));
+		MultiGetResponse multiGetItemResponses = getClient(indexName).multiGet(request);
+		for (MultiGetItemResponse itemResponse : multiGetItemResponses) {
+			GetResponse response = itemResponse.getResponse();
+			if (null != response && response.isExists())
+				documents.put(response.getId(), response.getSourceAsString());
+		}
+		return documents;
+	}
+
+	/**
+	 * Returns the shared asynchronous bulk writer of the index.
+	 */
+	public static BulkWriter getBulkWriter(String indexName) {
+		String name = StringUtils.isBlank(indexName) ? CompositeSearchConstants.COMPOSITE_SEARCH_INDEX : indexName;
+		return bulkWriters.computeIfAbsent(name, key -> new BulkWriter(key, () -> getClient(key)));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public static void bulkIndexWithIndexId(String indexName, String documentType, Map<String, Object> jsonObjects)
 			throws Exception {
 		if (isIndexExists(indexName)) {
-			RestHighLevelClient client = getClient(indexName);
 			if (!jsonObjects.isEmpty()) {
-				int count = 0;
-				BulkRequest request = new BulkRequest();
+				List<DocWriteRequest> requests = new ArrayList<DocWriteRequest>();
 				for (String key : jsonObjects.keySet()) {
-					count++;
-					request.add(new IndexRequest(indexName, documentType, key)
+					requests.add(new IndexRequest(indexName, documentType, key)
 							.source((Map<String, Object>) jsonObjects.get(key)));
-					if (count % BATCH_SIZE == 0 || (count % BATCH_SIZE < BATCH_SIZE && count == jsonObjects.size())) {
-						BulkResponse bulkResponse = client.bulk(request);
-						if (bulkResponse.hasFailures()) {
-							TelemetryManager
-									.log("Failures in Elasticsearch bulkIndex : " + bulkResponse.buildFailureMessage());
-						}
-					}
 				}
+				Map<String, String> failures = getBulkWriter(indexName).writeAndWait(requests);
+				if (!failures.isEmpty())
+					TelemetryManager.log("Failures in Elasticsearch bulkIndex : " + failures);
 			}
 		} else {
 			throw new Exception("Index does not exist");
 		}
 	}
 
+	@SuppressWarnings("rawtypes")
 	public static void bulkIndexWithAutoGenerateIndexId(String indexName, String documentType,
 			List<Map<String, Object>> jsonObjects)
 			throws Exception {
 		if (isIndexExists(indexName)) {
-			RestHighLevelClient client = getClient(indexName);
 			if (!jsonObjects.isEmpty()) {
-				int count = 0;
-				BulkRequest request = new BulkRequest();
+				List<DocWriteRequest> requests = new ArrayList<DocWriteRequest>();
 				for (Map<String, Object> json : jsonObjects) {
-					count++;
-					request.add(new IndexRequest(indexName, documentType).source(json));
-					if (count % BATCH_SIZE == 0 || (count % BATCH_SIZE < BATCH_SIZE && count == jsonObjects.size())) {
-						BulkResponse bulkResponse = client.bulk(request);
-						if (bulkResponse.hasFailures()) {
-							TelemetryManager
-									.log("Failures in Elasticsearch bulkIndex : " + bulkResponse.buildFailureMessage());
-						}
-					}
+					requests.add(new IndexRequest(indexName, documentType).source(json));
 				}
+				Map<String, String> failures = getBulkWriter(indexName).writeAndWait(requests);
+				if (!failures.isEmpty())
+					TelemetryManager.log("Failures in Elasticsearch bulkIndex : " + failures);
 			}
 		} else {
 			throw new Exception("Index does not exist");
@@ -647,28 +690,11 @@ public class ElasticSearchUtil {
 		return transformer.getTransformedObject(countMap);
 	}
 
-	private static void registerShutdownHook() {
-		Runtime.getRuntime().addShutdownHook(new Thread() {
-			@Override
-			public void run() {
-				try {
-					cleanESClient();
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-			}
-		});
-	}
-
 	public static void cleanESClient() {
-		if (!esClient.isEmpty())
-			for (RestHighLevelClient client : esClient.values()) {
-				if (null != client)
-					try {
-						client.close();
-					} catch (IOException e) {
-					}
-			}
+		for (BulkWriter writer : bulkWriters.values())
+			writer.close();
+		bulkWriters.clear();
+		esClient.closeAll();
 	}
 
 	/**
@@ -679,28 +705,17 @@ public class ElasticSearchUtil {
 	 * @param identifiers
 	 * @throws Exception
 	 */
+	@SuppressWarnings("rawtypes")
 	public static void bulkDeleteDocumentById(String indexName, String documentType, List<String> identifiers) throws Exception {
 		if (isIndexExists(indexName)) {
 			if (null != identifiers && !identifiers.isEmpty()) {
-				int count = 0;
-				BulkRequest request = new BulkRequest();
+				List<DocWriteRequest> requests = new ArrayList<DocWriteRequest>();
 				for (String documentId : identifiers) {
-					count++;
-					request.add(new DeleteRequest(indexName, documentType, documentId));
-					if (count % BATCH_SIZE == 0 || (count % BATCH_SIZE < BATCH_SIZE && count == identifiers.size())) {
-						BulkResponse bulkResponse = getClient(indexName).bulk(request);
-						List<String> failedIds = Arrays.stream(bulkResponse.getItems()).filter(
-								itemResp -> !StringUtils.equals(itemResp.getResponse().getResult().getLowercase(),"deleted")
-						).map(r -> r.getResponse().getId()).collect(Collectors.toList());
-						if (CollectionUtils.isNotEmpty(failedIds))
-							TelemetryManager.log("Failed Id's While Deleting Elasticsearch Documents (Bulk Delete) : " + failedIds);
-						if (bulkResponse.hasFailures()) {
-							//TODO: Implement Retry Mechanism
-							TelemetryManager
-									.log("Error Occured While Deleting Elasticsearch Documents in Bulk : " + bulkResponse.buildFailureMessage());
-						}
-					}
+					requests.add(new DeleteRequest(indexName, documentType, documentId));
 				}
+				Map<String, String> failures = getBulkWriter(indexName).writeAndWait(requests);
+				if (!failures.isEmpty())
+					TelemetryManager.log("Error Occured While Deleting Elasticsearch Documents in Bulk : " + failures);
 			}
 		} else {
 			throw new ServerException("ERR_BULK_DELETE_ES_DATA", "ES Index Not Found With Id : " + indexName);
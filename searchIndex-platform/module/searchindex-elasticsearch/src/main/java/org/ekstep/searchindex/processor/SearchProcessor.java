@@ -1,5 +1,6 @@
 package org.ekstep.searchindex.processor;
 
+import akka.dispatch.Futures;
 import akka.dispatch.Mapper;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
@@ -8,6 +9,7 @@ import org.codehaus.jackson.type.TypeReference;
 import org.ekstep.common.Platform;
 import org.ekstep.searchindex.dto.SearchDTO;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
+import org.ekstep.searchindex.processor.SearchQueryCache.QueryPlan;
 import org.ekstep.searchindex.transformer.AggregationsResultTransformer;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.ekstep.telemetry.logger.TelemetryManager;
@@ -53,6 +55,7 @@ public class SearchProcessor {
 	public SearchProcessor() {
 		ElasticSearchUtil.initialiseESClient(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
 				Platform.config.getString("search.es_conn_info"));
+		SearchQueryCache.start();
 	}
 	
 	public SearchProcessor(String indexName) {
@@ -61,11 +64,26 @@ public class SearchProcessor {
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public Future<Map<String, Object>> processSearch(SearchDTO searchDTO, boolean includeResults)
 			throws Exception {
-		List<Map<String, Object>> groupByFinalList = new ArrayList<Map<String, Object>>();
-		SearchSourceBuilder query = processSearchQuery(searchDTO, groupByFinalList, true);
+		String planKey = SearchQueryCache.getKey(searchDTO, "search");
+		// facet and count only responses are cached for a short time.
+		String responseKey = (!includeResults || searchDTO.getLimit() == 0) ? includeResults + ":" + planKey : null;
+		if (null != responseKey) {
+			Map<String, Object> cached = SearchQueryCache.getResponse(responseKey);
+			if (null != cached)
+				return Futures.successful(cached);
+		}
+		long generation = SearchQueryCache.getGeneration();
+		QueryPlan plan = SearchQueryCache.getPlan(planKey);
+		if (null == plan) {
+			List<Map<String, Object>> groupByList = new ArrayList<Map<String, Object>>();
+			SearchSourceBuilder query = processSearchQuery(searchDTO, groupByList, true);
+			plan = new QueryPlan(query, groupByList);
+			SearchQueryCache.putPlan(planKey, plan);
+		}
+		List<Map<String, Object>> groupByFinalList = plan.getGroupByList();
 		Future<SearchResponse> searchResponse = ElasticSearchUtil.search(
 				CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
-				query);
+				plan.getQuery());
 
 		return searchResponse.map(new Mapper<SearchResponse, Map<String, Object>>() {
 			public Map<String, Object> apply(SearchResponse searchResult) {
@@ -91,19 +109,31 @@ public class SearchProcessor {
 
 				}
 				resp.put("count", (int) searchResult.getHits().getTotalHits());
+				if (null != responseKey)
+					SearchQueryCache.putResponse(responseKey, resp, generation);
 				return resp;
 			}
 		}, ExecutionContext.Implicits$.MODULE$.global());
 	}
 
 	public Map<String, Object> processCount(SearchDTO searchDTO) throws Exception {
+		String key = SearchQueryCache.getKey(searchDTO, "count");
+		Map<String, Object> cached = SearchQueryCache.getResponse(key);
+		if (null != cached)
+			return cached;
+		long generation = SearchQueryCache.getGeneration();
+		QueryPlan plan = SearchQueryCache.getPlan(key);
+		if (null == plan) {
+			SearchSourceBuilder searchSourceBuilder = processSearchQuery(searchDTO, null, false);
+			searchSourceBuilder.from(searchDTO.getOffset()).size(0);
+			plan = new QueryPlan(searchSourceBuilder, null);
+			SearchQueryCache.putPlan(key, plan);
+		}
 		Map<String, Object> response = new HashMap<String, Object>();
-		SearchSourceBuilder searchSourceBuilder = processSearchQuery(searchDTO, null, false);
-		searchSourceBuilder.from(searchDTO.getOffset()).size(0);
 		int countResult = ElasticSearchUtil.count(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX,
-				searchSourceBuilder);
+				plan.getQuery());
 		response.put("count", countResult);
-
+		SearchQueryCache.putResponse(key, response, generation);
 		return response;
 	}
 
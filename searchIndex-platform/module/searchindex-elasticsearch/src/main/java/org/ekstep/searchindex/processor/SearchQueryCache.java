@@ -0,0 +1,217 @@
+package org.ekstep.searchindex.processor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.common.Platform;
+import org.ekstep.searchindex.dto.SearchDTO;
+import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
+import org.ekstep.searchindex.util.CompositeSearchConstants;
+import org.ekstep.searchindex.util.SearchCache;
+import org.ekstep.telemetry.logger.TelemetryManager;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+/**
+ * Caches the queries built by the {@link SearchProcessor} and the responses of
+ * facet and count queries, keyed by a canonical form of the {@link SearchDTO}.
+ *
+ * Built queries do not depend on the indexed data and are only bounded by
+ * size. Responses are short lived and are also dropped when the composite
+ * search index is written to (by the composite search indexer or any other
+ * writer): the index and delete totals of the index are polled every
+ * <code>search.cache.invalidation.interval</code> seconds and a change clears
+ * the responses. A response is cached only while the polling is started
+ * (see {@link #start()}) and if no write was seen while it was being
+ * computed.
+ *
+ * The totals are those of the whole index, so any write clears all the cached
+ * responses, whichever documents or object types it touched. The response
+ * cache only helps while the index is read-mostly: under continuous indexing
+ * it is cleared on every poll and should be disabled with
+ * <code>cache.search_query_response.max_size=0</code>. Built queries are not
+ * affected by writes.
+ *
+ * Bounds are configured with <code>cache.search_query_plan.*</code> and
+ * <code>cache.search_query_response.*</code> (see {@link SearchCache}).
+ */
+public class SearchQueryCache {
+
+	private static final long INVALIDATION_INTERVAL = Platform.config
+			.hasPath("search.cache.invalidation.interval")
+					? Platform.config.getLong("search.cache.invalidation.interval")
+					: 5;
+
+	private static ObjectMapper mapper = new ObjectMapper();
+	private static SearchCache<QueryPlan> plans = new SearchCache<QueryPlan>("query_plan", 500, 0);
+	private static SearchCache<Map<String, Object>> responses = new SearchCache<Map<String, Object>>(
+			"query_response", 1000, 30);
+	private static List<SearchCache<?>> dataCaches = new CopyOnWriteArrayList<SearchCache<?>>();
+	private static AtomicLong generation = new AtomicLong();
+	private static volatile long writeCount = -1;
+	private static volatile ScheduledExecutorService poller;
+
+	static {
+		register(responses);
+	}
+
+	/**
+	 * Query built from a search request, with the facets used to read its
+	 * aggregations. Shared between requests, it must not be changed once
+	 * cached.
+	 */
+	public static class QueryPlan {
+		private SearchSourceBuilder query;
+		private List<Map<String, Object>> groupByList;
+
+		public QueryPlan(SearchSourceBuilder query, List<Map<String, Object>> groupByList) {
+			this.query = query;
+			this.groupByList = groupByList;
+		}
+
+		public SearchSourceBuilder getQuery() {
+			return query;
+		}
+
+		public List<Map<String, Object>> getGroupByList() {
+			return groupByList;
+		}
+	}
+
+	/**
+	 * Registers a cache of search results to be cleared when the index is
+	 * written to.
+	 */
+	public static void register(SearchCache<?> cache) {
+		if (cache.isEnabled())
+			dataCaches.add(cache);
+	}
+
+	/**
+	 * Starts polling the write count of the composite search index, if not
+	 * already started. Does nothing if the invalidation interval is not
+	 * positive.
+	 */
+	public static void start() {
+		start(() -> ElasticSearchUtil.getWriteCount(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX));
+	}
+
+	/**
+	 * Starts polling the given write count, if not already started.
+	 */
+	public static synchronized void start(Callable<Long> writeCounter) {
+		if (null != poller || INVALIDATION_INTERVAL <= 0)
+			return;
+		writeCount = -1;
+		poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "search-cache-invalidator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		poller.scheduleWithFixedDelay(() -> checkWrites(writeCounter), INVALIDATION_INTERVAL,
+				INVALIDATION_INTERVAL, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stops the polling and drops the cached responses, which can no longer
+	 * be invalidated.
+	 */
+	public static synchronized void stop() {
+		if (null == poller)
+			return;
+		poller.shutdownNow();
+		poller = null;
+		generation.incrementAndGet();
+		for (SearchCache<?> cache : dataCaches)
+			cache.clear();
+	}
+
+	/**
+	 * Canonical key of a search request: the properties are sorted (the
+	 * query does not depend on their order), everything else is kept in the
+	 * order of the request.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public static String getKey(SearchDTO searchDTO, String type) throws IOException {
+		List<String> properties = new ArrayList<String>();
+		if (null != searchDTO.getProperties()) {
+			for (Map property : searchDTO.getProperties())
+				properties.add(mapper.writeValueAsString(new TreeMap(property)));
+			Collections.sort(properties);
+		}
+		Map<String, Object> key = new TreeMap<String, Object>();
+		key.put("type", type);
+		key.put("properties", properties);
+		key.put("operation", searchDTO.getOperation());
+		key.put("facets", searchDTO.getFacets());
+		key.put("fields", searchDTO.getFields());
+		key.put("sortBy", searchDTO.getSortBy());
+		key.put("limit", searchDTO.getLimit());
+		key.put("offset", searchDTO.getOffset());
+		key.put("fuzzy", searchDTO.isFuzzySearch());
+		key.put("softConstraints", searchDTO.getSoftConstraints());
+		key.put("aggregations", searchDTO.getAggregations());
+		key.put("additionalProperties", searchDTO.getAdditionalProperties());
+		return mapper.writeValueAsString(key);
+	}
+
+	public static QueryPlan getPlan(String key) {
+		return plans.get(key);
+	}
+
+	public static void putPlan(String key, QueryPlan plan) {
+		plans.put(key, plan);
+	}
+
+	public static Map<String, Object> getResponse(String key) {
+		Map<String, Object> response = responses.get(key);
+		return null == response ? null : new HashMap<String, Object>(response);
+	}
+
+	/**
+	 * Caches the response if the polling is started and the index was not
+	 * written to since the given generation was read.
+	 */
+	public static void putResponse(String key, Map<String, Object> response, long fromGeneration) {
+		if (responses.isEnabled() && null != poller && fromGeneration == generation.get())
+			responses.put(key, new HashMap<String, Object>(response));
+	}
+
+	public static long getGeneration() {
+		return generation.get();
+	}
+
+	public static List<Map<String, Object>> getStats() {
+		List<Map<String, Object>> stats = new ArrayList<Map<String, Object>>();
+		stats.add(plans.getStats());
+		for (SearchCache<?> cache : dataCaches)
+			stats.add(cache.getStats());
+		return stats;
+	}
+
+	private static void checkWrites(Callable<Long> writeCounter) {
+		long count = -1;
+		try {
+			count = writeCounter.call();
+		} catch (Exception e) {
+			TelemetryManager.error("Error while reading the write count of the search index: " + e.getMessage(), e);
+		}
+		if (count < 0 || count != writeCount) {
+			generation.incrementAndGet();
+			for (SearchCache<?> cache : dataCaches)
+				cache.clear();
+		}
+		writeCount = count;
+	}
+}
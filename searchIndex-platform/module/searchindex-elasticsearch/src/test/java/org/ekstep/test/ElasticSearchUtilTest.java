@@ -10,6 +10,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -17,10 +18,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.RandomUtils;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.ekstep.searchindex.elasticsearch.BulkWriter;
 import org.ekstep.searchindex.elasticsearch.ElasticSearchUtil;
 import org.ekstep.searchindex.util.CompositeSearchConstants;
 import org.junit.Test;
@@ -76,6 +80,34 @@ public class ElasticSearchUtilTest extends BaseSearchTest {
 		assertEquals(30, resultDocs.size());
 	}
 
+	@Test
+	public void testBulkWriter() throws Exception {
+		List<String> ids = new ArrayList<String>();
+		CountDownLatch latch = new CountDownLatch(30);
+		Set<String> written = Collections.synchronizedSet(new HashSet<String>());
+		BulkWriter writer = ElasticSearchUtil.getBulkWriter(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX);
+		for (int i = 1; i <= 30; i++) {
+			Map<String, Object> content = getContentTestRecord(null, i);
+			String id = (String) content.get("identifier");
+			ids.add(id);
+			writer.index(CompositeSearchConstants.COMPOSITE_SEARCH_INDEX_TYPE, id, content, new BulkWriter.Callback() {
+				@Override
+				public void onSuccess(String id) {
+					written.add(id);
+					latch.countDown();
+				}
+
+				@Override
+				public void onFailure(String id, String message) {
+					latch.countDown();
+				}
+			});
+		}
+		writer.flush();
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		assertEquals(new HashSet<String>(ids), written);
+	}
+
 	@Test
 	public void testBulkIndexWithAutoGenId() throws Exception {
 		String id = null;
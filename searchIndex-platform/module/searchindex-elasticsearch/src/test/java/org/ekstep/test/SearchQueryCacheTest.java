@@ -0,0 +1,105 @@
+package org.ekstep.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.ekstep.searchindex.dto.SearchDTO;
+import org.ekstep.searchindex.processor.SearchQueryCache;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchQueryCacheTest {
+
+	@Before
+	public void start() {
+		// the index is not polled, its write count never changes.
+		SearchQueryCache.start(() -> 0L);
+	}
+
+	@After
+	public void stop() {
+		SearchQueryCache.stop();
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static Map property(String name, Object... values) {
+		Map<String, Object> property = new HashMap<String, Object>();
+		property.put("propertyName", name);
+		property.put("operation", "EQ");
+		property.put("values", Arrays.asList(values));
+		return property;
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static SearchDTO getSearchDTO(Map... properties) {
+		SearchDTO searchDTO = new SearchDTO(new ArrayList<Map>(Arrays.asList(properties)), "AND", 100);
+		searchDTO.setFacets(Arrays.asList("board", "medium"));
+		return searchDTO;
+	}
+
+	@Test
+	public void testKeyIgnoresPropertyOrder() throws Exception {
+		String key = SearchQueryCache.getKey(getSearchDTO(property("board", "CBSE"), property("medium", "English")),
+				"search");
+		Assert.assertEquals(key, SearchQueryCache
+				.getKey(getSearchDTO(property("medium", "English"), property("board", "CBSE")), "search"));
+		Assert.assertNotEquals(key, SearchQueryCache
+				.getKey(getSearchDTO(property("medium", "English"), property("board", "CBSE")), "count"));
+		Assert.assertNotEquals(key, SearchQueryCache
+				.getKey(getSearchDTO(property("board", "CBSE"), property("medium", "Hindi")), "search"));
+	}
+
+	@Test
+	public void testKeyKeepsSortOrder() throws Exception {
+		SearchDTO first = getSearchDTO(property("board", "CBSE"));
+		Map<String, String> sortBy = new LinkedHashMap<String, String>();
+		sortBy.put("name", "asc");
+		sortBy.put("lastUpdatedOn", "desc");
+		first.setSortBy(sortBy);
+		SearchDTO second = getSearchDTO(property("board", "CBSE"));
+		sortBy = new LinkedHashMap<String, String>();
+		sortBy.put("lastUpdatedOn", "desc");
+		sortBy.put("name", "asc");
+		second.setSortBy(sortBy);
+		Assert.assertNotEquals(SearchQueryCache.getKey(first, "search"), SearchQueryCache.getKey(second, "search"));
+	}
+
+	@Test
+	public void testResponseIsCopied() throws Exception {
+		String key = SearchQueryCache.getKey(getSearchDTO(property("board", "NCERT")), "count");
+		Map<String, Object> response = new HashMap<String, Object>();
+		response.put("count", 10);
+		SearchQueryCache.putResponse(key, response, SearchQueryCache.getGeneration());
+		response.put("count", 20);
+		Map<String, Object> cached = SearchQueryCache.getResponse(key);
+		Assert.assertEquals(10, cached.get("count"));
+		cached.put("facets", new ArrayList<Object>());
+		Assert.assertFalse(SearchQueryCache.getResponse(key).containsKey("facets"));
+	}
+
+	@Test
+	public void testStaleResponseNotCached() throws Exception {
+		String key = SearchQueryCache.getKey(getSearchDTO(property("board", "State")), "count");
+		Map<String, Object> count = new HashMap<String, Object>();
+		count.put("count", 5);
+		SearchQueryCache.putResponse(key, count, SearchQueryCache.getGeneration() - 1);
+		Assert.assertNull(SearchQueryCache.getResponse(key));
+	}
+
+	@Test
+	public void testResponseNotCachedWhenStopped() throws Exception {
+		String key = SearchQueryCache.getKey(getSearchDTO(property("board", "ICSE")), "count");
+		Map<String, Object> count = new HashMap<String, Object>();
+		count.put("count", 5);
+		SearchQueryCache.putResponse(key, count, SearchQueryCache.getGeneration());
+		SearchQueryCache.stop();
+		Assert.assertNull(SearchQueryCache.getResponse(key));
+		SearchQueryCache.putResponse(key, count, SearchQueryCache.getGeneration());
+		Assert.assertNull(SearchQueryCache.getResponse(key));
+	}
+}